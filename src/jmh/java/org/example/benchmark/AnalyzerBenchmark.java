@@ -0,0 +1,82 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.example.repository.EmployeeRepository;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures both analyzers on a generated organization that is loaded once per trial, through the
+ * {@link Employee} map API as well as directly on the {@link OrgSnapshot}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnalyzerBenchmark {
+
+  @Param({"FLAT", "DEEP", "BALANCED"})
+  private OrgShape shape;
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  private int size;
+
+  private Map<Integer, Employee> employees;
+  private OrgSnapshot org;
+  private SalaryAnalyzer salaryAnalyzer;
+  private ReportingLineAnalyzer lineAnalyzer;
+
+  @Setup(Level.Trial)
+  public void loadOrganization() throws IOException {
+    Path file = OrgFiles.write(shape, size);
+    try {
+      org = new EmployeeRepository(EmployeeRepository.UNLIMITED).createOrgSnapshot(
+          file.toString());
+    } finally {
+      Files.deleteIfExists(file);
+    }
+    employees = org.toEmployeesMap();
+    salaryAnalyzer = new SalaryAnalyzer();
+    lineAnalyzer = new ReportingLineAnalyzer();
+  }
+
+  @Benchmark
+  public String analyzeSalaries() {
+    return salaryAnalyzer.analyzeSalaries(employees);
+  }
+
+  @Benchmark
+  public String analyzeSalariesOnSnapshot() {
+    return salaryAnalyzer.analyzeSalaries(org);
+  }
+
+  @Benchmark
+  public String analyzeReportingLines() {
+    return lineAnalyzer.analyzeReportingLines(employees);
+  }
+
+  @Benchmark
+  public String analyzeReportingLinesOnSnapshot() {
+    return lineAnalyzer.analyzeReportingLines(org);
+  }
+}
@@ -0,0 +1,119 @@
+package org.example.benchmark;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.example.collection.IntIntHashMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the ways of finding an employee by id: the primitive {@link IntIntHashMap}, a boxed
+ * {@code HashMap<Integer, Integer>} and a binary search over the sorted ids. The {@code lookup}
+ * benchmarks report lookups per second for random ids of the organization. The {@code build}
+ * benchmarks index every id once; with the GC profiler of {@link BenchmarkMain} their
+ * {@code gc.alloc.rate.norm} divided by {@code size} is the heap used per entry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IdIndexBenchmark {
+
+  private static final int LOOKUPS = 1024;
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  private int size;
+
+  private int[] ids;
+  private int[] sortedIds;
+  private int[] probes;
+  private IntIntHashMap primitiveIndex;
+  private Map<Integer, Integer> boxedIndex;
+
+  @Setup(Level.Trial)
+  public void createIndexes() {
+    SplittableRandom random = new SplittableRandom(size);
+    // ids are unique but sparse, as in files where employees have left, and in file order
+    sortedIds = new int[size];
+    for (int i = 0; i < size; i++) {
+      sortedIds[i] = i * 3 + random.nextInt(3);
+    }
+    ids = sortedIds.clone();
+    for (int i = size - 1; i > 0; i--) {
+      int other = random.nextInt(i + 1);
+      int swap = ids[i];
+      ids[i] = ids[other];
+      ids[other] = swap;
+    }
+    probes = new int[LOOKUPS];
+    for (int i = 0; i < LOOKUPS; i++) {
+      probes[i] = ids[random.nextInt(size)];
+    }
+    primitiveIndex = buildPrimitiveIndex();
+    boxedIndex = buildBoxedIndex();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public long lookupPrimitive() {
+    long sum = 0;
+    for (int id : probes) {
+      sum += primitiveIndex.get(id, -1);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public long lookupBoxed() {
+    long sum = 0;
+    for (int id : probes) {
+      sum += boxedIndex.get(id);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(LOOKUPS)
+  public long lookupBinarySearch() {
+    long sum = 0;
+    for (int id : probes) {
+      sum += Arrays.binarySearch(sortedIds, id);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public IntIntHashMap buildPrimitiveIndex() {
+    IntIntHashMap index = new IntIntHashMap(ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      index.put(ids[i], i);
+    }
+    return index;
+  }
+
+  @Benchmark
+  public Map<Integer, Integer> buildBoxedIndex() {
+    Map<Integer, Integer> index = new HashMap<>(ids.length * 4 / 3 + 1);
+    for (int i = 0; i < ids.length; i++) {
+      index.put(ids[i], i);
+    }
+    return index;
+  }
+}
@@ -0,0 +1,52 @@
+package org.example.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+/**
+ * Writes generated organizations as employee CSV files.
+ */
+final class OrgFiles {
+
+  private static final String HEADERS = "Id,firstName,lastName,salary,managerId";
+  private static final long SEED = 42;
+
+  private OrgFiles() {
+  }
+
+  /**
+   * Writes a temporary CSV file with {@code employeeCount} employees in the given shape. Rows are
+   * written in id order with salaries drawn from a fixed seed, so every trial sees the same file.
+   * The file is deleted when the JVM exits.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  static Path write(OrgShape shape, int employeeCount) throws IOException {
+    Path file = Files.createTempFile("benchmark-" + shape.name().toLowerCase() + "-", ".csv");
+    file.toFile().deleteOnExit();
+    SplittableRandom random = new SplittableRandom(SEED);
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write(HEADERS);
+      writer.newLine();
+      for (int id = 1; id <= employeeCount; id++) {
+        writer.write(Integer.toString(id));
+        writer.write(",First");
+        writer.write(Integer.toString(id));
+        writer.write(",Last");
+        writer.write(Integer.toString(id % 1000));
+        writer.write(',');
+        writer.write(Integer.toString(random.nextInt(30_000, 150_000)));
+        writer.write(',');
+        if (id > 1) {
+          writer.write(Integer.toString(shape.managerOf(id)));
+        }
+        writer.newLine();
+      }
+    }
+    return file;
+  }
+}
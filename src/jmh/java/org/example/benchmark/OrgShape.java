@@ -0,0 +1,48 @@
+package org.example.benchmark;
+
+/**
+ * Shapes of the generated organizations the benchmarks run on. Employees get the ids 1 to n, where
+ * 1 is the CEO, and every shape assigns each other employee a manager with a smaller id.
+ */
+public enum OrgShape {
+
+  /**
+   * Everybody reports directly to the CEO: one manager with a very large team.
+   */
+  FLAT {
+    @Override
+    int managerOf(int id) {
+      return 1;
+    }
+  },
+
+  /**
+   * A single reporting chain: every employee manages exactly the next one, so the depth equals the
+   * number of employees.
+   */
+  DEEP {
+    @Override
+    int managerOf(int id) {
+      return id - 1;
+    }
+  },
+
+  /**
+   * A complete tree in which every manager has {@value #BRANCHING_FACTOR} direct reports.
+   */
+  BALANCED {
+    @Override
+    int managerOf(int id) {
+      return (id - 2) / BRANCHING_FACTOR + 1;
+    }
+  };
+
+  static final int BRANCHING_FACTOR = 8;
+
+  /**
+   * Returns the manager id of a non-CEO employee.
+   *
+   * @param id the employee id, at least 2
+   */
+  abstract int managerOf(int id);
+}
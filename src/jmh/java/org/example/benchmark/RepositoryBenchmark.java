@@ -0,0 +1,71 @@
+package org.example.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.LoadMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures reading a generated employee CSV file into linked {@link Employee} objects and into an
+ * {@link OrgSnapshot}, for every load mode. Run with {@code -prof gc} to compare how much the
+ * modes allocate per load.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+  @Param({"FLAT", "DEEP", "BALANCED"})
+  private OrgShape shape;
+
+  @Param({"1000", "100000", "1000000", "10000000"})
+  private int size;
+
+  @Param({"STREAMING", "MAPPED", "PARALLEL", "COMPACT"})
+  private LoadMode loadMode;
+
+  private Path file;
+  private EmployeeRepository repository;
+
+  @Setup(Level.Trial)
+  public void writeFile() throws IOException {
+    file = OrgFiles.write(shape, size);
+    repository = new EmployeeRepository(EmployeeRepository.UNLIMITED, loadMode);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFile() throws IOException {
+    Files.deleteIfExists(file);
+  }
+
+  @Benchmark
+  public Map<Integer, Employee> createEmployeesMap() {
+    return repository.createEmployeesMap(file.toString());
+  }
+
+  @Benchmark
+  public OrgSnapshot createOrgSnapshot() {
+    return repository.createOrgSnapshot(file.toString());
+  }
+}
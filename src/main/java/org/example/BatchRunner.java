@@ -0,0 +1,417 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.example.exception.FileReaderException;
+import org.example.model.OrgSnapshot;
+import org.example.model.Violation;
+import org.example.report.ReportBuffer;
+import org.example.report.ViolationSink;
+import org.example.repository.EmployeeRepository;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+
+/**
+ * Analyzes many CSV files in one JVM, for example all subsidiary exports of a night. Every file
+ * gets its own report file with the same content {@link EmployeeAnalyzerRunner#run(String)} prints
+ * for it, and the console shows one summary line per file plus totals.
+ * <p>
+ * Reading a file and writing its report run on a pool of I/O threads, while the analysis runs on a
+ * separate pool sized to the processors, so slow disks and busy processors do not hold each other
+ * up. The number of files in flight is bounded by the two pool sizes, which keeps at most that
+ * many organizations in memory. A file that cannot be read or analyzed is reported as failed in
+ * the summary; the other files are analyzed regardless.
+ */
+public class BatchRunner {
+
+  /**
+   * File name suffix of the report written for each CSV file.
+   */
+  public static final String REPORT_SUFFIX = ".report.txt";
+
+  private static final String GLOB_CHARACTERS = "*?[{";
+
+  private final EmployeeAnalyzerRunner runner;
+  private final EmployeeRepository repository;
+  private final Path outputDirectory;
+  private final int ioThreads;
+  private final int analysisThreads;
+
+  /**
+   * Creates a batch runner.
+   *
+   * @param outputDirectory the directory for the report files, or {@code null} to write each
+   *                        report next to its CSV file
+   * @param ioThreads       the number of threads reading files and writing reports
+   * @param analysisThreads the number of threads analyzing organizations
+   */
+  public BatchRunner(
+      EmployeeRepository repository,
+      SalaryAnalyzer salaryAnalyzer,
+      ReportingLineAnalyzer lineAnalyzer,
+      Path outputDirectory,
+      int ioThreads,
+      int analysisThreads) {
+    this.runner = new EmployeeAnalyzerRunner(repository, salaryAnalyzer, lineAnalyzer);
+    this.repository = repository;
+    this.outputDirectory = outputDirectory;
+    if (ioThreads < 1 || analysisThreads < 1) {
+      throw new IllegalArgumentException("Thread counts must be positive, but were " + ioThreads
+          + " and " + analysisThreads);
+    }
+    this.ioThreads = ioThreads;
+    this.analysisThreads = analysisThreads;
+  }
+
+  /**
+   * Analyzes all CSV files matched by a directory or glob and prints the summary.
+   *
+   * @param directoryOrGlob a directory, whose {@code .csv} files are analyzed, or a glob such as
+   *                        {@code exports/2024-*.csv}
+   * @return the outcome of every file, in the order of {@link #findInputFiles(String)}
+   * @throws FileReaderException if no file matches or some files failed, after the summary was
+   *                             printed
+   */
+  public List<FileResult> run(String directoryOrGlob) {
+    System.out.println("===== RUNNING BIG COMPANY BATCH ANALYZE =====");
+    List<Path> files;
+    try {
+      files = findInputFiles(directoryOrGlob);
+    } catch (IOException | RuntimeException e) {
+      throw new FileReaderException("Failed to list the files of " + directoryOrGlob + ": "
+          + e.getMessage());
+    }
+    if (files.isEmpty()) {
+      throw new FileReaderException("No .csv files found for " + directoryOrGlob);
+    }
+    System.out.printf("----- Analyzing %d files -----%n", files.size());
+
+    List<FileResult> results = analyzeAll(files);
+    int failed = 0;
+    long employees = 0;
+    for (FileResult result : results) {
+      System.out.println(result);
+      if (result.isSuccessful()) {
+        employees += result.getEmployeeCount();
+      } else {
+        failed++;
+      }
+    }
+    System.out.printf("----- Analyzed %d files with %d employees, %d failed -----%n",
+        results.size() - failed, employees, failed);
+    System.out.println("===== ANALYZE DONE! =====");
+
+    if (failed > 0) {
+      throw new FileReaderException(failed + " of " + results.size() + " files failed");
+    }
+    return results;
+  }
+
+  /**
+   * Analyzes the given files concurrently and writes one report per file. Reports written to the
+   * output directory mirror the paths of the files below their common parent directory, so files
+   * of the same name in different directories get separate reports.
+   *
+   * @return the outcome of every file, in the order of the given list
+   */
+  public List<FileResult> analyzeAll(List<Path> files) {
+    Path root = commonDirectory(files);
+    ExecutorService ioPool = Executors.newFixedThreadPool(ioThreads);
+    ExecutorService analysisPool = Executors.newFixedThreadPool(analysisThreads);
+    Semaphore inFlight = new Semaphore(ioThreads + analysisThreads);
+    try {
+      List<CompletableFuture<FileResult>> futures = new ArrayList<>(files.size());
+      for (Path file : files) {
+        inFlight.acquireUninterruptibly();
+        long start = System.nanoTime();
+        CompletableFuture<FileResult> future = CompletableFuture
+            .supplyAsync(() -> repository.createOrgSnapshot(file.toString()), ioPool)
+            .thenApplyAsync(org -> analyze(file, org), analysisPool)
+            .thenApplyAsync(reports -> writeReport(reports, root, start), ioPool)
+            .exceptionally(e -> FileResult.failed(file, rootCause(e)))
+            .whenComplete((result, e) -> inFlight.release());
+        futures.add(future);
+      }
+      return futures.stream().map(CompletableFuture::join).collect(Collectors.toList());
+    } finally {
+      ioPool.shutdown();
+      analysisPool.shutdown();
+    }
+  }
+
+  /**
+   * Resolves a directory to its {@code .csv} files, or a glob to the {@code .csv} files it
+   * matches, sorted by path. Other files, such as reports written by an earlier run, are skipped
+   * even if the glob or the plain path names them. The glob is matched relative to its leading path
+   * segments without wildcards, which are searched recursively; only {@code **} matches across
+   * directory boundaries.
+   *
+   * @throws IOException if a directory cannot be listed
+   */
+  public static List<Path> findInputFiles(String directoryOrGlob) throws IOException {
+    if (directoryOrGlob.chars().noneMatch(c -> GLOB_CHARACTERS.indexOf(c) >= 0)) {
+      Path path = Paths.get(directoryOrGlob);
+      if (!Files.isDirectory(path)) {
+        return isCsvFile(path) ? List.of(path) : List.of();
+      }
+      try (Stream<Path> entries = Files.list(path)) {
+        return entries
+            .filter(BatchRunner::isCsvFile)
+            .sorted()
+            .collect(Collectors.toList());
+      }
+    }
+
+    String pattern = directoryOrGlob.replace('\\', '/');
+    int wildcard = 0;
+    while (GLOB_CHARACTERS.indexOf(pattern.charAt(wildcard)) < 0) {
+      wildcard++;
+    }
+    int baseEnd = pattern.lastIndexOf('/', wildcard);
+    Path base = baseEnd < 0 ? Paths.get("") : Paths.get(pattern.substring(0, baseEnd + 1));
+    PathMatcher matcher = FileSystems.getDefault()
+        .getPathMatcher("glob:" + pattern.substring(baseEnd + 1));
+    Path searchRoot = baseEnd < 0 ? Paths.get(".") : base;
+    if (!Files.isDirectory(searchRoot)) {
+      return List.of();
+    }
+    try (Stream<Path> entries = Files.walk(searchRoot)) {
+      return entries
+          .filter(BatchRunner::isCsvFile)
+          .filter(file -> matcher.matches(searchRoot.relativize(file)))
+          .map(file -> base.resolve(searchRoot.relativize(file)))
+          .sorted()
+          .collect(Collectors.toList());
+    }
+  }
+
+  private static boolean isCsvFile(Path file) {
+    return Files.isRegularFile(file) && file.toString().endsWith(".csv");
+  }
+
+  private FileReports analyze(Path file, OrgSnapshot org) {
+    CountingBuffer salaryReport = new CountingBuffer();
+    CountingBuffer lineReport = new CountingBuffer();
+    try {
+      runner.analyze(org, salaryReport, lineReport);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the reports", e);
+    }
+    return new FileReports(file, org.size(), salaryReport, lineReport);
+  }
+
+  private FileResult writeReport(FileReports reports, Path root, long start) {
+    Path reportFile = reportFileFor(reports.file, root);
+    try {
+      if (reportFile.getParent() != null) {
+        Files.createDirectories(reportFile.getParent());
+      }
+      try (PrintStream out = new PrintStream(
+          new BufferedOutputStream(Files.newOutputStream(reportFile)), false,
+          Charset.defaultCharset())) {
+        EmployeeAnalyzerRunner.printStart(out, reports.file.toString());
+        out.printf("Found %d employees %n", reports.employeeCount);
+        EmployeeAnalyzerRunner.printReports(out, reports.salaryReport::writeTo,
+            reports.lineReport::writeTo);
+        EmployeeAnalyzerRunner.printDone(out);
+        if (out.checkError()) {
+          throw new IOException("Failed to write " + reportFile);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e.getMessage(), e);
+    }
+    return new FileResult(reports.file, reportFile, reports.employeeCount,
+        reports.salaryReport.count, reports.lineReport.count,
+        (System.nanoTime() - start) / 1_000_000, null);
+  }
+
+  private Path reportFileFor(Path file, Path root) {
+    String name = file.getFileName().toString();
+    String baseName = name.endsWith(".csv") ? name.substring(0, name.length() - 4) : name;
+    String reportName = baseName + REPORT_SUFFIX;
+    if (outputDirectory == null) {
+      return file.resolveSibling(reportName);
+    }
+    Path directory = file.toAbsolutePath().normalize().getParent();
+    if (root != null) {
+      return outputDirectory.resolve(root.relativize(directory)).resolve(reportName);
+    }
+    // no directory is shared, as with files on different drives: the whole path is mirrored below
+    // a directory named after the drive
+    Path mirrored = outputDirectory.resolve(
+        directory.getRoot().toString().replaceAll("[^\\p{Alnum}]", ""));
+    for (Path segment : directory) {
+      mirrored = mirrored.resolve(segment.toString());
+    }
+    return mirrored.resolve(reportName);
+  }
+
+  /**
+   * Returns the deepest directory that contains all the files, or {@code null} if there is none
+   * because the files are on different file system roots, such as drives.
+   */
+  private static Path commonDirectory(List<Path> files) {
+    Path common = null;
+    for (int i = 0; i < files.size(); i++) {
+      Path directory = files.get(i).toAbsolutePath().normalize().getParent();
+      if (i == 0) {
+        common = directory;
+      }
+      while (common != null && !directory.startsWith(common)) {
+        common = common.getParent();
+      }
+    }
+    return common;
+  }
+
+  private static Throwable rootCause(Throwable e) {
+    Throwable cause = e;
+    while ((cause instanceof CompletionException || cause instanceof UncheckedIOException)
+        && cause.getCause() != null) {
+      cause = cause.getCause();
+    }
+    return cause;
+  }
+
+  /**
+   * The outcome of analyzing one file.
+   */
+  public static final class FileResult {
+
+    private final Path file;
+    private final Path reportFile;
+    private final int employeeCount;
+    private final int salaryViolationCount;
+    private final int reportingLineViolationCount;
+    private final long elapsedMillis;
+    private final String error;
+
+    private FileResult(Path file, Path reportFile, int employeeCount, int salaryViolationCount,
+        int reportingLineViolationCount, long elapsedMillis, String error) {
+      this.file = Objects.requireNonNull(file);
+      this.reportFile = reportFile;
+      this.employeeCount = employeeCount;
+      this.salaryViolationCount = salaryViolationCount;
+      this.reportingLineViolationCount = reportingLineViolationCount;
+      this.elapsedMillis = elapsedMillis;
+      this.error = error;
+    }
+
+    private static FileResult failed(Path file, Throwable cause) {
+      String message = cause.getMessage() == null ? cause.getClass().getSimpleName()
+          : cause.getMessage();
+      return new FileResult(file, null, 0, 0, 0, 0, message);
+    }
+
+    public Path getFile() {
+      return file;
+    }
+
+    /**
+     * Returns the written report, or {@code null} if the file failed.
+     */
+    public Path getReportFile() {
+      return reportFile;
+    }
+
+    public int getEmployeeCount() {
+      return employeeCount;
+    }
+
+    public int getSalaryViolationCount() {
+      return salaryViolationCount;
+    }
+
+    public int getReportingLineViolationCount() {
+      return reportingLineViolationCount;
+    }
+
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    public boolean isSuccessful() {
+      return error == null;
+    }
+
+    /**
+     * Returns why the file failed, or {@code null} if it was analyzed.
+     */
+    public String getError() {
+      return error;
+    }
+
+    /**
+     * Formats the result as a summary line.
+     */
+    @Override
+    public String toString() {
+      if (!isSuccessful()) {
+        return file + "|FAILED|" + error;
+      }
+      return String.format("%s|%d employees|%d salary violations|%d reporting line violations"
+              + "|%d ms|%s", file, employeeCount, salaryViolationCount,
+          reportingLineViolationCount, elapsedMillis, reportFile);
+    }
+  }
+
+  private static final class FileReports {
+
+    private final Path file;
+    private final int employeeCount;
+    private final CountingBuffer salaryReport;
+    private final CountingBuffer lineReport;
+
+    private FileReports(Path file, int employeeCount, CountingBuffer salaryReport,
+        CountingBuffer lineReport) {
+      this.file = file;
+      this.employeeCount = employeeCount;
+      this.salaryReport = salaryReport;
+      this.lineReport = lineReport;
+    }
+  }
+
+  /**
+   * Collects a report in the console charset and counts its violations for the summary.
+   */
+  private static final class CountingBuffer implements ViolationSink {
+
+    private final ReportBuffer report = new ReportBuffer(Charset.defaultCharset());
+    private int count;
+
+    @Override
+    public void accept(Violation violation) {
+      report.accept(violation);
+      count++;
+    }
+
+    @Override
+    public void flush() {
+      report.flush();
+    }
+
+    private void writeTo(PrintStream out) throws IOException {
+      out.flush();
+      report.writeTo(out);
+    }
+  }
+}
@@ -1,32 +1,100 @@
 package org.example;
 
-import java.util.Optional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import org.example.exception.FileReaderException;
+import org.example.metrics.RunMetrics;
 import org.example.repository.EmployeeRepository;
+import org.example.repository.ReportCache;
+import org.example.server.AnalyzerServer;
 import org.example.service.ReportingLineAnalyzer;
 import org.example.service.SalaryAnalyzer;
 
 public class BigCompanyAnalyzer {
 
   public static void main(String[] args) {
-    String filePath = getValidatedFilePath(args);
+    CommandLineOptions options = CommandLineOptions.parse(args);
 
-    EmployeeRepository repository = new EmployeeRepository();
+    EmployeeRepository repository = options.createRepository();
     SalaryAnalyzer salaryAnalyzer = new SalaryAnalyzer();
     ReportingLineAnalyzer lineAnalyzer = new ReportingLineAnalyzer();
 
+    ReportCache reportCache = options.createReportCache();
+    if (options.isCacheCleared()) {
+      try {
+        reportCache.clear();
+      } catch (IOException e) {
+        throw new FileReaderException("Failed to clear the report cache: " + e.getMessage());
+      }
+    }
+
+    if (options.getBatchPattern() != null) {
+      options.createBatchRunner(repository, salaryAnalyzer, lineAnalyzer)
+          .run(options.getBatchPattern());
+      return;
+    }
+
+    if (options.getServerPort() > 0) {
+      AnalyzerServer server = new AnalyzerServer(repository, salaryAnalyzer, lineAnalyzer,
+          options.getFilePath());
+      try {
+        server.start(options.getServerAddress(),
+            2 * Runtime.getRuntime().availableProcessors());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to start the server: " + e.getMessage(), e);
+      }
+      String host = server.getAddress().getHostString();
+      System.out.printf("Serving %s on http://%s:%d/%n", options.getFilePath(),
+          host.contains(":") ? "[" + host + "]" : host, server.getAddress().getPort());
+      return;
+    }
+
+    if (options.isWatchEnabled()) {
+      try {
+        new WatchRunner(repository, options.getFilePath()).watch();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to watch the file: " + e.getMessage(), e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return;
+    }
+
+    RunMetrics metrics = options.createRunMetrics();
     EmployeeAnalyzerRunner runner = new EmployeeAnalyzerRunner(repository, salaryAnalyzer,
-        lineAnalyzer);
-    runner.run(filePath);
+        lineAnalyzer, options.isCacheUsed() ? reportCache : null, metrics);
+    if (options.getQueryFile() != null) {
+      runner.runQueries(options.getFilePath(), options.getQueryFile());
+    } else if (options.getTopLimit() > 0) {
+      runner.runTop(options.getFilePath(), options.getTopLimit());
+    } else if (options.isLenient()) {
+      runner.runLenient(options.getFilePath(), options.getErrorLimit());
+    } else if (options.getMemoryBudget() > 0) {
+      runner.runExternal(options.getFilePath(), options.getMemoryBudget());
+    } else {
+      runner.run(options.getFilePath());
+    }
+
+    if (metrics.isCollecting()) {
+      writeStats(metrics, options.getStatsFile());
+    }
   }
 
-  private static String getValidatedFilePath(String[] args) {
-    return Optional.ofNullable(args)
-        .filter(a -> a.length == 1)
-        .map(a -> a[0])
-        .filter(f -> f.endsWith(".csv"))
-        .orElseThrow(
-            () -> new FileReaderException("Error: You must pass exactly one .csv file."));
+  private static void writeStats(RunMetrics metrics, Path statsFile) {
+    if (statsFile == null) {
+      System.out.println(metrics.toJson());
+      return;
+    }
+    try {
+      Files.writeString(statsFile, metrics.toJson() + System.lineSeparator(),
+          StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new FileReaderException("Failed to write the statistics to " + statsFile + ": "
+          + e.getMessage());
+    }
   }
 
-}
\ No newline at end of file
+}
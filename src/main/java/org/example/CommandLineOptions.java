@@ -0,0 +1,436 @@
+package org.example;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.example.exception.FileReaderException;
+import org.example.metrics.RunMetrics;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.LoadMode;
+import org.example.repository.ReportCache;
+import org.example.repository.RowErrors;
+import org.example.repository.SnapshotStore;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+
+/**
+ * Command line arguments of {@link BigCompanyAnalyzer}: exactly one CSV file plus optional
+ * {@code --name=value} flags, or a {@code --batch} of files instead of the CSV file.
+ */
+public class CommandLineOptions {
+
+  private static final String OPTION_PREFIX = "--";
+  private static final int DEFAULT_SERVER_PORT = 8080;
+
+  private String filePath;
+  private int maximumEmployeeCount = 1000;
+  private LoadMode loadMode = LoadMode.STREAMING;
+  private boolean snapshotEnabled;
+  private Path snapshotDirectory;
+  private boolean cacheEnabled;
+  private boolean cacheBypassed;
+  private boolean cacheCleared;
+  private Path cacheDirectory = Paths.get(System.getProperty("java.io.tmpdir"),
+      "big-company-analyzer-cache");
+  private long cacheSize = ReportCache.DEFAULT_MAXIMUM_SIZE;
+  private int topLimit;
+  private String queryFile;
+  private String batchPattern;
+  private Path batchOutputDirectory;
+  private int serverPort = -1;
+  private String serverHost;
+  private boolean watchEnabled;
+  private boolean statsEnabled;
+  private Path statsFile;
+  private boolean lenient;
+  private int errorLimit = RowErrors.UNLIMITED;
+  private long memoryBudget;
+
+  private CommandLineOptions() {
+  }
+
+  /**
+   * Parses the program arguments. Supported flags:
+   * <ul>
+   *   <li>{@code --max-employees=<count>|unlimited} - the maximum number of employee records</li>
+   *   <li>{@code --load-mode=streaming|mapped|parallel|compact} - how the CSV file is read</li>
+   *   <li>{@code --snapshot[=<directory>]} - keep a binary snapshot of the parsed file, next to
+   *   the CSV file or in the given directory, and use it while the CSV file is unchanged</li>
+   *   <li>{@code --cache[=<directory>]} - keep the reports in a cache and print them without
+   *   analyzing while the CSV content and the configuration are unchanged</li>
+   *   <li>{@code --cache-size=<megabytes>} - the maximum size of the cache</li>
+   *   <li>{@code --no-cache} - neither read nor write the cache for this run</li>
+   *   <li>{@code --clear-cache} - delete all cached reports before the run</li>
+   *   <li>{@code --top=<count>} - print only the given number of most overpaid and most underpaid
+   *   managers and longest reporting lines, ranked, instead of the full reports</li>
+   *   <li>{@code --queries=<file>} - answer the reporting chain queries in the file instead of
+   *   printing the reports</li>
+   *   <li>{@code --batch=<directory>|<glob>} - analyze all matching CSV files concurrently, writing
+   *   one report file each, instead of a single CSV file</li>
+   *   <li>{@code --batch-output=<directory>} - where batch reports are written, by default next to
+   *   each CSV file</li>
+   *   <li>{@code --serve[=<port>]} - keep the organization in memory and serve it as JSON over
+   *   HTTP on the given port, 8080 by default</li>
+   *   <li>{@code --host=<address>} - the address the server listens on, the loopback address by
+   *   default, since the server has no authentication</li>
+   *   <li>{@code --watch} - print the reports again whenever rows are appended to the CSV file,
+   *   applying only the new rows</li>
+   *   <li>{@code --stats[=<file>]} - measure the parse, link and analysis phases and print them
+   *   as JSON after the reports, or write them to the given file</li>
+   *   <li>{@code --lenient[=<count>]} - skip invalid rows and list them, at most the given number,
+   *   instead of stopping at the first one</li>
+   *   <li>{@code --memory-budget=<megabytes>} - analyze out of core, spilling to temporary files
+   *   and keeping about the given amount of employee data in memory</li>
+   * </ul>
+   *
+   * @param args the program arguments
+   * @return the parsed options
+   * @throws FileReaderException      if not exactly one .csv file is given, or any file together
+   *                                  with {@code --batch}
+   * @throws IllegalArgumentException if a flag is unknown or has an invalid value, or if flags are
+   *                                  combined that cannot take effect together: more than one of
+   *                                  {@code --batch}, {@code --serve}, {@code --watch},
+   *                                  {@code --queries}, {@code --top}, {@code --lenient} and
+   *                                  {@code --memory-budget}, or a flag that the chosen one ignores
+   */
+  public static CommandLineOptions parse(String[] args) {
+    CommandLineOptions options = new CommandLineOptions();
+    List<String> files = new ArrayList<>();
+    for (String arg : args == null ? new String[0] : args) {
+      if (arg.startsWith(OPTION_PREFIX)) {
+        options.applyOption(arg.substring(OPTION_PREFIX.length()));
+      } else {
+        files.add(arg);
+      }
+    }
+    options.validateCombination();
+
+    if (options.batchPattern != null) {
+      if (!files.isEmpty()) {
+        throw new FileReaderException("Error: Pass either one .csv file or --batch, not both.");
+      }
+      return options;
+    }
+    if (files.size() != 1 || !files.get(0).endsWith(".csv")) {
+      throw new FileReaderException("Error: You must pass exactly one .csv file.");
+    }
+    options.filePath = files.get(0);
+    return options;
+  }
+
+  /**
+   * Creates the repository configured by these options.
+   */
+  public EmployeeRepository createRepository() {
+    SnapshotStore snapshotStore = snapshotEnabled ? new SnapshotStore(snapshotDirectory, true)
+        : null;
+    return new EmployeeRepository(maximumEmployeeCount, loadMode,
+        Runtime.getRuntime().availableProcessors(), snapshotStore);
+  }
+
+  /**
+   * Creates the report cache configured by these options.
+   *
+   * @return the cache, or {@code null} if neither {@code --cache} nor {@code --clear-cache} was
+   * given
+   */
+  public ReportCache createReportCache() {
+    return cacheEnabled || cacheCleared ? new ReportCache(cacheDirectory, cacheSize) : null;
+  }
+
+  /**
+   * Returns whether the runner should use the report cache, which requires {@code --cache} without
+   * {@code --no-cache}.
+   */
+  public boolean isCacheUsed() {
+    return cacheEnabled && !cacheBypassed;
+  }
+
+  public boolean isCacheCleared() {
+    return cacheCleared;
+  }
+
+  /**
+   * Returns the number of employees per ranking requested with {@code --top}, or 0 for the full
+   * reports.
+   */
+  public int getTopLimit() {
+    return topLimit;
+  }
+
+  /**
+   * Returns the file of reporting chain queries given with {@code --queries}, or {@code null}.
+   */
+  public String getQueryFile() {
+    return queryFile;
+  }
+
+  /**
+   * Returns the directory or glob given with {@code --batch}, or {@code null} for a single file.
+   */
+  public String getBatchPattern() {
+    return batchPattern;
+  }
+
+  /**
+   * Creates the batch runner configured by these options, with as many analysis threads as there
+   * are processors and twice as many I/O threads.
+   *
+   * @param repository     the repository, see {@link #createRepository()}
+   * @param salaryAnalyzer the salary analyzer
+   * @param lineAnalyzer   the reporting line analyzer
+   */
+  public BatchRunner createBatchRunner(EmployeeRepository repository,
+      SalaryAnalyzer salaryAnalyzer, ReportingLineAnalyzer lineAnalyzer) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    return new BatchRunner(repository, salaryAnalyzer, lineAnalyzer, batchOutputDirectory,
+        2 * processors, processors);
+  }
+
+  /**
+   * Returns the port given with {@code --serve}, or -1 if the reports are to be printed.
+   */
+  public int getServerPort() {
+    return serverPort;
+  }
+
+  /**
+   * Returns the address the server listens on: the host given with {@code --host}, or the
+   * loopback address, with the port given with {@code --serve}.
+   */
+  public InetSocketAddress getServerAddress() {
+    return serverHost == null ? new InetSocketAddress(InetAddress.getLoopbackAddress(), serverPort)
+        : new InetSocketAddress(serverHost, serverPort);
+  }
+
+  public boolean isWatchEnabled() {
+    return watchEnabled;
+  }
+
+  /**
+   * Creates the metrics for the run: collecting with {@code --stats}, otherwise
+   * {@link RunMetrics#DISABLED}.
+   */
+  public RunMetrics createRunMetrics() {
+    return statsEnabled ? RunMetrics.collecting() : RunMetrics.DISABLED;
+  }
+
+  public boolean isLenient() {
+    return lenient;
+  }
+
+  /**
+   * Returns the number of errors listed with {@code --lenient}, or {@link RowErrors#UNLIMITED}.
+   */
+  public int getErrorLimit() {
+    return errorLimit;
+  }
+
+  /**
+   * Returns the budget given with {@code --memory-budget} in bytes, or 0 to analyze in memory.
+   */
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * Returns the file given with {@code --stats}, or {@code null} to print the statistics.
+   */
+  public Path getStatsFile() {
+    return statsFile;
+  }
+
+  public String getFilePath() {
+    return filePath;
+  }
+
+  public int getMaximumEmployeeCount() {
+    return maximumEmployeeCount;
+  }
+
+  public LoadMode getLoadMode() {
+    return loadMode;
+  }
+
+  public boolean isSnapshotEnabled() {
+    return snapshotEnabled;
+  }
+
+  private void applyOption(String option) {
+    int separator = option.indexOf('=');
+    String name = separator < 0 ? option : option.substring(0, separator);
+    String value = separator < 0 ? null : option.substring(separator + 1);
+
+    switch (name) {
+      case "max-employees":
+        maximumEmployeeCount = "unlimited".equals(requireValue(name, value))
+            ? EmployeeRepository.UNLIMITED : parsePositiveInt(name, value);
+        break;
+      case "load-mode":
+        loadMode = parseLoadMode(requireValue(name, value));
+        break;
+      case "snapshot":
+        snapshotEnabled = true;
+        snapshotDirectory = value == null ? null : Paths.get(value);
+        break;
+      case "cache":
+        cacheEnabled = true;
+        if (value != null) {
+          cacheDirectory = Paths.get(requireValue(name, value));
+        }
+        break;
+      case "cache-size":
+        cacheSize = parsePositiveInt(name, value) * 1024L * 1024L;
+        break;
+      case "no-cache":
+        cacheBypassed = true;
+        break;
+      case "clear-cache":
+        cacheCleared = true;
+        break;
+      case "top":
+        topLimit = parsePositiveInt(name, value);
+        break;
+      case "queries":
+        queryFile = requireValue(name, value);
+        break;
+      case "batch":
+        batchPattern = requireValue(name, value);
+        break;
+      case "serve":
+        serverPort = value == null ? DEFAULT_SERVER_PORT : parsePort(name, value);
+        break;
+      case "host":
+        serverHost = parseHost(name, value);
+        break;
+      case "watch":
+        watchEnabled = true;
+        break;
+      case "lenient":
+        lenient = true;
+        errorLimit = value == null ? RowErrors.UNLIMITED : parsePositiveInt(name, value);
+        break;
+      case "memory-budget":
+        memoryBudget = parsePositiveInt(name, value) * 1024L * 1024L;
+        break;
+      case "stats":
+        statsEnabled = true;
+        statsFile = value == null ? null : Paths.get(requireValue(name, value));
+        break;
+      case "batch-output":
+        batchOutputDirectory = Paths.get(requireValue(name, value));
+        break;
+      default:
+        throw new IllegalArgumentException("Unknown option: " + OPTION_PREFIX + option);
+    }
+  }
+
+  /**
+   * Rejects flags that would be silently ignored: only one mode can run, the report cache is only
+   * used by the plain run, the statistics are not collected by the long-running and batch modes,
+   * and neither the lenient nor the out-of-core run reads snapshots.
+   */
+  private void validateCombination() {
+    List<String> modes = new ArrayList<>();
+    if (batchPattern != null) {
+      modes.add("batch");
+    }
+    if (serverPort > 0) {
+      modes.add("serve");
+    }
+    if (watchEnabled) {
+      modes.add("watch");
+    }
+    if (queryFile != null) {
+      modes.add("queries");
+    }
+    if (topLimit > 0) {
+      modes.add("top");
+    }
+    if (lenient) {
+      modes.add("lenient");
+    }
+    if (memoryBudget > 0) {
+      modes.add("memory-budget");
+    }
+    if (modes.size() > 1) {
+      throw incompatible(modes.get(0), modes.get(1));
+    }
+    String mode = modes.isEmpty() ? null : modes.get(0);
+
+    if (cacheEnabled && mode != null) {
+      throw incompatible("cache", mode);
+    }
+    if (statsEnabled && (batchPattern != null || serverPort > 0 || watchEnabled)) {
+      throw incompatible("stats", mode);
+    }
+    if (snapshotEnabled && (lenient || memoryBudget > 0)) {
+      throw incompatible("snapshot", mode);
+    }
+    if (loadMode != LoadMode.STREAMING && memoryBudget > 0) {
+      throw incompatible("load-mode", mode);
+    }
+    if (batchOutputDirectory != null && batchPattern == null) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + "batch-output requires " + OPTION_PREFIX + "batch");
+    }
+    if (serverHost != null && serverPort < 0) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + "host requires " + OPTION_PREFIX + "serve");
+    }
+  }
+
+  private static IllegalArgumentException incompatible(String name, String otherName) {
+    return new IllegalArgumentException("Options " + OPTION_PREFIX + name + " and "
+        + OPTION_PREFIX + otherName + " cannot be combined");
+  }
+
+  static String requireValue(String name, String value) {
+    if (value == null || value.isEmpty()) {
+      throw new IllegalArgumentException("Option " + OPTION_PREFIX + name + " requires a value");
+    }
+    return value;
+  }
+
+  static int parsePositiveInt(String name, String value) {
+    try {
+      int number = Integer.parseInt(requireValue(name, value));
+      if (number > 0) {
+        return number;
+      }
+    } catch (NumberFormatException e) {
+      // reported below
+    }
+    throw new IllegalArgumentException(
+        "Option " + OPTION_PREFIX + name + " expects a positive number, but was " + value);
+  }
+
+  private static int parsePort(String name, String value) {
+    int port = parsePositiveInt(name, value);
+    if (port > 65535) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + name + " expects a port up to 65535, but was " + value);
+    }
+    return port;
+  }
+
+  private static String parseHost(String name, String value) {
+    if (new InetSocketAddress(requireValue(name, value), 0).isUnresolved()) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + name + " expects a known host, but was " + value);
+    }
+    return value;
+  }
+
+  private static LoadMode parseLoadMode(String value) {
+    try {
+      return LoadMode.valueOf(value.toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown load mode: " + value);
+    }
+  }
+}
@@ -1,7 +1,35 @@
 package org.example;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
+import org.example.exception.FileReaderException;
+import org.example.metrics.RunMetrics;
+import org.example.model.OrgSnapshot;
+import org.example.model.Violation;
+import org.example.report.ReportBuffer;
+import org.example.report.TextReportWriter;
+import org.example.report.TopViolations;
+import org.example.report.ViolationSink;
 import org.example.repository.EmployeeRepository;
+import org.example.repository.ReportCache;
+import org.example.repository.RowErrors;
+import org.example.service.AncestryIndex;
+import org.example.service.AncestryQueries;
+import org.example.service.ExternalOrgAnalyzer;
+import org.example.service.OrgTraversal;
 import org.example.service.ReportingLineAnalyzer;
 import org.example.service.SalaryAnalyzer;
 
@@ -11,17 +39,52 @@ public class EmployeeAnalyzerRunner {
   private final EmployeeRepository repository;
   private final SalaryAnalyzer salaryAnalyzer;
   private final ReportingLineAnalyzer lineAnalyzer;
+  private final ReportCache reportCache;
+  private final RunMetrics metrics;
 
   public EmployeeAnalyzerRunner(
       EmployeeRepository repository,
       SalaryAnalyzer salaryAnalyzer,
       ReportingLineAnalyzer lineAnalyzer) {
+    this(repository, salaryAnalyzer, lineAnalyzer, null);
+  }
+
+  /**
+   * Creates a runner that keeps its reports in a cache. A run over a file whose content and
+   * analyzer configuration match a cached entry prints the cached reports without parsing or
+   * analyzing the file.
+   *
+   * @param reportCache the cache of earlier reports, or {@code null} to always analyze the file
+   */
+  public EmployeeAnalyzerRunner(
+      EmployeeRepository repository,
+      SalaryAnalyzer salaryAnalyzer,
+      ReportingLineAnalyzer lineAnalyzer,
+      ReportCache reportCache) {
+    this(repository, salaryAnalyzer, lineAnalyzer, reportCache, RunMetrics.DISABLED);
+  }
+
+  /**
+   * Creates a runner that records the phases of its runs. Both analyses share one pass over the
+   * organization, which is measured as a single analysis phase.
+   *
+   * @param reportCache the cache of earlier reports, or {@code null} to always analyze the file
+   * @param metrics     receives the parse, link and analysis phases
+   */
+  public EmployeeAnalyzerRunner(
+      EmployeeRepository repository,
+      SalaryAnalyzer salaryAnalyzer,
+      ReportingLineAnalyzer lineAnalyzer,
+      ReportCache reportCache,
+      RunMetrics metrics) {
     this.repository = Objects.requireNonNull(repository,
         "EmployeeRepository must not be null");
     this.salaryAnalyzer = Objects.requireNonNull(salaryAnalyzer,
         "SalaryAnalyzer must not be null");
     this.lineAnalyzer = Objects.requireNonNull(lineAnalyzer,
         "ReportingLineAnalyzer must not be null");
+    this.reportCache = reportCache;
+    this.metrics = Objects.requireNonNull(metrics, "RunMetrics must not be null");
   }
 
   /**
@@ -34,6 +97,9 @@ public class EmployeeAnalyzerRunner {
    * The method provides clear messages on the console about what it is currently
    * doing. If something goes wrong, such as an issue with reading the file or handling the data, it
    * will show an error message and stop the process, indicating where the problem happened.
+   * Violations are written to the console as they are found. When the runner has a report cache,
+   * they are also kept for the cache, and if the file content is unchanged since an earlier run,
+   * the cached reports are printed instead, with the same output.
    *
    * @param filePath The path to the CSV file. This should be a valid path that the program can
    *                 read.
@@ -41,20 +107,158 @@ public class EmployeeAnalyzerRunner {
    */
   public void run(String filePath) {
     try {
-      System.out.println("===== RUNNING BIG COMPANY ANALYZE =====");
+      printStart(System.out, filePath);
+      String cacheKey = cacheKeyFor(filePath);
+      ReportCache.Entry cached = cacheKey == null ? null
+          : reportCache.get(cacheKey).orElse(null);
+      if (cached != null) {
+        printReports(cached);
+      } else {
+        OrgSnapshot org = loadOrg(filePath);
+        System.out.printf("Found %d employees %n", org.size());
+        storeQuietly(cacheKey, streamReports(org, cacheKey != null));
+      }
+      printDone(System.out);
+
+    } catch (RuntimeException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the analysis like {@link #run(String)}, but prints only the worst offenders: the
+   * {@code limit} most overpaid and most underpaid managers and the {@code limit} longest reporting
+   * lines, each ranked from worst to least bad. The report cache is not used.
+   *
+   * @param filePath The path to the CSV file.
+   * @param limit    the maximum number of employees listed per ranking
+   * @throws RuntimeException if there are issues accessing or processing the file.
+   */
+  public void runTop(String filePath, int limit) {
+    try {
+      printStart(System.out, filePath);
+      OrgSnapshot org = loadOrg(filePath);
+      System.out.printf("Found %d employees %n", org.size());
+      TopViolations top = findTopViolations(org, limit);
+
+      TextReportWriter writer = new TextReportWriter(System.out);
+      printRanking(writer, "----- Top " + limit + " overpaid managers -----", top.overpaid());
+      printRanking(writer, "----- Top " + limit + " underpaid managers -----", top.underpaid());
+      printRanking(writer, "----- Top " + limit + " longest reporting lines -----",
+          top.longestReportingLines());
+      printDone(System.out);
+
+    } catch (IOException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw new UncheckedIOException("Failed to write the reports", e);
+    } catch (RuntimeException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the analysis like {@link #run(String)}, but skips invalid rows instead of stopping at the
+   * first one: the reports cover the valid rows, preceded by one line per error found, see
+   * {@link EmployeeRepository#createOrgSnapshot(String, RunMetrics, RowErrors)}. The report cache
+   * is not used.
+   *
+   * @param filePath   The path to the CSV file.
+   * @param errorLimit the maximum number of errors listed, or {@link RowErrors#UNLIMITED}
+   * @throws RuntimeException if the file cannot be read or has no valid headers or CEO.
+   */
+  public void runLenient(String filePath, int errorLimit) {
+    try {
+      printStart(System.out, filePath);
+      RowErrors errors = new RowErrors(errorLimit);
+      OrgSnapshot org = repository.createOrgSnapshot(filePath, metrics, errors);
+      System.out.printf("Found %d employees %n", org.size());
+
+      System.out.printf("----- Skipped invalid rows: %d errors -----%n", errors.count());
+      errors.writeTo(System.out);
+      System.out.println();
+
+      streamReports(org);
+      printDone(System.out);
+
+    } catch (IOException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw new UncheckedIOException("Failed to write the reports", e);
+    } catch (RuntimeException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw e;
+    }
+  }
+
+  /**
+   * Runs the analysis like {@link #run(String)}, but out of core: rows are spilled to temporary
+   * files and analyzed by external sorts and joins within the given memory budget, see
+   * {@link ExternalOrgAnalyzer}, so organizations larger than the heap can be analyzed. The output
+   * is the same. The report cache is not used.
+   *
+   * @param filePath     The path to the CSV file.
+   * @param memoryBudget the heap memory for sorting and joining, in bytes
+   * @throws RuntimeException if there are issues accessing or processing the file.
+   */
+  public void runExternal(String filePath, long memoryBudget) {
+    try {
+      printStart(System.out, filePath);
+      ExternalOrgAnalyzer analyzer = new ExternalOrgAnalyzer(repository, memoryBudget);
+      RunMetrics.Phase analysis = metrics.start(RunMetrics.ANALYSIS);
+      try (ExternalOrgAnalyzer.Report report = analyzer.analyze(filePath)) {
+        analysis.end(report.getEmployeeCount(), -1);
+        System.out.printf("Found %d employees %n", report.getEmployeeCount());
+
+        TextReportWriter writer = new TextReportWriter(System.out);
+        System.out.printf("----- Generating Salary report with salary violations -----%n");
+        report.writeSalaryViolations(writer);
+        writer.flush();
+        System.out.println();
 
-      System.out.printf("----- Reading employees from CSV file: %s -----%n", filePath);
-      var employees = repository.createEmployeesMap(filePath);
-      System.out.printf("Found %d employees %n", employees.size());
+        System.out.println("----- Generating excessive reporting lines -----");
+        report.writeReportingLineViolations(writer);
+        writer.flush();
+        System.out.println();
+      }
+      printDone(System.out);
 
-      System.out.printf("----- Generating Salary report with salary violations -----%n");
-      String salaryReport = salaryAnalyzer.analyzeSalaries(employees);
-      System.out.println(salaryReport);
+    } catch (IOException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw new UncheckedIOException("Failed to write the reports", e);
+    } catch (RuntimeException e) {
+      System.err.println("Error processing employee data: " + e.getMessage());
+      throw e;
+    }
+  }
 
-      System.out.println("----- Generating excessive reporting lines -----");
-      String lineReport = lineAnalyzer.analyzeReportingLines(employees);
-      System.out.println(lineReport);
-      System.out.println("===== ANALYZE DONE! =====");
+  /**
+   * Reads the employees and answers a file of reporting chain queries instead of printing the
+   * reports, see {@link AncestryQueries} for the query format.
+   *
+   * @param filePath  The path to the CSV file.
+   * @param queryFile the path to the file with one query per line
+   * @throws FileReaderException if the query file cannot be read
+   * @throws RuntimeException    if there are issues accessing or processing the CSV file.
+   */
+  public void runQueries(String filePath, String queryFile) {
+    try {
+      printStart(System.out, filePath);
+      OrgSnapshot org = loadOrg(filePath);
+      System.out.printf("Found %d employees %n", org.size());
+      AncestryQueries queries = new AncestryQueries(AncestryIndex.of(org));
+
+      System.out.printf("----- Answering reporting chain queries from: %s -----%n", queryFile);
+      Writer out = new OutputStreamWriter(System.out, Charset.defaultCharset());
+      try (BufferedReader in = Files.newBufferedReader(Paths.get(queryFile),
+          StandardCharsets.UTF_8)) {
+        queries.run(in, out);
+      } catch (IOException e) {
+        throw new FileReaderException("Failed to read the queries from " + queryFile + ": "
+            + e.getMessage());
+      }
+      System.out.println();
+      printDone(System.out);
 
     } catch (RuntimeException e) {
       System.err.println("Error processing employee data: " + e.getMessage());
@@ -62,4 +266,227 @@ public class EmployeeAnalyzerRunner {
     }
   }
 
+  /**
+   * Runs both analyzers in a single traversal and keeps only the worst violations of each kind.
+   * Memory beyond the organization itself is proportional to the limit, since a parallel traversal
+   * ranks every range of employees on its own and merges the rankings.
+   *
+   * @param org   the organization snapshot
+   * @param limit the maximum number of violations kept per ranking
+   * @return the ranked violations
+   */
+  public TopViolations findTopViolations(OrgSnapshot org, int limit) {
+    TopViolations top = new TopViolations(limit);
+    try {
+      analyze(org, top, top);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return top;
+  }
+
+  private static void printRanking(TextReportWriter writer, String title,
+      List<? extends Violation> violations) throws IOException {
+    System.out.println(title);
+    for (Violation violation : violations) {
+      writer.accept(violation);
+    }
+    writer.flush();
+    System.out.println();
+  }
+
+  /**
+   * Writes the salary violations to the console as the analyzers find them. Both analyzers share
+   * one pass over the organization, so the reporting line violations, which are printed second,
+   * are spilled to a temporary file meanwhile and copied to the console afterwards. Memory does not
+   * grow with the number of violations either way.
+   */
+  private void streamReports(OrgSnapshot org) {
+    streamReports(org, false);
+  }
+
+  /**
+   * Writes the reports to the console like {@link #streamReports(OrgSnapshot)}, and optionally
+   * keeps a copy of the salary report for the cache as it is written.
+   *
+   * @return the reports, or {@code null} unless they are kept
+   */
+  private ReportCache.Entry streamReports(OrgSnapshot org, boolean keepReports) {
+    TextReportWriter salaryWriter = new TextReportWriter(System.out);
+    ReportBuffer salaryReport = keepReports ? new ReportBuffer() : null;
+    Path lineSpill = null;
+    try {
+      Path spill = Files.createTempFile("reporting-lines", ".txt");
+      lineSpill = spill;
+      printReports(System.out, out -> {
+        try (OutputStream lineOut = Files.newOutputStream(spill)) {
+          TextReportWriter lineWriter = new TextReportWriter(lineOut);
+          analyze(org, salaryReport == null ? salaryWriter
+              : new CopyingSink(salaryWriter, salaryReport), lineWriter);
+          lineWriter.flush();
+        }
+        salaryWriter.flush();
+      }, out -> {
+        Files.copy(spill, out);
+        out.flush();
+      });
+      return salaryReport == null ? null : new ReportCache.Entry(org.size(),
+          salaryReport.toString(), Files.readString(spill, Charset.defaultCharset()));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the reports", e);
+    } finally {
+      deleteQuietly(lineSpill);
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    if (file == null) {
+      return;
+    }
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      // a leftover file in the temporary directory must not fail the run
+    }
+  }
+
+  private void printReports(ReportCache.Entry reports) {
+    System.out.printf("Found %d employees %n", reports.getEmployeeCount());
+    try {
+      printReports(System.out, out -> out.print(reports.getSalaryReport()),
+          out -> out.print(reports.getReportingLineReport()));
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write the reports", e);
+    }
+  }
+
+  /**
+   * Writes the banner that opens the output of every run.
+   */
+  static void printStart(PrintStream out, String filePath) {
+    out.println("===== RUNNING BIG COMPANY ANALYZE =====");
+    out.printf("----- Reading employees from CSV file: %s -----%n", filePath);
+  }
+
+  /**
+   * Writes the salary and reporting line reports under their titles, as {@link #run(String)}
+   * prints them after the employee count.
+   */
+  static void printReports(PrintStream out, ReportBody salaryReport, ReportBody lineReport)
+      throws IOException {
+    out.printf("----- Generating Salary report with salary violations -----%n");
+    salaryReport.writeTo(out);
+    out.println();
+
+    out.println("----- Generating excessive reporting lines -----");
+    lineReport.writeTo(out);
+    out.println();
+  }
+
+  /**
+   * Writes the banner that closes the output of every run.
+   */
+  static void printDone(PrintStream out) {
+    out.println("===== ANALYZE DONE! =====");
+  }
+
+  /**
+   * Runs both analyzers in a single traversal of the organization.
+   *
+   * @param org        the organization snapshot
+   * @param salarySink receives the salary violations
+   * @param lineSink   receives the reporting line violations
+   * @throws IOException if a sink fails to write a violation
+   */
+  protected void analyze(OrgSnapshot org, ViolationSink salarySink, ViolationSink lineSink)
+      throws IOException {
+    RunMetrics.Phase analysis = metrics.start(RunMetrics.ANALYSIS);
+    new OrgTraversal(salaryAnalyzer.getParallelism())
+        .add(salaryAnalyzer, salarySink)
+        .add(lineAnalyzer, lineSink)
+        .run(org);
+    analysis.end(org.size(), -1);
+  }
+
+  /**
+   * Reads the organization, through {@link EmployeeRepository#createOrgSnapshot(String)} unless the
+   * phases are collected, so that repositories overriding it keep working.
+   */
+  private OrgSnapshot loadOrg(String filePath) {
+    return metrics.isCollecting() ? repository.createOrgSnapshot(filePath, metrics)
+        : repository.createOrgSnapshot(filePath);
+  }
+
+  /**
+   * Returns the cache key for the file, or {@code null} if there is no cache or the file cannot be
+   * hashed, in which case the repository reports the problem while reading it.
+   */
+  private String cacheKeyFor(String filePath) {
+    if (reportCache == null) {
+      return null;
+    }
+    try {
+      return reportCache.keyFor(Paths.get(filePath), configurationKey());
+    } catch (IOException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Describes everything besides the file content that affects the printed reports: the row limit,
+   * the analyzer rules and the formatting of numbers and line breaks.
+   */
+  private String configurationKey() {
+    return "max-employees=" + repository.getMaximumEmployeeCount()
+        + ';' + salaryAnalyzer.configurationKey()
+        + ';' + lineAnalyzer.configurationKey()
+        + ";locale=" + Locale.getDefault(Locale.Category.FORMAT).toLanguageTag()
+        + ";line-separator=" + System.lineSeparator().length();
+  }
+
+  private void storeQuietly(String cacheKey, ReportCache.Entry reports) {
+    if (cacheKey == null) {
+      return;
+    }
+    try {
+      reportCache.put(cacheKey, reports);
+    } catch (IOException e) {
+      // the cache only speeds up later runs; failing to write it must not fail this one
+    }
+  }
+
+  /**
+   * Passes every violation on to two sinks, to write a report and keep a copy of it at once.
+   */
+  /**
+   * Writes the violations of one report, without its title.
+   */
+  @FunctionalInterface
+  interface ReportBody {
+
+    void writeTo(PrintStream out) throws IOException;
+  }
+
+  private static final class CopyingSink implements ViolationSink {
+
+    private final ViolationSink sink;
+    private final ViolationSink copy;
+
+    private CopyingSink(ViolationSink sink, ViolationSink copy) {
+      this.sink = sink;
+      this.copy = copy;
+    }
+
+    @Override
+    public void accept(Violation violation) throws IOException {
+      sink.accept(violation);
+      copy.accept(violation);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      sink.flush();
+      copy.flush();
+    }
+  }
 }
@@ -0,0 +1,203 @@
+package org.example;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.example.model.OrgEvent;
+import org.example.repository.CsvTail;
+import org.example.repository.EmployeeRepository;
+import org.example.service.LiveOrgModel;
+
+/**
+ * Keeps the reports of a CSV file up to date while rows are appended to it. The file is loaded
+ * once; after that, every change reported by a {@link WatchService} reads only the appended rows
+ * with a {@link CsvTail} and applies them to a {@link LiveOrgModel} as hires, which re-evaluates
+ * only the new employees and their managers. Within a batch a row may come before its manager.
+ * <p>
+ * The appended rows are checked as a batch before any of them is applied, so that the model only
+ * ever holds what a full load of the file would accept: their ids must be new, also among each
+ * other, the employee count must stay within the limit of the repository, and every row must reach
+ * an employee of the model through managers of the batch. When the file was truncated or
+ * rewritten, or the batch cannot be applied, the file is loaded again as a whole, which reports
+ * unknown managers and reporting cycles like any other load. If that fails too, the error is
+ * printed and the previous reports stay in place; the rows are read again on the next change, so a
+ * manager appended later still resolves them.
+ */
+public class WatchRunner {
+
+  private final EmployeeRepository repository;
+  private final Path file;
+  private LiveOrgModel model;
+  private CsvTail tail;
+
+  public WatchRunner(EmployeeRepository repository, String filePath) {
+    this.repository = Objects.requireNonNull(repository, "EmployeeRepository must not be null");
+    this.file = Paths.get(Objects.requireNonNull(filePath, "File path must not be null"));
+  }
+
+  /**
+   * Loads the file, prints the reports, then prints them again after every change to the file
+   * until the thread is interrupted.
+   *
+   * @throws IOException          if the directory of the file cannot be watched
+   * @throws InterruptedException if the thread is interrupted while waiting for changes
+   * @throws RuntimeException     if the initial load fails
+   */
+  public void watch() throws IOException, InterruptedException {
+    System.out.println("===== RUNNING BIG COMPANY ANALYZE =====");
+    load();
+    printReports("----- Loaded employees from CSV file: " + file + " -----");
+
+    Path directory = file.toAbsolutePath().getParent();
+    try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+      directory.register(watcher, ENTRY_CREATE, ENTRY_MODIFY);
+      System.out.printf("----- Watching %s for appended rows -----%n", file);
+      while (true) {
+        WatchKey key = watcher.take();
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+          changed |= event.kind() == OVERFLOW || file.getFileName().equals(event.context());
+        }
+        if (changed) {
+          try {
+            printReports(update());
+          } catch (RuntimeException e) {
+            System.err.println("Error processing employee data: " + e.getMessage());
+          }
+        }
+        if (!key.reset()) {
+          throw new IOException("The directory " + directory + " can no longer be watched");
+        }
+      }
+    }
+  }
+
+  /**
+   * Loads the whole file.
+   *
+   * @throws RuntimeException if the file cannot be loaded, in which case nothing changes
+   */
+  public void load() {
+    // the offset is taken first: rows appended during the load are read again and trigger a
+    // reload as duplicates, instead of being skipped
+    CsvTail newTail = new CsvTail(file);
+    try {
+      newTail.skipToEnd();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read " + file, e);
+    }
+    model = LiveOrgModel.fromSnapshot(repository.createOrgSnapshot(file.toString()));
+    tail = newTail;
+  }
+
+  /**
+   * Applies the rows appended since the last load or update, or loads the file again if it was
+   * not just appended to or the appended rows cannot be applied.
+   *
+   * @return a description of what was done
+   * @throws RuntimeException if the file had to be loaded again and that failed, in which case
+   *                          nothing changes
+   */
+  public String update() {
+    List<OrgEvent.Hire> hires;
+    try {
+      hires = tail.peekAppendedRows();
+    } catch (IOException | RuntimeException e) {
+      // rewritten file or malformed row: the full load applies the usual checks
+      return reload();
+    }
+    List<OrgEvent.Hire> ordered = canApply(hires) ? managersFirst(hires) : null;
+    if (ordered == null) {
+      // duplicate id, too many employees, unknown manager or cycle: the full load reports it
+      // like any other load
+      return reload();
+    }
+    ordered.forEach(model::apply);
+    tail.advance();
+    return String.format("----- Applied %d appended rows -----", hires.size());
+  }
+
+  public LiveOrgModel getModel() {
+    return model;
+  }
+
+  private String reload() {
+    load();
+    return "----- Reloaded employees from CSV file: " + file + " -----";
+  }
+
+  /**
+   * Checks that every hire of the batch can be applied, so that applying it cannot fail halfway.
+   */
+  private boolean canApply(List<OrgEvent.Hire> hires) {
+    int limit = repository.getMaximumEmployeeCount();
+    if (limit != EmployeeRepository.UNLIMITED && (long) model.size() + hires.size() > limit) {
+      return false;
+    }
+    Set<Integer> batchIds = new HashSet<>();
+    for (OrgEvent.Hire hire : hires) {
+      if (model.contains(hire.id()) || !batchIds.add(hire.id())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Orders the hires so that every manager is hired before their reports, starting from the rows
+   * whose manager is already in the model.
+   *
+   * @return the ordered hires, or {@code null} if some row does not reach the model because its
+   * manager is unknown or it is part of a reporting cycle
+   */
+  private List<OrgEvent.Hire> managersFirst(List<OrgEvent.Hire> hires) {
+    Map<Integer, List<OrgEvent.Hire>> byManager = new HashMap<>();
+    Deque<OrgEvent.Hire> ready = new ArrayDeque<>();
+    for (OrgEvent.Hire hire : hires) {
+      if (model.contains(hire.managerId())) {
+        ready.add(hire);
+      } else {
+        byManager.computeIfAbsent(hire.managerId(), id -> new ArrayList<>()).add(hire);
+      }
+    }
+    List<OrgEvent.Hire> ordered = new ArrayList<>(hires.size());
+    while (!ready.isEmpty()) {
+      OrgEvent.Hire next = ready.poll();
+      ordered.add(next);
+      List<OrgEvent.Hire> reports = byManager.remove(next.id());
+      if (reports != null) {
+        ready.addAll(reports);
+      }
+    }
+    return ordered.size() == hires.size() ? ordered : null;
+  }
+
+  private void printReports(String title) {
+    System.out.println(title);
+    System.out.printf("Found %d employees %n", model.size());
+
+    System.out.printf("----- Generating Salary report with salary violations -----%n");
+    System.out.println(model.salaryReport());
+
+    System.out.println("----- Generating excessive reporting lines -----");
+    System.out.println(model.reportingLineReport());
+  }
+}
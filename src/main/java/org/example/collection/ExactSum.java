@@ -0,0 +1,148 @@
+package org.example.collection;
+
+import java.util.Arrays;
+
+/**
+ * Exact sum of {@code double} values that may also be subtracted again. The sum is kept as a short
+ * list of non-overlapping partial sums (Shewchuk's algorithm, as in Python's {@code math.fsum}), so
+ * no update loses precision, and it is rounded to the nearest {@code double} only when it is read.
+ * The result therefore does not depend on the order of the updates: a running sum that has seen
+ * many additions and subtractions reads exactly like a fresh sum of the values that remain. For
+ * salaries the list rarely holds more than two or three partials.
+ * <p>
+ * Infinities and {@code NaN} are counted apart from the finite values, so they can be subtracted
+ * again as well. Finite values whose sum leaves the range of {@code double} make the sum infinite
+ * until it is reset. The sum can be reset and reused, which keeps per-manager loops free of
+ * allocations. This class is not thread-safe.
+ */
+public final class ExactSum {
+
+  private double[] partials = new double[4];
+  private int length;
+  private int positiveInfinities;
+  private int negativeInfinities;
+  private int nans;
+  private double overflow;
+
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      nans++;
+    } else if (value == Double.POSITIVE_INFINITY) {
+      positiveInfinities++;
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      negativeInfinities++;
+    } else {
+      addFinite(value);
+    }
+  }
+
+  /**
+   * Subtracts a value that was added before.
+   */
+  public void subtract(double value) {
+    if (Double.isNaN(value)) {
+      nans--;
+    } else if (value == Double.POSITIVE_INFINITY) {
+      positiveInfinities--;
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      negativeInfinities--;
+    } else {
+      addFinite(-value);
+    }
+  }
+
+  /**
+   * Returns the exact sum rounded to the nearest {@code double}, ties to even.
+   */
+  public double sum() {
+    boolean positive = positiveInfinities > 0 || overflow > 0;
+    boolean negative = negativeInfinities > 0 || overflow < 0;
+    if (nans > 0 || positive && negative) {
+      return Double.NaN;
+    }
+    if (positive) {
+      return Double.POSITIVE_INFINITY;
+    }
+    if (negative) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    return rounded();
+  }
+
+  public void reset() {
+    length = 0;
+    positiveInfinities = 0;
+    negativeInfinities = 0;
+    nans = 0;
+    overflow = 0;
+  }
+
+  /**
+   * Adds the value to the partials, which stay ordered by increasing magnitude: every partial
+   * absorbs the value with an error-free addition and only the nonzero rounding errors are kept.
+   */
+  private void addFinite(double value) {
+    if (overflow != 0) {
+      return;
+    }
+    double x = value;
+    int kept = 0;
+    for (int i = 0; i < length; i++) {
+      double y = partials[i];
+      if (Math.abs(x) < Math.abs(y)) {
+        double swap = x;
+        x = y;
+        y = swap;
+      }
+      double high = x + y;
+      if (Double.isInfinite(high)) {
+        overflow = high;
+        length = 0;
+        return;
+      }
+      double low = y - (high - x);
+      if (low != 0) {
+        partials[kept++] = low;
+      }
+      x = high;
+    }
+    if (x != 0) {
+      if (kept == partials.length) {
+        partials = Arrays.copyOf(partials, kept * 2);
+      }
+      partials[kept++] = x;
+    }
+    length = kept;
+  }
+
+  /**
+   * Adds the partials from the largest down until the first rounding error, which is then at most
+   * half an ulp of the result. When it is exactly half an ulp, the next smaller partial decides
+   * whether the result rounds away from the tie.
+   */
+  private double rounded() {
+    int n = length;
+    if (n == 0) {
+      return 0;
+    }
+    double high = partials[--n];
+    double low = 0;
+    while (n > 0) {
+      double x = high;
+      double y = partials[--n];
+      high = x + y;
+      low = y - (high - x);
+      if (low != 0) {
+        break;
+      }
+    }
+    if (n > 0 && (low < 0 && partials[n - 1] < 0 || low > 0 && partials[n - 1] > 0)) {
+      double y = low * 2;
+      double x = high + y;
+      if (y == x - high) {
+        high = x;
+      }
+    }
+    return high;
+  }
+}
@@ -0,0 +1,188 @@
+package org.example.collection;
+
+import java.util.Arrays;
+
+/**
+ * Map from {@code int} keys to {@code int} values that stores both in flat arrays, so neither keys
+ * nor values are boxed and no entry objects are allocated. Collisions are resolved by linear
+ * probing in a power-of-two table that is at most three quarters full; removals shift the
+ * following entries back instead of leaving tombstones, so lookups never slow down with churn.
+ * <p>
+ * Key {@code 0} marks free slots, an entry with that key is kept in an extra slot at the end of
+ * the table. This class is not thread-safe.
+ */
+public final class IntIntHashMap {
+
+  private static final int FREE = 0;
+  private static final int MIN_CAPACITY = 4;
+  private static final int MAX_CAPACITY = 1 << 30;
+
+  private int[] keys;
+  private int[] values;
+  private int mask;
+  private int resizeAt;
+  private boolean containsFreeKey;
+  private int size;
+
+  /**
+   * Creates a map that holds {@code expectedSize} entries without growing.
+   *
+   * @param expectedSize the number of entries expected
+   */
+  public IntIntHashMap(int expectedSize) {
+    if (expectedSize < 0) {
+      throw new IllegalArgumentException(
+          "Expected size must not be negative, but was " + expectedSize);
+    }
+    allocate(capacityFor(expectedSize));
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean containsKey(int key) {
+    return slotOf(key) >= 0;
+  }
+
+  /**
+   * Returns the value of the key, or {@code missingValue} if the key is not in the map.
+   */
+  public int get(int key, int missingValue) {
+    int slot = slotOf(key);
+    return slot < 0 ? missingValue : values[slot];
+  }
+
+  /**
+   * Associates the value with the key, replacing any previous value.
+   */
+  public void put(int key, int value) {
+    if (key == FREE) {
+      if (!containsFreeKey) {
+        containsFreeKey = true;
+        size++;
+      }
+      values[mask + 1] = value;
+      return;
+    }
+    int slot = home(key);
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        values[slot] = value;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    if (++size > resizeAt) {
+      rehash(Math.min(MAX_CAPACITY, (mask + 1) * 2));
+    }
+  }
+
+  /**
+   * Removes the key.
+   *
+   * @return whether the key was in the map
+   */
+  public boolean remove(int key) {
+    if (key == FREE) {
+      if (!containsFreeKey) {
+        return false;
+      }
+      containsFreeKey = false;
+      size--;
+      return true;
+    }
+    int slot = slotOf(key);
+    if (slot < 0) {
+      return false;
+    }
+    shiftBack(slot);
+    size--;
+    return true;
+  }
+
+  /**
+   * Removes all entries and keeps the table.
+   */
+  public void clear() {
+    Arrays.fill(keys, FREE);
+    containsFreeKey = false;
+    size = 0;
+  }
+
+  private int slotOf(int key) {
+    if (key == FREE) {
+      return containsFreeKey ? mask + 1 : -1;
+    }
+    int slot = home(key);
+    while (keys[slot] != FREE) {
+      if (keys[slot] == key) {
+        return slot;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return -1;
+  }
+
+  /**
+   * Closes the gap left at {@code slot} by moving back every following entry of the same probe
+   * run that may not be skipped over, then frees the last gap.
+   */
+  private void shiftBack(int slot) {
+    int gap = slot;
+    for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+      if (((next - home(keys[next])) & mask) >= ((next - gap) & mask)) {
+        keys[gap] = keys[next];
+        values[gap] = values[next];
+        gap = next;
+      }
+    }
+    keys[gap] = FREE;
+  }
+
+  /**
+   * Spreads the key over the table with a Fibonacci multiplier, since ids tend to be dense
+   * sequences that would otherwise fill neighbouring slots.
+   */
+  private int home(int key) {
+    int hash = key * 0x9E3779B9;
+    return (hash ^ (hash >>> 16)) & mask;
+  }
+
+  private void rehash(int capacity) {
+    int[] oldKeys = keys;
+    int[] oldValues = values;
+    int oldCapacity = mask + 1;
+    allocate(capacity);
+    values[capacity] = oldValues[oldCapacity];
+    for (int i = 0; i < oldCapacity; i++) {
+      int key = oldKeys[i];
+      if (key == FREE) {
+        continue;
+      }
+      int slot = home(key);
+      while (keys[slot] != FREE) {
+        slot = (slot + 1) & mask;
+      }
+      keys[slot] = key;
+      values[slot] = oldValues[i];
+    }
+  }
+
+  private void allocate(int capacity) {
+    keys = new int[capacity + 1];
+    values = new int[capacity + 1];
+    mask = capacity - 1;
+    resizeAt = capacity == MAX_CAPACITY ? Integer.MAX_VALUE : capacity / 4 * 3;
+  }
+
+  private static int capacityFor(int expectedSize) {
+    long needed = Math.max(MIN_CAPACITY, (long) expectedSize * 4 / 3 + 1);
+    if (needed > MAX_CAPACITY) {
+      return MAX_CAPACITY;
+    }
+    return Integer.highestOneBit((int) needed - 1) << 1;
+  }
+}
@@ -0,0 +1,121 @@
+package org.example.collection;
+
+import java.util.Arrays;
+
+/**
+ * Running sums and counts of {@code double} values grouped by an {@code int} key, for averages
+ * that are kept up to date as values come and go. An {@link IntIntHashMap} maps each key to a
+ * row of dense columns, so an update costs one probe. The sums are {@link ExactSum}s, so after any
+ * number of additions and subtractions a key's sum is the one a fresh summation of its remaining
+ * values gives. A key whose count drops to zero is removed and its row is refilled with the last
+ * one; the freed sum is kept for the next key, so updates allocate nothing once the map has grown.
+ * <p>
+ * This class is not thread-safe.
+ */
+public final class IntSumCountMap {
+
+  private static final int MIN_CAPACITY = 4;
+
+  private final IntIntHashMap rows;
+  private int[] keys;
+  private ExactSum[] sums;
+  private int[] counts;
+  private int size;
+
+  /**
+   * Creates a map that holds {@code expectedSize} keys without growing.
+   *
+   * @param expectedSize the number of keys expected
+   */
+  public IntSumCountMap(int expectedSize) {
+    this.rows = new IntIntHashMap(expectedSize);
+    int capacity = Math.max(MIN_CAPACITY, expectedSize);
+    this.keys = new int[capacity];
+    this.sums = new ExactSum[capacity];
+    this.counts = new int[capacity];
+  }
+
+  /**
+   * Returns the number of keys with at least one value.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Adds a value to the key's sum and increments its count.
+   */
+  public void add(int key, double value) {
+    int row = rows.get(key, -1);
+    if (row < 0) {
+      row = size++;
+      if (row == keys.length) {
+        int capacity = keys.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        sums = Arrays.copyOf(sums, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+      }
+      rows.put(key, row);
+      keys[row] = key;
+      if (sums[row] == null) {
+        sums[row] = new ExactSum();
+      } else {
+        sums[row].reset();
+      }
+      counts[row] = 0;
+    }
+    sums[row].add(value);
+    counts[row]++;
+  }
+
+  /**
+   * Subtracts a value that was added before from the key's sum and decrements its count. The key
+   * is removed once its count is zero, so its sum starts again from exactly zero.
+   *
+   * @throws IllegalStateException if the key has no values
+   */
+  public void subtract(int key, double value) {
+    int row = rows.get(key, -1);
+    if (row < 0) {
+      throw new IllegalStateException("No values to subtract from for key " + key);
+    }
+    if (--counts[row] > 0) {
+      sums[row].subtract(value);
+      return;
+    }
+    rows.remove(key);
+    int last = --size;
+    if (row != last) {
+      ExactSum freed = sums[row];
+      keys[row] = keys[last];
+      sums[row] = sums[last];
+      counts[row] = counts[last];
+      sums[last] = freed;
+      rows.put(keys[row], row);
+    }
+  }
+
+  /**
+   * Returns the sum of the key's values, or {@code 0} if it has none.
+   */
+  public double sum(int key) {
+    int row = rows.get(key, -1);
+    return row < 0 ? 0 : sums[row].sum();
+  }
+
+  /**
+   * Returns the number of the key's values, or {@code 0} if it has none.
+   */
+  public int count(int key) {
+    int row = rows.get(key, -1);
+    return row < 0 ? 0 : counts[row];
+  }
+
+  /**
+   * Returns the average of the key's values, or {@code NaN} if it has none.
+   */
+  public double average(int key) {
+    int row = rows.get(key, -1);
+    return row < 0 ? Double.NaN : sums[row].sum() / counts[row];
+  }
+}
@@ -0,0 +1,31 @@
+package org.example.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event covering one phase of a run. It is recorded only while a recording has the
+ * event enabled, e.g. with {@code -XX:StartFlightRecording}, and costs next to nothing otherwise.
+ */
+@Name("org.example.Phase")
+@Label("Analyzer Phase")
+@Category("Big Company Analyzer")
+@Description("One phase of reading, linking or analyzing an employee file")
+@StackTrace(false)
+final class PhaseEvent extends Event {
+
+  @Label("Phase")
+  String phase;
+
+  @Label("Rows")
+  long rows;
+
+  @Label("Bytes Read")
+  @DataAmount
+  long bytesRead;
+}
@@ -0,0 +1,82 @@
+package org.example.metrics;
+
+/**
+ * The measurements of one phase recorded by {@link RunMetrics}.
+ */
+public final class PhaseStats {
+
+  private final String name;
+  private final long wallNanos;
+  private final long rows;
+  private final long bytesRead;
+  private final long allocatedBytes;
+  private final long gcCount;
+  private final long gcMillis;
+  private final long peakRssKilobytes;
+
+  PhaseStats(String name, long wallNanos, long rows, long bytesRead, long allocatedBytes,
+      long gcCount, long gcMillis, long peakRssKilobytes) {
+    this.name = name;
+    this.wallNanos = wallNanos;
+    this.rows = rows;
+    this.bytesRead = bytesRead;
+    this.allocatedBytes = allocatedBytes;
+    this.gcCount = gcCount;
+    this.gcMillis = gcMillis;
+    this.peakRssKilobytes = peakRssKilobytes;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public long getWallNanos() {
+    return wallNanos;
+  }
+
+  public long getRows() {
+    return rows;
+  }
+
+  /**
+   * Returns the rows processed per second of wall time, or 0 if the phase took no measurable time.
+   */
+  public double getRowsPerSecond() {
+    return wallNanos == 0 ? 0 : rows * 1e9 / wallNanos;
+  }
+
+  /**
+   * Returns the bytes read by the phase, or -1 if it read none or the amount is unknown.
+   */
+  public long getBytesRead() {
+    return bytesRead;
+  }
+
+  /**
+   * Returns the bytes allocated by the thread that ran the phase, or -1 if unknown.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  /**
+   * Returns the number of garbage collections, of any thread, that ended during the phase.
+   */
+  public long getGcCount() {
+    return gcCount;
+  }
+
+  /**
+   * Returns the milliseconds spent in the garbage collections counted by {@link #getGcCount()}.
+   */
+  public long getGcMillis() {
+    return gcMillis;
+  }
+
+  /**
+   * Returns the peak resident set size of the process at the end of the phase, or -1 if unknown.
+   */
+  public long getPeakRssKilobytes() {
+    return peakRssKilobytes;
+  }
+}
@@ -0,0 +1,214 @@
+package org.example.metrics;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the phases of a run: reading and parsing the file, linking the hierarchy and the
+ * analysis. Every phase is emitted as a Flight Recorder {@link PhaseEvent}. A collecting instance
+ * additionally records the wall time, the rows and bytes processed, the bytes allocated by the
+ * thread running the phase, the garbage collections during the phase and the peak resident set
+ * size at its end, and summarizes them with {@link #toJson()}.
+ * <p>
+ * Allocations are read from the JDK's {@code com.sun.management.ThreadMXBean} and reported as -1
+ * where it is not available. Work a phase hands to pool threads, such as parallel parsing, is
+ * included in its wall time and collections but not in its allocated bytes. The peak resident set
+ * size is read from {@code /proc/self/status} and reported as -1 where that file does not exist.
+ * <p>
+ * Phases may be recorded from several threads.
+ */
+public final class RunMetrics {
+
+  /**
+   * Only emits Flight Recorder events, without any measurements of its own.
+   */
+  public static final RunMetrics DISABLED = new RunMetrics(false);
+
+  /**
+   * Phase of reading and tokenizing the CSV file. The streaming reader parses while it reads, so
+   * the two are measured together.
+   */
+  public static final String PARSE = "parse";
+  public static final String LOAD_SNAPSHOT = "load-snapshot";
+  public static final String LINK = "link";
+  public static final String ANALYSIS = "analysis";
+
+  private static final com.sun.management.ThreadMXBean THREADS = allocationCounter();
+  private static final Path PROCESS_STATUS = Paths.get("/proc/self/status");
+
+  private final boolean collecting;
+  private final List<PhaseStats> phases = new ArrayList<>();
+
+  private RunMetrics(boolean collecting) {
+    this.collecting = collecting;
+  }
+
+  /**
+   * Creates metrics that record every phase.
+   */
+  public static RunMetrics collecting() {
+    return new RunMetrics(true);
+  }
+
+  /**
+   * Returns whether phases are recorded, as opposed to only emitted as Flight Recorder events.
+   */
+  public boolean isCollecting() {
+    return collecting;
+  }
+
+  /**
+   * Starts a phase on the calling thread. It has to be ended on the same thread.
+   *
+   * @param name the phase, one of the constants of this class
+   * @return the running phase
+   */
+  public Phase start(String name) {
+    return new Phase(name);
+  }
+
+  /**
+   * Returns the phases recorded so far, in the order they ended.
+   */
+  public synchronized List<PhaseStats> getPhases() {
+    return List.copyOf(phases);
+  }
+
+  /**
+   * Returns the recorded phases as a single-line JSON object, for example
+   * {@code {"phases":[{"name":"parse","wallMillis":12.50,"rows":1000,"rowsPerSecond":80000.00,
+   * "bytesRead":31000,"allocatedBytes":2400000,"gcCount":1,"gcMillis":3,
+   * "peakRssKilobytes":81200}]}}. Unknown amounts are -1.
+   */
+  public String toJson() {
+    StringBuilder json = new StringBuilder("{\"phases\":[");
+    List<PhaseStats> recorded = getPhases();
+    for (int i = 0; i < recorded.size(); i++) {
+      PhaseStats phase = recorded.get(i);
+      if (i > 0) {
+        json.append(',');
+      }
+      json.append("{\"name\":\"").append(phase.getName()).append('"')
+          .append(",\"wallMillis\":").append(decimal(phase.getWallNanos() / 1e6))
+          .append(",\"rows\":").append(phase.getRows())
+          .append(",\"rowsPerSecond\":").append(decimal(phase.getRowsPerSecond()))
+          .append(",\"bytesRead\":").append(phase.getBytesRead())
+          .append(",\"allocatedBytes\":").append(phase.getAllocatedBytes())
+          .append(",\"gcCount\":").append(phase.getGcCount())
+          .append(",\"gcMillis\":").append(phase.getGcMillis())
+          .append(",\"peakRssKilobytes\":").append(phase.getPeakRssKilobytes())
+          .append('}');
+    }
+    return json.append("]}").toString();
+  }
+
+  private synchronized void record(PhaseStats phase) {
+    phases.add(phase);
+  }
+
+  private static String decimal(double value) {
+    return String.format(Locale.ROOT, "%.2f", value);
+  }
+
+  private static com.sun.management.ThreadMXBean allocationCounter() {
+    try {
+      if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (threads.isThreadAllocatedMemorySupported()) {
+          threads.setThreadAllocatedMemoryEnabled(true);
+          return threads;
+        }
+      }
+    } catch (UnsupportedOperationException | SecurityException e) {
+      // allocations are reported as unknown
+    }
+    return null;
+  }
+
+  private static long allocatedBytes() {
+    return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  private static long totalGcCount() {
+    long count = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, collector.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long totalGcMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(0, collector.getCollectionTime());
+    }
+    return millis;
+  }
+
+  private static long peakRssKilobytes() {
+    try {
+      for (String line : Files.readAllLines(PROCESS_STATUS, StandardCharsets.US_ASCII)) {
+        if (line.startsWith("VmHWM:")) {
+          return Long.parseLong(line.substring("VmHWM:".length()).replace("kB", "").trim());
+        }
+      }
+    } catch (IOException | NumberFormatException e) {
+      // not on Linux
+    }
+    return -1;
+  }
+
+  /**
+   * A running phase.
+   */
+  public final class Phase {
+
+    private final String name;
+    private final PhaseEvent event = new PhaseEvent();
+    private final long startNanos;
+    private final long startAllocatedBytes;
+    private final long startGcCount;
+    private final long startGcMillis;
+
+    private Phase(String name) {
+      this.name = name;
+      event.begin();
+      startGcCount = collecting ? totalGcCount() : 0;
+      startGcMillis = collecting ? totalGcMillis() : 0;
+      startAllocatedBytes = collecting ? allocatedBytes() : 0;
+      startNanos = collecting ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Ends the phase.
+     *
+     * @param rows      the number of rows the phase processed
+     * @param bytesRead the number of bytes the phase read, or -1 if it read none or it is unknown
+     */
+    public void end(long rows, long bytesRead) {
+      if (collecting) {
+        long wallNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytes();
+        record(new PhaseStats(name, wallNanos, rows, bytesRead,
+            allocated < 0 || startAllocatedBytes < 0 ? -1 : allocated - startAllocatedBytes,
+            totalGcCount() - startGcCount, totalGcMillis() - startGcMillis, peakRssKilobytes()));
+      }
+      event.end();
+      if (event.shouldCommit()) {
+        event.phase = name;
+        event.rows = rows;
+        event.bytesRead = bytesRead;
+        event.commit();
+      }
+    }
+  }
+}
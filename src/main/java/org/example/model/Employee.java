@@ -30,6 +30,17 @@ public class Employee {
     }
   }
 
+  /**
+   * Replaces the list of direct subordinates. Unlike {@link #addSubordinate(Employee)} this does
+   * not check for duplicates, which allows a whole hierarchy to be linked in linear time when the
+   * subordinates are known to be distinct.
+   *
+   * @param subordinates the direct subordinates of this employee
+   */
+  public void setSubordinates(List<Employee> subordinates) {
+    this.subordinates = subordinates;
+  }
+
   public int getId() {
     return id;
   }
@@ -0,0 +1,65 @@
+package org.example.model;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The first and last names of an organization, kept as UTF-8 bytes in one array instead of two
+ * {@code String} objects per employee. A name is decoded only when it is asked for, which for
+ * analyses means only for the few employees that end up in a report.
+ * <p>
+ * The names of employee {@code i} are stored back to back: the first name spans
+ * {@code [offsets[2i], offsets[2i + 1])} of the bytes and the last name
+ * {@code [offsets[2i + 1], offsets[2i + 2])}. This is the layout of the name columns in snapshot
+ * files, so those can be loaded without decoding.
+ */
+public final class NameArena {
+
+  private final byte[] bytes;
+  private final int[] offsets;
+
+  private NameArena(byte[] bytes, int[] offsets) {
+    this.bytes = bytes;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Creates an arena over the given columns. The arrays are owned by the arena afterwards and must
+   * not be modified by the caller.
+   *
+   * @param bytes   the UTF-8 bytes of all names
+   * @param offsets {@code 2 * size + 1} ascending offsets into {@code bytes}, starting at 0
+   * @return the arena
+   * @throws IllegalArgumentException if the offsets do not describe consecutive ranges of the bytes
+   */
+  public static NameArena of(byte[] bytes, int[] offsets) {
+    if (offsets.length % 2 != 1 || offsets[0] != 0) {
+      throw new IllegalArgumentException("Name offsets must start at 0 and have odd length");
+    }
+    for (int i = 1; i < offsets.length; i++) {
+      if (offsets[i] < offsets[i - 1] || offsets[i] > bytes.length) {
+        throw new IllegalArgumentException("Invalid name offset " + offsets[i] + " at " + i);
+      }
+    }
+    return new NameArena(bytes, offsets);
+  }
+
+  /**
+   * Returns the number of employees whose names are stored.
+   */
+  public int size() {
+    return offsets.length / 2;
+  }
+
+  public String firstName(int index) {
+    return decode(2 * index);
+  }
+
+  public String lastName(int index) {
+    return decode(2 * index + 1);
+  }
+
+  private String decode(int name) {
+    int start = offsets[name];
+    return new String(bytes, start, offsets[name + 1] - start, StandardCharsets.UTF_8);
+  }
+}
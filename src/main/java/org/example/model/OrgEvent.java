@@ -0,0 +1,36 @@
+package org.example.model;
+
+/**
+ * A single change to the organization coming from HR.
+ */
+public sealed interface OrgEvent {
+
+  /**
+   * A new employee joins and reports to an existing manager.
+   */
+  record Hire(int id, String firstName, String lastName, double salary, int managerId)
+      implements OrgEvent {
+
+  }
+
+  /**
+   * An employee leaves. Their direct subordinates move up to the employee's own manager.
+   */
+  record Termination(int id) implements OrgEvent {
+
+  }
+
+  /**
+   * An employee's salary changes.
+   */
+  record SalaryChange(int id, double salary) implements OrgEvent {
+
+  }
+
+  /**
+   * An employee, together with everyone reporting to them, moves to a different manager.
+   */
+  record Transfer(int id, int managerId) implements OrgEvent {
+
+  }
+}
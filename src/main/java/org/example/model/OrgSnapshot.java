@@ -0,0 +1,393 @@
+package org.example.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.exception.EmployeeValidationException;
+
+/**
+ * Compact, read-only columnar view of BigCompany's organization. Employees are addressed by a dense
+ * index in ascending id order; every attribute lives in a primitive column, and the direct
+ * subordinates of an employee are stored as a contiguous range of the {@code children} column
+ * (compressed sparse row layout). Compared to a {@code Map<Integer, Employee>} this avoids the
+ * boxed key, hash node, employee object and subordinate list kept for every person, and lets
+ * analyzers scan the organization sequentially.
+ * <p>
+ * A snapshot is always a forest: creating one fails if some employees do not report up to a
+ * top-level employee because their reporting line runs into a cycle. While verifying this, the
+ * snapshot walks down from the top-level employees once and records every employee's reporting
+ * depth, so depth queries never have to climb the managerId chain.
+ * <p>
+ * Names are either kept as one {@code String} per name or, for snapshots created from a
+ * {@link NameArena}, decoded from the arena each time they are asked for.
+ */
+public final class OrgSnapshot {
+
+  /**
+   * Parent index of employees without a manager.
+   */
+  public static final int NO_PARENT = -1;
+
+  /**
+   * The number of employee ids named per group when reporting a cycle.
+   */
+  public static final int MAX_REPORTED_IDS = 20;
+
+  private final int[] ids;
+  private final String[] firstNames;
+  private final String[] lastNames;
+  private final NameArena names;
+  private final double[] salaries;
+  private final int[] parents;
+  private final int[] childOffsets;
+  private final int[] children;
+  private final int[] topDownOrder;
+  private final int[] depths;
+  private int maxDepth;
+
+  private OrgSnapshot(int[] ids, String[] firstNames, String[] lastNames, NameArena names,
+      double[] salaries, int[] parents) {
+    this.ids = ids;
+    this.firstNames = firstNames;
+    this.lastNames = lastNames;
+    this.names = names;
+    this.salaries = salaries;
+    this.parents = parents;
+    this.childOffsets = new int[ids.length + 1];
+    this.children = new int[ids.length];
+    this.topDownOrder = new int[ids.length];
+    this.depths = new int[ids.length];
+    linkChildren();
+    orderTopDown();
+  }
+
+  /**
+   * Creates a snapshot from columns that are already sorted by employee id. The arrays are owned by
+   * the snapshot afterwards and must not be modified by the caller.
+   *
+   * @param ids        employee ids in strictly ascending order
+   * @param firstNames first names, aligned with {@code ids}
+   * @param lastNames  last names, aligned with {@code ids}
+   * @param salaries   salaries, aligned with {@code ids}
+   * @param parents    index of each employee's manager, or {@link #NO_PARENT}
+   * @return the snapshot
+   * @throws IllegalArgumentException    if the columns differ in length, ids are not strictly
+   *                                     ascending or a parent index is out of range
+   * @throws EmployeeValidationException if some employees are part of or below a reporting cycle
+   */
+  public static OrgSnapshot of(int[] ids, String[] firstNames, String[] lastNames,
+      double[] salaries, int[] parents) {
+    if (firstNames.length != ids.length || lastNames.length != ids.length) {
+      throw new IllegalArgumentException("All snapshot columns must have the same length");
+    }
+    validate(ids, salaries, parents);
+    return new OrgSnapshot(ids, firstNames, lastNames, null, salaries, parents);
+  }
+
+  /**
+   * Creates a snapshot whose names are decoded from an arena on demand. The arrays and the arena
+   * are owned by the snapshot afterwards and must not be modified by the caller.
+   *
+   * @param ids      employee ids in strictly ascending order
+   * @param names    first and last names, aligned with {@code ids}
+   * @param salaries salaries, aligned with {@code ids}
+   * @param parents  index of each employee's manager, or {@link #NO_PARENT}
+   * @return the snapshot
+   * @throws IllegalArgumentException    if the columns differ in length, ids are not strictly
+   *                                     ascending or a parent index is out of range
+   * @throws EmployeeValidationException if some employees are part of or below a reporting cycle
+   */
+  public static OrgSnapshot of(int[] ids, NameArena names, double[] salaries, int[] parents) {
+    if (names.size() != ids.length) {
+      throw new IllegalArgumentException("All snapshot columns must have the same length");
+    }
+    validate(ids, salaries, parents);
+    return new OrgSnapshot(ids, null, null, names, salaries, parents);
+  }
+
+  private static void validate(int[] ids, double[] salaries, int[] parents) {
+    int size = ids.length;
+    if (salaries.length != size || parents.length != size) {
+      throw new IllegalArgumentException("All snapshot columns must have the same length");
+    }
+    for (int i = 0; i < size; i++) {
+      if (i > 0 && ids[i] <= ids[i - 1]) {
+        throw new IllegalArgumentException("Employee ids must be strictly ascending");
+      }
+      if (parents[i] < NO_PARENT || parents[i] >= size) {
+        throw new IllegalArgumentException(
+            "Invalid manager index " + parents[i] + " for employee " + ids[i]);
+      }
+    }
+  }
+
+  /**
+   * Creates a snapshot from a map of employees. Reporting relations are taken from each employee's
+   * managerId; an employee whose manager is not part of the map is treated as a top-level
+   * employee.
+   *
+   * @param employees A map of employee IDs to Employee objects.
+   * @return the snapshot
+   * @throws EmployeeValidationException if some employees are part of or below a reporting cycle
+   */
+  public static OrgSnapshot fromEmployees(Map<Integer, Employee> employees) {
+    int[] ids = employees.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+    int size = ids.length;
+    String[] firstNames = new String[size];
+    String[] lastNames = new String[size];
+    double[] salaries = new double[size];
+    int[] parents = new int[size];
+
+    for (int i = 0; i < size; i++) {
+      Employee employee = employees.get(ids[i]);
+      firstNames[i] = employee.getFirstName();
+      lastNames[i] = employee.getLastName();
+      salaries[i] = employee.getSalary();
+      Integer managerId = employee.getManagerId();
+      int parent = managerId == null ? NO_PARENT : Arrays.binarySearch(ids, managerId);
+      parents[i] = parent < 0 ? NO_PARENT : parent;
+    }
+    return of(ids, firstNames, lastNames, salaries, parents);
+  }
+
+  /**
+   * Creates one Employee per snapshot entry, with the subordinate lists already linked.
+   *
+   * @return a map linking employee IDs to Employee objects
+   */
+  public Map<Integer, Employee> toEmployeesMap() {
+    Employee[] employees = new Employee[ids.length];
+    Map<Integer, Employee> employeesById = new HashMap<>(Math.max(16, ids.length * 4 / 3 + 1));
+    for (int i = 0; i < ids.length; i++) {
+      Integer managerId = parents[i] == NO_PARENT ? null : ids[parents[i]];
+      employees[i] = new Employee(ids[i], firstName(i), lastName(i), salaries[i], managerId);
+      employeesById.put(ids[i], employees[i]);
+    }
+    for (int i = 0; i < ids.length; i++) {
+      if (childCount(i) > 0) {
+        List<Employee> subordinates = new ArrayList<>(childCount(i));
+        for (int position = childStart(i); position < childEnd(i); position++) {
+          subordinates.add(employees[children[position]]);
+        }
+        employees[i].setSubordinates(subordinates);
+      }
+    }
+    return employeesById;
+  }
+
+  public int size() {
+    return ids.length;
+  }
+
+  /**
+   * Finds the index of the employee with the given id.
+   *
+   * @return the index, or -1 if there is no such employee
+   */
+  public int indexOf(int id) {
+    int index = Arrays.binarySearch(ids, id);
+    return index < 0 ? -1 : index;
+  }
+
+  public int id(int index) {
+    return ids[index];
+  }
+
+  public String firstName(int index) {
+    return names == null ? firstNames[index] : names.firstName(index);
+  }
+
+  public String lastName(int index) {
+    return names == null ? lastNames[index] : names.lastName(index);
+  }
+
+  public double salary(int index) {
+    return salaries[index];
+  }
+
+  /**
+   * Returns the index of the employee's manager, or {@link #NO_PARENT}.
+   */
+  public int parent(int index) {
+    return parents[index];
+  }
+
+  public int childCount(int index) {
+    return childOffsets[index + 1] - childOffsets[index];
+  }
+
+  /**
+   * Returns the position of the employee's first direct subordinate in the children column. The
+   * subordinates occupy the positions {@code childStart(index)} (inclusive) to
+   * {@code childEnd(index)} (exclusive), in ascending id order.
+   */
+  public int childStart(int index) {
+    return childOffsets[index];
+  }
+
+  public int childEnd(int index) {
+    return childOffsets[index + 1];
+  }
+
+  /**
+   * Returns the employee index stored at the given position of the children column.
+   */
+  public int child(int position) {
+    return children[position];
+  }
+
+  /**
+   * Returns the number of managers above the employee, which is 0 for top-level employees.
+   */
+  public int depth(int index) {
+    return depths[index];
+  }
+
+  /**
+   * Returns the largest reporting depth in the organization.
+   */
+  public int maxDepth() {
+    return maxDepth;
+  }
+
+  /**
+   * Returns a copy of the reporting depth column, aligned with the employee indexes.
+   */
+  public int[] depths() {
+    return depths.clone();
+  }
+
+  /**
+   * Returns the employee at the given position of the breadth-first order from the top-level
+   * employees down. Every manager comes before all of their subordinates, so iterating the
+   * positions in reverse visits every subordinate before its manager.
+   */
+  public int topDown(int position) {
+    return topDownOrder[position];
+  }
+
+  private void linkChildren() {
+    for (int parent : parents) {
+      if (parent != NO_PARENT) {
+        childOffsets[parent + 1]++;
+      }
+    }
+    for (int i = 0; i < ids.length; i++) {
+      childOffsets[i + 1] += childOffsets[i];
+    }
+    int[] next = Arrays.copyOf(childOffsets, ids.length);
+    for (int i = 0; i < ids.length; i++) {
+      if (parents[i] != NO_PARENT) {
+        children[next[parents[i]]++] = i;
+      }
+    }
+  }
+
+  /**
+   * Lists the employees breadth-first from the top-level employees down and records their depths
+   * in the same pass. Employees that are never reached are part of, or hang below, a reporting
+   * cycle.
+   */
+  private void orderTopDown() {
+    int count = 0;
+    for (int i = 0; i < ids.length; i++) {
+      if (parents[i] == NO_PARENT) {
+        topDownOrder[count++] = i;
+      }
+    }
+    for (int head = 0; head < count; head++) {
+      int employee = topDownOrder[head];
+      int childDepth = depths[employee] + 1;
+      for (int position = childOffsets[employee]; position < childOffsets[employee + 1];
+          position++) {
+        int child = children[position];
+        depths[child] = childDepth;
+        topDownOrder[count++] = child;
+      }
+      maxDepth = Math.max(maxDepth, depths[employee]);
+    }
+    if (count < ids.length) {
+      throw unreachableEmployeesException(count);
+    }
+  }
+
+  /**
+   * Classifies every unreached employee in one pass over their reporting lines: employees whose
+   * line returns to themselves form a cycle, all others hang below one.
+   */
+  private EmployeeValidationException unreachableEmployeesException(int reachedCount) {
+    final byte unvisited = 0;
+    final byte onPath = 1;
+    final byte done = 2;
+    byte[] state = new byte[ids.length];
+    for (int i = 0; i < reachedCount; i++) {
+      state[topDownOrder[i]] = done;
+    }
+
+    List<Integer> cycleIds = new ArrayList<>();
+    List<Integer> unreachableIds = new ArrayList<>();
+    int[] path = new int[ids.length];
+    for (int start = 0; start < ids.length; start++) {
+      if (state[start] != unvisited) {
+        continue;
+      }
+      int length = 0;
+      int current = start;
+      while (state[current] == unvisited) {
+        state[current] = onPath;
+        path[length++] = current;
+        current = parents[current];
+      }
+      int cycleStart = length;
+      if (state[current] == onPath) {
+        cycleStart = 0;
+        while (path[cycleStart] != current) {
+          cycleStart++;
+        }
+      }
+      for (int i = 0; i < length; i++) {
+        state[path[i]] = done;
+        (i >= cycleStart ? cycleIds : unreachableIds).add(ids[path[i]]);
+      }
+    }
+
+    Collections.sort(cycleIds);
+    Collections.sort(unreachableIds);
+    return reportingCycleException(cycleIds, cycleIds.size(), unreachableIds,
+        unreachableIds.size());
+  }
+
+  /**
+   * Creates the exception for employees that never reach a top-level employee. Only the first
+   * {@value #MAX_REPORTED_IDS} ids of each group are named, so callers that stream the employees
+   * need not keep more than that.
+   *
+   * @param cycleIds       the smallest ids of the employees in a cycle, in ascending order
+   * @param cycleCount     the number of employees in a cycle
+   * @param reportingIds   the smallest ids of the employees below a cycle, in ascending order
+   * @param reportingCount the number of employees below a cycle
+   * @return the exception to throw
+   */
+  public static EmployeeValidationException reportingCycleException(List<Integer> cycleIds,
+      long cycleCount, List<Integer> reportingIds, long reportingCount) {
+    StringBuilder message = new StringBuilder("Reporting line cycle detected among employees ")
+        .append(describe(cycleIds, cycleCount)).append('.');
+    if (reportingCount > 0) {
+      message.append(" Employees reporting into the cycle: ")
+          .append(describe(reportingIds, reportingCount)).append('.');
+    }
+    return new EmployeeValidationException(message.toString());
+  }
+
+  private static String describe(List<Integer> sortedIds, long count) {
+    if (count <= MAX_REPORTED_IDS) {
+      return sortedIds.toString();
+    }
+    String shown = sortedIds.subList(0, MAX_REPORTED_IDS).toString();
+    return shown.substring(0, shown.length() - 1) + ", ... and " + (count - MAX_REPORTED_IDS)
+        + " more]";
+  }
+}
@@ -0,0 +1,14 @@
+package org.example.model;
+
+/**
+ * An employee with too many managers between them and the CEO.
+ *
+ * @param id          the employee's id
+ * @param firstName   the employee's first name
+ * @param lastName    the employee's last name
+ * @param excessDepth by how many levels the reporting line is too long
+ */
+public record ReportingLineViolation(int id, String firstName, String lastName, int excessDepth)
+    implements Violation {
+
+}
@@ -0,0 +1,20 @@
+package org.example.model;
+
+/**
+ * A manager whose salary is outside the accepted range around the average salary of their direct
+ * subordinates.
+ *
+ * @param id        the manager's id
+ * @param firstName the manager's first name
+ * @param lastName  the manager's last name
+ * @param kind      whether the manager earns too little or too much
+ * @param amount    how far the salary is below the minimum or above the maximum of the range
+ */
+public record SalaryViolation(int id, String firstName, String lastName, Kind kind, double amount)
+    implements Violation {
+
+  public enum Kind {
+    UNDERPAID,
+    OVERPAID
+  }
+}
@@ -0,0 +1,13 @@
+package org.example.model;
+
+/**
+ * A finding of one of the analyzers about a single employee.
+ */
+public sealed interface Violation permits SalaryViolation, ReportingLineViolation {
+
+  int id();
+
+  String firstName();
+
+  String lastName();
+}
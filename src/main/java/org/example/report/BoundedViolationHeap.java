@@ -0,0 +1,128 @@
+package org.example.report;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.example.model.Violation;
+
+/**
+ * Keeps the {@code capacity} most severe violations offered to it, in a binary min-heap whose root
+ * is the least severe violation kept. Severities and ids live in primitive arrays next to the
+ * violations, so comparing and sifting touch no objects and the heap never grows beyond its
+ * capacity.
+ * <p>
+ * A higher severity ranks first; among equal severities, the lower id ranks first.
+ */
+final class BoundedViolationHeap<V extends Violation> {
+
+  private final double[] severities;
+  private final int[] ids;
+  private final Object[] violations;
+  private int size;
+
+  BoundedViolationHeap(int capacity) {
+    this(new double[capacity], new int[capacity], new Object[capacity], 0);
+  }
+
+  private BoundedViolationHeap(double[] severities, int[] ids, Object[] violations, int size) {
+    this.severities = severities;
+    this.ids = ids;
+    this.violations = violations;
+    this.size = size;
+  }
+
+  /**
+   * Adds the violation if the heap has room or it ranks before the least severe violation kept,
+   * which it then replaces.
+   */
+  void offer(V violation, double severity) {
+    int capacity = severities.length;
+    if (size < capacity) {
+      set(size, severity, violation.id(), violation);
+      siftUp(size++);
+    } else if (capacity > 0 && ranksBefore(severity, violation.id(), severities[0], ids[0])) {
+      set(0, severity, violation.id(), violation);
+      siftDown(0, size);
+    }
+  }
+
+  /**
+   * Offers every violation kept by another heap, with the severity it was kept with.
+   */
+  @SuppressWarnings("unchecked")
+  void offerAll(BoundedViolationHeap<V> other) {
+    for (int i = 0; i < other.size; i++) {
+      offer((V) other.violations[i], other.severities[i]);
+    }
+  }
+
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the kept violations, most severe first. The heap itself is left unchanged.
+   */
+  @SuppressWarnings("unchecked")
+  List<V> ranked() {
+    BoundedViolationHeap<V> copy = new BoundedViolationHeap<>(Arrays.copyOf(severities, size),
+        Arrays.copyOf(ids, size), Arrays.copyOf(violations, size), size);
+    // heap sort: moving the root to the end leaves the most severe violation at index 0
+    for (int end = copy.size - 1; end > 0; end--) {
+      copy.swap(0, end);
+      copy.siftDown(0, end);
+    }
+    List<V> result = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      result.add((V) copy.violations[i]);
+    }
+    return result;
+  }
+
+  private static boolean ranksBefore(double severity, int id, double otherSeverity, int otherId) {
+    return severity > otherSeverity || (severity == otherSeverity && id < otherId);
+  }
+
+  private void siftUp(int index) {
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!ranksBefore(severities[parent], ids[parent], severities[index], ids[index])) {
+        return;
+      }
+      swap(index, parent);
+      index = parent;
+    }
+  }
+
+  private void siftDown(int index, int end) {
+    while (true) {
+      int child = 2 * index + 1;
+      if (child >= end) {
+        return;
+      }
+      if (child + 1 < end
+          && ranksBefore(severities[child], ids[child], severities[child + 1], ids[child + 1])) {
+        child++;
+      }
+      if (!ranksBefore(severities[index], ids[index], severities[child], ids[child])) {
+        return;
+      }
+      swap(index, child);
+      index = child;
+    }
+  }
+
+  private void set(int index, double severity, int id, Object violation) {
+    severities[index] = severity;
+    ids[index] = id;
+    violations[index] = violation;
+  }
+
+  private void swap(int a, int b) {
+    double severity = severities[a];
+    int id = ids[a];
+    Object violation = violations[a];
+    set(a, severities[b], ids[b], violations[b]);
+    set(b, severity, id, violation);
+  }
+}
@@ -0,0 +1,19 @@
+package org.example.report;
+
+/**
+ * A sink whose result does not depend on the order in which violations arrive, such as a ranking.
+ * A parallel traversal gives every range of employees its own empty part and merges the parts
+ * afterwards, instead of buffering every violation of a range until the range's turn comes.
+ */
+public interface MergeableViolationSink extends ViolationSink {
+
+  /**
+   * Returns an empty sink configured like this one, to collect the violations of one range.
+   */
+  MergeableViolationSink newPart();
+
+  /**
+   * Adds the violations kept by a part created with {@link #newPart()}.
+   */
+  void merge(MergeableViolationSink part);
+}
@@ -0,0 +1,77 @@
+package org.example.report;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import org.example.model.Violation;
+
+/**
+ * Collects violations as report text in memory, encoded as compact bytes rather than as a growing
+ * {@code StringBuilder}. The text is the same {@link TextReportWriter} produces with the default
+ * format locale and line separator.
+ */
+public final class ReportBuffer implements ViolationSink {
+
+  private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+  private final Charset charset;
+  private final TextReportWriter writer;
+
+  /**
+   * Creates a buffer that keeps the report encoded as UTF-8, so {@link #toString()} returns it
+   * exactly.
+   */
+  public ReportBuffer() {
+    this(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Creates a buffer that keeps the report in the given charset, e.g. the one of the stream it is
+   * later written to with {@link #writeTo(OutputStream)}.
+   */
+  public ReportBuffer(Charset charset) {
+    this.charset = charset;
+    this.writer = new TextReportWriter(bytes, charset, Locale.getDefault(Locale.Category.FORMAT),
+        System.lineSeparator());
+  }
+
+  @Override
+  public void accept(Violation violation) {
+    try {
+      writer.accept(violation);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void flush() {
+    try {
+      writer.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Writes the report collected so far.
+   *
+   * @throws IOException if the stream fails
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    flush();
+    bytes.writeTo(out);
+  }
+
+  /**
+   * Returns the report collected so far.
+   */
+  @Override
+  public String toString() {
+    flush();
+    return bytes.toString(charset);
+  }
+}
@@ -0,0 +1,251 @@
+package org.example.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.text.DecimalFormatSymbols;
+import java.util.Arrays;
+import java.util.Locale;
+import org.example.model.ReportingLineViolation;
+import org.example.model.SalaryViolation;
+import org.example.model.Violation;
+
+/**
+ * Writes violations in the text format of the analyzer reports, for example
+ * {@code 5|Alice Hasacat earns less than they should by 4000.00}, straight into an
+ * {@link OutputStream} through an internal byte buffer.
+ *
+ * <p>The output is byte-for-byte what {@code String.format} produces for the same lines with the
+ * same locale, but numbers are formatted without allocating. {@code %.2f} rounds half up on the
+ * shortest decimal representation of a double, so amounts within a hair of a half cent, very large
+ * amounts, and locales whose digits or decimal separator differ from {@code 0-9} and {@code .} are
+ * formatted with {@code String.format} instead, as are all lines when the charset does not encode
+ * ASCII as single bytes.
+ *
+ * <p>Call {@link #flush()} when done; closing the writer is left to the owner of the stream.
+ */
+public final class TextReportWriter implements ViolationSink {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int MAX_NUMBER_LENGTH = 24;
+
+  /**
+   * Amounts at or above this are formatted with {@code String.format}. Below it, the double nearest
+   * to an amount times 100 is off by far less than {@link #HALF_CENT_TOLERANCE}.
+   */
+  private static final double MAX_PLAIN_AMOUNT = 1e9;
+  private static final double HALF_CENT_TOLERANCE = 1e-4;
+
+  private static final byte[] EARNS_LESS = " earns less than they should by "
+      .getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] EARNS_MORE = " earns more than they should by "
+      .getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] TOO_LONG = " has a reporting line that is too long by "
+      .getBytes(StandardCharsets.US_ASCII);
+  private static final byte[] LEVELS = " levels".getBytes(StandardCharsets.US_ASCII);
+
+  private final OutputStream out;
+  private final Charset charset;
+  private final Locale locale;
+  private final boolean asciiCompatible;
+  private final boolean plainText;
+  private final byte[] lineSeparator;
+  private final byte[] buffer = new byte[BUFFER_SIZE];
+  private int position;
+
+  /**
+   * Creates a writer that uses the default charset, format locale and line separator, like the
+   * reports printed to the console.
+   */
+  public TextReportWriter(OutputStream out) {
+    this(out, Charset.defaultCharset(), Locale.getDefault(Locale.Category.FORMAT),
+        System.lineSeparator());
+  }
+
+  /**
+   * Creates a writer.
+   *
+   * @param out           the stream to write to
+   * @param charset       the charset used for names and fallback lines
+   * @param locale        the locale numbers are formatted in
+   * @param lineSeparator the line separator written after every violation
+   */
+  public TextReportWriter(OutputStream out, Charset charset, Locale locale, String lineSeparator) {
+    this.out = out;
+    this.charset = charset;
+    this.locale = locale;
+    DecimalFormatSymbols symbols = DecimalFormatSymbols.getInstance(locale);
+    this.asciiCompatible = isAsciiCompatible(charset);
+    this.plainText = asciiCompatible && symbols.getZeroDigit() == '0'
+        && symbols.getDecimalSeparator() == '.';
+    this.lineSeparator = lineSeparator.getBytes(charset);
+  }
+
+  @Override
+  public void accept(Violation violation) throws IOException {
+    if (violation instanceof SalaryViolation) {
+      writeSalaryViolation((SalaryViolation) violation);
+    } else {
+      writeReportingLineViolation((ReportingLineViolation) violation);
+    }
+  }
+
+  @Override
+  public void flush() throws IOException {
+    flushBuffer();
+    out.flush();
+  }
+
+  private void writeSalaryViolation(SalaryViolation violation) throws IOException {
+    boolean underpaid = violation.kind() == SalaryViolation.Kind.UNDERPAID;
+    double amount = violation.amount();
+    if (!plainText || !isPlainAmount(amount)) {
+      writeString(String.format(locale, underpaid
+              ? "%d|%s %s earns less than they should by %.2f"
+              : "%d|%s %s earns more than they should by %.2f",
+          violation.id(), violation.firstName(), violation.lastName(), amount));
+      writeBytes(lineSeparator);
+      return;
+    }
+    writeInt(violation.id());
+    writeByte('|');
+    writeString(violation.firstName());
+    writeByte(' ');
+    writeString(violation.lastName());
+    writeBytes(underpaid ? EARNS_LESS : EARNS_MORE);
+    writeAmount(amount);
+    writeBytes(lineSeparator);
+  }
+
+  private void writeReportingLineViolation(ReportingLineViolation violation) throws IOException {
+    if (!plainText) {
+      writeString(String.format(locale,
+          "%d|%s %s has a reporting line that is too long by %d levels", violation.id(),
+          violation.firstName(), violation.lastName(), violation.excessDepth()));
+      writeBytes(lineSeparator);
+      return;
+    }
+    writeInt(violation.id());
+    writeByte('|');
+    writeString(violation.firstName());
+    writeByte(' ');
+    writeString(violation.lastName());
+    writeBytes(TOO_LONG);
+    writeInt(violation.excessDepth());
+    writeBytes(LEVELS);
+    writeBytes(lineSeparator);
+  }
+
+  /**
+   * Checks whether {@link #writeAmount(double)} rounds the amount exactly like {@code %.2f}.
+   */
+  static boolean isPlainAmount(double amount) {
+    if (!(amount >= 0 && amount < MAX_PLAIN_AMOUNT)) {
+      return false;
+    }
+    double cents = amount * 100;
+    double fraction = cents - Math.floor(cents);
+    return Math.abs(fraction - 0.5) > HALF_CENT_TOLERANCE;
+  }
+
+  private static boolean isAsciiCompatible(Charset charset) {
+    byte[] ascii = new byte[0x80];
+    for (int i = 0; i < ascii.length; i++) {
+      ascii[i] = (byte) i;
+    }
+    String text = new String(ascii, StandardCharsets.US_ASCII);
+    return charset.canEncode() && Arrays.equals(ascii, text.getBytes(charset));
+  }
+
+  private void writeAmount(double amount) throws IOException {
+    double scaled = amount * 100;
+    double floor = Math.floor(scaled);
+    long cents = (long) floor + (scaled - floor > 0.5 ? 1 : 0);
+    writeLong(cents / 100);
+    writeByte('.');
+    int fraction = (int) (cents % 100);
+    writeByte('0' + fraction / 10);
+    writeByte('0' + fraction % 10);
+  }
+
+  private void writeInt(int value) throws IOException {
+    writeLong(value);
+  }
+
+  private void writeLong(long value) throws IOException {
+    ensureRemaining(MAX_NUMBER_LENGTH);
+    if (value < 0) {
+      buffer[position++] = '-';
+      if (value == Long.MIN_VALUE) {
+        writeString(Long.toString(value).substring(1));
+        return;
+      }
+      value = -value;
+    }
+    int digits = 1;
+    for (long rest = value / 10; rest != 0; rest /= 10) {
+      digits++;
+    }
+    int end = position + digits;
+    for (int i = end - 1; i >= position; i--) {
+      buffer[i] = (byte) ('0' + value % 10);
+      value /= 10;
+    }
+    position = end;
+  }
+
+  private void writeString(String text) throws IOException {
+    if (!asciiCompatible || !isAscii(text)) {
+      writeBytes(text.getBytes(charset));
+      return;
+    }
+    int length = text.length();
+    for (int i = 0; i < length; ) {
+      ensureRemaining(1);
+      int count = Math.min(length - i, buffer.length - position);
+      for (int end = i + count; i < end; i++) {
+        buffer[position++] = (byte) text.charAt(i);
+      }
+    }
+  }
+
+  private static boolean isAscii(String text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (text.charAt(i) >= 0x80) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void writeByte(int value) throws IOException {
+    ensureRemaining(1);
+    buffer[position++] = (byte) value;
+  }
+
+  private void writeBytes(byte[] bytes) throws IOException {
+    if (bytes.length > buffer.length - position) {
+      flushBuffer();
+      if (bytes.length > buffer.length) {
+        out.write(bytes);
+        return;
+      }
+    }
+    System.arraycopy(bytes, 0, buffer, position, bytes.length);
+    position += bytes.length;
+  }
+
+  private void ensureRemaining(int bytes) throws IOException {
+    if (buffer.length - position < bytes) {
+      flushBuffer();
+    }
+  }
+
+  private void flushBuffer() throws IOException {
+    if (position > 0) {
+      out.write(buffer, 0, position);
+      position = 0;
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package org.example.report;
+
+import java.util.List;
+import org.example.model.ReportingLineViolation;
+import org.example.model.SalaryViolation;
+import org.example.model.Violation;
+
+/**
+ * Keeps only the worst violations while the analyzers run: the most overpaid managers, the most
+ * underpaid managers and the longest reporting lines, at most {@code limit} of each. Memory stays
+ * proportional to the limit no matter how many violations are found, and the results come out
+ * ranked, so no full report has to be built and sorted afterwards.
+ * <p>
+ * Salary violations rank by amount, reporting lines by the number of levels above the limit, and
+ * ties by ascending id. Since the ranking does not depend on the order violations arrive in, the
+ * rankings of several ranges of employees can be merged.
+ */
+public final class TopViolations implements MergeableViolationSink {
+
+  private final int limit;
+  private final BoundedViolationHeap<SalaryViolation> overpaid;
+  private final BoundedViolationHeap<SalaryViolation> underpaid;
+  private final BoundedViolationHeap<ReportingLineViolation> longestReportingLines;
+
+  /**
+   * Creates an empty ranking.
+   *
+   * @param limit the maximum number of violations kept per ranking
+   */
+  public TopViolations(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("Limit must be positive, but was " + limit);
+    }
+    this.limit = limit;
+    this.overpaid = new BoundedViolationHeap<>(limit);
+    this.underpaid = new BoundedViolationHeap<>(limit);
+    this.longestReportingLines = new BoundedViolationHeap<>(limit);
+  }
+
+  @Override
+  public void accept(Violation violation) {
+    if (violation instanceof SalaryViolation salaryViolation) {
+      if (salaryViolation.kind() == SalaryViolation.Kind.OVERPAID) {
+        overpaid.offer(salaryViolation, salaryViolation.amount());
+      } else {
+        underpaid.offer(salaryViolation, salaryViolation.amount());
+      }
+    } else if (violation instanceof ReportingLineViolation lineViolation) {
+      longestReportingLines.offer(lineViolation, lineViolation.excessDepth());
+    }
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public TopViolations newPart() {
+    return new TopViolations(limit);
+  }
+
+  @Override
+  public void merge(MergeableViolationSink part) {
+    TopViolations other = (TopViolations) part;
+    overpaid.offerAll(other.overpaid);
+    underpaid.offerAll(other.underpaid);
+    longestReportingLines.offerAll(other.longestReportingLines);
+  }
+
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Returns the managers who earn the most above their range, highest amount first.
+   */
+  public List<SalaryViolation> overpaid() {
+    return overpaid.ranked();
+  }
+
+  /**
+   * Returns the managers who earn the most below their range, highest amount first.
+   */
+  public List<SalaryViolation> underpaid() {
+    return underpaid.ranked();
+  }
+
+  /**
+   * Returns the employees whose reporting lines exceed the limit the most, longest first.
+   */
+  public List<ReportingLineViolation> longestReportingLines() {
+    return longestReportingLines.ranked();
+  }
+}
@@ -0,0 +1,33 @@
+package org.example.report;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import org.example.model.Violation;
+
+/**
+ * Receives the violations found by the analyzers, one at a time, for example to write them out as
+ * they are found instead of collecting a whole report first.
+ */
+public interface ViolationSink extends Flushable {
+
+  /**
+   * Consumes one violation.
+   *
+   * @throws IOException if the violation cannot be written
+   */
+  void accept(Violation violation) throws IOException;
+
+  /**
+   * Consumes all violations of a stream in encounter order.
+   *
+   * @throws IOException if a violation cannot be written
+   */
+  default void acceptAll(Stream<? extends Violation> violations) throws IOException {
+    Iterator<? extends Violation> iterator = violations.iterator();
+    while (iterator.hasNext()) {
+      accept(iterator.next());
+    }
+  }
+}
@@ -0,0 +1,232 @@
+package org.example.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.example.exception.FileValidationException;
+import org.example.model.OrgEvent;
+
+/**
+ * Follows an employee CSV file that grows by appended rows. The tail remembers the byte offset
+ * after the last complete line it has read, so each {@link #readAppendedRows()} parses only the
+ * rows added since, with the same rules as {@link EmployeeRepository}: blank lines and bytes that
+ * are not valid UTF-8 are rejected like any other malformed row. The appended bytes are read in
+ * chunks, so only the parsed rows are kept in memory. A last line without a line break is left for
+ * the next read, as the writer may not have finished it.
+ * <p>
+ * To notice a file that was truncated or rewritten rather than appended to, the tail also keeps
+ * the first bytes of the file and the bytes just before its offset and compares them on every
+ * read. Edits further inside the file are not noticed.
+ * <p>
+ * A caller that may reject the appended rows reads them with {@link #peekAppendedRows()} and
+ * calls {@link #advance()} only once they have been applied, so rejected rows are read again.
+ */
+public final class CsvTail {
+
+  private static final int GUARD_LENGTH = 64;
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+  private static final int INITIAL_LINE_LENGTH = 256;
+
+  private final Path file;
+  private long offset;
+  private byte[] head = new byte[0];
+  private byte[] guard = new byte[0];
+  private int linesRead;
+  private long peekedOffset = -1;
+  private byte[] peekedHead;
+  private byte[] peekedGuard;
+  private int peekedLinesRead;
+
+  public CsvTail(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Marks everything up to the last complete line as read, typically right after the whole file
+   * was loaded.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  public void skipToEnd() throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long lastLineEnd = 0;
+      int lines = 0;
+      ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+      long position = 0;
+      int read;
+      while ((read = channel.read(buffer, position)) > 0) {
+        for (int i = 0; i < read; i++) {
+          if (buffer.get(i) == '\n') {
+            lastLineEnd = position + i + 1;
+            lines++;
+          }
+        }
+        position += read;
+        buffer.clear();
+      }
+      moveTo(channel, lastLineEnd, lines);
+    }
+  }
+
+  /**
+   * Returns the byte offset after the last complete line read so far.
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  /**
+   * Reads the complete rows appended since the last read and marks them as read.
+   *
+   * @return the appended rows as hires in file order, or empty if the file has not grown by a
+   * complete line
+   * @throws RewrittenException      if the file is shorter than the offset or its content before
+   *                                 the offset changed
+   * @throws FileValidationException if an appended row is blank, malformed or has no manager
+   * @throws IOException             if the file cannot be read
+   */
+  public List<OrgEvent.Hire> readAppendedRows() throws IOException {
+    List<OrgEvent.Hire> hires = peekAppendedRows();
+    advance();
+    return hires;
+  }
+
+  /**
+   * Reads the complete rows appended since the last read without marking them as read, so the
+   * next read returns them again unless {@link #advance()} is called first.
+   *
+   * @return the appended rows as hires in file order, or empty if the file has not grown by a
+   * complete line
+   * @throws RewrittenException      if the file is shorter than the offset or its content before
+   *                                 the offset changed
+   * @throws FileValidationException if an appended row is blank, malformed or has no manager
+   * @throws IOException             if the file cannot be read
+   */
+  public List<OrgEvent.Hire> peekAppendedRows() throws IOException {
+    peekedOffset = -1;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size < offset || !Arrays.equals(head, readGuard(channel, head.length))
+          || !Arrays.equals(guard, readGuard(channel, offset))) {
+        throw new RewrittenException(file, "was truncated or rewritten");
+      }
+
+      EmployeeRecords records = new EmployeeRecords();
+      CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+      ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+      byte[] line = new byte[INITIAL_LINE_LENGTH];
+      int lineLength = 0;
+      long lineEnd = offset;
+      int lines = 0;
+      long position = offset;
+      int read;
+      // read no further than the size seen above, which the guards were checked against
+      while (position < size) {
+        buffer.limit((int) Math.min(READ_BUFFER_SIZE, size - position));
+        if ((read = channel.read(buffer, position)) <= 0) {
+          break;
+        }
+        for (int i = 0; i < read; i++) {
+          byte b = buffer.get(i);
+          if (b == '\n') {
+            parseRow(decoder, line, lineLength, linesRead + lines, records);
+            lines++;
+            lineLength = 0;
+            lineEnd = position + i + 1;
+          } else {
+            if (lineLength == line.length) {
+              line = Arrays.copyOf(line, lineLength * 2);
+            }
+            line[lineLength++] = b;
+          }
+        }
+        position += read;
+        buffer.clear();
+      }
+
+      List<OrgEvent.Hire> hires = new ArrayList<>(records.size());
+      for (int row = 0; row < records.size(); row++) {
+        hires.add(new OrgEvent.Hire(records.id(row), records.firstName(row),
+            records.lastName(row), records.salary(row), records.managerId(row)));
+      }
+      peekedOffset = lineEnd;
+      peekedLinesRead = linesRead + lines;
+      peekedHead = readGuard(channel, Math.min(GUARD_LENGTH, peekedOffset));
+      peekedGuard = readGuard(channel, peekedOffset);
+      return hires;
+    }
+  }
+
+  /**
+   * Marks the rows returned by the last {@link #peekAppendedRows()} as read. The guard bytes were
+   * taken when the rows were read, so a rewrite in between is still noticed by the next read.
+   *
+   * @throws IllegalStateException if no rows were peeked since the last advance
+   */
+  public void advance() {
+    if (peekedOffset < 0) {
+      throw new IllegalStateException("No appended rows were read since the last advance");
+    }
+    offset = peekedOffset;
+    linesRead = peekedLinesRead;
+    head = peekedHead;
+    guard = peekedGuard;
+    peekedOffset = -1;
+  }
+
+  /**
+   * Parses one appended line like a full load does: the line must be valid UTF-8 and a complete
+   * row, and only the first row of the file may lack a manager.
+   */
+  private static void parseRow(CharsetDecoder decoder, byte[] line, int length, int lineIndex,
+      EmployeeRecords records) {
+    String text;
+    try {
+      text = decoder.decode(ByteBuffer.wrap(line, 0, length)).toString();
+    } catch (CharacterCodingException e) {
+      throw new FileValidationException(
+          "Line " + (lineIndex + 1) + " is not valid UTF-8: " + e.getMessage());
+    }
+    EmployeeRepository.parseEmployeeRecord(text, lineIndex, records);
+    if (!records.hasManager(records.size() - 1)) {
+      throw new FileValidationException(
+          "Multiple CEOs found. Only one CEO without a managerId is allowed.");
+    }
+  }
+
+  private void moveTo(FileChannel channel, long newOffset, int newLinesRead) throws IOException {
+    offset = newOffset;
+    linesRead = newLinesRead;
+    head = readGuard(channel, Math.min(GUARD_LENGTH, newOffset));
+    guard = readGuard(channel, newOffset);
+  }
+
+  private static byte[] readGuard(FileChannel channel, long end) throws IOException {
+    int length = (int) Math.min(GUARD_LENGTH, end);
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()
+        && channel.read(buffer, end - length + buffer.position()) > 0) {
+      // fill the guard
+    }
+    return Arrays.copyOf(buffer.array(), buffer.position());
+  }
+
+  /**
+   * Signals that the appended rows cannot be read on their own, usually because the followed file
+   * no longer starts with what was read before, so it has to be loaded again as a whole.
+   */
+  public static final class RewrittenException extends IOException {
+
+    public RewrittenException(Path file, String reason) {
+      super("The file " + file + " " + reason);
+    }
+  }
+}
@@ -0,0 +1,275 @@
+package org.example.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import org.example.exception.FileReaderException;
+import org.example.model.NameArena;
+
+/**
+ * Growable columnar buffer of parsed employee rows, kept in file order. Every load mode fills one
+ * of these, and the repository turns it into the requested model afterwards.
+ * <p>
+ * Without skipped rows, the line of a row follows from its position. Lenient loads skip rows, so
+ * their buffers also keep each row's line number.
+ * <p>
+ * Buffers for {@link LoadMode#COMPACT} loads keep names as UTF-8 bytes in one growing array, with
+ * the end of every name in {@code nameEnds}, and hand them to the snapshot as a
+ * {@link NameArena}. Rows read from a {@link MappedCsvReader} then never decode their names.
+ */
+final class EmployeeRecords {
+
+  private static final int DEFAULT_CAPACITY = 1024;
+
+  /**
+   * Positions of the name fields on a line of the employee file.
+   */
+  private static final int FIRST_NAME_FIELD = 1;
+  private static final int LAST_NAME_FIELD = 2;
+
+  private int size;
+  private int[] ids;
+  private String[] firstNames;
+  private String[] lastNames;
+  private double[] salaries;
+  private int[] managerIds;
+  private boolean[] hasManager;
+  private int[] lineNumbers;
+  private byte[] nameBytes;
+  private int nameBytesSize;
+  private int[] nameEnds;
+
+  EmployeeRecords() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  EmployeeRecords(boolean withLineNumbers) {
+    this(DEFAULT_CAPACITY, withLineNumbers);
+  }
+
+  EmployeeRecords(int capacity) {
+    this(capacity, false);
+  }
+
+  EmployeeRecords(boolean withLineNumbers, boolean withNameBytes) {
+    this(DEFAULT_CAPACITY, withLineNumbers, withNameBytes);
+  }
+
+  EmployeeRecords(int capacity, boolean withLineNumbers) {
+    this(capacity, withLineNumbers, false);
+  }
+
+  EmployeeRecords(int capacity, boolean withLineNumbers, boolean withNameBytes) {
+    capacity = Math.max(capacity, 16);
+    lineNumbers = withLineNumbers ? new int[capacity] : null;
+    ids = new int[capacity];
+    if (withNameBytes) {
+      nameBytes = new byte[capacity * 16];
+      nameEnds = new int[2 * capacity];
+    } else {
+      firstNames = new String[capacity];
+      lastNames = new String[capacity];
+    }
+    salaries = new double[capacity];
+    managerIds = new int[capacity];
+    hasManager = new boolean[capacity];
+  }
+
+  void add(int id, String firstName, String lastName, double salary, boolean managed,
+      int managerId) {
+    ensureCapacity(size + 1);
+    if (nameEnds == null) {
+      firstNames[size] = firstName;
+      lastNames[size] = lastName;
+    } else {
+      appendName(2 * size, firstName.getBytes(StandardCharsets.UTF_8));
+      appendName(2 * size + 1, lastName.getBytes(StandardCharsets.UTF_8));
+    }
+    addColumns(id, salary, managed, managerId);
+  }
+
+  /**
+   * Adds a row whose names are the name fields of the reader's current line. A buffer that keeps
+   * name bytes copies them without decoding.
+   */
+  void add(int id, MappedCsvReader reader, double salary, boolean managed, int managerId) {
+    if (nameEnds == null) {
+      add(id, reader.fieldAsString(FIRST_NAME_FIELD), reader.fieldAsString(LAST_NAME_FIELD),
+          salary, managed, managerId);
+      return;
+    }
+    ensureCapacity(size + 1);
+    copyName(2 * size, reader, FIRST_NAME_FIELD);
+    copyName(2 * size + 1, reader, LAST_NAME_FIELD);
+    addColumns(id, salary, managed, managerId);
+  }
+
+  private void addColumns(int id, double salary, boolean managed, int managerId) {
+    ids[size] = id;
+    salaries[size] = salary;
+    managerIds[size] = managerId;
+    hasManager[size] = managed;
+    size++;
+  }
+
+  /**
+   * Adds a row of a buffer that keeps line numbers.
+   */
+  void add(int id, String firstName, String lastName, double salary, boolean managed,
+      int managerId, int lineNumber) {
+    add(id, firstName, lastName, salary, managed, managerId);
+    lineNumbers[size - 1] = lineNumber;
+  }
+
+  /**
+   * Adds a row of a buffer that keeps line numbers, taking the names from the reader.
+   */
+  void add(int id, MappedCsvReader reader, double salary, boolean managed, int managerId,
+      int lineNumber) {
+    add(id, reader, salary, managed, managerId);
+    lineNumbers[size - 1] = lineNumber;
+  }
+
+  /**
+   * Removes the row added last.
+   */
+  void removeLast() {
+    size--;
+    if (nameEnds == null) {
+      firstNames[size] = null;
+      lastNames[size] = null;
+    } else {
+      nameBytesSize = nameStart(2 * size);
+    }
+  }
+
+  void addAll(EmployeeRecords other) {
+    if (lineNumbers != null || nameEnds != null || other.nameEnds != null) {
+      throw new IllegalStateException(
+          "Rows with line numbers or name bytes are added one by one");
+    }
+    ensureCapacity(size + other.size);
+    System.arraycopy(other.ids, 0, ids, size, other.size);
+    System.arraycopy(other.firstNames, 0, firstNames, size, other.size);
+    System.arraycopy(other.lastNames, 0, lastNames, size, other.size);
+    System.arraycopy(other.salaries, 0, salaries, size, other.size);
+    System.arraycopy(other.managerIds, 0, managerIds, size, other.size);
+    System.arraycopy(other.hasManager, 0, hasManager, size, other.size);
+    size += other.size;
+  }
+
+  int size() {
+    return size;
+  }
+
+  int id(int row) {
+    return ids[row];
+  }
+
+  String firstName(int row) {
+    return nameEnds == null ? firstNames[row] : decodeName(2 * row);
+  }
+
+  String lastName(int row) {
+    return nameEnds == null ? lastNames[row] : decodeName(2 * row + 1);
+  }
+
+  boolean keepsNameBytes() {
+    return nameEnds != null;
+  }
+
+  /**
+   * Copies the names of the given rows, in the given order, into an arena.
+   *
+   * @param rows  the rows whose names are copied
+   * @param count the number of rows to take from {@code rows}
+   */
+  NameArena nameArena(int[] rows, int count) {
+    int[] offsets = new int[2 * count + 1];
+    for (int i = 0; i < 2 * count; i++) {
+      int name = 2 * rows[i / 2] + i % 2;
+      offsets[i + 1] = offsets[i] + nameEnds[name] - nameStart(name);
+    }
+    byte[] bytes = new byte[offsets[2 * count]];
+    for (int i = 0; i < 2 * count; i++) {
+      int name = 2 * rows[i / 2] + i % 2;
+      System.arraycopy(nameBytes, nameStart(name), bytes, offsets[i], offsets[i + 1] - offsets[i]);
+    }
+    return NameArena.of(bytes, offsets);
+  }
+
+  double salary(int row) {
+    return salaries[row];
+  }
+
+  boolean hasManager(int row) {
+    return hasManager[row];
+  }
+
+  int managerId(int row) {
+    return managerIds[row];
+  }
+
+  /**
+   * Returns the 1-based line of the file the row was read from.
+   */
+  int lineNumber(int row) {
+    // without skipped rows, line 1 holds the headers and every following line exactly one row
+    return lineNumbers == null ? row + 2 : lineNumbers[row];
+  }
+
+  private void ensureCapacity(int capacity) {
+    if (capacity <= ids.length) {
+      return;
+    }
+    int newCapacity = Math.max(capacity, ids.length + (ids.length >> 1));
+    ids = Arrays.copyOf(ids, newCapacity);
+    if (nameEnds == null) {
+      firstNames = Arrays.copyOf(firstNames, newCapacity);
+      lastNames = Arrays.copyOf(lastNames, newCapacity);
+    } else {
+      nameEnds = Arrays.copyOf(nameEnds, 2 * newCapacity);
+    }
+    salaries = Arrays.copyOf(salaries, newCapacity);
+    managerIds = Arrays.copyOf(managerIds, newCapacity);
+    hasManager = Arrays.copyOf(hasManager, newCapacity);
+    if (lineNumbers != null) {
+      lineNumbers = Arrays.copyOf(lineNumbers, newCapacity);
+    }
+  }
+
+  private int nameStart(int name) {
+    return name == 0 ? 0 : nameEnds[name - 1];
+  }
+
+  private String decodeName(int name) {
+    int start = nameStart(name);
+    return new String(nameBytes, start, nameEnds[name] - start, StandardCharsets.UTF_8);
+  }
+
+  private void appendName(int name, byte[] bytes) {
+    ensureNameCapacity(bytes.length);
+    System.arraycopy(bytes, 0, nameBytes, nameBytesSize, bytes.length);
+    nameBytesSize += bytes.length;
+    nameEnds[name] = nameBytesSize;
+  }
+
+  private void copyName(int name, MappedCsvReader reader, int field) {
+    ensureNameCapacity(reader.fieldLength(field));
+    nameBytesSize += reader.copyField(field, nameBytes, nameBytesSize);
+    nameEnds[name] = nameBytesSize;
+  }
+
+  private void ensureNameCapacity(int length) {
+    long required = (long) nameBytesSize + length;
+    if (required <= nameBytes.length) {
+      return;
+    }
+    if (required > Integer.MAX_VALUE - 8) {
+      throw new FileReaderException(
+          "Failed to read the employee file: the employee names exceed 2 GB");
+    }
+    long grown = (long) nameBytes.length + (nameBytes.length >> 1);
+    nameBytes = Arrays.copyOf(nameBytes, (int) Math.min(Math.max(required, grown),
+        Integer.MAX_VALUE - 8));
+  }
+}
@@ -1,73 +1,535 @@
 package org.example.repository;
 
+import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.example.exception.EmployeeValidationException;
 import org.example.exception.FileReaderException;
 import org.example.exception.FileValidationException;
+import org.example.metrics.RunMetrics;
 import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
 
 /**
  * Responsible for loading and processing employee data from a CSV file.
  */
 public class EmployeeRepository {
 
+  /**
+   * Row limit value that disables the employee record limit entirely.
+   */
+  public static final int UNLIMITED = -1;
+
   private static final String DELIMETER = ",";
   private static final List<String> HEADERS = Arrays.asList("Id", "firstName", "lastName", "salary",
       "managerId");
   private static final int COLUMN_COUNT = 5;
+  private static final int ID_COLUMN = 1;
+  private static final int SALARY_COLUMN = 4;
+  private static final int MANAGER_ID_COLUMN = 5;
+
+  private static final int DEFAULT_MAXIMUM_EMPLOYEE_COUNT = 1000;
+  private static final int READ_BUFFER_SIZE = 64 * 1024;
+  private static final int SEGMENTS_PER_THREAD = 4;
+  private static final long MIN_SEGMENT_SIZE = 1024 * 1024;
+
+  private final int maximumEmployeeCount;
+  private final LoadMode loadMode;
+  private final int parallelism;
+  private final SnapshotStore snapshotStore;
+
+  public EmployeeRepository() {
+    this(DEFAULT_MAXIMUM_EMPLOYEE_COUNT);
+  }
 
-  private static final int MAXIMUM_ROW_COUNT = 1001;
+  /**
+   * Creates a repository that accepts at most the given number of employee records.
+   *
+   * @param maximumEmployeeCount the maximum number of employee records (excluding the header) or
+   *                             {@link #UNLIMITED} to accept files of any size
+   */
+  public EmployeeRepository(int maximumEmployeeCount) {
+    this(maximumEmployeeCount, LoadMode.STREAMING);
+  }
+
+  /**
+   * Creates a repository with the given row limit that reads files using the given strategy.
+   *
+   * @param maximumEmployeeCount the maximum number of employee records (excluding the header) or
+   *                             {@link #UNLIMITED} to accept files of any size
+   * @param loadMode             how the CSV file is read and tokenized
+   */
+  public EmployeeRepository(int maximumEmployeeCount, LoadMode loadMode) {
+    this(maximumEmployeeCount, loadMode, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Creates a repository with the given row limit, read strategy and number of threads used by
+   * {@link LoadMode#PARALLEL}.
+   *
+   * @param maximumEmployeeCount the maximum number of employee records (excluding the header) or
+   *                             {@link #UNLIMITED} to accept files of any size
+   * @param loadMode             how the CSV file is read and tokenized
+   * @param parallelism          the number of worker threads used to parse file segments
+   */
+  public EmployeeRepository(int maximumEmployeeCount, LoadMode loadMode, int parallelism) {
+    this(maximumEmployeeCount, loadMode, parallelism, null);
+  }
+
+  /**
+   * Creates a repository that additionally keeps a binary snapshot of every parsed file in the
+   * given store and loads it instead of the CSV file as long as the CSV file is unchanged.
+   *
+   * @param maximumEmployeeCount the maximum number of employee records (excluding the header) or
+   *                             {@link #UNLIMITED} to accept files of any size
+   * @param loadMode             how the CSV file is read and tokenized
+   * @param parallelism          the number of worker threads used to parse file segments
+   * @param snapshotStore        where binary snapshots are kept, or {@code null} to always parse
+   *                             the CSV file
+   */
+  public EmployeeRepository(int maximumEmployeeCount, LoadMode loadMode, int parallelism,
+      SnapshotStore snapshotStore) {
+    if (maximumEmployeeCount < 0 && maximumEmployeeCount != UNLIMITED) {
+      throw new IllegalArgumentException(
+          "Maximum employee count must be positive or UNLIMITED, but was " + maximumEmployeeCount);
+    }
+    this.maximumEmployeeCount = maximumEmployeeCount;
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive, but was " + parallelism);
+    }
+    this.loadMode = Objects.requireNonNull(loadMode, "LoadMode must not be null");
+    this.parallelism = parallelism;
+    this.snapshotStore = snapshotStore;
+  }
 
   /**
    * Creates a map of employee IDs to Employee objects by reading data from a CSV file. Validates
    * that the file contains correct headers and the right number of rows. Ensures only one Employee
    * lacks a managerId (CEO).
+   * <p>
+   * The file is streamed through a buffered reader and each row is indexed as soon as it is read,
+   * so only the employees themselves are kept in memory, never the raw lines of the file. In
+   * {@link LoadMode#MAPPED} mode the file is memory-mapped and tokenized at the byte level instead;
+   * {@link LoadMode#PARALLEL} mode additionally parses segments of the mapped file on several
+   * threads, and {@link LoadMode#COMPACT} mode keeps names undecoded until they are asked for. All
+   * modes report the same validation errors with the same line numbers.
    *
    * @param filePath the path to the CSV file containing employee data
    * @return a map linking employee IDs to Employee objects
    * @throws FileReaderException         if issues with file access occur or file format is not as
    * @throws FileValidationException     if file format is incorrect such as wrong headers,
    *                                     incorrect number of columns in any row, more than allowed
-   *                                     rows, or multiple/no CEOs. expected
+   *                                     rows, duplicate ids or multiple/no CEOs. expected
    * @throws EmployeeValidationException if data validation fails (e.g., incorrect data format,
-   *                                     multiple CEOs)
+   *                                     unknown managers or reporting cycles)
    */
   public Map<Integer, Employee> createEmployeesMap(String filePath) {
-    List<String> dataLines = readEmployeeFile(filePath);
-    validateFileConditions(dataLines);
+    return createOrgSnapshot(filePath).toEmployeesMap();
+  }
+
+  /**
+   * Creates a compact columnar snapshot of the organization from a CSV file. The file is read and
+   * validated exactly like {@link #createEmployeesMap(String)} does, but no Employee objects are
+   * created: the rows are stored in primitive columns sorted by employee id.
+   * <p>
+   * After parsing, a linking stage indexes the rows by id and builds the child lists in a single
+   * pass. It rejects duplicate ids, unknown managers and reporting cycles, so analyzers never see
+   * an employee that does not report up to the CEO.
+   * <p>
+   * When the repository has a {@link SnapshotStore}, a stored binary snapshot is used instead of
+   * the CSV file as long as the CSV file's size, modification time and content hash still match;
+   * otherwise the CSV file is parsed and the snapshot is rewritten.
+   *
+   * @param filePath the path to the CSV file containing employee data
+   * @return the organization snapshot
+   * @throws FileReaderException         if issues with file access occur
+   * @throws FileValidationException     if the file format is incorrect
+   * @throws EmployeeValidationException if data validation fails
+   */
+  public OrgSnapshot createOrgSnapshot(String filePath) {
+    return createOrgSnapshot(filePath, RunMetrics.DISABLED);
+  }
+
+  /**
+   * Creates the organization snapshot like {@link #createOrgSnapshot(String)} and records the
+   * parse and link phases, or the snapshot load, in the given metrics.
+   *
+   * @param filePath the path to the CSV file containing employee data
+   * @param metrics  receives the phases
+   * @return the organization snapshot
+   * @throws FileReaderException         if issues with file access occur
+   * @throws FileValidationException     if the file format is incorrect
+   * @throws EmployeeValidationException if data validation fails
+   */
+  public OrgSnapshot createOrgSnapshot(String filePath, RunMetrics metrics) {
+    if (snapshotStore == null) {
+      return parseOrgSnapshot(filePath, metrics, null);
+    }
+
+    Path csvFile = Paths.get(filePath);
+    RunMetrics.Phase loading = metrics.start(RunMetrics.LOAD_SNAPSHOT);
+    Optional<OrgSnapshot> stored = snapshotStore.load(csvFile)
+        .filter(org -> maximumEmployeeCount == UNLIMITED || org.size() <= maximumEmployeeCount);
+    loading.end(stored.map(OrgSnapshot::size).orElse(0), -1);
+    if (stored.isPresent()) {
+      return stored.get();
+    }
+
+    FileFingerprint fingerprint = fingerprintQuietly(csvFile);
+    OrgSnapshot org = parseOrgSnapshot(filePath, metrics, null);
+    if (fingerprint != null) {
+      try {
+        snapshotStore.save(csvFile, fingerprint, org);
+      } catch (IOException e) {
+        // the snapshot only speeds up later runs; failing to write it must not fail this one
+      }
+    }
+    return org;
+  }
+
+  /**
+   * Creates the organization snapshot like {@link #createOrgSnapshot(String, RunMetrics)}, but
+   * leniently: malformed rows, duplicate ids, second CEOs, unknown managers and reporting cycles
+   * are recorded in the error buffer, and the rows concerned, along with everyone reporting to
+   * them, are left out of the snapshot instead of failing the load. The file is still read in a
+   * single pass. A file without headers or without a CEO, or with more rows than allowed, fails as
+   * usual.
+   * <p>
+   * The snapshot store is not used, since a stored snapshot would not know the errors.
+   *
+   * @param filePath the path to the CSV file containing employee data
+   * @param metrics  receives the parse and link phases
+   * @param errors   receives the rows left out
+   * @return the snapshot of the valid rows
+   * @throws FileReaderException     if issues with file access occur
+   * @throws FileValidationException if the headers are incorrect, there is no CEO or there are too
+   *                                 many rows
+   */
+  public OrgSnapshot createOrgSnapshot(String filePath, RunMetrics metrics, RowErrors errors) {
+    Objects.requireNonNull(errors, "RowErrors must not be null");
+    return parseOrgSnapshot(filePath, metrics, errors);
+  }
 
-    Map<Integer, Employee> employees = processDataLines(dataLines);
-    linkSubordinates(employees);
+  /**
+   * Reads the rows of a CSV file one at a time and hands them to the consumer in file order,
+   * without keeping them, for callers that process organizations too large for the heap. The file
+   * is streamed and checked like {@link #createOrgSnapshot(String)} does while parsing: headers,
+   * column counts, numbers, the row limit and a single CEO. Duplicate ids, unknown managers and
+   * reporting cycles are left to the consumer. Neither the load mode nor the snapshot store is
+   * used.
+   * <p>
+   * A row is handed over before the following rows are checked, so the consumer may have received
+   * rows when a later one fails.
+   *
+   * @param filePath the path to the CSV file containing employee data
+   * @param consumer receives every row
+   * @throws FileReaderException         if issues with file access occur
+   * @throws FileValidationException     if the file format is incorrect
+   * @throws EmployeeValidationException if a number cannot be parsed
+   */
+  public void readEmployeeRows(String filePath, RowConsumer consumer) {
+    try (BufferedReader reader = openEmployeeFile(filePath)) {
+      String headerLine = reader.readLine();
+      if (headerLine == null) {
+        throw new FileReaderException(
+            "The file is empty. Please provide a file with at least headers.");
+      }
+      validateHeaders(headerLine);
+
+      EmployeeRecords row = new EmployeeRecords(1);
+      boolean ceoFound = false;
+      String line;
+      for (int i = 1; (line = reader.readLine()) != null; i++) {
+        validateRowCount(i);
+        parseEmployeeRecord(line, i, row);
+        ceoFound = validateCeo(row, 0, ceoFound);
+        consumer.accept(i + 1, row.id(0), row.firstName(0), row.lastName(0), row.salary(0),
+            row.hasManager(0), row.managerId(0));
+        row.removeLast();
+      }
+      validateCeoFound(ceoFound);
+    } catch (IOException e) {
+      throw new FileReaderException("Failed to read the employee file: " + e.getMessage());
+    }
+  }
 
-    return employees;
+  public int getMaximumEmployeeCount() {
+    return maximumEmployeeCount;
   }
 
-  private List<String> readEmployeeFile(String filePath) {
-    List<String> dataLines;
+  public LoadMode getLoadMode() {
+    return loadMode;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  public Optional<SnapshotStore> getSnapshotStore() {
+    return Optional.ofNullable(snapshotStore);
+  }
+
+  private OrgSnapshot parseOrgSnapshot(String filePath, RunMetrics metrics, RowErrors errors) {
+    RunMetrics.Phase parsing = metrics.start(RunMetrics.PARSE);
+    EmployeeRecords records = readEmployeeRecords(filePath, errors);
+    parsing.end(records.size(), fileSizeQuietly(filePath));
+
+    RunMetrics.Phase linking = metrics.start(RunMetrics.LINK);
+    OrgSnapshot org = HierarchyLinker.link(records, loadMode == LoadMode.PARALLEL, errors);
+    linking.end(org.size(), -1);
+    return org;
+  }
+
+  private static long fileSizeQuietly(String filePath) {
     try {
-      dataLines = Files.readAllLines(Paths.get(filePath));
+      return Files.size(Paths.get(filePath));
+    } catch (IOException e) {
+      return -1;
+    }
+  }
+
+  private FileFingerprint fingerprintQuietly(Path csvFile) {
+    try {
+      return snapshotStore.fingerprint(csvFile);
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private EmployeeRecords readEmployeeRecords(String filePath, RowErrors errors) {
+    switch (loadMode) {
+      case MAPPED:
+      case COMPACT:
+        return readMappedFile(filePath, errors);
+      case PARALLEL:
+        return readFileInParallel(filePath, errors);
+      default:
+        return readFile(filePath, errors);
+    }
+  }
+
+  private EmployeeRecords readFile(String filePath, RowErrors errors) {
+    try (BufferedReader reader = openEmployeeFile(filePath)) {
+      String headerLine = reader.readLine();
+      if (headerLine == null) {
+        throw new FileReaderException(
+            "The file is empty. Please provide a file with at least headers.");
+      }
+      validateHeaders(headerLine);
+
+      return processDataLines(reader, errors);
+    } catch (IOException e) {
+      throw new FileReaderException("Failed to read the employee file: " + e.getMessage());
+    }
+  }
+
+  private EmployeeRecords readMappedFile(String filePath, RowErrors errors) {
+    try (MappedCsvReader reader = MappedCsvReader.open(Paths.get(filePath), COLUMN_COUNT)) {
+      if (!reader.nextLine()) {
+        throw new FileReaderException(
+            "The file is empty. Please provide a file with at least headers.");
+      }
+      validateHeaders(reader.currentLine());
+
+      return processMappedLines(reader, errors);
     } catch (IOException e) {
       throw new FileReaderException("Failed to read the employee file: " + e.getMessage());
     }
-    return dataLines;
   }
 
-  private void validateFileConditions(List<String> dataLines) {
-    if (dataLines.isEmpty()) {
-      throw new FileReaderException(
-          "The file is empty. Please provide a file with at least headers.");
+  private EmployeeRecords readFileInParallel(String filePath, RowErrors errors) {
+    try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+      long size = channel.size();
+      MappedCsvReader headerReader = new MappedCsvReader(channel, 0, size, COLUMN_COUNT,
+          MappedCsvReader.DEFAULT_WINDOW_SIZE);
+      if (!headerReader.nextLine()) {
+        throw new FileReaderException(
+            "The file is empty. Please provide a file with at least headers.");
+      }
+      validateHeaders(headerReader.currentLine());
+
+      long[] bounds = splitIntoSegments(channel, headerReader.nextLineOffset(), size);
+      if (errors != null) {
+        return mergeSegments(parseSegments(channel, bounds, errors), errors);
+      }
+      List<SegmentResult> segments = parseSegments(channel, bounds, null);
+
+      return mergeSegments(channel, bounds, segments);
+    } catch (IOException e) {
+      throw new FileReaderException("Failed to read the employee file: " + e.getMessage());
+    }
+  }
+
+  private long[] splitIntoSegments(FileChannel channel, long dataStart, long size)
+      throws IOException {
+    long dataLength = size - dataStart;
+    long segmentCount = Math.max(1, Math.min((long) parallelism * SEGMENTS_PER_THREAD,
+        dataLength / MIN_SEGMENT_SIZE));
+
+    long[] bounds = new long[(int) segmentCount + 1];
+    bounds[0] = dataStart;
+    for (int i = 1; i < segmentCount; i++) {
+      long target = dataStart + dataLength * i / segmentCount;
+      bounds[i] = Math.max(bounds[i - 1], MappedCsvReader.findLineStart(channel, target, size));
+    }
+    bounds[(int) segmentCount] = size;
+    return bounds;
+  }
+
+  /**
+   * Parses the segments concurrently.
+   *
+   * @param errors the errors of a lenient load, whose limit every segment gets as well, or
+   *               {@code null} to stop a segment at its first error
+   */
+  private List<SegmentResult> parseSegments(FileChannel channel, long[] bounds,
+      RowErrors errors) {
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      List<ForkJoinTask<SegmentResult>> tasks = new ArrayList<>();
+      for (int i = 0; i < bounds.length - 1; i++) {
+        long start = bounds[i];
+        long end = bounds[i + 1];
+        tasks.add(pool.submit(() -> errors == null ? parseSegment(channel, start, end)
+            : parseSegmentLeniently(channel, start, end, new RowErrors(errors.getLimit()))));
+      }
+
+      List<SegmentResult> segments = new ArrayList<>(tasks.size());
+      tasks.forEach(task -> segments.add(task.join()));
+      return segments;
+    } finally {
+      pool.shutdown();
     }
+  }
 
-    validateHeaders(dataLines.get(0));
+  /**
+   * Parses one segment without knowing its position in the file. Line-related errors cannot carry
+   * the right line number yet, so the segment only remembers where the failing line starts and
+   * {@link #mergeSegments} reproduces the error once the preceding line counts are known.
+   */
+  private SegmentResult parseSegment(FileChannel channel, long start, long end) {
+    EmployeeRecords records = new EmployeeRecords((int) Math.min(end - start, 1 << 20) / 32);
+    MappedCsvReader reader = new MappedCsvReader(channel, start, end, COLUMN_COUNT,
+        MappedCsvReader.DEFAULT_WINDOW_SIZE);
+    try {
+      while (reader.nextLine()) {
+        parseEmployeeRecord(reader, records);
+      }
+      return new SegmentResult(records, -1, null);
+    } catch (FileValidationException | EmployeeValidationException e) {
+      return new SegmentResult(records, reader.lineOffset(), null);
+    } catch (IOException e) {
+      return new SegmentResult(records, -1,
+          new FileReaderException("Failed to read the employee file: " + e.getMessage()));
+    } catch (RuntimeException e) {
+      return new SegmentResult(records, -1, e);
+    }
+  }
 
-    if (dataLines.size() > MAXIMUM_ROW_COUNT) {
-      throw new FileValidationException("Input file contains more than 1000 employee records.");
+  /**
+   * Parses one segment of a lenient load. Line numbers are counted from the start of the segment
+   * and shifted by {@link #mergeSegments(List, RowErrors)}.
+   */
+  private SegmentResult parseSegmentLeniently(FileChannel channel, long start, long end,
+      RowErrors errors) {
+    EmployeeRecords records = new EmployeeRecords((int) Math.min(end - start, 1 << 20) / 32,
+        true);
+    MappedCsvReader reader = new MappedCsvReader(channel, start, end, COLUMN_COUNT,
+        MappedCsvReader.DEFAULT_WINDOW_SIZE);
+    try {
+      while (reader.nextLine()) {
+        parseEmployeeRecord(reader, records, errors);
+      }
+      return new SegmentResult(records, errors, reader.lineNumber());
+    } catch (IOException e) {
+      return new SegmentResult(records, -1,
+          new FileReaderException("Failed to read the employee file: " + e.getMessage()));
+    } catch (RuntimeException e) {
+      return new SegmentResult(records, -1, e);
+    }
+  }
+
+  private EmployeeRecords mergeSegments(List<SegmentResult> segments, RowErrors errors) {
+    int employeeCount = segments.stream().mapToInt(segment -> segment.records.size()).sum();
+    EmployeeRecords records = new EmployeeRecords(employeeCount, true);
+    boolean ceoFound = false;
+    // line 1 holds the headers
+    int lineOffset = 1;
+
+    for (SegmentResult segment : segments) {
+      if (segment.error != null) {
+        throw segment.error;
+      }
+      validateRowCount(lineOffset - 1 + segment.lineCount);
+      EmployeeRecords part = segment.records;
+      for (int row = 0; row < part.size(); row++) {
+        records.add(part.id(row), part.firstName(row), part.lastName(row), part.salary(row),
+            part.hasManager(row), part.managerId(row), part.lineNumber(row) + lineOffset);
+        ceoFound = validateCeo(records, ceoFound, errors);
+      }
+      errors.addAll(segment.errors, lineOffset);
+      lineOffset += segment.lineCount;
+    }
+    validateCeoFound(ceoFound);
+
+    return records;
+  }
+
+  private EmployeeRecords mergeSegments(FileChannel channel, long[] bounds,
+      List<SegmentResult> segments) throws IOException {
+    int employeeCount = segments.stream().mapToInt(segment -> segment.records.size()).sum();
+    EmployeeRecords records = new EmployeeRecords(employeeCount);
+    boolean ceoFound = false;
+    int rowCount = 0;
+
+    for (int i = 0; i < segments.size(); i++) {
+      SegmentResult segment = segments.get(i);
+      for (int row = 0; row < segment.records.size(); row++) {
+        validateRowCount(++rowCount);
+        ceoFound = validateCeo(segment.records, row, ceoFound);
+      }
+      records.addAll(segment.records);
+
+      if (segment.error != null) {
+        throw segment.error;
+      }
+      if (segment.failedLineOffset >= 0) {
+        validateRowCount(++rowCount);
+        MappedCsvReader reader = new MappedCsvReader(channel, segment.failedLineOffset,
+            bounds[i + 1], COLUMN_COUNT, MappedCsvReader.DEFAULT_WINDOW_SIZE, rowCount);
+        reader.nextLine();
+        // rethrows the segment's error, now with its file-wide line number
+        parseEmployeeRecord(reader, records);
+      }
+    }
+    validateCeoFound(ceoFound);
+
+    return records;
+  }
+
+  private BufferedReader openEmployeeFile(String filePath) throws IOException {
+    return new BufferedReader(new InputStreamReader(Files.newInputStream(Paths.get(filePath)),
+        StandardCharsets.UTF_8.newDecoder()), READ_BUFFER_SIZE);
+  }
+
+  private void validateRowCount(int employeeCount) {
+    if (maximumEmployeeCount != UNLIMITED && employeeCount > maximumEmployeeCount) {
+      throw new FileValidationException(
+          "Input file contains more than " + maximumEmployeeCount + " employee records.");
     }
   }
 
@@ -79,7 +541,7 @@ public class EmployeeRepository {
     }
   }
 
-  private Employee parseEmployeeRecord(String line, int lineIndex) {
+  static void parseEmployeeRecord(String line, int lineIndex, EmployeeRecords records) {
     String[] columns = line.trim().split(DELIMETER, -1);
     if (columns.length != COLUMN_COUNT) {
       throw new FileValidationException("Incorrect column count on line " + (lineIndex + 1) +
@@ -91,50 +553,222 @@ public class EmployeeRepository {
       String firstName = columns[1];
       String lastName = columns[2];
       double salary = Double.parseDouble(columns[3]);
-      Integer managerId = columns[4].isEmpty() ? null : Integer.parseInt(columns[4]);
+      boolean hasManager = !columns[4].isEmpty();
+      int managerId = hasManager ? Integer.parseInt(columns[4]) : 0;
 
-      return new Employee(id, firstName, lastName, salary, managerId);
+      records.add(id, firstName, lastName, salary, hasManager, managerId);
     } catch (NumberFormatException e) {
       throw new EmployeeValidationException(
           "Error parsing number on line " + (lineIndex + 1) + ": " + e.getMessage());
     }
   }
 
-  private Map<Integer, Employee> processDataLines(List<String> dataLines) {
-    Map<Integer, Employee> employees = new HashMap<>();
+  private void parseEmployeeRecord(MappedCsvReader reader, EmployeeRecords records) {
+    int columnCount = reader.splitFields();
+    if (columnCount != COLUMN_COUNT) {
+      throw new FileValidationException("Incorrect column count on line " + reader.lineNumber() +
+          ". Expected " + COLUMN_COUNT + " columns, but found " + columnCount + " columns.");
+    }
+
+    try {
+      int id = reader.parseInt(0);
+      double salary = reader.parseDouble(3);
+      boolean hasManager = !reader.isFieldEmpty(4);
+      int managerId = hasManager ? reader.parseInt(4) : 0;
+
+      records.add(id, reader, salary, hasManager, managerId);
+    } catch (NumberFormatException e) {
+      throw new EmployeeValidationException(
+          "Error parsing number on line " + reader.lineNumber() + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Parses a row like {@link #parseEmployeeRecord(String, int, EmployeeRecords)}, but records the
+   * problems of a malformed row and skips it instead of throwing.
+   *
+   * @return whether the row was added
+   */
+  private static boolean parseEmployeeRecord(String line, int lineIndex, EmployeeRecords records,
+      RowErrors errors) {
+    int lineNumber = lineIndex + 1;
+    String[] columns = line.trim().split(DELIMETER, -1);
+    if (columns.length != COLUMN_COUNT) {
+      errors.add(lineNumber, 0, RowErrors.Code.COLUMN_COUNT);
+      return false;
+    }
+
+    boolean valid = true;
+    if (!NumberSyntax.isInt(columns[0])) {
+      errors.add(lineNumber, ID_COLUMN, RowErrors.Code.INVALID_ID);
+      valid = false;
+    }
+    if (!NumberSyntax.isDouble(columns[3])) {
+      errors.add(lineNumber, SALARY_COLUMN, RowErrors.Code.INVALID_SALARY);
+      valid = false;
+    }
+    boolean hasManager = !columns[4].isEmpty();
+    if (hasManager && !NumberSyntax.isInt(columns[4])) {
+      errors.add(lineNumber, MANAGER_ID_COLUMN, RowErrors.Code.INVALID_MANAGER_ID);
+      valid = false;
+    }
+    if (valid) {
+      records.add(Integer.parseInt(columns[0]), columns[1], columns[2],
+          Double.parseDouble(columns[3]), hasManager,
+          hasManager ? Integer.parseInt(columns[4]) : 0, lineNumber);
+    }
+    return valid;
+  }
+
+  /**
+   * Parses a row like {@link #parseEmployeeRecord(MappedCsvReader, EmployeeRecords)}, but records
+   * the problems of a malformed row and skips it instead of throwing.
+   *
+   * @return whether the row was added
+   */
+  private boolean parseEmployeeRecord(MappedCsvReader reader, EmployeeRecords records,
+      RowErrors errors) {
+    int lineNumber = reader.lineNumber();
+    if (reader.splitFields() != COLUMN_COUNT) {
+      errors.add(lineNumber, 0, RowErrors.Code.COLUMN_COUNT);
+      return false;
+    }
+
+    boolean valid = true;
+    if (!reader.isIntField(0)) {
+      errors.add(lineNumber, ID_COLUMN, RowErrors.Code.INVALID_ID);
+      valid = false;
+    }
+    if (!reader.isDoubleField(3)) {
+      errors.add(lineNumber, SALARY_COLUMN, RowErrors.Code.INVALID_SALARY);
+      valid = false;
+    }
+    boolean hasManager = !reader.isFieldEmpty(4);
+    if (hasManager && !reader.isIntField(4)) {
+      errors.add(lineNumber, MANAGER_ID_COLUMN, RowErrors.Code.INVALID_MANAGER_ID);
+      valid = false;
+    }
+    if (valid) {
+      records.add(reader.parseInt(0), reader, reader.parseDouble(3), hasManager,
+          hasManager ? reader.parseInt(4) : 0, lineNumber);
+    }
+    return valid;
+  }
+
+  private EmployeeRecords processDataLines(BufferedReader reader, RowErrors errors)
+      throws IOException {
+    EmployeeRecords records = new EmployeeRecords(errors != null);
     boolean ceoFound = false;
 
-    for (int i = 1; i < dataLines.size(); i++) {
-      Employee employee = parseEmployeeRecord(dataLines.get(i), i);
-      if (employee.getManagerId() == null) {
-        if (ceoFound) {
-          throw new FileValidationException(
-              "Multiple CEOs found. Only one CEO without a managerId is allowed.");
-        }
-        ceoFound = true;
+    String line;
+    for (int i = 1; (line = reader.readLine()) != null; i++) {
+      validateRowCount(i);
+      if (errors == null) {
+        parseEmployeeRecord(line, i, records);
+        ceoFound = validateCeo(records, records.size() - 1, ceoFound);
+      } else if (parseEmployeeRecord(line, i, records, errors)) {
+        ceoFound = validateCeo(records, ceoFound, errors);
       }
-      employees.put(employee.getId(), employee);
     }
+    validateCeoFound(ceoFound);
 
+    return records;
+  }
+
+  private EmployeeRecords processMappedLines(MappedCsvReader reader, RowErrors errors)
+      throws IOException {
+    EmployeeRecords records = new EmployeeRecords(errors != null, loadMode == LoadMode.COMPACT);
+    boolean ceoFound = false;
+
+    for (int i = 1; reader.nextLine(); i++) {
+      validateRowCount(i);
+      if (errors == null) {
+        parseEmployeeRecord(reader, records);
+        ceoFound = validateCeo(records, records.size() - 1, ceoFound);
+      } else if (parseEmployeeRecord(reader, records, errors)) {
+        ceoFound = validateCeo(records, ceoFound, errors);
+      }
+    }
+    validateCeoFound(ceoFound);
+
+    return records;
+  }
+
+  private boolean validateCeo(EmployeeRecords records, int row, boolean ceoFound) {
+    if (!records.hasManager(row)) {
+      if (ceoFound) {
+        throw new FileValidationException(
+            "Multiple CEOs found. Only one CEO without a managerId is allowed.");
+      }
+      return true;
+    }
+    return ceoFound;
+  }
+
+  /**
+   * Checks the row added last like {@link #validateCeo(EmployeeRecords, int, boolean)}, but records
+   * and removes a second CEO instead of throwing.
+   */
+  private static boolean validateCeo(EmployeeRecords records, boolean ceoFound,
+      RowErrors errors) {
+    int row = records.size() - 1;
+    if (records.hasManager(row)) {
+      return ceoFound;
+    }
+    if (ceoFound) {
+      errors.add(records.lineNumber(row), MANAGER_ID_COLUMN, RowErrors.Code.SECOND_CEO);
+      records.removeLast();
+    }
+    return true;
+  }
+
+  private void validateCeoFound(boolean ceoFound) {
     if (!ceoFound) {
       throw new FileValidationException(
           "No CEO found. There must be exactly one employee without a managerId.");
     }
+  }
+
+  /**
+   * Receives the rows of an employee file, see
+   * {@link #readEmployeeRows(String, RowConsumer)}.
+   */
+  @FunctionalInterface
+  public interface RowConsumer {
 
-    return employees;
+    /**
+     * Consumes one row.
+     *
+     * @param lineNumber the 1-based line of the file the row was read from
+     * @param hasManager whether the row has a managerId; {@code managerId} is 0 otherwise
+     */
+    void accept(int lineNumber, int id, String firstName, String lastName, double salary,
+        boolean hasManager, int managerId);
   }
 
-  private void linkSubordinates(Map<Integer, Employee> employees) {
-    employees.values().forEach(emp -> {
-      if (emp.getManagerId() != null) {
-        Employee manager = employees.get(emp.getManagerId());
-        if (manager != null) {
-          manager.addSubordinate(emp);
-        } else {
-          throw new EmployeeValidationException(
-              "No manager with ID " + emp.getManagerId() + " found for employee " + emp.getId());
-        }
-      }
-    });
+  private static final class SegmentResult {
+
+    private final EmployeeRecords records;
+    private final long failedLineOffset;
+    private final RuntimeException error;
+    private final RowErrors errors;
+    private final int lineCount;
+
+    private SegmentResult(EmployeeRecords records, long failedLineOffset,
+        RuntimeException error) {
+      this.records = records;
+      this.failedLineOffset = failedLineOffset;
+      this.error = error;
+      this.errors = null;
+      this.lineCount = 0;
+    }
+
+    private SegmentResult(EmployeeRecords records, RowErrors errors, int lineCount) {
+      this.records = records;
+      this.failedLineOffset = -1;
+      this.error = null;
+      this.errors = errors;
+      this.lineCount = lineCount;
+    }
   }
 }
@@ -0,0 +1,110 @@
+package org.example.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Identifies a particular version of a file by its size, modification time and the SHA-256 hash
+ * of its content. The content is hashed by streaming it through a fixed-size buffer, so files of
+ * any size can be fingerprinted without loading them into memory.
+ */
+public final class FileFingerprint {
+
+  /**
+   * Length in bytes of the content hash.
+   */
+  public static final int HASH_LENGTH = 32;
+
+  private static final int BUFFER_SIZE = 1024 * 1024;
+
+  private final long size;
+  private final long lastModifiedMillis;
+  private final byte[] contentHash;
+
+  public FileFingerprint(long size, long lastModifiedMillis, byte[] contentHash) {
+    if (contentHash.length != HASH_LENGTH) {
+      throw new IllegalArgumentException("Content hash must be " + HASH_LENGTH + " bytes long");
+    }
+    this.size = size;
+    this.lastModifiedMillis = lastModifiedMillis;
+    this.contentHash = contentHash.clone();
+  }
+
+  /**
+   * Fingerprints the current content of a file.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  public static FileFingerprint of(Path file) throws IOException {
+    long size = Files.size(file);
+    long lastModified = Files.getLastModifiedTime(file).toMillis();
+    return new FileFingerprint(size, lastModified, hash(file));
+  }
+
+  /**
+   * Computes the SHA-256 hash of a file's content.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  public static byte[] hash(Path file) throws IOException {
+    MessageDigest digest = newDigest();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      while (channel.read(buffer) >= 0) {
+        buffer.flip();
+        digest.update(buffer);
+        buffer.clear();
+      }
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Checks only the cheap attributes, size and modification time, against the file on disk.
+   *
+   * @throws IOException if the file attributes cannot be read
+   */
+  public boolean hasSameAttributes(Path file) throws IOException {
+    return Files.size(file) == size
+        && Files.getLastModifiedTime(file).toMillis() == lastModifiedMillis;
+  }
+
+  public long getSize() {
+    return size;
+  }
+
+  public long getLastModifiedMillis() {
+    return lastModifiedMillis;
+  }
+
+  public byte[] getContentHash() {
+    return contentHash.clone();
+  }
+
+  public boolean hasContentHash(byte[] hash) {
+    return Arrays.equals(contentHash, hash);
+  }
+
+  /**
+   * Returns the content hash as a lowercase hexadecimal string.
+   */
+  public String contentHashHex() {
+    return HexFormat.of().formatHex(contentHash);
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
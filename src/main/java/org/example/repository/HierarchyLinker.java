@@ -0,0 +1,212 @@
+package org.example.repository;
+
+import java.util.Arrays;
+import org.example.collection.IntIntHashMap;
+import org.example.exception.EmployeeValidationException;
+import org.example.exception.FileValidationException;
+import org.example.model.OrgSnapshot;
+
+/**
+ * Linking stage between parsing and analysis. Turns parsed rows into an {@link OrgSnapshot}:
+ * indexes the rows by id, rejects duplicate ids, resolves every managerId to its manager and lets
+ * the snapshot build the child lists and verify that every employee reports up to the CEO.
+ * <p>
+ * The rows are sorted by id once, which finds the duplicates and gives the snapshot its order.
+ * Managers are then resolved through a primitive hash index of the sorted ids, one probe per row
+ * instead of a binary search over the whole organization.
+ * <p>
+ * A lenient link records these problems in {@link RowErrors} instead and leaves the affected rows
+ * out: later duplicates of an id, employees with an unknown manager, employees in a reporting
+ * cycle, and everyone reporting to an employee left out.
+ */
+final class HierarchyLinker {
+
+  /**
+   * Parent index of employees whose manager does not exist, during a lenient link.
+   */
+  private static final int UNKNOWN_PARENT = -2;
+
+  private static final byte UNVISITED = 0;
+  private static final byte ON_PATH = 1;
+  private static final byte KEPT = 2;
+  private static final byte LEFT_OUT = 3;
+
+  private static final int MANAGER_ID_COLUMN = 5;
+
+  private HierarchyLinker() {
+  }
+
+  /**
+   * Links the parsed rows into a snapshot.
+   *
+   * @param records      the rows in file order
+   * @param parallelSort whether the id index may be sorted using the common fork-join pool
+   * @return the linked, cycle-free organization snapshot
+   * @throws FileValidationException     if an id occurs on more than one line
+   * @throws EmployeeValidationException if a manager does not exist, or if some employees are
+   *                                     part of or below a reporting cycle
+   */
+  static OrgSnapshot link(EmployeeRecords records, boolean parallelSort) {
+    return link(records, parallelSort, null);
+  }
+
+  /**
+   * Links the parsed rows into a snapshot, leaving out the rows that cannot be linked if an error
+   * buffer is given.
+   *
+   * @param records      the rows in file order
+   * @param parallelSort whether the id index may be sorted using the common fork-join pool
+   * @param errors       receives the rows left out, or {@code null} to fail on the first one
+   * @return the linked, cycle-free organization snapshot
+   * @throws FileValidationException     if an id occurs on more than one line and no error buffer
+   *                                     is given
+   * @throws EmployeeValidationException if a manager does not exist, or if some employees are
+   *                                     part of or below a reporting cycle, and no error buffer is
+   *                                     given
+   */
+  static OrgSnapshot link(EmployeeRecords records, boolean parallelSort, RowErrors errors) {
+    int rowCount = records.size();
+    long[] keys = new long[rowCount];
+    for (int row = 0; row < rowCount; row++) {
+      keys[row] = ((long) records.id(row) << 32) | row;
+    }
+    if (parallelSort) {
+      Arrays.parallelSort(keys);
+    } else {
+      Arrays.sort(keys);
+    }
+
+    int[] ids = new int[rowCount];
+    double[] salaries = new double[rowCount];
+    int[] rows = new int[rowCount];
+    int count = 0;
+    for (int i = 0; i < rowCount; i++) {
+      int row = (int) keys[i];
+      int id = records.id(row);
+      if (count > 0 && id == ids[count - 1]) {
+        if (errors == null) {
+          throw new FileValidationException("Duplicate employee ID " + id + " found on lines "
+              + records.lineNumber(rows[count - 1]) + " and " + records.lineNumber(row) + ".");
+        }
+        errors.add(records.lineNumber(row), 1, RowErrors.Code.DUPLICATE_ID);
+        continue;
+      }
+      ids[count] = id;
+      rows[count] = row;
+      salaries[count] = records.salary(row);
+      count++;
+    }
+
+    IntIntHashMap indexById = new IntIntHashMap(count);
+    for (int i = 0; i < count; i++) {
+      indexById.put(ids[i], i);
+    }
+    int[] parents = new int[count];
+    for (int i = 0; i < count; i++) {
+      int row = rows[i];
+      if (!records.hasManager(row)) {
+        parents[i] = OrgSnapshot.NO_PARENT;
+        continue;
+      }
+      int parent = indexById.get(records.managerId(row), UNKNOWN_PARENT);
+      if (parent == UNKNOWN_PARENT) {
+        if (errors == null) {
+          throw new EmployeeValidationException(
+              "No manager with ID " + records.managerId(row) + " found for employee " + ids[i]);
+        }
+        errors.add(records.lineNumber(row), MANAGER_ID_COLUMN, RowErrors.Code.UNKNOWN_MANAGER);
+      }
+      parents[i] = parent;
+    }
+
+    if (errors == null) {
+      return snapshot(records, rows, ids, salaries, parents);
+    }
+    return linkReachable(records, rows, count, ids, salaries, parents, errors);
+  }
+
+  /**
+   * Keeps only the employees whose reporting line reaches a top-level employee. Every reporting
+   * line is climbed once, the outcome is shared by all employees on it.
+   */
+  private static OrgSnapshot linkReachable(EmployeeRecords records, int[] rows, int count,
+      int[] ids, double[] salaries, int[] parents, RowErrors errors) {
+    byte[] state = new byte[count];
+    int[] path = new int[count];
+    int keptCount = 0;
+    for (int start = 0; start < count; start++) {
+      int length = 0;
+      int current = start;
+      while (current >= 0 && state[current] == UNVISITED) {
+        state[current] = ON_PATH;
+        path[length++] = current;
+        current = parents[current];
+      }
+
+      boolean kept = current == OrgSnapshot.NO_PARENT || current >= 0 && state[current] == KEPT;
+      int cycleStart = length;
+      if (current >= 0 && state[current] == ON_PATH) {
+        cycleStart = 0;
+        while (path[cycleStart] != current) {
+          cycleStart++;
+        }
+      }
+      for (int i = 0; i < length; i++) {
+        int employee = path[i];
+        state[employee] = kept ? KEPT : LEFT_OUT;
+        if (kept) {
+          keptCount++;
+        } else if (i >= cycleStart) {
+          errors.add(records.lineNumber(rows[employee]), MANAGER_ID_COLUMN,
+              RowErrors.Code.REPORTING_CYCLE);
+        } else if (parents[employee] != UNKNOWN_PARENT) {
+          errors.add(records.lineNumber(rows[employee]), MANAGER_ID_COLUMN,
+              RowErrors.Code.MANAGER_SKIPPED);
+        }
+      }
+    }
+
+    int[] newIndex = new int[count];
+    int[] keptIds = new int[keptCount];
+    int[] keptRows = new int[keptCount];
+    double[] keptSalaries = new double[keptCount];
+    int[] keptParents = new int[keptCount];
+    int next = 0;
+    for (int i = 0; i < count; i++) {
+      if (state[i] != KEPT) {
+        continue;
+      }
+      newIndex[i] = next;
+      keptIds[next] = ids[i];
+      keptRows[next] = rows[i];
+      keptSalaries[next] = salaries[i];
+      keptParents[next] = parents[i];
+      next++;
+    }
+    // the manager of a kept employee is kept too, but may come later in id order
+    for (int i = 0; i < keptCount; i++) {
+      if (keptParents[i] != OrgSnapshot.NO_PARENT) {
+        keptParents[i] = newIndex[keptParents[i]];
+      }
+    }
+    return snapshot(records, keptRows, keptIds, keptSalaries, keptParents);
+  }
+
+  /**
+   * Creates the snapshot, taking the names of every employee from the row at the same position of
+   * {@code rows}. Names kept as bytes are copied into an arena in id order, without decoding.
+   */
+  private static OrgSnapshot snapshot(EmployeeRecords records, int[] rows, int[] ids,
+      double[] salaries, int[] parents) {
+    if (records.keepsNameBytes()) {
+      return OrgSnapshot.of(ids, records.nameArena(rows, ids.length), salaries, parents);
+    }
+    String[] firstNames = new String[ids.length];
+    String[] lastNames = new String[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      firstNames[i] = records.firstName(rows[i]);
+      lastNames[i] = records.lastName(rows[i]);
+    }
+    return OrgSnapshot.of(ids, firstNames, lastNames, salaries, parents);
+  }
+}
@@ -0,0 +1,31 @@
+package org.example.repository;
+
+/**
+ * Strategies the {@link EmployeeRepository} can use to read and parse the employee CSV file.
+ */
+public enum LoadMode {
+
+  /**
+   * Reads the file line by line through a buffered character reader.
+   */
+  STREAMING,
+
+  /**
+   * Memory-maps the file and tokenizes rows directly from the mapped bytes, parsing ids, salaries
+   * and manager ids without allocating intermediate Strings.
+   */
+  MAPPED,
+
+  /**
+   * Memory-maps the file, splits it at line boundaries into segments and tokenizes the segments
+   * concurrently on a fork-join pool before merging them into a single employee index.
+   */
+  PARALLEL,
+
+  /**
+   * Memory-maps the file like {@link #MAPPED}, but keeps names as UTF-8 bytes in one array instead
+   * of a {@code String} per name. Names are decoded only when they are asked for, typically for
+   * the employees that appear in a report.
+   */
+  COMPACT
+}
@@ -0,0 +1,451 @@
+package org.example.repository;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.example.exception.FileReaderException;
+
+/**
+ * Byte-level CSV tokenizer over a memory-mapped file. Lines are recognized exactly like
+ * {@link java.io.BufferedReader#readLine()} does ({@code \n}, {@code \r} or {@code \r\n}), trimmed
+ * like {@link String#trim()} and split on commas by scanning the mapped bytes. Numeric fields are
+ * parsed straight from the bytes; only unusual inputs fall back to the JDK parsers, which keeps
+ * their results and error messages identical to {@link Integer#parseInt(String)} and
+ * {@link Double#parseDouble(String)}.
+ * <p>
+ * Files larger than a single mapping are read through consecutive windows that always end on a
+ * line boundary.
+ */
+final class MappedCsvReader implements Closeable {
+
+  static final long DEFAULT_WINDOW_SIZE = 1L << 30;
+
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+  private static final byte DELIMITER = ',';
+
+  private static final int MAX_FAST_INT_DIGITS = 9;
+  private static final int MAX_FAST_DOUBLE_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15};
+
+  private final FileChannel channel;
+  private final long end;
+  private final long windowSize;
+  private final int[] fieldStarts;
+  private final int[] fieldEnds;
+  private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder();
+
+  private ByteBuffer window;
+  private long windowStart;
+  private int windowLimit;
+  private int position;
+
+  private int lineNumber;
+  private long lineOffset;
+  private int lineStart;
+  private int lineEnd;
+  private byte[] scratch = new byte[64];
+
+  MappedCsvReader(FileChannel channel, long start, long end, int maxFields, long windowSize) {
+    this(channel, start, end, maxFields, windowSize, 0);
+  }
+
+  /**
+   * Creates a reader over the byte range {@code [start, end)} of the channel. The range must begin
+   * at the start of a line.
+   *
+   * @param firstLineNumber the line number preceding the first line of the range, so that
+   *                        {@link #lineNumber()} reports file-wide line numbers
+   */
+  MappedCsvReader(FileChannel channel, long start, long end, int maxFields, long windowSize,
+      int firstLineNumber) {
+    this.channel = channel;
+    this.end = end;
+    this.windowSize = windowSize;
+    this.windowStart = start;
+    this.lineNumber = firstLineNumber;
+    this.fieldStarts = new int[maxFields];
+    this.fieldEnds = new int[maxFields];
+  }
+
+  /**
+   * Opens and maps the whole file.
+   *
+   * @throws IOException if the file cannot be opened
+   */
+  static MappedCsvReader open(Path path, int maxFields) throws IOException {
+    return open(path, maxFields, DEFAULT_WINDOW_SIZE);
+  }
+
+  static MappedCsvReader open(Path path, int maxFields, long windowSize) throws IOException {
+    FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      return new MappedCsvReader(channel, 0, channel.size(), maxFields, windowSize);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Advances to the next line.
+   *
+   * @return {@code false} once the end of the input has been reached
+   * @throws IOException if the next window of the file cannot be mapped
+   */
+  boolean nextLine() throws IOException {
+    if ((window == null || position >= windowLimit) && !mapNextWindow()) {
+      return false;
+    }
+
+    int start = position;
+    int cursor = start;
+    lineOffset = windowStart + start;
+    while (cursor < windowLimit) {
+      byte b = window.get(cursor);
+      if (b == LF || b == CR) {
+        break;
+      }
+      cursor++;
+    }
+
+    int next = cursor;
+    if (cursor < windowLimit) {
+      next = (window.get(cursor) == CR && cursor + 1 < windowLimit
+          && window.get(cursor + 1) == LF) ? cursor + 2 : cursor + 1;
+    }
+    position = next;
+
+    while (start < cursor && isWhitespace(window.get(start))) {
+      start++;
+    }
+    while (cursor > start && isWhitespace(window.get(cursor - 1))) {
+      cursor--;
+    }
+    lineStart = start;
+    lineEnd = cursor;
+    lineNumber++;
+    return true;
+  }
+
+  /**
+   * Returns the 1-based physical line number of the current line.
+   */
+  int lineNumber() {
+    return lineNumber;
+  }
+
+  /**
+   * Returns the file offset of the first byte of the current line.
+   */
+  long lineOffset() {
+    return lineOffset;
+  }
+
+  /**
+   * Returns the file offset at which the line following the current one starts.
+   */
+  long nextLineOffset() {
+    return window == null ? windowStart : windowStart + position;
+  }
+
+  /**
+   * Decodes the whole trimmed current line.
+   */
+  String currentLine() {
+    return decode(lineStart, lineEnd);
+  }
+
+  /**
+   * Splits the current line on commas and remembers the boundaries of the first fields.
+   *
+   * @return the total number of fields on the line, which may exceed the number of tracked fields
+   */
+  int splitFields() {
+    int count = 0;
+    int fieldStart = lineStart;
+    for (int i = lineStart; i < lineEnd; i++) {
+      if (window.get(i) == DELIMITER) {
+        recordField(count++, fieldStart, i);
+        fieldStart = i + 1;
+      }
+    }
+    recordField(count++, fieldStart, lineEnd);
+    return count;
+  }
+
+  boolean isFieldEmpty(int field) {
+    return fieldStarts[field] == fieldEnds[field];
+  }
+
+  String fieldAsString(int field) {
+    return decode(fieldStarts[field], fieldEnds[field]);
+  }
+
+  int fieldLength(int field) {
+    return fieldEnds[field] - fieldStarts[field];
+  }
+
+  /**
+   * Copies the raw bytes of a field into an array without decoding them. Fields that are not plain
+   * ASCII are still checked to be valid UTF-8, so a file is rejected exactly when
+   * {@link #fieldAsString(int)} would reject it.
+   *
+   * @return the number of bytes copied
+   * @throws FileReaderException if the field is not valid UTF-8
+   */
+  int copyField(int field, byte[] target, int offset) {
+    int length = fieldLength(field);
+    window.get(fieldStarts[field], target, offset, length);
+    for (int i = offset; i < offset + length; i++) {
+      if (target[i] < 0) {
+        checkUtf8(ByteBuffer.wrap(target, offset, length));
+        break;
+      }
+    }
+    return length;
+  }
+
+  /**
+   * Parses a field with the semantics of {@link Integer#parseInt(String)}.
+   *
+   * @throws NumberFormatException with the same message the JDK would produce
+   */
+  int parseInt(int field) {
+    int start = fieldStarts[field];
+    int stop = fieldEnds[field];
+    int cursor = start;
+    boolean negative = false;
+    if (cursor < stop) {
+      byte first = window.get(cursor);
+      if (first == '-' || first == '+') {
+        negative = first == '-';
+        cursor++;
+      }
+    }
+    int digits = stop - cursor;
+    if (digits == 0 || digits > MAX_FAST_INT_DIGITS) {
+      return Integer.parseInt(decode(start, stop));
+    }
+    int value = 0;
+    for (; cursor < stop; cursor++) {
+      int digit = window.get(cursor) - '0';
+      if (digit < 0 || digit > 9) {
+        return Integer.parseInt(decode(start, stop));
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Parses a field with the semantics of {@link Double#parseDouble(String)}. Plain decimal numbers
+   * with up to 15 significant digits are converted exactly from the bytes; everything else is
+   * delegated to the JDK.
+   *
+   * @throws NumberFormatException with the same message the JDK would produce
+   */
+  double parseDouble(int field) {
+    int start = fieldStarts[field];
+    int stop = fieldEnds[field];
+    int cursor = start;
+    boolean negative = false;
+    if (cursor < stop) {
+      byte first = window.get(cursor);
+      if (first == '-' || first == '+') {
+        negative = first == '-';
+        cursor++;
+      }
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; cursor < stop; cursor++) {
+      byte b = window.get(cursor);
+      if (b >= '0' && b <= '9') {
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        return Double.parseDouble(decode(start, stop));
+      }
+    }
+    if (digits == 0 || digits > MAX_FAST_DOUBLE_DIGITS) {
+      return Double.parseDouble(decode(start, stop));
+    }
+
+    double value = (double) mantissa;
+    if (fractionDigits > 0) {
+      value /= POWERS_OF_TEN[fractionDigits];
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Returns whether {@link #parseInt(int)} succeeds for the field, without throwing.
+   */
+  boolean isIntField(int field) {
+    int start = fieldStarts[field];
+    int stop = fieldEnds[field];
+    int cursor = start < stop && (window.get(start) == '-' || window.get(start) == '+')
+        ? start + 1 : start;
+    if (cursor == stop || stop - cursor > MAX_FAST_INT_DIGITS) {
+      return NumberSyntax.isInt(decode(start, stop));
+    }
+    for (; cursor < stop; cursor++) {
+      byte b = window.get(cursor);
+      if (b < '0' || b > '9') {
+        return NumberSyntax.isInt(decode(start, stop));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether {@link #parseDouble(int)} succeeds for the field, without throwing.
+   */
+  boolean isDoubleField(int field) {
+    int start = fieldStarts[field];
+    int stop = fieldEnds[field];
+    int cursor = start < stop && (window.get(start) == '-' || window.get(start) == '+')
+        ? start + 1 : start;
+    int digits = 0;
+    boolean point = false;
+    for (; cursor < stop; cursor++) {
+      byte b = window.get(cursor);
+      if (b >= '0' && b <= '9') {
+        digits++;
+      } else if (b == '.' && !point) {
+        point = true;
+      } else {
+        return NumberSyntax.isDouble(decode(start, stop));
+      }
+    }
+    return digits > 0 || NumberSyntax.isDouble(decode(start, stop));
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+
+  private void recordField(int field, int start, int stop) {
+    if (field < fieldStarts.length) {
+      fieldStarts[field] = start;
+      fieldEnds[field] = stop;
+    }
+  }
+
+  private boolean mapNextWindow() throws IOException {
+    if (window != null) {
+      windowStart += windowLimit;
+    }
+    long remaining = end - windowStart;
+    if (remaining <= 0) {
+      return false;
+    }
+
+    int size = (int) Math.min(remaining, windowSize);
+    boolean lastWindow = size == remaining;
+    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, size);
+    windowLimit = lastWindow ? size : findLastLineBreak(window, size);
+    if (windowLimit == 0) {
+      throw new FileReaderException("Failed to read the employee file: a line starting at byte "
+          + windowStart + " is longer than " + windowSize + " bytes");
+    }
+    position = 0;
+    return true;
+  }
+
+  /**
+   * Returns the offset of the first line starting at or after {@code offset}, or {@code end} if
+   * there is none. The offset may point anywhere inside a line, including between the two bytes of
+   * a {@code \r\n} pair.
+   *
+   * @throws IOException if the channel cannot be read
+   */
+  static long findLineStart(FileChannel channel, long offset, long end) throws IOException {
+    if (offset <= 0) {
+      return 0;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(4096);
+    long position = offset - 1;
+    boolean pendingCarriageReturn = false;
+    while (position < end) {
+      buffer.clear();
+      int read = channel.read(buffer, position);
+      if (read <= 0) {
+        break;
+      }
+      for (int i = 0; i < read; i++) {
+        byte b = buffer.get(i);
+        if (pendingCarriageReturn) {
+          return b == LF ? position + i + 1 : position + i;
+        }
+        if (b == LF) {
+          return position + i + 1;
+        }
+        pendingCarriageReturn = b == CR;
+      }
+      position += read;
+    }
+    return end;
+  }
+
+  /**
+   * Finds the position right after the last line terminator in the buffer. A trailing {@code \r}
+   * is skipped because it might be the first half of a {@code \r\n} pair split across windows.
+   */
+  private static int findLastLineBreak(ByteBuffer buffer, int size) {
+    for (int i = size - 1; i >= 0; i--) {
+      byte b = buffer.get(i);
+      if (b == LF || (b == CR && i < size - 1)) {
+        return i + 1;
+      }
+    }
+    return 0;
+  }
+
+  private String decode(int start, int stop) {
+    int length = stop - start;
+    if (scratch.length < length) {
+      scratch = new byte[Math.max(length, scratch.length * 2)];
+    }
+    boolean ascii = true;
+    for (int i = 0; i < length; i++) {
+      byte b = window.get(start + i);
+      scratch[i] = b;
+      ascii &= b >= 0;
+    }
+    if (ascii) {
+      return new String(scratch, 0, length, StandardCharsets.US_ASCII);
+    }
+    return checkUtf8(ByteBuffer.wrap(scratch, 0, length)).toString();
+  }
+
+  private CharBuffer checkUtf8(ByteBuffer bytes) {
+    try {
+      return decoder.decode(bytes);
+    } catch (CharacterCodingException e) {
+      throw new FileReaderException("Failed to read the employee file: " + e.getMessage());
+    }
+  }
+
+  private static boolean isWhitespace(byte b) {
+    return b >= 0 && b <= ' ';
+  }
+}
@@ -0,0 +1,149 @@
+package org.example.repository;
+
+/**
+ * Checks whether text is accepted by {@link Integer#parseInt(String)} and
+ * {@link Double#parseDouble(String)} without calling them, so lenient loads can skip malformed
+ * numbers without creating an exception for each.
+ */
+final class NumberSyntax {
+
+  private NumberSyntax() {
+  }
+
+  /**
+   * Returns whether {@link Integer#parseInt(String)} accepts the text.
+   */
+  static boolean isInt(CharSequence text) {
+    int length = text.length();
+    int cursor = 0;
+    boolean negative = false;
+    if (length > 0 && (text.charAt(0) == '-' || text.charAt(0) == '+')) {
+      negative = text.charAt(0) == '-';
+      cursor++;
+    }
+    if (cursor == length) {
+      return false;
+    }
+    long limit = negative ? -(long) Integer.MIN_VALUE : Integer.MAX_VALUE;
+    long value = 0;
+    for (; cursor < length; cursor++) {
+      int digit = Character.digit(text.charAt(cursor), 10);
+      if (digit < 0) {
+        return false;
+      }
+      value = value * 10 + digit;
+      if (value > limit) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns whether {@link Double#parseDouble(String)} accepts the text: surrounding whitespace,
+   * an optional sign and then {@code NaN}, {@code Infinity}, a decimal number with an optional
+   * exponent or a hexadecimal floating point number, the last two optionally followed by one of
+   * {@code fFdD}.
+   */
+  static boolean isDouble(CharSequence text) {
+    int start = 0;
+    int end = text.length();
+    while (start < end && text.charAt(start) <= ' ') {
+      start++;
+    }
+    while (end > start && text.charAt(end - 1) <= ' ') {
+      end--;
+    }
+    if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+      start++;
+    }
+    if (start == end) {
+      return false;
+    }
+    if (matches(text, start, end, "NaN") || matches(text, start, end, "Infinity")) {
+      return true;
+    }
+    char last = text.charAt(end - 1);
+    if (last == 'f' || last == 'F' || last == 'd' || last == 'D') {
+      end--;
+    }
+    if (end - start > 2 && text.charAt(start) == '0'
+        && (text.charAt(start + 1) == 'x' || text.charAt(start + 1) == 'X')) {
+      return isHexSignificandWithExponent(text, start + 2, end);
+    }
+    return isDecimal(text, start, end);
+  }
+
+  private static boolean isDecimal(CharSequence text, int start, int end) {
+    int cursor = start;
+    int digits = 0;
+    boolean point = false;
+    for (; cursor < end; cursor++) {
+      char c = text.charAt(cursor);
+      if (c >= '0' && c <= '9') {
+        digits++;
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (digits == 0) {
+      return false;
+    }
+    if (cursor == end) {
+      return true;
+    }
+    char exponent = text.charAt(cursor);
+    return (exponent == 'e' || exponent == 'E') && isSignedDigits(text, cursor + 1, end);
+  }
+
+  private static boolean isHexSignificandWithExponent(CharSequence text, int start, int end) {
+    int cursor = start;
+    int digits = 0;
+    boolean point = false;
+    for (; cursor < end; cursor++) {
+      char c = text.charAt(cursor);
+      if (Character.digit(c, 16) >= 0 && c < 128) {
+        digits++;
+      } else if (c == '.' && !point) {
+        point = true;
+      } else {
+        break;
+      }
+    }
+    if (digits == 0 || cursor == end) {
+      return false;
+    }
+    char exponent = text.charAt(cursor);
+    return (exponent == 'p' || exponent == 'P') && isSignedDigits(text, cursor + 1, end);
+  }
+
+  private static boolean isSignedDigits(CharSequence text, int start, int end) {
+    if (start < end && (text.charAt(start) == '-' || text.charAt(start) == '+')) {
+      start++;
+    }
+    if (start == end) {
+      return false;
+    }
+    for (int cursor = start; cursor < end; cursor++) {
+      char c = text.charAt(cursor);
+      if (c < '0' || c > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean matches(CharSequence text, int start, int end, String word) {
+    if (end - start != word.length()) {
+      return false;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      if (text.charAt(start + i) != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
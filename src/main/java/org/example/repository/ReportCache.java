@@ -0,0 +1,281 @@
+package org.example.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Keeps finished analysis reports on disk, keyed by the SHA-256 hash of the input file's content
+ * plus a description of the analyzer configuration. A run over an unchanged input can then print
+ * the stored reports without parsing or analyzing anything.
+ *
+ * <p>Every entry is a separate file in the cache directory. Reading an entry marks it as recently
+ * used by updating its modification time, and storing an entry evicts the least recently used
+ * entries until the directory fits into the configured size.
+ */
+public final class ReportCache {
+
+  /**
+   * File name suffix of cache entries.
+   */
+  public static final String FILE_SUFFIX = ".report";
+
+  /**
+   * Default upper bound for the total size of all entries.
+   */
+  public static final long DEFAULT_MAXIMUM_SIZE = 64L * 1024 * 1024;
+
+  private static final int MAGIC = 0x42435243; // "BCRC"
+  private static final int VERSION = 1;
+
+  private final Path directory;
+  private final long maximumSize;
+
+  /**
+   * Creates a cache.
+   *
+   * @param directory   the directory holding the entries, created on first store
+   * @param maximumSize the upper bound in bytes for the total size of all entries
+   */
+  public ReportCache(Path directory, long maximumSize) {
+    this.directory = Objects.requireNonNull(directory, "Cache directory must not be null");
+    if (maximumSize <= 0) {
+      throw new IllegalArgumentException("Maximum cache size must be positive, but was "
+          + maximumSize);
+    }
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Computes the cache key of an input file for an analyzer configuration. The file content is
+   * hashed by streaming it, see {@link FileFingerprint#hash(Path)}.
+   *
+   * @param inputFile     the file to be analyzed
+   * @param configuration everything besides the input that affects the reports
+   * @throws IOException if the file cannot be read
+   */
+  public String keyFor(Path inputFile, String configuration) throws IOException {
+    String contentHash = HexFormat.of().formatHex(FileFingerprint.hash(inputFile));
+    return contentHash + '|' + configuration;
+  }
+
+  /**
+   * Returns the reports stored for a key and marks them as recently used.
+   *
+   * @param key a key computed by {@link #keyFor(Path, String)}
+   * @return the reports, or empty if there are none or the entry is damaged
+   */
+  public Optional<Entry> get(String key) {
+    Path entryFile = entryFileFor(key);
+    if (!Files.isRegularFile(entryFile)) {
+      return Optional.empty();
+    }
+    try {
+      Optional<Entry> entry = read(entryFile, key);
+      if (entry.isPresent()) {
+        Files.setLastModifiedTime(entryFile, FileTime.from(Instant.now()));
+      }
+      return entry;
+    } catch (IOException | RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores the reports for a key, then evicts least recently used entries until the cache fits
+   * into its maximum size. The entry is written under a temporary name and moved into place, so
+   * concurrent runs never read a partially written entry.
+   *
+   * @param key   a key computed by {@link #keyFor(Path, String)}
+   * @param entry the reports to store
+   * @throws IOException if the entry cannot be written
+   */
+  public void put(String key, Entry entry) throws IOException {
+    Files.createDirectories(directory);
+    Path entryFile = entryFileFor(key);
+    Path tempFile = Files.createTempFile(directory, entryFile.getFileName().toString(), ".tmp");
+    try {
+      write(tempFile, key, entry);
+      Files.move(tempFile, entryFile, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+    evict();
+  }
+
+  /**
+   * Deletes all entries.
+   *
+   * @return the number of deleted entries
+   * @throws IOException if the cache directory cannot be listed or an entry cannot be deleted
+   */
+  public int clear() throws IOException {
+    if (!Files.isDirectory(directory)) {
+      return 0;
+    }
+    int deleted = 0;
+    for (Path entryFile : listEntries()) {
+      if (Files.deleteIfExists(entryFile)) {
+        deleted++;
+      }
+    }
+    return deleted;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+
+  Path entryFileFor(String key) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+    byte[] hash = digest.digest(key.getBytes(StandardCharsets.UTF_8));
+    return directory.resolve(HexFormat.of().formatHex(hash) + FILE_SUFFIX);
+  }
+
+  private void evict() throws IOException {
+    List<CachedFile> files = new ArrayList<>();
+    long totalSize = 0;
+    for (Path entryFile : listEntries()) {
+      try {
+        BasicFileAttributes attributes = Files.readAttributes(entryFile,
+            BasicFileAttributes.class);
+        files.add(new CachedFile(entryFile, attributes.lastModifiedTime(), attributes.size()));
+        totalSize += attributes.size();
+      } catch (NoSuchFileException e) {
+        // removed by a concurrent run
+      }
+    }
+
+    files.sort(Comparator.comparing((CachedFile file) -> file.lastUsed)
+        .thenComparing(file -> file.path));
+    for (int i = 0; i < files.size() && totalSize > maximumSize; i++) {
+      Files.deleteIfExists(files.get(i).path);
+      totalSize -= files.get(i).size;
+    }
+  }
+
+  private List<Path> listEntries() throws IOException {
+    List<Path> entries = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+      stream.forEach(entries::add);
+    }
+    return entries;
+  }
+
+  private static Optional<Entry> read(Path entryFile, String key) throws IOException {
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(entryFile)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION || !key.equals(readString(in))) {
+        return Optional.empty();
+      }
+      int employeeCount = in.readInt();
+      String salaryReport = readString(in);
+      String reportingLineReport = readString(in);
+      if (in.read() != -1) {
+        return Optional.empty();
+      }
+      return Optional.of(new Entry(employeeCount, salaryReport, reportingLineReport));
+    }
+  }
+
+  private static void write(Path entryFile, String key, Entry entry) throws IOException {
+    try (DataOutputStream out = new DataOutputStream(
+        new BufferedOutputStream(Files.newOutputStream(entryFile)))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      writeString(out, key);
+      out.writeInt(entry.getEmployeeCount());
+      writeString(out, entry.getSalaryReport());
+      writeString(out, entry.getReportingLineReport());
+    }
+  }
+
+  private static String readString(DataInputStream in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Negative string length in cache entry");
+    }
+    byte[] bytes = in.readNBytes(length);
+    if (bytes.length != length) {
+      throw new EOFException("Truncated cache entry");
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  /**
+   * The outcome of one analysis run: the number of employees read and both reports.
+   */
+  public static final class Entry {
+
+    private final int employeeCount;
+    private final String salaryReport;
+    private final String reportingLineReport;
+
+    public Entry(int employeeCount, String salaryReport, String reportingLineReport) {
+      this.employeeCount = employeeCount;
+      this.salaryReport = Objects.requireNonNull(salaryReport);
+      this.reportingLineReport = Objects.requireNonNull(reportingLineReport);
+    }
+
+    public int getEmployeeCount() {
+      return employeeCount;
+    }
+
+    public String getSalaryReport() {
+      return salaryReport;
+    }
+
+    public String getReportingLineReport() {
+      return reportingLineReport;
+    }
+  }
+
+  private static final class CachedFile {
+
+    private final Path path;
+    private final FileTime lastUsed;
+    private final long size;
+
+    private CachedFile(Path path, FileTime lastUsed, long size) {
+      this.path = path;
+      this.lastUsed = lastUsed;
+      this.size = size;
+    }
+  }
+}
@@ -0,0 +1,173 @@
+package org.example.repository;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compact buffer of the rows a lenient load skipped. Every error is a line number, a 1-based column
+ * (0 for the whole row) and a {@link Code}, packed into a single {@code long}, so even millions of
+ * bad rows cost a few bytes each and no exception or message is created while the file is read.
+ * <p>
+ * The buffer keeps at most a given number of errors. Errors beyond that are still counted, so a
+ * report can tell how many rows were skipped in total.
+ */
+public final class RowErrors {
+
+  /**
+   * Limit value that keeps every error.
+   */
+  public static final int UNLIMITED = -1;
+
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private final int limit;
+  private long[] entries = new long[DEFAULT_CAPACITY];
+  private int size;
+  private long count;
+  private boolean sorted = true;
+
+  /**
+   * Creates a buffer that keeps every error.
+   */
+  public RowErrors() {
+    this(UNLIMITED);
+  }
+
+  /**
+   * Creates a buffer that keeps at most the given number of errors.
+   *
+   * @param limit the maximum number of errors kept, or {@link #UNLIMITED}
+   */
+  public RowErrors(int limit) {
+    if (limit < 0 && limit != UNLIMITED) {
+      throw new IllegalArgumentException(
+          "Error limit must be positive or UNLIMITED, but was " + limit);
+    }
+    this.limit = limit;
+  }
+
+  /**
+   * The reasons a row is skipped.
+   */
+  public enum Code {
+    COLUMN_COUNT("Incorrect column count"),
+    INVALID_ID("Employee ID is not a number"),
+    INVALID_SALARY("Salary is not a number"),
+    INVALID_MANAGER_ID("Manager ID is not a number"),
+    DUPLICATE_ID("Duplicate employee ID, the first row with this ID is kept"),
+    SECOND_CEO("Second employee without a managerId"),
+    UNKNOWN_MANAGER("No valid employee with this manager ID"),
+    REPORTING_CYCLE("Part of a reporting line cycle"),
+    MANAGER_SKIPPED("Reports to an employee whose row was skipped");
+
+    private final String description;
+
+    Code(String description) {
+      this.description = description;
+    }
+
+    public String getDescription() {
+      return description;
+    }
+  }
+
+  private static final Code[] CODES = Code.values();
+
+  /**
+   * Records an error.
+   *
+   * @param line   the 1-based line number
+   * @param column the 1-based column, or 0 if the whole row is affected
+   * @param code   the reason
+   */
+  void add(int line, int column, Code code) {
+    count++;
+    if (limit != UNLIMITED && size == limit) {
+      return;
+    }
+    if (size == entries.length) {
+      entries = Arrays.copyOf(entries, size + (size >> 1));
+    }
+    long entry = ((long) line << 32) | ((long) column << 16) | code.ordinal();
+    sorted &= size == 0 || entries[size - 1] <= entry;
+    entries[size++] = entry;
+  }
+
+  /**
+   * Records all errors of another buffer, shifting their line numbers.
+   */
+  void addAll(RowErrors other, int lineOffset) {
+    for (int i = 0; i < other.size; i++) {
+      add(other.line(i) + lineOffset, other.column(i), other.code(i));
+    }
+    count += other.count - other.size;
+  }
+
+  /**
+   * Returns the maximum number of errors kept, or {@link #UNLIMITED}.
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Returns the total number of errors, including those beyond the limit.
+   */
+  public long count() {
+    return count;
+  }
+
+  /**
+   * Returns the number of errors kept.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the line of the error at the given position, in ascending line order.
+   */
+  public int line(int index) {
+    return (int) (sortedEntries()[index] >>> 32);
+  }
+
+  /**
+   * Returns the 1-based column of the error at the given position, or 0 for the whole row.
+   */
+  public int column(int index) {
+    return (int) (sortedEntries()[index] >>> 16) & 0xFFFF;
+  }
+
+  public Code code(int index) {
+    return CODES[(int) sortedEntries()[index] & 0xFFFF];
+  }
+
+  /**
+   * Writes one line per error kept, in ascending line order, followed by the number of errors
+   * beyond the limit if there are any.
+   *
+   * @throws IOException if the output fails
+   */
+  public void writeTo(Appendable out) throws IOException {
+    String lineSeparator = System.lineSeparator();
+    for (int i = 0; i < size; i++) {
+      out.append("Line ").append(Integer.toString(line(i)));
+      if (column(i) > 0) {
+        out.append(", column ").append(Integer.toString(column(i)));
+      }
+      out.append(": ").append(code(i).getDescription()).append(lineSeparator);
+    }
+    if (count > size) {
+      out.append("... and ").append(Long.toString(count - size)).append(" more")
+          .append(lineSeparator);
+    }
+  }
+
+  private long[] sortedEntries() {
+    if (!sorted) {
+      Arrays.sort(entries, 0, size);
+      sorted = true;
+    }
+    return entries;
+  }
+}
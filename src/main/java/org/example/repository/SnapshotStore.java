@@ -0,0 +1,306 @@
+package org.example.repository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32C;
+import org.example.model.NameArena;
+import org.example.model.OrgSnapshot;
+
+/**
+ * Stores {@link OrgSnapshot}s in a compact binary file next to the CSV they were parsed from, so
+ * later runs can skip parsing. The file is little-endian and consists of a fixed header followed
+ * by fixed-width columns:
+ * <pre>
+ *   header    magic, format version, employee count, source size, source mtime,
+ *             source SHA-256, name pool size, CRC32C of everything after the header
+ *   salaries  double[count]
+ *   ids       int[count]
+ *   parents   int[count]
+ *   name pool UTF-8 bytes of all first and last names
+ *   offsets   int[2 * count + 1], where the first name of employee i spans
+ *             [offsets[2i], offsets[2i + 1]) and the last name [offsets[2i + 1], offsets[2i + 2])
+ * </pre>
+ * A snapshot is only used while the source CSV still has the recorded size, modification time
+ * and, unless disabled, content hash; otherwise the caller falls back to the CSV.
+ * <p>
+ * The name columns are loaded as a {@link NameArena}, so no name is decoded until it is asked for.
+ */
+public final class SnapshotStore {
+
+  /**
+   * File name suffix used for snapshots stored next to their CSV file.
+   */
+  public static final String FILE_SUFFIX = ".snapshot";
+
+  private static final long MAGIC = 0x50414e534f434223L; // "#BCOSNAP"
+  private static final int VERSION = 1;
+  private static final int HEADER_SIZE = 80;
+  private static final int WRITE_BUFFER_SIZE = 1024 * 1024;
+
+  private final Path directory;
+  private final boolean verifyContentHash;
+
+  /**
+   * Creates a store that keeps every snapshot next to its CSV file and verifies the content hash of
+   * the CSV before using a snapshot.
+   */
+  public SnapshotStore() {
+    this(null, true);
+  }
+
+  /**
+   * Creates a store.
+   *
+   * @param directory         the directory holding the snapshots, or {@code null} to keep every
+   *                          snapshot next to its CSV file
+   * @param verifyContentHash whether the CSV content must be hashed and compared on every load, in
+   *                          addition to its size and modification time
+   */
+  public SnapshotStore(Path directory, boolean verifyContentHash) {
+    this.directory = directory;
+    this.verifyContentHash = verifyContentHash;
+  }
+
+  /**
+   * Returns the snapshot file used for the given CSV file.
+   */
+  public Path snapshotFileFor(Path csvFile) {
+    String fileName = csvFile.getFileName() + FILE_SUFFIX;
+    return directory == null ? csvFile.resolveSibling(fileName) : directory.resolve(fileName);
+  }
+
+  /**
+   * Loads the snapshot stored for the CSV file if it is still up to date.
+   *
+   * @param csvFile the source CSV file
+   * @return the snapshot, or empty if there is none, it is stale, or it is damaged
+   */
+  public Optional<OrgSnapshot> load(Path csvFile) {
+    Path snapshotFile = snapshotFileFor(csvFile);
+    if (!Files.isRegularFile(snapshotFile)) {
+      return Optional.empty();
+    }
+    try (FileChannel channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+      return read(channel, csvFile);
+    } catch (IOException | RuntimeException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Writes the snapshot for the CSV file. The file is written under a temporary name and moved
+   * into place, so readers never observe a partially written snapshot.
+   *
+   * @param csvFile the source CSV file
+   * @param source  the fingerprint of the CSV content the snapshot was built from
+   * @param org     the snapshot to store
+   * @throws IOException if the snapshot cannot be written
+   */
+  public void save(Path csvFile, FileFingerprint source, OrgSnapshot org) throws IOException {
+    Path snapshotFile = snapshotFileFor(csvFile);
+    Path parent = snapshotFile.toAbsolutePath().getParent();
+    Files.createDirectories(parent);
+    Path tempFile = Files.createTempFile(parent, snapshotFile.getFileName().toString(), ".tmp");
+    try {
+      try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+        write(channel, source, org);
+      }
+      Files.move(tempFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  /**
+   * Fingerprints the CSV file the way this store needs it to validate snapshots later.
+   *
+   * @throws IOException if the file cannot be read
+   */
+  public FileFingerprint fingerprint(Path csvFile) throws IOException {
+    return FileFingerprint.of(csvFile);
+  }
+
+  private Optional<OrgSnapshot> read(FileChannel channel, Path csvFile) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    if (channel.read(header, 0) != HEADER_SIZE) {
+      return Optional.empty();
+    }
+    header.flip();
+    if (header.getLong() != MAGIC || header.getInt() != VERSION) {
+      return Optional.empty();
+    }
+    int count = header.getInt();
+    long sourceSize = header.getLong();
+    long sourceLastModified = header.getLong();
+    byte[] sourceHash = new byte[FileFingerprint.HASH_LENGTH];
+    header.get(sourceHash);
+    long namePoolSize = header.getLong();
+    long checksum = header.getLong();
+
+    FileFingerprint source = new FileFingerprint(sourceSize, sourceLastModified, sourceHash);
+    if (!source.hasSameAttributes(csvFile)
+        || (verifyContentHash && !source.hasContentHash(FileFingerprint.hash(csvFile)))) {
+      return Optional.empty();
+    }
+
+    long salariesOffset = HEADER_SIZE;
+    long idsOffset = salariesOffset + 8L * count;
+    long parentsOffset = idsOffset + 4L * count;
+    long namePoolOffset = parentsOffset + 4L * count;
+    long nameOffsetsOffset = namePoolOffset + namePoolSize;
+    long end = nameOffsetsOffset + 4L * (2L * count + 1);
+    if (count < 0 || namePoolSize < 0 || namePoolSize > Integer.MAX_VALUE
+        || end != channel.size()) {
+      return Optional.empty();
+    }
+
+    MappedByteBuffer salariesColumn = map(channel, salariesOffset, idsOffset);
+    MappedByteBuffer idsColumn = map(channel, idsOffset, parentsOffset);
+    MappedByteBuffer parentsColumn = map(channel, parentsOffset, namePoolOffset);
+    MappedByteBuffer namePool = map(channel, namePoolOffset, nameOffsetsOffset);
+    MappedByteBuffer nameOffsetsColumn = map(channel, nameOffsetsOffset, end);
+
+    CRC32C crc = new CRC32C();
+    crc.update(salariesColumn.duplicate());
+    crc.update(idsColumn.duplicate());
+    crc.update(parentsColumn.duplicate());
+    crc.update(namePool.duplicate());
+    crc.update(nameOffsetsColumn.duplicate());
+    if (crc.getValue() != checksum) {
+      return Optional.empty();
+    }
+
+    double[] salaries = new double[count];
+    int[] ids = new int[count];
+    int[] parents = new int[count];
+    int[] nameOffsets = new int[2 * count + 1];
+    salariesColumn.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(salaries);
+    idsColumn.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(ids);
+    parentsColumn.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(parents);
+    nameOffsetsColumn.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(nameOffsets);
+
+    byte[] nameBytes = new byte[(int) namePoolSize];
+    namePool.get(nameBytes);
+
+    return Optional.of(OrgSnapshot.of(ids, NameArena.of(nameBytes, nameOffsets), salaries,
+        parents));
+  }
+
+  private static MappedByteBuffer map(FileChannel channel, long start, long end)
+      throws IOException {
+    return channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+  }
+
+  private void write(FileChannel channel, FileFingerprint source, OrgSnapshot org)
+      throws IOException {
+    int count = org.size();
+    ColumnWriter writer = new ColumnWriter(channel, HEADER_SIZE);
+    for (int i = 0; i < count; i++) {
+      writer.putDouble(org.salary(i));
+    }
+    for (int i = 0; i < count; i++) {
+      writer.putInt(org.id(i));
+    }
+    for (int i = 0; i < count; i++) {
+      writer.putInt(org.parent(i));
+    }
+
+    int[] nameOffsets = new int[2 * count + 1];
+    long namePoolSize = 0;
+    for (int i = 0; i < 2 * count; i++) {
+      String name = i % 2 == 0 ? org.firstName(i / 2) : org.lastName(i / 2);
+      byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+      writer.putBytes(bytes);
+      namePoolSize += bytes.length;
+      if (namePoolSize > Integer.MAX_VALUE) {
+        throw new IOException("Employee names are too large for the snapshot format");
+      }
+      nameOffsets[i + 1] = (int) namePoolSize;
+    }
+    for (int offset : nameOffsets) {
+      writer.putInt(offset);
+    }
+    long checksum = writer.finish();
+
+    ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+    header.putLong(MAGIC)
+        .putInt(VERSION)
+        .putInt(count)
+        .putLong(source.getSize())
+        .putLong(source.getLastModifiedMillis())
+        .put(source.getContentHash())
+        .putLong(namePoolSize)
+        .putLong(checksum)
+        .flip();
+    while (header.hasRemaining()) {
+      channel.write(header, HEADER_SIZE - header.remaining());
+    }
+  }
+
+  /**
+   * Buffers little-endian values, writes them sequentially and checksums everything written.
+   */
+  private static final class ColumnWriter {
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    private final CRC32C crc = new CRC32C();
+    private long position;
+
+    private ColumnWriter(FileChannel channel, long position) {
+      this.channel = channel;
+      this.position = position;
+    }
+
+    private void putDouble(double value) throws IOException {
+      ensureRemaining(Double.BYTES);
+      buffer.putDouble(value);
+    }
+
+    private void putInt(int value) throws IOException {
+      ensureRemaining(Integer.BYTES);
+      buffer.putInt(value);
+    }
+
+    private void putBytes(byte[] bytes) throws IOException {
+      int offset = 0;
+      while (offset < bytes.length) {
+        ensureRemaining(1);
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.put(bytes, offset, length);
+        offset += length;
+      }
+    }
+
+    private long finish() throws IOException {
+      flush();
+      return crc.getValue();
+    }
+
+    private void ensureRemaining(int bytes) throws IOException {
+      if (buffer.remaining() < bytes) {
+        flush();
+      }
+    }
+
+    private void flush() throws IOException {
+      buffer.flip();
+      crc.update(buffer.duplicate());
+      while (buffer.hasRemaining()) {
+        position += channel.write(buffer, position);
+      }
+      buffer.clear();
+    }
+  }
+}
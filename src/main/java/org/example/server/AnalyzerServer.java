@@ -0,0 +1,294 @@
+package org.example.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import org.example.model.OrgSnapshot;
+import org.example.model.ReportingLineViolation;
+import org.example.model.SalaryViolation;
+import org.example.model.Violation;
+import org.example.report.ViolationSink;
+import org.example.repository.EmployeeRepository;
+import org.example.service.OrgTraversal;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+
+/**
+ * Serves the analysis of one CSV file over HTTP, so dashboards can ask questions without starting
+ * a JVM and parsing the file each time. The organization is loaded once and kept in memory:
+ * <ul>
+ *   <li>{@code GET /status} - the file, the number of employees and when it was loaded</li>
+ *   <li>{@code GET /salary-violations} - all salary violations in ascending id order</li>
+ *   <li>{@code GET /reporting-line-violations} - all reporting line violations</li>
+ *   <li>{@code GET /employees/<id>} - one employee with manager, depth and direct reports</li>
+ *   <li>{@code POST /reload} - parse the file again and serve the new organization</li>
+ * </ul>
+ * All responses are JSON. A reload builds the new organization and its violation lists completely
+ * before swapping them in with a single reference update, so a request sees either the old or the
+ * new organization, never a mix. A reload that fails keeps the old organization.
+ */
+public class AnalyzerServer {
+
+  private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+
+  private final EmployeeRepository repository;
+  private final SalaryAnalyzer salaryAnalyzer;
+  private final ReportingLineAnalyzer lineAnalyzer;
+  private final String filePath;
+  private final AtomicReference<LoadedOrg> current = new AtomicReference<>();
+  private final Object reloadLock = new Object();
+  private HttpServer server;
+  private ExecutorService executor;
+
+  public AnalyzerServer(
+      EmployeeRepository repository,
+      SalaryAnalyzer salaryAnalyzer,
+      ReportingLineAnalyzer lineAnalyzer,
+      String filePath) {
+    this.repository = Objects.requireNonNull(repository, "EmployeeRepository must not be null");
+    this.salaryAnalyzer = Objects.requireNonNull(salaryAnalyzer,
+        "SalaryAnalyzer must not be null");
+    this.lineAnalyzer = Objects.requireNonNull(lineAnalyzer,
+        "ReportingLineAnalyzer must not be null");
+    this.filePath = Objects.requireNonNull(filePath, "File path must not be null");
+  }
+
+  /**
+   * Loads the file and starts serving it. The server has no authentication and anyone who can
+   * reach it can read all salaries and trigger reloads, so listen on a loopback address unless the
+   * network is trusted.
+   *
+   * @param address the address to listen on; port 0 picks a free port
+   * @param threads the number of threads handling requests
+   * @throws IOException      if the server cannot listen on the address
+   * @throws RuntimeException if the file cannot be loaded
+   */
+  public void start(InetSocketAddress address, int threads) throws IOException {
+    reload();
+    executor = Executors.newFixedThreadPool(threads);
+    server = HttpServer.create(address, 0);
+    server.setExecutor(executor);
+    server.createContext("/status", exchange -> handle(exchange, "GET", this::status));
+    server.createContext("/salary-violations",
+        exchange -> handle(exchange, "GET", () -> current.get().salaryViolationsJson));
+    server.createContext("/reporting-line-violations",
+        exchange -> handle(exchange, "GET", () -> current.get().reportingLineViolationsJson));
+    server.createContext("/employees/", exchange -> handle(exchange, "GET",
+        () -> employee(exchange.getRequestURI().getPath().substring("/employees/".length()))));
+    server.createContext("/reload", exchange -> handle(exchange, "POST", () -> {
+      reload();
+      return status();
+    }));
+    server.start();
+  }
+
+  /**
+   * Stops serving, waiting at most the given number of seconds for requests in progress.
+   */
+  public void stop(int delaySeconds) {
+    if (server != null) {
+      server.stop(delaySeconds);
+      executor.shutdown();
+    }
+  }
+
+  /**
+   * Returns the address the server listens on.
+   */
+  public InetSocketAddress getAddress() {
+    return server.getAddress();
+  }
+
+  /**
+   * Parses the file and analyzes it, then serves the result. Concurrent reloads run one after the
+   * other; requests keep being served from the previous organization until the swap.
+   *
+   * @return the number of employees now served
+   * @throws RuntimeException if the file cannot be loaded, in which case nothing changes
+   */
+  public int reload() {
+    synchronized (reloadLock) {
+      OrgSnapshot org = repository.createOrgSnapshot(filePath);
+      List<Violation> salaryViolations = new ArrayList<>();
+      List<Violation> lineViolations = new ArrayList<>();
+      try {
+        new OrgTraversal(salaryAnalyzer.getParallelism())
+            .add(salaryAnalyzer, new ListSink(salaryViolations))
+            .add(lineAnalyzer, new ListSink(lineViolations))
+            .run(org);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      current.set(new LoadedOrg(org, toJson(salaryViolations), toJson(lineViolations),
+          Instant.now()));
+      return org.size();
+    }
+  }
+
+  private String status() {
+    LoadedOrg loaded = current.get();
+    return new JsonWriter().beginObject()
+        .name("file").value(filePath)
+        .name("employees").value(loaded.org.size())
+        .name("loadedAt").value(loaded.loadedAt.toString())
+        .endObject().toString();
+  }
+
+  private String employee(String idText) {
+    LoadedOrg loaded = current.get();
+    OrgSnapshot org = loaded.org;
+    int index;
+    try {
+      index = org.indexOf(Integer.parseInt(idText));
+    } catch (NumberFormatException e) {
+      throw new RequestException(400, "Invalid employee id: " + idText);
+    }
+    if (index < 0) {
+      throw new RequestException(404, "No employee with ID " + idText + " found");
+    }
+
+    JsonWriter json = new JsonWriter().beginObject();
+    appendEmployee(json, org, index);
+    json.name("salary").amount(org.salary(index));
+    int manager = org.parent(index);
+    json.name("manager");
+    if (manager == OrgSnapshot.NO_PARENT) {
+      json.value((String) null);
+    } else {
+      appendEmployee(json.beginObject(), org, manager).endObject();
+    }
+    json.name("depth").value(org.depth(index));
+    json.name("directReports").beginArray();
+    for (int position = org.childStart(index); position < org.childEnd(index); position++) {
+      appendEmployee(json.beginObject(), org, org.child(position)).endObject();
+    }
+    return json.endArray().endObject().toString();
+  }
+
+  private static JsonWriter appendEmployee(JsonWriter json, OrgSnapshot org, int index) {
+    return json.name("id").value(org.id(index))
+        .name("firstName").value(org.firstName(index))
+        .name("lastName").value(org.lastName(index));
+  }
+
+  private static byte[] toJson(List<Violation> violations) {
+    JsonWriter json = new JsonWriter().beginArray();
+    for (Violation violation : violations) {
+      json.beginObject()
+          .name("id").value(violation.id())
+          .name("firstName").value(violation.firstName())
+          .name("lastName").value(violation.lastName());
+      if (violation instanceof SalaryViolation salaryViolation) {
+        json.name("kind").value(salaryViolation.kind().name())
+            .name("amount").amount(salaryViolation.amount());
+      } else if (violation instanceof ReportingLineViolation lineViolation) {
+        json.name("excessDepth").value(lineViolation.excessDepth());
+      }
+      json.endObject();
+    }
+    return json.endArray().toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void handle(HttpExchange exchange, String method, ResponseBody body)
+      throws IOException {
+    try (exchange) {
+      int status = 200;
+      byte[] response;
+      if (!method.equals(exchange.getRequestMethod())) {
+        status = 405;
+        response = error("Method " + exchange.getRequestMethod() + " not allowed");
+        exchange.getResponseHeaders().set("Allow", method);
+      } else {
+        try {
+          Object result = body.get();
+          response = result instanceof byte[] ? (byte[]) result
+              : result.toString().getBytes(StandardCharsets.UTF_8);
+        } catch (RequestException e) {
+          status = e.status;
+          response = error(e.getMessage());
+        } catch (RuntimeException e) {
+          status = 500;
+          response = error(e.getMessage() == null ? e.getClass().getSimpleName()
+              : e.getMessage());
+        }
+      }
+      exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+      exchange.sendResponseHeaders(status, response.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(response);
+      }
+    }
+  }
+
+  private static byte[] error(String message) {
+    return new JsonWriter().beginObject().name("error").value(message).endObject().toString()
+        .getBytes(StandardCharsets.UTF_8);
+  }
+
+  @FunctionalInterface
+  private interface ResponseBody {
+
+    /**
+     * Returns the response as JSON bytes or as an object whose string form is the JSON.
+     */
+    Object get();
+  }
+
+  /**
+   * An organization with its violations rendered once, swapped in as a whole on reload.
+   */
+  private static final class LoadedOrg {
+
+    private final OrgSnapshot org;
+    private final byte[] salaryViolationsJson;
+    private final byte[] reportingLineViolationsJson;
+    private final Instant loadedAt;
+
+    private LoadedOrg(OrgSnapshot org, byte[] salaryViolationsJson,
+        byte[] reportingLineViolationsJson, Instant loadedAt) {
+      this.org = org;
+      this.salaryViolationsJson = salaryViolationsJson;
+      this.reportingLineViolationsJson = reportingLineViolationsJson;
+      this.loadedAt = loadedAt;
+    }
+  }
+
+  private static final class ListSink implements ViolationSink {
+
+    private final List<Violation> violations;
+
+    private ListSink(List<Violation> violations) {
+      this.violations = violations;
+    }
+
+    @Override
+    public void accept(Violation violation) {
+      violations.add(violation);
+    }
+
+    @Override
+    public void flush() {
+    }
+  }
+
+  private static final class RequestException extends RuntimeException {
+
+    private final int status;
+
+    private RequestException(int status, String message) {
+      super(message);
+      this.status = status;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package org.example.server;
+
+import java.util.Locale;
+
+/**
+ * Minimal streaming JSON writer for the server responses. Callers are responsible for the
+ * structure; the writer only inserts commas between values and escapes strings.
+ */
+final class JsonWriter {
+
+  private final StringBuilder json = new StringBuilder();
+  private boolean needsComma;
+
+  JsonWriter beginObject() {
+    separate();
+    json.append('{');
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter endObject() {
+    json.append('}');
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter beginArray() {
+    separate();
+    json.append('[');
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter endArray() {
+    json.append(']');
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter name(String name) {
+    separate();
+    appendString(name);
+    json.append(':');
+    needsComma = false;
+    return this;
+  }
+
+  JsonWriter value(String value) {
+    separate();
+    if (value == null) {
+      json.append("null");
+    } else {
+      appendString(value);
+    }
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter value(long value) {
+    separate();
+    json.append(value);
+    needsComma = true;
+    return this;
+  }
+
+  JsonWriter value(boolean value) {
+    separate();
+    json.append(value);
+    needsComma = true;
+    return this;
+  }
+
+  /**
+   * Writes an amount of money with two decimals, rounded like the text reports. JSON has no
+   * numbers for {@code NaN} and the infinities, so those are written as {@code null}.
+   */
+  JsonWriter amount(double value) {
+    separate();
+    if (Double.isFinite(value)) {
+      json.append(String.format(Locale.ROOT, "%.2f", value));
+    } else {
+      json.append("null");
+    }
+    needsComma = true;
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return json.toString();
+  }
+
+  private void separate() {
+    if (needsComma) {
+      json.append(',');
+      needsComma = false;
+    }
+  }
+
+  private void appendString(String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          json.append("\\\"");
+          break;
+        case '\\':
+          json.append("\\\\");
+          break;
+        case '\n':
+          json.append("\\n");
+          break;
+        case '\r':
+          json.append("\\r");
+          break;
+        case '\t':
+          json.append("\\t");
+          break;
+        default:
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+      }
+    }
+    json.append('"');
+  }
+}
@@ -0,0 +1,147 @@
+package org.example.service;
+
+import org.example.exception.EmployeeValidationException;
+import org.example.model.OrgSnapshot;
+
+/**
+ * Answers questions about reporting chains without climbing them one manager at a time: whether
+ * one employee is in another's reporting chain, who their lowest common manager is and how many
+ * reporting steps lie between them.
+ * <p>
+ * Every employee's subtree gets a contiguous interval of pre-order numbers (an Euler tour of the
+ * hierarchy), so the ancestor test compares two intervals in constant time. For common managers,
+ * a binary lifting table stores each employee's manager 1, 2, 4, ... levels up, which climbs any
+ * reporting chain in O(log depth) jumps. Both are built from the snapshot's top-down order without
+ * recursion.
+ */
+public final class AncestryIndex {
+
+  private final OrgSnapshot org;
+  private final int[] entries;
+  private final int[] subtreeSizes;
+  private final int[][] ancestors;
+
+  private AncestryIndex(OrgSnapshot org, int[] entries, int[] subtreeSizes, int[][] ancestors) {
+    this.org = org;
+    this.entries = entries;
+    this.subtreeSizes = subtreeSizes;
+    this.ancestors = ancestors;
+  }
+
+  /**
+   * Builds the index of an organization in O(n log depth) time and memory.
+   *
+   * @param org the organization snapshot
+   * @return the index
+   */
+  public static AncestryIndex of(OrgSnapshot org) {
+    int size = org.size();
+    int[] subtreeSizes = new int[size];
+    for (int position = size - 1; position >= 0; position--) {
+      int employee = org.topDown(position);
+      subtreeSizes[employee]++;
+      if (org.parent(employee) != OrgSnapshot.NO_PARENT) {
+        subtreeSizes[org.parent(employee)] += subtreeSizes[employee];
+      }
+    }
+
+    // a manager's interval starts with the manager, followed by the subordinates' intervals in
+    // children order; top-level employees get consecutive intervals
+    int[] entries = new int[size];
+    int nextTopLevelEntry = 0;
+    for (int position = 0; position < size; position++) {
+      int employee = org.topDown(position);
+      if (org.parent(employee) == OrgSnapshot.NO_PARENT) {
+        entries[employee] = nextTopLevelEntry;
+        nextTopLevelEntry += subtreeSizes[employee];
+      }
+      int nextEntry = entries[employee] + 1;
+      for (int child = org.childStart(employee); child < org.childEnd(employee); child++) {
+        entries[org.child(child)] = nextEntry;
+        nextEntry += subtreeSizes[org.child(child)];
+      }
+    }
+
+    // top-level employees are their own ancestors, so jumps past the top stay there
+    int levels = Math.max(1, 32 - Integer.numberOfLeadingZeros(org.maxDepth()));
+    int[][] ancestors = new int[levels][size];
+    for (int employee = 0; employee < size; employee++) {
+      int parent = org.parent(employee);
+      ancestors[0][employee] = parent == OrgSnapshot.NO_PARENT ? employee : parent;
+    }
+    for (int level = 1; level < levels; level++) {
+      int[] previous = ancestors[level - 1];
+      int[] current = ancestors[level];
+      for (int employee = 0; employee < size; employee++) {
+        current[employee] = previous[previous[employee]];
+      }
+    }
+    return new AncestryIndex(org, entries, subtreeSizes, ancestors);
+  }
+
+  public OrgSnapshot org() {
+    return org;
+  }
+
+  /**
+   * Finds the snapshot index of an employee, to be passed to the queries.
+   *
+   * @throws EmployeeValidationException if there is no such employee
+   */
+  public int indexOf(int id) {
+    int index = org.indexOf(id);
+    if (index < 0) {
+      throw new EmployeeValidationException("No employee with ID " + id + " found");
+    }
+    return index;
+  }
+
+  /**
+   * Tells in constant time whether {@code manager} is in the reporting chain of {@code employee},
+   * that is, whether {@code employee} reports to them directly or indirectly. Every employee counts
+   * as part of their own chain.
+   */
+  public boolean isInReportingChain(int manager, int employee) {
+    return entries[manager] <= entries[employee]
+        && entries[employee] < entries[manager] + subtreeSizes[manager];
+  }
+
+  /**
+   * Finds the lowest employee who has both employees in their subtree, in O(log depth). If one
+   * employee is in the other's reporting chain, that employee is the answer.
+   *
+   * @return the index of the lowest common manager, or {@link OrgSnapshot#NO_PARENT} if the
+   * employees belong to different top-level employees
+   */
+  public int lowestCommonManager(int first, int second) {
+    if (isInReportingChain(first, second)) {
+      return first;
+    }
+    if (isInReportingChain(second, first)) {
+      return second;
+    }
+    int employee = first;
+    for (int level = ancestors.length - 1; level >= 0; level--) {
+      int ancestor = ancestors[level][employee];
+      if (!isInReportingChain(ancestor, second)) {
+        employee = ancestor;
+      }
+    }
+    int manager = ancestors[0][employee];
+    return isInReportingChain(manager, second) ? manager : OrgSnapshot.NO_PARENT;
+  }
+
+  /**
+   * Returns the number of reporting steps from one employee up to their lowest common manager and
+   * down to the other employee, in O(log depth).
+   *
+   * @return the distance, or -1 if the employees belong to different top-level employees
+   */
+  public int distance(int first, int second) {
+    int manager = lowestCommonManager(first, second);
+    if (manager == OrgSnapshot.NO_PARENT) {
+      return -1;
+    }
+    return org.depth(first) + org.depth(second) - 2 * org.depth(manager);
+  }
+}
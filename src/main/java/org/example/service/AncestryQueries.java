@@ -0,0 +1,89 @@
+package org.example.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import org.example.exception.EmployeeValidationException;
+import org.example.model.OrgSnapshot;
+
+/**
+ * Answers a batch of reporting chain queries, one per line, with an {@link AncestryIndex}. Every
+ * query names an operation and two employee ids:
+ * <ul>
+ *   <li>{@code in-chain <manager id> <employee id>} - {@code true} if the employee reports to the
+ *   manager directly or indirectly, otherwise {@code false}</li>
+ *   <li>{@code common-manager <id> <id>} - the id of the lowest common manager, or
+ *   {@code none}</li>
+ *   <li>{@code distance <id> <id>} - the number of reporting steps between the employees, or
+ *   {@code none}</li>
+ * </ul>
+ * Empty lines and lines starting with {@code #} are skipped. Each answer is written as the query
+ * followed by {@code |} and the result; a malformed query or an unknown id is answered with
+ * {@code error: <reason>} without stopping the batch.
+ */
+public final class AncestryQueries {
+
+  private final AncestryIndex index;
+
+  public AncestryQueries(AncestryIndex index) {
+    this.index = index;
+  }
+
+  /**
+   * Answers all queries read from {@code in} and writes the answers to {@code out}, one line each.
+   *
+   * @return the number of answered queries, including those answered with an error
+   * @throws IOException if reading the queries or writing the answers fails
+   */
+  public int run(BufferedReader in, Writer out) throws IOException {
+    int count = 0;
+    String line;
+    while ((line = in.readLine()) != null) {
+      String query = line.trim();
+      if (query.isEmpty() || query.startsWith("#")) {
+        continue;
+      }
+      out.write(query);
+      out.write('|');
+      out.write(answer(query));
+      out.write(System.lineSeparator());
+      count++;
+    }
+    out.flush();
+    return count;
+  }
+
+  /**
+   * Answers a single query.
+   *
+   * @param query the query, for example {@code distance 3 5}
+   * @return the result, or {@code error: <reason>} if the query cannot be answered
+   */
+  public String answer(String query) {
+    String[] parts = query.trim().split("\\s+");
+    if (parts.length != 3) {
+      return "error: expected an operation and two employee ids";
+    }
+    try {
+      int first = index.indexOf(Integer.parseInt(parts[1]));
+      int second = index.indexOf(Integer.parseInt(parts[2]));
+      switch (parts[0]) {
+        case "in-chain":
+          return Boolean.toString(index.isInReportingChain(first, second));
+        case "common-manager":
+          int manager = index.lowestCommonManager(first, second);
+          return manager == OrgSnapshot.NO_PARENT ? "none"
+              : Integer.toString(index.org().id(manager));
+        case "distance":
+          int distance = index.distance(first, second);
+          return distance < 0 ? "none" : Integer.toString(distance);
+        default:
+          return "error: unknown operation " + parts[0];
+      }
+    } catch (NumberFormatException e) {
+      return "error: invalid employee id";
+    } catch (EmployeeValidationException e) {
+      return "error: " + e.getMessage();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package org.example.service;
+
+import java.io.IOException;
+import org.example.model.OrgSnapshot;
+import org.example.report.ViolationSink;
+
+/**
+ * A check that inspects employees one at a time. Checks are run by an {@link OrgTraversal}, which
+ * visits every employee once and feeds all registered checks in the same pass, so adding a check
+ * adds work per employee but no extra pass over the organization.
+ */
+public interface EmployeeCheck {
+
+  /**
+   * Tells whether the check can find anything in the organization at all. Checks that return
+   * {@code false} are not visited; when no check applies, the traversal skips the organization.
+   */
+  default boolean appliesTo(OrgSnapshot org) {
+    return true;
+  }
+
+  /**
+   * Inspects one employee and reports any violation to the sink.
+   *
+   * @param employee the employee, valid only for the duration of the call
+   * @param sink     receives the violations of this check
+   * @throws IOException if the sink fails to write a violation
+   */
+  void check(EmployeeNode employee, ViolationSink sink) throws IOException;
+}
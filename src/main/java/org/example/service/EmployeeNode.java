@@ -0,0 +1,109 @@
+package org.example.service;
+
+import org.example.collection.ExactSum;
+import org.example.model.OrgSnapshot;
+
+/**
+ * The employee an {@link OrgTraversal} is currently visiting, with everything the checks usually
+ * need: the manager, the reporting depth and aggregates over the direct reports. One node is
+ * reused for all employees of a traversal, so visiting allocates nothing. The salary aggregates are
+ * computed on first use and then shared by all checks.
+ */
+public final class EmployeeNode {
+
+  private final OrgSnapshot org;
+  private final ExactSum salarySum = new ExactSum();
+  private int index;
+  private boolean aggregated;
+  private double directReportSalarySum;
+
+  EmployeeNode(OrgSnapshot org) {
+    this.org = org;
+  }
+
+  void moveTo(int index) {
+    this.index = index;
+    this.aggregated = false;
+  }
+
+  /**
+   * Returns the organization, for checks that need more than this node offers.
+   */
+  public OrgSnapshot org() {
+    return org;
+  }
+
+  /**
+   * Returns the employee's index in the {@link OrgSnapshot}.
+   */
+  public int index() {
+    return index;
+  }
+
+  public int id() {
+    return org.id(index);
+  }
+
+  public String firstName() {
+    return org.firstName(index);
+  }
+
+  public String lastName() {
+    return org.lastName(index);
+  }
+
+  public double salary() {
+    return org.salary(index);
+  }
+
+  /**
+   * Returns the index of the employee's manager, or {@link OrgSnapshot#NO_PARENT} for the CEO.
+   */
+  public int managerIndex() {
+    return org.parent(index);
+  }
+
+  /**
+   * Returns the number of managers above the employee, which is 0 for the CEO.
+   */
+  public int depth() {
+    return org.depth(index);
+  }
+
+  public int directReportCount() {
+    return org.childCount(index);
+  }
+
+  public boolean isManager() {
+    return org.childCount(index) > 0;
+  }
+
+  public double directReportSalarySum() {
+    if (!aggregated) {
+      directReportSalarySum = directReportSalarySum(org, index, salarySum);
+      aggregated = true;
+    }
+    return directReportSalarySum;
+  }
+
+  /**
+   * Returns the average salary of the direct reports, or {@code NaN} if there are none.
+   */
+  public double directReportAverageSalary() {
+    return directReportSalarySum() / directReportCount();
+  }
+
+  /**
+   * Sums the salaries of an employee's direct reports with an {@link ExactSum}, which rounds only
+   * once, so the result is identical wherever and in whatever order it is computed. The sum is
+   * reset first, so callers can reuse one for all employees.
+   */
+  static double directReportSalarySum(OrgSnapshot org, int index, ExactSum total) {
+    total.reset();
+    int end = org.childEnd(index);
+    for (int position = org.childStart(index); position < end; position++) {
+      total.add(org.salary(org.child(position)));
+    }
+    return total.sum();
+  }
+}
@@ -0,0 +1,682 @@
+package org.example.service;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.example.collection.ExactSum;
+import org.example.exception.EmployeeValidationException;
+import org.example.exception.FileReaderException;
+import org.example.exception.FileValidationException;
+import org.example.model.OrgSnapshot;
+import org.example.model.ReportingLineViolation;
+import org.example.report.ViolationSink;
+import org.example.repository.EmployeeRepository;
+
+/**
+ * Out-of-core counterpart of {@link SalaryAnalyzer} and {@link ReportingLineAnalyzer} for
+ * organizations that do not fit into the heap. The CSV file is streamed once, and everything that
+ * grows with the organization is spilled to temporary files and processed by external merge sorts
+ * and sequential merge joins, so the heap holds little more than the memory budget:
+ * <ol>
+ *   <li>Every row is added to a sort by id and, unless it is the CEO, to a sort of reporting
+ *   edges by managerId. Names go to a separate file and are only read back for violations.</li>
+ *   <li>One merge join of both sorted files finds duplicate ids and unknown managers and sums up
+ *   the salaries of each manager's direct reports in ascending id order, exactly like the
+ *   in-memory analysis, so the averages are identical.</li>
+ *   <li>If the edges fit into the budget, depths are computed breadth-first in memory. Otherwise
+ *   they are computed by pointer jumping over a table of (id, ancestor, distance) records sorted
+ *   by id: each round joins the table with itself to move every employee to their ancestor's
+ *   ancestor, so O(log depth) rounds of sorts and merges reach the CEO. Employees that never get
+ *   there are in or below a reporting cycle, and are described without loading them all.</li>
+ * </ol>
+ * The reports list the same violations in the same order as the in-memory analyzers, and invalid
+ * files fail with the same exceptions and messages as
+ * {@link EmployeeRepository#createOrgSnapshot(String)}.
+ */
+public class ExternalOrgAnalyzer {
+
+  /**
+   * The smallest memory budget accepted, in bytes.
+   */
+  public static final long MIN_MEMORY_BUDGET = 64 * 1024;
+
+  /**
+   * Employee records: id, line number, salary bits, managerId or {@link #NO_MANAGER}, name offset
+   * and name lengths.
+   */
+  private static final int EMPLOYEE_WIDTH = 6;
+  /**
+   * Reporting edges: managerId, id, salary bits, name offset and name lengths of the employee.
+   */
+  private static final int EDGE_WIDTH = 5;
+  /**
+   * Ancestor table: id, ancestor id, the number of steps up to the ancestor, name offset and name
+   * lengths. Sorted by id, with every employee but the CEO.
+   */
+  private static final int ANCESTOR_WIDTH = 5;
+  /**
+   * Salary violations: id, salary bits, bits of the direct report average, name offset and name
+   * lengths.
+   */
+  private static final int SALARY_VIOLATION_WIDTH = 5;
+  /**
+   * Reporting line violations: id, excess depth, name offset and name lengths.
+   */
+  private static final int LINE_VIOLATION_WIDTH = 4;
+
+  private static final long NO_MANAGER = Long.MIN_VALUE;
+
+  /**
+   * Heap bytes per edge when the depths are computed in memory: managerId, id, name offset and
+   * lengths, queue entry and depth.
+   */
+  private static final int IN_MEMORY_EDGE_BYTES = 32;
+
+  private final EmployeeRepository repository;
+  private final long memoryBudget;
+  private final Path spillDirectory;
+
+  /**
+   * Creates an analyzer that spills to the default temporary directory.
+   *
+   * @param repository   reads and checks the rows of the CSV file
+   * @param memoryBudget the heap memory for sorting and joining, in bytes
+   */
+  public ExternalOrgAnalyzer(EmployeeRepository repository, long memoryBudget) {
+    this(repository, memoryBudget, null);
+  }
+
+  /**
+   * Creates an analyzer.
+   *
+   * @param repository     reads and checks the rows of the CSV file
+   * @param memoryBudget   the heap memory for sorting and joining, in bytes
+   * @param spillDirectory the directory for temporary files, or {@code null} for the default
+   *                       temporary directory
+   */
+  public ExternalOrgAnalyzer(EmployeeRepository repository, long memoryBudget,
+      Path spillDirectory) {
+    this.repository = Objects.requireNonNull(repository, "EmployeeRepository must not be null");
+    if (memoryBudget < MIN_MEMORY_BUDGET) {
+      throw new IllegalArgumentException("Memory budget must be at least " + MIN_MEMORY_BUDGET
+          + " bytes, but was " + memoryBudget);
+    }
+    this.memoryBudget = memoryBudget;
+    this.spillDirectory = spillDirectory;
+  }
+
+  public long getMemoryBudget() {
+    return memoryBudget;
+  }
+
+  /**
+   * Reads and analyzes the CSV file. The violations are kept in temporary files until the returned
+   * report is closed.
+   *
+   * @param filePath the path to the CSV file containing employee data
+   * @return the report, which must be closed to delete its files
+   * @throws FileReaderException         if issues with file access occur
+   * @throws FileValidationException     if the file format is incorrect
+   * @throws EmployeeValidationException if data validation fails
+   * @throws UncheckedIOException        if the temporary files cannot be written or read
+   */
+  public Report analyze(String filePath) {
+    Path directory;
+    try {
+      directory = spillDirectory == null ? Files.createTempDirectory("org-analysis")
+          : Files.createTempDirectory(spillDirectory, "org-analysis");
+    } catch (IOException e) {
+      throw spillFailure(e);
+    }
+    try {
+      return new Analysis(directory).run(filePath);
+    } catch (IOException e) {
+      deleteQuietly(directory);
+      throw spillFailure(e);
+    } catch (RuntimeException e) {
+      deleteQuietly(directory);
+      throw e;
+    }
+  }
+
+  private static UncheckedIOException spillFailure(IOException e) {
+    return new UncheckedIOException("Failed to spill the organization: " + e.getMessage(), e);
+  }
+
+  private static void deleteQuietly(Path directory) {
+    try {
+      deleteDirectory(directory);
+    } catch (IOException e) {
+      // the files live in the temporary directory, which the system cleans up eventually
+    }
+  }
+
+  private static void deleteDirectory(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      for (Path file : files.collect(Collectors.toList())) {
+        Files.deleteIfExists(file);
+      }
+    }
+    Files.deleteIfExists(directory);
+  }
+
+  /**
+   * The state of one analysis, from the spilled rows to the sorted violations.
+   */
+  private final class Analysis {
+
+    private final Path directory;
+    private final Path nameFile;
+    private final long sortMemory = memoryBudget / 2;
+    private final long[] lineViolation = new long[LINE_VIOLATION_WIDTH];
+    private final ExactSum reportSalaries = new ExactSum();
+    private int bufferSize;
+    private int employeeCount;
+    private int ceoId;
+    private long pendingCount;
+
+    private Analysis(Path directory) {
+      this.directory = directory;
+      this.nameFile = directory.resolve("names.bin");
+    }
+
+    private Report run(String filePath) throws IOException {
+      ExternalSorter employees = new ExternalSorter(directory, EMPLOYEE_WIDTH, sortMemory);
+      ExternalSorter edges = new ExternalSorter(directory, EDGE_WIDTH, sortMemory);
+      bufferSize = employees.bufferSize();
+      spill(filePath, employees, edges);
+
+      SpillFile reportingEdges = edges.finish();
+      SpillFile ancestors;
+      SpillFile salaryViolations;
+      try (SpillFile.Writer ancestorWriter = SpillFile.create(directory, ANCESTOR_WIDTH,
+          bufferSize)) {
+        salaryViolations = joinManagers(employees.finish(), reportingEdges, ancestorWriter);
+        ancestors = ancestorWriter.finish();
+      }
+      SpillFile lineViolations = computeDepths(reportingEdges, ancestors);
+      return new Report(directory, nameFile, employeeCount, salaryViolations, lineViolations,
+          bufferSize);
+    }
+
+    private void spill(String filePath, ExternalSorter employees, ExternalSorter edges)
+        throws IOException {
+      long[] employee = new long[EMPLOYEE_WIDTH];
+      long[] edge = new long[EDGE_WIDTH];
+      long[] nameOffset = new long[1];
+      try (OutputStream names = new BufferedOutputStream(Files.newOutputStream(nameFile),
+          bufferSize)) {
+        repository.readEmployeeRows(filePath,
+            (lineNumber, id, firstName, lastName, salary, hasManager, managerId) -> {
+              byte[] first = firstName.getBytes(StandardCharsets.UTF_8);
+              byte[] last = lastName.getBytes(StandardCharsets.UTF_8);
+              long nameLengths = ((long) first.length << 32) | last.length;
+              try {
+                names.write(first);
+                names.write(last);
+                employee[0] = id;
+                employee[1] = lineNumber;
+                employee[2] = Double.doubleToRawLongBits(salary);
+                employee[3] = hasManager ? managerId : NO_MANAGER;
+                employee[4] = nameOffset[0];
+                employee[5] = nameLengths;
+                employees.add(employee);
+                if (hasManager) {
+                  edge[0] = managerId;
+                  edge[1] = id;
+                  edge[2] = employee[2];
+                  edge[3] = nameOffset[0];
+                  edge[4] = nameLengths;
+                  edges.add(edge);
+                } else {
+                  ceoId = id;
+                }
+              } catch (IOException e) {
+                throw spillFailure(e);
+              }
+              nameOffset[0] += first.length + last.length;
+              employeeCount++;
+            });
+      }
+    }
+
+    /**
+     * Walks the employees in id order alongside the edges in managerId order. Edges whose manager
+     * comes before the next employee have an unknown manager; the edges of a manager are its direct
+     * reports, in ascending id order. Every employee but the CEO is also written to the ancestor
+     * table, one step below their manager.
+     */
+    private SpillFile joinManagers(SpillFile employees, SpillFile edges,
+        SpillFile.Writer ancestors) throws IOException {
+      long[] employee = new long[EMPLOYEE_WIDTH];
+      long[] edge = new long[EDGE_WIDTH];
+      long[] ancestor = new long[ANCESTOR_WIDTH];
+      long[] violation = new long[SALARY_VIOLATION_WIDTH];
+      long unknownEmployee = 0;
+      long unknownManager = 0;
+      boolean unknown = false;
+      try (SpillFile.Reader employeeReader = employees.open(bufferSize);
+          SpillFile.Reader edgeReader = edges.open(bufferSize);
+          SpillFile.Writer violations = SpillFile.create(directory, SALARY_VIOLATION_WIDTH,
+              bufferSize)) {
+        boolean hasEdge = edgeReader.next(edge);
+        boolean hasPrevious = false;
+        long previousId = 0;
+        long previousLine = 0;
+        while (employeeReader.next(employee)) {
+          long id = employee[0];
+          if (hasPrevious && id == previousId) {
+            throw new FileValidationException("Duplicate employee ID " + id + " found on lines "
+                + previousLine + " and " + employee[1] + ".");
+          }
+          hasPrevious = true;
+          previousId = id;
+          previousLine = employee[1];
+          if (employee[3] != NO_MANAGER) {
+            ancestor[0] = id;
+            ancestor[1] = employee[3];
+            ancestor[2] = 1;
+            ancestor[3] = employee[4];
+            ancestor[4] = employee[5];
+            ancestors.write(ancestor);
+            if (employee[3] != ceoId) {
+              pendingCount++;
+            }
+          }
+
+          for (; hasEdge && edge[0] < id; hasEdge = edgeReader.next(edge)) {
+            if (!unknown || edge[1] < unknownEmployee) {
+              unknown = true;
+              unknownEmployee = edge[1];
+              unknownManager = edge[0];
+            }
+          }
+          reportSalaries.reset();
+          int reportCount = 0;
+          for (; hasEdge && edge[0] == id; hasEdge = edgeReader.next(edge)) {
+            reportSalaries.add(Double.longBitsToDouble(edge[2]));
+            reportCount++;
+          }
+          double salary = Double.longBitsToDouble(employee[2]);
+          double average = reportCount == 0 ? 0 : reportSalaries.sum() / reportCount;
+          if (reportCount > 0 && SalaryAnalyzer.isViolation(salary, average)) {
+            violation[0] = id;
+            violation[1] = employee[2];
+            violation[2] = Double.doubleToRawLongBits(average);
+            violation[3] = employee[4];
+            violation[4] = employee[5];
+            violations.write(violation);
+          }
+        }
+        for (; hasEdge; hasEdge = edgeReader.next(edge)) {
+          if (!unknown || edge[1] < unknownEmployee) {
+            unknown = true;
+            unknownEmployee = edge[1];
+            unknownManager = edge[0];
+          }
+        }
+        if (unknown) {
+          throw new EmployeeValidationException("No manager with ID " + unknownManager
+              + " found for employee " + unknownEmployee);
+        }
+        return violations.finish();
+      } finally {
+        employees.delete();
+      }
+    }
+
+    /**
+     * Computes the depth of every employee and collects the reporting line violations sorted by
+     * id. If all edges fit into the budget, the organization is walked breadth-first in memory.
+     * Otherwise every employee's ancestor is replaced by the ancestor's ancestor until all of them
+     * point at the CEO, adding up the steps on the way. Each round doubles the distance covered,
+     * so the number of passes over the files grows with the logarithm of the depth. The employees
+     * that still have not reached the CEO once the distance exceeds the number of employees are
+     * part of, or hang below, a reporting cycle.
+     */
+    private SpillFile computeDepths(SpillFile edges, SpillFile ancestors) throws IOException {
+      if (edges.count() * IN_MEMORY_EDGE_BYTES <= sortMemory) {
+        SpillFile lineViolations = computeDepthsInMemory(edges);
+        if (lineViolations != null) {
+          edges.delete();
+          ancestors.delete();
+          return lineViolations;
+        }
+      }
+      edges.delete();
+
+      SpillFile table = ancestors;
+      for (long distance = 1; pendingCount > 0 && distance < table.count(); distance *= 2) {
+        table = jump(table);
+      }
+      if (pendingCount > 0) {
+        throw cycleException(table);
+      }
+      SpillFile lineViolations = collectLineViolations(table);
+      table.delete();
+      return lineViolations;
+    }
+
+    /**
+     * Computes the depths breadth-first from the CEO in memory.
+     *
+     * @return the reporting line violations, or {@code null} if some employees are never reached
+     */
+    private SpillFile computeDepthsInMemory(SpillFile edges) throws IOException {
+      int edgeCount = (int) edges.count();
+      int[] managers = new int[edgeCount];
+      int[] ids = new int[edgeCount];
+      long[] nameOffsets = new long[edgeCount];
+      long[] nameLengths = new long[edgeCount];
+      long[] record = new long[EDGE_WIDTH];
+      try (SpillFile.Reader reader = edges.open(bufferSize)) {
+        for (int i = 0; reader.next(record); i++) {
+          managers[i] = (int) record[0];
+          ids[i] = (int) record[1];
+          nameOffsets[i] = record[3];
+          nameLengths[i] = record[4];
+        }
+      }
+
+      ExternalSorter lineViolations = new ExternalSorter(directory, LINE_VIOLATION_WIDTH,
+          sortMemory);
+      int[] queue = new int[edgeCount + 1];
+      int[] depths = new int[edgeCount + 1];
+      int tail = 0;
+      queue[tail++] = ceoId;
+      for (int head = 0; head < tail; head++) {
+        int childDepth = depths[head] + 1;
+        for (int edge = firstEdgeOf(managers, queue[head]);
+            edge < edgeCount && managers[edge] == queue[head]; edge++) {
+          addLineViolation(lineViolations, ids[edge], childDepth, nameOffsets[edge],
+              nameLengths[edge]);
+          queue[tail] = ids[edge];
+          depths[tail++] = childDepth;
+        }
+      }
+      SpillFile violations = lineViolations.finish();
+      if (tail <= edgeCount) {
+        violations.delete();
+        return null;
+      }
+      return violations;
+    }
+
+    /**
+     * Moves every employee that has not reached the CEO yet to their ancestor's ancestor. The
+     * pending employees are sorted by ancestor and merge joined with the table, which is sorted by
+     * id; the moved employees are sorted by id again and merged with those that were done before.
+     */
+    private SpillFile jump(SpillFile table) throws IOException {
+      long[] record = new long[ANCESTOR_WIDTH];
+      long[] pending = new long[ANCESTOR_WIDTH];
+      SpillFile done;
+      ExternalSorter byAncestor = new ExternalSorter(directory, ANCESTOR_WIDTH, sortMemory);
+      try (SpillFile.Reader reader = table.open(bufferSize);
+          SpillFile.Writer doneWriter = SpillFile.create(directory, ANCESTOR_WIDTH,
+              bufferSize)) {
+        while (reader.next(record)) {
+          if (record[1] == ceoId) {
+            doneWriter.write(record);
+          } else {
+            pending[0] = record[1];
+            pending[1] = record[0];
+            System.arraycopy(record, 2, pending, 2, ANCESTOR_WIDTH - 2);
+            byAncestor.add(pending);
+          }
+        }
+        done = doneWriter.finish();
+      }
+
+      SpillFile sortedPending = byAncestor.finish();
+      ExternalSorter moved = new ExternalSorter(directory, ANCESTOR_WIDTH, sortMemory);
+      pendingCount = 0;
+      try (SpillFile.Reader pendingReader = sortedPending.open(bufferSize);
+          SpillFile.Reader tableReader = table.open(bufferSize)) {
+        boolean hasRecord = tableReader.next(record);
+        while (pendingReader.next(pending)) {
+          while (hasRecord && record[0] < pending[0]) {
+            hasRecord = tableReader.next(record);
+          }
+          // the ancestor is known and not the CEO, so it has a row of its own
+          long id = pending[1];
+          pending[0] = id;
+          pending[1] = record[1];
+          pending[2] += record[2];
+          moved.add(pending);
+          if (pending[1] != ceoId) {
+            pendingCount++;
+          }
+        }
+      }
+      sortedPending.delete();
+      table.delete();
+
+      SpillFile sortedMoved = moved.finish();
+      SpillFile merged = merge(done, sortedMoved);
+      done.delete();
+      sortedMoved.delete();
+      return merged;
+    }
+
+    /**
+     * Merges two tables sorted by id into one.
+     */
+    private SpillFile merge(SpillFile first, SpillFile second) throws IOException {
+      long[] firstRecord = new long[ANCESTOR_WIDTH];
+      long[] secondRecord = new long[ANCESTOR_WIDTH];
+      try (SpillFile.Reader firstReader = first.open(bufferSize);
+          SpillFile.Reader secondReader = second.open(bufferSize);
+          SpillFile.Writer writer = SpillFile.create(directory, ANCESTOR_WIDTH, bufferSize)) {
+        boolean hasFirst = firstReader.next(firstRecord);
+        boolean hasSecond = secondReader.next(secondRecord);
+        while (hasFirst || hasSecond) {
+          if (hasFirst && (!hasSecond || firstRecord[0] < secondRecord[0])) {
+            writer.write(firstRecord);
+            hasFirst = firstReader.next(firstRecord);
+          } else {
+            writer.write(secondRecord);
+            hasSecond = secondReader.next(secondRecord);
+          }
+        }
+        return writer.finish();
+      }
+    }
+
+    /**
+     * Writes the employees of a finished table that are too deep, which are already in id order.
+     */
+    private SpillFile collectLineViolations(SpillFile table) throws IOException {
+      long[] record = new long[ANCESTOR_WIDTH];
+      try (SpillFile.Reader reader = table.open(bufferSize);
+          SpillFile.Writer violations = SpillFile.create(directory, LINE_VIOLATION_WIDTH,
+              bufferSize)) {
+        while (reader.next(record)) {
+          if (record[2] > ReportingLineAnalyzer.MAXIMUM_DEPTH) {
+            lineViolation[0] = record[0];
+            lineViolation[1] = record[2] - ReportingLineAnalyzer.MAXIMUM_DEPTH;
+            lineViolation[2] = record[3];
+            lineViolation[3] = record[4];
+            violations.write(lineViolation);
+          }
+        }
+        return violations.finish();
+      }
+    }
+
+    /**
+     * Adds an employee to the violations if their depth is too large.
+     */
+    private void addLineViolation(ExternalSorter lineViolations, int id, int depth,
+        long nameOffset, long nameLengths) throws IOException {
+      if (depth <= ReportingLineAnalyzer.MAXIMUM_DEPTH) {
+        return;
+      }
+      lineViolation[0] = id;
+      lineViolation[1] = depth - ReportingLineAnalyzer.MAXIMUM_DEPTH;
+      lineViolation[2] = nameOffset;
+      lineViolation[3] = nameLengths;
+      lineViolations.add(lineViolation);
+    }
+
+    /**
+     * Describes the employees that never reached the CEO. Their ancestors are now at least as many
+     * steps away as there are employees, which is beyond the start of any cycle, so the ancestors
+     * are exactly the employees in a cycle. Only the smallest ids of each group are kept.
+     */
+    private EmployeeValidationException cycleException(SpillFile table) throws IOException {
+      long[] record = new long[ANCESTOR_WIDTH];
+      long[] member = new long[1];
+      ExternalSorter cycleSorter = new ExternalSorter(directory, 1, sortMemory);
+      try (SpillFile.Reader reader = table.open(bufferSize)) {
+        while (reader.next(record)) {
+          if (record[1] != ceoId) {
+            member[0] = record[1];
+            cycleSorter.add(member);
+          }
+        }
+      }
+
+      SpillFile cycleMembers = cycleSorter.finish();
+      List<Integer> cycleIds = new ArrayList<>();
+      List<Integer> reportingIds = new ArrayList<>();
+      long cycleCount = 0;
+      long reportingCount = 0;
+      try (SpillFile.Reader reader = table.open(bufferSize);
+          SpillFile.Reader memberReader = cycleMembers.open(bufferSize)) {
+        boolean hasMember = memberReader.next(member);
+        while (reader.next(record)) {
+          if (record[1] == ceoId) {
+            continue;
+          }
+          while (hasMember && member[0] < record[0]) {
+            hasMember = memberReader.next(member);
+          }
+          if (hasMember && member[0] == record[0]) {
+            if (cycleCount++ < OrgSnapshot.MAX_REPORTED_IDS) {
+              cycleIds.add((int) record[0]);
+            }
+          } else if (reportingCount++ < OrgSnapshot.MAX_REPORTED_IDS) {
+            reportingIds.add((int) record[0]);
+          }
+        }
+      }
+      cycleMembers.delete();
+      return OrgSnapshot.reportingCycleException(cycleIds, cycleCount, reportingIds,
+          reportingCount);
+    }
+  }
+
+  /**
+   * Returns the position of the first edge of the manager, or where it would be.
+   */
+  private static int firstEdgeOf(int[] managers, int manager) {
+    int low = 0;
+    int high = managers.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (managers[middle] < manager) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * The violations found by an analysis, kept in temporary files until the report is closed.
+   */
+  public static final class Report implements Closeable {
+
+    private final Path directory;
+    private final Path nameFile;
+    private final int employeeCount;
+    private final SpillFile salaryViolations;
+    private final SpillFile lineViolations;
+    private final int bufferSize;
+
+    private Report(Path directory, Path nameFile, int employeeCount,
+        SpillFile salaryViolations, SpillFile lineViolations, int bufferSize) {
+      this.directory = directory;
+      this.nameFile = nameFile;
+      this.employeeCount = employeeCount;
+      this.salaryViolations = salaryViolations;
+      this.lineViolations = lineViolations;
+      this.bufferSize = bufferSize;
+    }
+
+    public int getEmployeeCount() {
+      return employeeCount;
+    }
+
+    /**
+     * Writes the salary violations into a sink in ascending id order.
+     *
+     * @throws IOException if the sink fails or the temporary files cannot be read
+     */
+    public void writeSalaryViolations(ViolationSink sink) throws IOException {
+      long[] violation = new long[SALARY_VIOLATION_WIDTH];
+      try (SpillFile.Reader reader = salaryViolations.open(bufferSize);
+          FileChannel names = FileChannel.open(nameFile)) {
+        while (reader.next(violation)) {
+          int firstLength = (int) (violation[4] >>> 32);
+          sink.accept(SalaryAnalyzer.findViolation((int) violation[0],
+              readName(names, violation[3], firstLength),
+              readName(names, violation[3] + firstLength, (int) violation[4]),
+              Double.longBitsToDouble(violation[1]), Double.longBitsToDouble(violation[2])));
+        }
+      }
+    }
+
+    /**
+     * Writes the reporting line violations into a sink in ascending id order.
+     *
+     * @throws IOException if the sink fails or the temporary files cannot be read
+     */
+    public void writeReportingLineViolations(ViolationSink sink) throws IOException {
+      long[] violation = new long[LINE_VIOLATION_WIDTH];
+      try (SpillFile.Reader reader = lineViolations.open(bufferSize);
+          FileChannel names = FileChannel.open(nameFile)) {
+        while (reader.next(violation)) {
+          int firstLength = (int) (violation[3] >>> 32);
+          sink.accept(new ReportingLineViolation((int) violation[0],
+              readName(names, violation[2], firstLength),
+              readName(names, violation[2] + firstLength, (int) violation[3]),
+              (int) violation[1]));
+        }
+      }
+    }
+
+    /**
+     * Deletes the temporary files.
+     */
+    @Override
+    public void close() throws IOException {
+      deleteDirectory(directory);
+    }
+
+    private static String readName(FileChannel names, long offset, int length)
+        throws IOException {
+      ByteBuffer bytes = ByteBuffer.allocate(length);
+      while (bytes.hasRemaining()) {
+        if (names.read(bytes, offset + bytes.position()) < 0) {
+          throw new IOException("Unexpected end of the name file");
+        }
+      }
+      return new String(bytes.array(), StandardCharsets.UTF_8);
+    }
+  }
+}
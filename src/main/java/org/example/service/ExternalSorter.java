@@ -0,0 +1,204 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sorts fixed-width records of {@code long} fields, compared field by field, in a bounded amount
+ * of memory. Records are collected in a buffer; whenever the buffer is full it is sorted and
+ * written to a run file, and {@link #finish()} merges the runs, {@value #FAN_IN} at a time, until
+ * a single sorted {@link SpillFile} remains. Input that fits into the buffer is written once,
+ * without any merging.
+ */
+final class ExternalSorter {
+
+  /**
+   * The maximum number of runs merged at once, which bounds the number of open files and read
+   * buffers during a merge.
+   */
+  static final int FAN_IN = 16;
+
+  private static final int MIN_RUN_LENGTH = 2;
+  private static final int INITIAL_RUN_LENGTH = 1024;
+  private static final int MIN_BUFFER_SIZE = 4 * 1024;
+  private static final int MAX_BUFFER_SIZE = 64 * 1024;
+
+  private final Path directory;
+  private final int width;
+  private final int runLength;
+  private final int bufferSize;
+  private final List<SpillFile> runs = new ArrayList<>();
+
+  private long[] records = new long[0];
+  private int[] order = new int[0];
+  private int size;
+
+  /**
+   * Creates a sorter that keeps at most about {@code memoryBytes} of records in memory.
+   *
+   * @param directory   where run files are created
+   * @param width       the number of fields per record
+   * @param memoryBytes the memory for buffered records, including their sort index
+   */
+  ExternalSorter(Path directory, int width, long memoryBytes) {
+    this.directory = directory;
+    this.width = width;
+    // every record costs its fields plus two ints of sort index and merge scratch
+    this.runLength = (int) Math.max(MIN_RUN_LENGTH,
+        Math.min(Integer.MAX_VALUE / width, memoryBytes / (8L * width + 8)));
+    this.bufferSize = (int) Math.max(MIN_BUFFER_SIZE,
+        Math.min(MAX_BUFFER_SIZE, memoryBytes / (FAN_IN + 1)));
+  }
+
+  /**
+   * Returns the size of the read and write buffers used for spill files.
+   */
+  int bufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Adds a record, spilling the buffered records to a run file if the buffer is full.
+   *
+   * @param record the record; only its first {@code width} fields are copied
+   * @throws IOException if a run file cannot be written
+   */
+  void add(long[] record) throws IOException {
+    if (size == runLength) {
+      runs.add(writeRun());
+    }
+    if (size * width == records.length) {
+      int capacity = Math.min(runLength, Math.max(INITIAL_RUN_LENGTH, size * 2));
+      records = Arrays.copyOf(records, capacity * width);
+    }
+    System.arraycopy(record, 0, records, size * width, width);
+    size++;
+  }
+
+  /**
+   * Sorts everything added so far into one file. The sorter must not be used afterwards.
+   *
+   * @return the sorted records
+   * @throws IOException if a run file cannot be written or read
+   */
+  SpillFile finish() throws IOException {
+    if (size > 0 || runs.isEmpty()) {
+      runs.add(writeRun());
+    }
+    records = null;
+    order = null;
+    List<SpillFile> pending = new ArrayList<>(runs);
+    while (pending.size() > 1) {
+      List<SpillFile> merged = new ArrayList<>();
+      for (int start = 0; start < pending.size(); start += FAN_IN) {
+        merged.add(merge(pending.subList(start, Math.min(start + FAN_IN, pending.size()))));
+      }
+      pending = merged;
+    }
+    return pending.get(0);
+  }
+
+  private SpillFile writeRun() throws IOException {
+    if (order.length < size) {
+      order = new int[records.length / width];
+    }
+    for (int i = 0; i < size; i++) {
+      order[i] = i;
+    }
+    sort(new int[size]);
+    try (SpillFile.Writer writer = SpillFile.create(directory, width, bufferSize)) {
+      long[] record = new long[width];
+      for (int i = 0; i < size; i++) {
+        System.arraycopy(records, order[i] * width, record, 0, width);
+        writer.write(record);
+      }
+      size = 0;
+      return writer.finish();
+    }
+  }
+
+  /**
+   * Merge sorts the first {@code size} entries of the index, bottom-up, so that no comparator
+   * objects or boxed indexes are needed.
+   */
+  private void sort(int[] scratch) {
+    int[] source = order;
+    int[] target = scratch;
+    for (int run = 1; run < size; run *= 2) {
+      for (int left = 0; left < size; left += 2 * run) {
+        int middle = Math.min(left + run, size);
+        int right = Math.min(left + 2 * run, size);
+        int i = left;
+        int j = middle;
+        for (int k = left; k < right; k++) {
+          if (i < middle && (j >= right || compare(source[i], source[j]) <= 0)) {
+            target[k] = source[i++];
+          } else {
+            target[k] = source[j++];
+          }
+        }
+      }
+      int[] swap = source;
+      source = target;
+      target = swap;
+    }
+    if (source != order) {
+      System.arraycopy(source, 0, order, 0, size);
+    }
+  }
+
+  private int compare(int a, int b) {
+    int offsetA = a * width;
+    int offsetB = b * width;
+    for (int field = 0; field < width; field++) {
+      int result = Long.compare(records[offsetA + field], records[offsetB + field]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    return 0;
+  }
+
+  private SpillFile merge(List<SpillFile> inputs) throws IOException {
+    if (inputs.size() == 1) {
+      return inputs.get(0);
+    }
+    SpillFile.Reader[] readers = new SpillFile.Reader[inputs.size()];
+    long[][] heads = new long[inputs.size()][width];
+    boolean[] available = new boolean[inputs.size()];
+    try (SpillFile.Writer writer = SpillFile.create(directory, width, bufferSize)) {
+      for (int i = 0; i < readers.length; i++) {
+        readers[i] = inputs.get(i).open(bufferSize);
+        available[i] = readers[i].next(heads[i]);
+      }
+      while (true) {
+        int smallest = -1;
+        for (int i = 0; i < readers.length; i++) {
+          if (available[i] && (smallest < 0 || compare(heads[i], heads[smallest]) < 0)) {
+            smallest = i;
+          }
+        }
+        if (smallest < 0) {
+          break;
+        }
+        writer.write(heads[smallest]);
+        available[smallest] = readers[smallest].next(heads[smallest]);
+      }
+      return writer.finish();
+    } finally {
+      for (int i = 0; i < readers.length; i++) {
+        if (readers[i] != null) {
+          readers[i].close();
+        }
+        inputs.get(i).delete();
+      }
+    }
+  }
+
+  private int compare(long[] a, long[] b) {
+    return Arrays.compare(a, 0, width, b, 0, width);
+  }
+}
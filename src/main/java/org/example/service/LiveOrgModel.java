@@ -0,0 +1,404 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import org.example.collection.IntIntHashMap;
+import org.example.collection.IntSumCountMap;
+import org.example.exception.EmployeeValidationException;
+import org.example.model.OrgEvent;
+import org.example.model.OrgSnapshot;
+import org.example.model.ReportingLineViolation;
+import org.example.report.ReportBuffer;
+import org.example.report.ViolationSink;
+
+/**
+ * Mutable in-memory model of the organization that keeps the salary and reporting-line verdicts up
+ * to date while HR events are applied. Every manager keeps their direct subordinates and every
+ * employee their reporting depth, so an event only re-evaluates the managers whose team changed
+ * and, for transfers and terminations, the depths inside the moved subtree. Teams are unordered
+ * and every employee knows their position in their manager's team, so joining or leaving a team
+ * takes constant time however large it is.
+ * <p>
+ * The salary sums and sizes of all teams are kept in an {@link IntSumCountMap} keyed by manager
+ * id and updated as salaries join and leave a team. Its sums are exact, so after any number of
+ * events a team average is bit for bit the one {@link SalaryAnalyzer} computes for the same team,
+ * and verdicts close to the thresholds cannot drift.
+ * <p>
+ * Employees are found through a primitive id index into an array of nodes, so looking up the
+ * employees of an event boxes no ids.
+ * <p>
+ * The reports have the same format and id order as {@link SalaryAnalyzer} and
+ * {@link ReportingLineAnalyzer}. This class is not thread-safe.
+ */
+public class LiveOrgModel {
+
+  private static final int NO_SLOT = -1;
+
+  private final IntIntHashMap slots;
+  private final IntSumCountMap teamSalaries;
+  private final NavigableSet<Integer> salaryViolations = new TreeSet<>();
+  private final NavigableSet<Integer> reportingLineViolations = new TreeSet<>();
+  private Node[] nodes;
+  private int size;
+
+  private LiveOrgModel(int expectedSize) {
+    this.slots = new IntIntHashMap(expectedSize);
+    this.teamSalaries = new IntSumCountMap(expectedSize / 4);
+    this.nodes = new Node[Math.max(16, expectedSize)];
+  }
+
+  /**
+   * Builds a live model from a snapshot in time linear in the size of the organization.
+   *
+   * @param org the organization snapshot
+   * @return the live model
+   */
+  public static LiveOrgModel fromSnapshot(OrgSnapshot org) {
+    LiveOrgModel model = new LiveOrgModel(org.size());
+    Node[] byIndex = new Node[org.size()];
+    for (int position = 0; position < org.size(); position++) {
+      int index = org.topDown(position);
+      Node manager = org.parent(index) == OrgSnapshot.NO_PARENT ? null
+          : byIndex[org.parent(index)];
+      Node node = new Node(org.id(index), org.firstName(index), org.lastName(index),
+          org.salary(index));
+      byIndex[index] = node;
+      model.add(node);
+      if (manager != null) {
+        manager.addSubordinate(node);
+        model.teamSalaries.add(manager.id, node.salary);
+      }
+      node.depth = org.depth(index);
+      model.updateReportingLineVerdict(node);
+    }
+    for (Node node : byIndex) {
+      model.updateSalaryVerdict(node);
+    }
+    return model;
+  }
+
+  /**
+   * Captures the current state as an immutable snapshot.
+   *
+   * @return the organization snapshot
+   */
+  public OrgSnapshot toSnapshot() {
+    int[] ids = new int[size];
+    for (int slot = 0; slot < size; slot++) {
+      ids[slot] = nodes[slot].id;
+    }
+    Arrays.sort(ids);
+    String[] firstNames = new String[ids.length];
+    String[] lastNames = new String[ids.length];
+    double[] salaries = new double[ids.length];
+    int[] parents = new int[ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      Node node = nodes[slots.get(ids[i], NO_SLOT)];
+      firstNames[i] = node.firstName;
+      lastNames[i] = node.lastName;
+      salaries[i] = node.salary;
+      parents[i] = node.manager == null
+          ? OrgSnapshot.NO_PARENT : Arrays.binarySearch(ids, node.manager.id);
+    }
+    return OrgSnapshot.of(ids, firstNames, lastNames, salaries, parents);
+  }
+
+  /**
+   * Applies a single HR event and re-evaluates only what it affects.
+   *
+   * @param event the event to apply
+   * @throws EmployeeValidationException if the event refers to unknown employees, would create a
+   *                                     duplicate id or would make the reporting lines cyclic
+   */
+  public void apply(OrgEvent event) {
+    if (event instanceof OrgEvent.Hire hire) {
+      hire(hire);
+    } else if (event instanceof OrgEvent.Termination termination) {
+      terminate(termination);
+    } else if (event instanceof OrgEvent.SalaryChange salaryChange) {
+      changeSalary(salaryChange);
+    } else if (event instanceof OrgEvent.Transfer transfer) {
+      transfer(transfer);
+    }
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean contains(int id) {
+    return slots.containsKey(id);
+  }
+
+  /**
+   * Returns the number of managers above the employee.
+   *
+   * @throws EmployeeValidationException if there is no such employee
+   */
+  public int depth(int id) {
+    return find(id).depth;
+  }
+
+  public int salaryViolationCount() {
+    return salaryViolations.size();
+  }
+
+  public int reportingLineViolationCount() {
+    return reportingLineViolations.size();
+  }
+
+  /**
+   * Writes the current salary violations into a sink in ascending id order.
+   *
+   * @throws IOException if the sink fails to write a violation
+   */
+  public void writeSalaryViolations(ViolationSink sink) throws IOException {
+    for (int id : salaryViolations) {
+      Node manager = nodes[slots.get(id, NO_SLOT)];
+      sink.accept(SalaryAnalyzer.findViolation(manager.id, manager.firstName, manager.lastName,
+          manager.salary, averageSubordinateSalary(manager)));
+    }
+  }
+
+  /**
+   * Writes the current reporting-line violations into a sink in ascending id order.
+   *
+   * @throws IOException if the sink fails to write a violation
+   */
+  public void writeReportingLineViolations(ViolationSink sink) throws IOException {
+    for (int id : reportingLineViolations) {
+      Node employee = nodes[slots.get(id, NO_SLOT)];
+      sink.accept(new ReportingLineViolation(employee.id, employee.firstName, employee.lastName,
+          employee.depth - ReportingLineAnalyzer.MAXIMUM_DEPTH));
+    }
+  }
+
+  /**
+   * Renders the current salary violations in the format of
+   * {@link SalaryAnalyzer#analyzeSalaries(OrgSnapshot)}.
+   */
+  public String salaryReport() {
+    ReportBuffer report = new ReportBuffer();
+    try {
+      writeSalaryViolations(report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return report.toString();
+  }
+
+  /**
+   * Renders the current reporting-line violations in the format of
+   * {@link ReportingLineAnalyzer#analyzeReportingLines(OrgSnapshot)}.
+   */
+  public String reportingLineReport() {
+    ReportBuffer report = new ReportBuffer();
+    try {
+      writeReportingLineViolations(report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return report.toString();
+  }
+
+  private void hire(OrgEvent.Hire hire) {
+    if (slots.containsKey(hire.id())) {
+      throw new EmployeeValidationException("Employee with ID " + hire.id() + " already exists");
+    }
+    Node manager = findManager(hire.managerId(), hire.id());
+    Node node = new Node(hire.id(), hire.firstName(), hire.lastName(), hire.salary());
+    add(node);
+
+    manager.addSubordinate(node);
+    teamSalaries.add(manager.id, node.salary);
+    node.depth = manager.depth + 1;
+    updateReportingLineVerdict(node);
+    updateSalaryVerdict(manager);
+  }
+
+  private void terminate(OrgEvent.Termination termination) {
+    Node node = find(termination.id());
+    Node manager = node.manager;
+    if (manager == null && !node.subordinates.isEmpty()) {
+      throw new EmployeeValidationException(
+          "The CEO with ID " + node.id + " cannot leave while employees still report to them");
+    }
+
+    remove(node);
+    salaryViolations.remove(node.id);
+    reportingLineViolations.remove(node.id);
+    if (manager == null) {
+      return;
+    }
+    manager.removeSubordinate(node);
+    teamSalaries.subtract(manager.id, node.salary);
+    for (Node subordinate : node.subordinates) {
+      manager.addSubordinate(subordinate);
+      teamSalaries.subtract(node.id, subordinate.salary);
+      teamSalaries.add(manager.id, subordinate.salary);
+      shiftDepths(subordinate, -1);
+    }
+    updateSalaryVerdict(manager);
+  }
+
+  private void changeSalary(OrgEvent.SalaryChange salaryChange) {
+    Node node = find(salaryChange.id());
+    Node manager = node.manager;
+    if (manager != null) {
+      teamSalaries.subtract(manager.id, node.salary);
+      teamSalaries.add(manager.id, salaryChange.salary());
+    }
+    node.salary = salaryChange.salary();
+
+    updateSalaryVerdict(node);
+    if (manager != null) {
+      updateSalaryVerdict(manager);
+    }
+  }
+
+  private void transfer(OrgEvent.Transfer transfer) {
+    Node node = find(transfer.id());
+    Node newManager = findManager(transfer.managerId(), node.id);
+    for (Node current = newManager; current != null; current = current.manager) {
+      if (current == node) {
+        throw new EmployeeValidationException("Moving employee " + node.id + " under employee "
+            + newManager.id + " would create a reporting line cycle");
+      }
+    }
+    Node oldManager = node.manager;
+    if (oldManager == newManager) {
+      return;
+    }
+
+    if (oldManager != null) {
+      oldManager.removeSubordinate(node);
+      teamSalaries.subtract(oldManager.id, node.salary);
+      updateSalaryVerdict(oldManager);
+    }
+    newManager.addSubordinate(node);
+    teamSalaries.add(newManager.id, node.salary);
+    updateSalaryVerdict(newManager);
+    shiftDepths(node, newManager.depth + 1 - node.depth);
+  }
+
+  /**
+   * Adds the delta to the depth of every employee in the subtree, without recursion.
+   */
+  private void shiftDepths(Node root, int delta) {
+    if (delta == 0) {
+      return;
+    }
+    Deque<Node> pending = new ArrayDeque<>();
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Node node = pending.pop();
+      node.depth += delta;
+      updateReportingLineVerdict(node);
+      node.subordinates.forEach(pending::push);
+    }
+  }
+
+  private void add(Node node) {
+    if (size == nodes.length) {
+      nodes = Arrays.copyOf(nodes, size * 2);
+    }
+    slots.put(node.id, size);
+    nodes[size++] = node;
+  }
+
+  /**
+   * Removes the node in constant time by moving the last node into its slot.
+   */
+  private void remove(Node node) {
+    int slot = slots.get(node.id, NO_SLOT);
+    slots.remove(node.id);
+    Node last = nodes[--size];
+    nodes[size] = null;
+    if (last != node) {
+      nodes[slot] = last;
+      slots.put(last.id, slot);
+    }
+  }
+
+  private void updateSalaryVerdict(Node node) {
+    if (!node.subordinates.isEmpty()
+        && SalaryAnalyzer.isViolation(node.salary, averageSubordinateSalary(node))) {
+      salaryViolations.add(node.id);
+    } else {
+      salaryViolations.remove(node.id);
+    }
+  }
+
+  private double averageSubordinateSalary(Node manager) {
+    return teamSalaries.average(manager.id);
+  }
+
+  private void updateReportingLineVerdict(Node node) {
+    if (node.depth > ReportingLineAnalyzer.MAXIMUM_DEPTH) {
+      reportingLineViolations.add(node.id);
+    } else {
+      reportingLineViolations.remove(node.id);
+    }
+  }
+
+  private Node find(int id) {
+    int slot = slots.get(id, NO_SLOT);
+    if (slot == NO_SLOT) {
+      throw new EmployeeValidationException("No employee with ID " + id + " found");
+    }
+    return nodes[slot];
+  }
+
+  private Node findManager(int managerId, int employeeId) {
+    int slot = slots.get(managerId, NO_SLOT);
+    if (slot == NO_SLOT) {
+      throw new EmployeeValidationException(
+          "No manager with ID " + managerId + " found for employee " + employeeId);
+    }
+    return nodes[slot];
+  }
+
+  private static final class Node {
+
+    private final int id;
+    private final String firstName;
+    private final String lastName;
+    private double salary;
+    private Node manager;
+    private int teamPosition;
+    private final List<Node> subordinates = new ArrayList<>();
+    private int depth;
+
+    private Node(int id, String firstName, String lastName, double salary) {
+      this.id = id;
+      this.firstName = firstName;
+      this.lastName = lastName;
+      this.salary = salary;
+    }
+
+    private void addSubordinate(Node subordinate) {
+      subordinate.manager = this;
+      subordinate.teamPosition = subordinates.size();
+      subordinates.add(subordinate);
+    }
+
+    /**
+     * Removes the subordinate in constant time by moving the last subordinate into their place.
+     */
+    private void removeSubordinate(Node subordinate) {
+      Node last = subordinates.remove(subordinates.size() - 1);
+      if (last != subordinate) {
+        subordinates.set(subordinate.teamPosition, last);
+        last.teamPosition = subordinate.teamPosition;
+      }
+      subordinate.manager = null;
+    }
+  }
+}
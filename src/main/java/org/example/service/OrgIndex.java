@@ -0,0 +1,193 @@
+package org.example.service;
+
+import java.util.Map;
+import org.example.exception.EmployeeValidationException;
+import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+
+/**
+ * Precomputed aggregates over every employee's subtree: the employee plus everyone reporting to
+ * them directly or indirectly. Headcount, payroll, lowest and highest salary and the length of the
+ * deepest reporting chain below an employee are answered in constant time by their snapshot
+ * index, instead of walking the subordinates for every question.
+ * <p>
+ * The index is built in one pass over the snapshot's top-down order in reverse, which visits every
+ * subordinate before its manager, so each aggregate is folded into the manager's as soon as it is
+ * complete. Salary changes update the aggregates along the changed employee's reporting line only.
+ */
+public final class OrgIndex {
+
+  private final OrgSnapshot org;
+  private final double[] salaries;
+  private final int[] subtreeSizes;
+  private final double[] payrolls;
+  private final double[] minSalaries;
+  private final double[] maxSalaries;
+  private final int[] subtreeDepths;
+
+  private OrgIndex(OrgSnapshot org) {
+    this.org = org;
+    int size = org.size();
+    this.salaries = new double[size];
+    this.subtreeSizes = new int[size];
+    this.payrolls = new double[size];
+    this.minSalaries = new double[size];
+    this.maxSalaries = new double[size];
+    this.subtreeDepths = new int[size];
+  }
+
+  /**
+   * Builds the index of an organization in time linear in its size.
+   *
+   * @param org the organization snapshot
+   * @return the index
+   */
+  public static OrgIndex of(OrgSnapshot org) {
+    OrgIndex index = new OrgIndex(org);
+    for (int employee = 0; employee < org.size(); employee++) {
+      double salary = org.salary(employee);
+      index.salaries[employee] = salary;
+      index.subtreeSizes[employee] = 1;
+      index.payrolls[employee] = salary;
+      index.minSalaries[employee] = salary;
+      index.maxSalaries[employee] = salary;
+    }
+    for (int position = org.size() - 1; position >= 0; position--) {
+      int employee = org.topDown(position);
+      int manager = org.parent(employee);
+      if (manager != OrgSnapshot.NO_PARENT) {
+        index.subtreeSizes[manager] += index.subtreeSizes[employee];
+        index.payrolls[manager] += index.payrolls[employee];
+        index.minSalaries[manager] = Math.min(index.minSalaries[manager],
+            index.minSalaries[employee]);
+        index.maxSalaries[manager] = Math.max(index.maxSalaries[manager],
+            index.maxSalaries[employee]);
+        index.subtreeDepths[manager] = Math.max(index.subtreeDepths[manager],
+            index.subtreeDepths[employee] + 1);
+      }
+    }
+    return index;
+  }
+
+  /**
+   * Builds the index of the employees read by
+   * {@link org.example.repository.EmployeeRepository#createEmployeesMap(String)}.
+   *
+   * @param employees A map of employee IDs to Employee objects.
+   * @return the index
+   */
+  public static OrgIndex fromEmployees(Map<Integer, Employee> employees) {
+    return of(OrgSnapshot.fromEmployees(employees));
+  }
+
+  /**
+   * Returns the organization this index was built from. Its salary column is not affected by
+   * {@link #changeSalary(int, double)}; use {@link #salary(int)} for the current salaries.
+   */
+  public OrgSnapshot org() {
+    return org;
+  }
+
+  /**
+   * Finds the snapshot index of an employee, to be passed to the aggregate queries.
+   *
+   * @throws EmployeeValidationException if there is no such employee
+   */
+  public int indexOf(int id) {
+    int index = org.indexOf(id);
+    if (index < 0) {
+      throw new EmployeeValidationException("No employee with ID " + id + " found");
+    }
+    return index;
+  }
+
+  /**
+   * Returns the employee's current salary.
+   */
+  public double salary(int index) {
+    return salaries[index];
+  }
+
+  /**
+   * Returns the number of employees in the subtree, including the employee at its top.
+   */
+  public int subtreeSize(int index) {
+    return subtreeSizes[index];
+  }
+
+  /**
+   * Returns the number of employees reporting to the employee directly or indirectly.
+   */
+  public int headcountUnder(int index) {
+    return subtreeSizes[index] - 1;
+  }
+
+  /**
+   * Returns the sum of the salaries in the subtree, including the employee's own salary.
+   */
+  public double payroll(int index) {
+    return payrolls[index];
+  }
+
+  /**
+   * Returns the lowest salary in the subtree, including the employee's own salary.
+   */
+  public double minSalary(int index) {
+    return minSalaries[index];
+  }
+
+  /**
+   * Returns the highest salary in the subtree, including the employee's own salary.
+   */
+  public double maxSalary(int index) {
+    return maxSalaries[index];
+  }
+
+  /**
+   * Returns the length of the deepest reporting chain below the employee, which is 0 for employees
+   * without subordinates and 1 for managers whose subordinates have none.
+   */
+  public int maxRelativeDepth(int index) {
+    return subtreeDepths[index];
+  }
+
+  /**
+   * Changes an employee's salary and updates the aggregates of every subtree containing them. The
+   * payroll of each manager up the reporting line is adjusted by the difference, so it may drift
+   * from a rebuilt index by floating point rounding. Lowest and highest salaries are recomputed
+   * from the direct subordinates' aggregates, and only up to the first manager whose extremes stay
+   * the same.
+   *
+   * @param index  the employee's snapshot index
+   * @param salary the new salary
+   */
+  public void changeSalary(int index, double salary) {
+    double difference = salary - salaries[index];
+    salaries[index] = salary;
+
+    boolean extremesChanged = true;
+    int employee = index;
+    while (employee != OrgSnapshot.NO_PARENT) {
+      payrolls[employee] += difference;
+      if (extremesChanged) {
+        double oldMin = minSalaries[employee];
+        double oldMax = maxSalaries[employee];
+        recomputeExtremes(employee);
+        extremesChanged = minSalaries[employee] != oldMin || maxSalaries[employee] != oldMax;
+      }
+      employee = org.parent(employee);
+    }
+  }
+
+  private void recomputeExtremes(int employee) {
+    double min = salaries[employee];
+    double max = salaries[employee];
+    for (int position = org.childStart(employee); position < org.childEnd(employee); position++) {
+      int subordinate = org.child(position);
+      min = Math.min(min, minSalaries[subordinate]);
+      max = Math.max(max, maxSalaries[subordinate]);
+    }
+    minSalaries[employee] = min;
+    maxSalaries[employee] = max;
+  }
+}
@@ -0,0 +1,168 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import org.example.model.OrgSnapshot;
+import org.example.model.Violation;
+import org.example.report.MergeableViolationSink;
+import org.example.report.ViolationSink;
+
+/**
+ * Runs any number of {@link EmployeeCheck}s in a single pass over an organization. Every employee
+ * is visited once, in ascending id order, and handed to each registered check together with that
+ * check's sink, so every sink receives its violations in ascending id order.
+ * <p>
+ * With a parallelism above 1 and a large enough organization, consecutive index ranges are visited
+ * concurrently on a fork-join pool. Their violations are buffered per range and passed on to the
+ * sinks in range order, so the sinks see exactly the sequential sequence. A
+ * {@link MergeableViolationSink} instead gives every range a part of its own, which is merged in
+ * range order, so bounded sinks such as rankings stay bounded per range.
+ */
+public final class OrgTraversal {
+
+  /**
+   * The number of employees below which a range is not worth visiting on its own thread.
+   */
+  private static final int MIN_CHUNK_SIZE = 16 * 1024;
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  private final int parallelism;
+  private final List<EmployeeCheck> checks = new ArrayList<>();
+  private final List<ViolationSink> sinks = new ArrayList<>();
+
+  /**
+   * Creates a traversal that visits employees sequentially on the calling thread.
+   */
+  public OrgTraversal() {
+    this(1);
+  }
+
+  /**
+   * Creates a traversal.
+   *
+   * @param parallelism the number of worker threads, where 1 means a sequential traversal
+   */
+  public OrgTraversal(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive, but was " + parallelism);
+    }
+    this.parallelism = parallelism;
+  }
+
+  /**
+   * Registers a check.
+   *
+   * @param check the check
+   * @param sink  receives the violations found by the check
+   * @return this traversal
+   */
+  public OrgTraversal add(EmployeeCheck check, ViolationSink sink) {
+    checks.add(check);
+    sinks.add(sink);
+    return this;
+  }
+
+  /**
+   * Visits every employee once and runs all registered checks that apply to the organization.
+   *
+   * @throws IOException if a sink fails to write a violation
+   */
+  public void run(OrgSnapshot org) throws IOException {
+    List<EmployeeCheck> activeChecks = new ArrayList<>();
+    List<ViolationSink> activeSinks = new ArrayList<>();
+    for (int i = 0; i < checks.size(); i++) {
+      if (checks.get(i).appliesTo(org)) {
+        activeChecks.add(checks.get(i));
+        activeSinks.add(sinks.get(i));
+      }
+    }
+    if (activeChecks.isEmpty()) {
+      return;
+    }
+
+    EmployeeCheck[] checkArray = activeChecks.toArray(new EmployeeCheck[0]);
+    int chunkCount = parallelism == 1 ? 1
+        : (int) Math.min((long) parallelism * CHUNKS_PER_THREAD, org.size() / MIN_CHUNK_SIZE);
+    if (chunkCount < 2) {
+      visitRange(org, 0, org.size(), checkArray, activeSinks.toArray(new ViolationSink[0]));
+      return;
+    }
+
+    for (ViolationSink[] chunk : visitInParallel(org, chunkCount, checkArray, activeSinks)) {
+      for (int check = 0; check < chunk.length; check++) {
+        ViolationSink sink = activeSinks.get(check);
+        if (chunk[check] instanceof ViolationBuffer buffer) {
+          for (Violation violation : buffer.violations) {
+            sink.accept(violation);
+          }
+        } else {
+          ((MergeableViolationSink) sink).merge((MergeableViolationSink) chunk[check]);
+        }
+      }
+    }
+  }
+
+  private List<ViolationSink[]> visitInParallel(OrgSnapshot org, int chunkCount,
+      EmployeeCheck[] checkArray, List<ViolationSink> activeSinks) {
+    List<ForkJoinTask<ViolationSink[]>> tasks = new ArrayList<>(chunkCount);
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      for (int chunk = 0; chunk < chunkCount; chunk++) {
+        int start = (int) ((long) org.size() * chunk / chunkCount);
+        int end = (int) ((long) org.size() * (chunk + 1) / chunkCount);
+        ViolationSink[] parts = new ViolationSink[checkArray.length];
+        for (int check = 0; check < parts.length; check++) {
+          parts[check] = activeSinks.get(check) instanceof MergeableViolationSink mergeable
+              ? mergeable.newPart() : new ViolationBuffer();
+        }
+        tasks.add(pool.submit(() -> {
+          try {
+            visitRange(org, start, end, checkArray, parts);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          return parts;
+        }));
+      }
+      List<ViolationSink[]> results = new ArrayList<>(chunkCount);
+      for (ForkJoinTask<ViolationSink[]> task : tasks) {
+        results.add(task.join());
+      }
+      return results;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static void visitRange(OrgSnapshot org, int start, int end, EmployeeCheck[] checks,
+      ViolationSink[] sinks) throws IOException {
+    EmployeeNode node = new EmployeeNode(org);
+    for (int employee = start; employee < end; employee++) {
+      node.moveTo(employee);
+      for (int check = 0; check < checks.length; check++) {
+        checks[check].check(node, sinks[check]);
+      }
+    }
+  }
+
+  /**
+   * Keeps the violations one check found in one range until the range's turn comes.
+   */
+  private static final class ViolationBuffer implements ViolationSink {
+
+    private final List<Violation> violations = new ArrayList<>();
+
+    @Override
+    public void accept(Violation violation) {
+      violations.add(violation);
+    }
+
+    @Override
+    public void flush() {
+    }
+  }
+}
@@ -1,15 +1,30 @@
 package org.example.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.example.model.ReportingLineViolation;
+import org.example.report.ReportBuffer;
+import org.example.report.ViolationSink;
 
-public class ReportingLineAnalyzer {
-
+public class ReportingLineAnalyzer implements EmployeeCheck {
 
   /**
    * The maximum allowed depth for a reporting line.
    */
-  private static final int MAXIMUM_DEPTH = 4;
+  static final int MAXIMUM_DEPTH = 4;
+
+  /**
+   * Describes the rules that determine this analyzer's report, so cached reports can be told apart
+   * when the rules change.
+   */
+  public String configurationKey() {
+    return "reporting-line[maxDepth=" + MAXIMUM_DEPTH + "]";
+  }
 
   /**
    * Checks each employee's reporting line to see if it's too long. This method creates a report
@@ -23,34 +38,80 @@ public class ReportingLineAnalyzer {
    * levels they exceed the limit.
    */
   public String analyzeReportingLines(Map<Integer, Employee> employees) {
-    StringBuilder report = new StringBuilder();
-
-    employees.values().forEach(employee -> {
-      int depth = calculateReportingLineDepth(employee, employees);
-      if (depth > MAXIMUM_DEPTH) {
-        appendReport(report, employee, depth - 4);
-      }
-    });
+    return analyzeReportingLines(OrgSnapshot.fromEmployees(employees));
+  }
 
+  /**
+   * Checks each employee's reporting line directly on a columnar organization snapshot. The report
+   * has the same format as {@link #analyzeReportingLines(Map)} and lists employees in ascending id
+   * order. Depths come from {@link OrgSnapshot#depth(int)}, which the snapshot computes in one
+   * top-down pass, so the whole check is linear in the number of employees.
+   *
+   * @param org the organization snapshot
+   * @return A string listing all employees with reporting lines that are too long, and by how many
+   * levels they exceed the limit.
+   */
+  public String analyzeReportingLines(OrgSnapshot org) {
+    if (org.maxDepth() <= MAXIMUM_DEPTH) {
+      return "";
+    }
+    ReportBuffer report = new ReportBuffer();
+    try {
+      writeReportingLineViolations(org, report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
     return report.toString();
   }
 
-  private int calculateReportingLineDepth(Employee employee, Map<Integer, Employee> employees) {
-    int depth = 0;
-    Employee current = employee;
-
-    while (current.getManagerId() != null && employees.containsKey(current.getManagerId())) {
-      current = employees.get(current.getManagerId());
-      depth++;
+  /**
+   * Finds the employees whose reporting line is too long, lazily and in ascending id order.
+   *
+   * @param org the organization snapshot
+   * @return the reporting line violations
+   */
+  public Stream<ReportingLineViolation> reportingLineViolations(OrgSnapshot org) {
+    if (org.maxDepth() <= MAXIMUM_DEPTH) {
+      return Stream.empty();
     }
-    return depth;
+    return IntStream.range(0, org.size())
+        .filter(employee -> org.depth(employee) > MAXIMUM_DEPTH)
+        .mapToObj(employee -> new ReportingLineViolation(org.id(employee),
+            org.firstName(employee), org.lastName(employee),
+            org.depth(employee) - MAXIMUM_DEPTH));
+  }
+
+  /**
+   * Writes the reporting line violations into a sink in ascending id order, instead of building a
+   * report. This runs the analyzer as the only check of an {@link OrgTraversal}.
+   *
+   * @param org  the organization snapshot
+   * @param sink receives the violations
+   * @throws IOException if the sink fails to write a violation
+   */
+  public void writeReportingLineViolations(OrgSnapshot org, ViolationSink sink)
+      throws IOException {
+    new OrgTraversal().add(this, sink).run(org);
   }
 
-  private void appendReport(StringBuilder report, Employee employee, int excessDepth) {
-    report.append(String.format("%d|%s %s has a reporting line that is too long by %d levels%n",
-        employee.getId(),
-        employee.getFirstName(),
-        employee.getLastName(),
-        excessDepth));
+  /**
+   * Skips organizations that are too flat for any reporting line to be too long.
+   */
+  @Override
+  public boolean appliesTo(OrgSnapshot org) {
+    return org.maxDepth() > MAXIMUM_DEPTH;
+  }
+
+  /**
+   * Reports the employee if there are more than {@value #MAXIMUM_DEPTH} managers between them and
+   * the CEO.
+   */
+  @Override
+  public void check(EmployeeNode employee, ViolationSink sink) throws IOException {
+    int depth = employee.depth();
+    if (depth > MAXIMUM_DEPTH) {
+      sink.accept(new ReportingLineViolation(employee.id(), employee.firstName(),
+          employee.lastName(), depth - MAXIMUM_DEPTH));
+    }
   }
 }
@@ -1,9 +1,18 @@
 package org.example.service;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.example.model.SalaryViolation;
+import org.example.report.ReportBuffer;
+import org.example.report.ViolationSink;
 
-public class SalaryAnalyzer {
+public class SalaryAnalyzer implements EmployeeCheck {
 
   /**
    * The minimum percentage difference between a manager's salary and the average salary of their
@@ -16,6 +25,40 @@ public class SalaryAnalyzer {
    */
   private static final double MAX_PERCENTAGE_DIFF = 1.50;
 
+  private final int parallelism;
+
+  /**
+   * Creates an analyzer that evaluates managers sequentially on the calling thread.
+   */
+  public SalaryAnalyzer() {
+    this(1);
+  }
+
+  /**
+   * Creates an analyzer that splits large organizations into ranges of employees and evaluates
+   * them on a fork-join pool with the given number of threads, see {@link OrgTraversal}. The report
+   * is identical to the sequential one.
+   *
+   * @param parallelism the number of worker threads, where 1 means sequential analysis
+   */
+  public SalaryAnalyzer(int parallelism) {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("Parallelism must be positive, but was " + parallelism);
+    }
+    this.parallelism = parallelism;
+  }
+
+  public int getParallelism() {
+    return parallelism;
+  }
+
+  /**
+   * Describes the rules that determine this analyzer's report, so cached reports can be told apart
+   * when the rules change. Settings that do not affect the report, like parallelism, are left out.
+   */
+  public String configurationKey() {
+    return "salary[min=" + MIN_PERCENTAGE_DIFF + ",max=" + MAX_PERCENTAGE_DIFF + "]";
+  }
 
   /**
    * Analyzes salaries of managers to compare their salary against the calculated salary range based
@@ -28,38 +71,117 @@ public class SalaryAnalyzer {
    * subordinates' average salary.
    */
   public String analyzeSalaries(Map<Integer, Employee> employees) {
-    StringBuilder report = new StringBuilder();
-    employees.values().stream()
-        .filter(manager -> !manager.getSubordinates().isEmpty())
-        .forEach(manager -> evaluateManagerSalary(manager, report));
+    return analyzeSalaries(OrgSnapshot.fromEmployees(employees));
+  }
+
+  /**
+   * Analyzes salaries of managers directly on a columnar organization snapshot. The report has the
+   * same format as {@link #analyzeSalaries(Map)} and lists managers in ascending id order.
+   * <p>
+   * When the analyzer is parallel and the organization is large enough, the snapshot is split into
+   * consecutive index ranges that are evaluated concurrently and concatenated in range order, so
+   * the report is byte-for-byte the same as the sequential one.
+   *
+   * @param org the organization snapshot
+   * @return A string report listing managers who earn too much or too little compared to their
+   * subordinates' average salary.
+   */
+  public String analyzeSalaries(OrgSnapshot org) {
+    ReportBuffer report = new ReportBuffer();
+    try {
+      writeSalaryViolations(org, report);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
     return report.toString();
   }
 
-  private void evaluateManagerSalary(Employee manager, StringBuilder report) {
-    double avgSalary = calculateAverageSubordinateSalary(manager);
-    double minSalary = avgSalary * MIN_PERCENTAGE_DIFF;
-    double maxSalary = avgSalary * MAX_PERCENTAGE_DIFF;
+  /**
+   * Finds the managers whose salary is outside the accepted range, in ascending id order. The
+   * stream is lazy: managers are evaluated only as violations are consumed, and nothing but the
+   * violations themselves is allocated. It visits the managers through one shared
+   * {@link EmployeeNode}, so it must not be made parallel.
+   *
+   * @param org the organization snapshot
+   * @return the salary violations
+   */
+  public Stream<SalaryViolation> salaryViolations(OrgSnapshot org) {
+    EmployeeNode employee = new EmployeeNode(org);
+    return IntStream.range(0, org.size())
+        .filter(manager -> org.childCount(manager) > 0)
+        .mapToObj(manager -> {
+          employee.moveTo(manager);
+          return findViolation(employee);
+        })
+        .filter(Objects::nonNull);
+  }
 
-    generateReportLine(manager, minSalary, maxSalary, report);
+  /**
+   * Writes the salary violations into a sink in ascending id order, instead of building a report.
+   * This runs the analyzer as the only check of an {@link OrgTraversal}; to combine it with other
+   * checks in one pass, register it with a shared traversal instead.
+   *
+   * @param org  the organization snapshot
+   * @param sink receives the violations
+   * @throws IOException if the sink fails to write a violation
+   */
+  public void writeSalaryViolations(OrgSnapshot org, ViolationSink sink) throws IOException {
+    new OrgTraversal(parallelism).add(this, sink).run(org);
   }
 
-  private void generateReportLine(Employee manager, double minSalary, double maxSalary, StringBuilder report) {
-    double salary = manager.getSalary();
+  /**
+   * Reports the employee if they are a manager whose salary is outside the accepted range around
+   * the average salary of their direct reports.
+   */
+  @Override
+  public void check(EmployeeNode employee, ViolationSink sink) throws IOException {
+    if (!employee.isManager()) {
+      return;
+    }
+    SalaryViolation violation = findViolation(employee);
+    if (violation != null) {
+      sink.accept(violation);
+    }
+  }
+
+  /**
+   * Returns the violation of a manager, or {@code null}. The names are only read once the salary
+   * is known to be out of range, since snapshots may decode them on every access.
+   */
+  private static SalaryViolation findViolation(EmployeeNode manager) {
+    double avgSalary = manager.directReportAverageSalary();
+    if (!isViolation(manager.salary(), avgSalary)) {
+      return null;
+    }
+    return findViolation(manager.id(), manager.firstName(), manager.lastName(), manager.salary(),
+        avgSalary);
+  }
+
+  /**
+   * Checks whether a manager's salary is outside the accepted range around the average salary of
+   * their direct subordinates.
+   */
+  static boolean isViolation(double salary, double avgSalary) {
+    return salary < avgSalary * MIN_PERCENTAGE_DIFF || salary > avgSalary * MAX_PERCENTAGE_DIFF;
+  }
+
+  /**
+   * Returns the violation of a manager whose salary is outside the accepted range, or {@code null}
+   * if the salary is fine.
+   */
+  static SalaryViolation findViolation(int id, String firstName, String lastName, double salary,
+      double avgSalary) {
+    double minSalary = avgSalary * MIN_PERCENTAGE_DIFF;
+    double maxSalary = avgSalary * MAX_PERCENTAGE_DIFF;
 
     if (salary < minSalary) {
-      report.append(String.format("%d|%s %s earns less than they should by %.2f%n",
-          manager.getId(), manager.getFirstName(), manager.getLastName(), minSalary - salary));
+      return new SalaryViolation(id, firstName, lastName, SalaryViolation.Kind.UNDERPAID,
+          minSalary - salary);
     }
     if (salary > maxSalary) {
-      report.append(String.format("%d|%s %s earns more than they should by %.2f%n",
-          manager.getId(), manager.getFirstName(), manager.getLastName(), salary - maxSalary));
+      return new SalaryViolation(id, firstName, lastName, SalaryViolation.Kind.OVERPAID,
+          salary - maxSalary);
     }
-  }
-
-  private double calculateAverageSubordinateSalary(Employee manager) {
-    return manager.getSubordinates().stream()
-        .mapToDouble(Employee::getSalary)
-        .average()
-        .orElse(0);
+    return null;
   }
 }
@@ -0,0 +1,137 @@
+package org.example.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Temporary file of fixed-width records of {@code long} fields, written once and read
+ * sequentially any number of times. The external analysis spills its intermediate data into these
+ * files instead of keeping it on the heap.
+ */
+final class SpillFile {
+
+  private final Path path;
+  private final int width;
+  private final long count;
+
+  private SpillFile(Path path, int width, long count) {
+    this.path = path;
+    this.width = width;
+    this.count = count;
+  }
+
+  /**
+   * Creates a new, empty file in the directory and opens it for writing.
+   *
+   * @param width      the number of fields per record
+   * @param bufferSize the size of the write buffer in bytes
+   * @throws IOException if the file cannot be created
+   */
+  static Writer create(Path directory, int width, int bufferSize) throws IOException {
+    return new Writer(Files.createTempFile(directory, "spill", ".bin"), width, bufferSize);
+  }
+
+  int width() {
+    return width;
+  }
+
+  /**
+   * Returns the number of records in the file.
+   */
+  long count() {
+    return count;
+  }
+
+  /**
+   * Opens the file for reading from the first record.
+   *
+   * @param bufferSize the size of the read buffer in bytes
+   * @throws IOException if the file cannot be opened
+   */
+  Reader open(int bufferSize) throws IOException {
+    return new Reader(this, bufferSize);
+  }
+
+  void delete() throws IOException {
+    Files.deleteIfExists(path);
+  }
+
+  static final class Writer implements Closeable {
+
+    private final Path path;
+    private final int width;
+    private final DataOutputStream out;
+    private long count;
+
+    private Writer(Path path, int width, int bufferSize) throws IOException {
+      this.path = path;
+      this.width = width;
+      this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path),
+          bufferSize));
+    }
+
+    /**
+     * Appends the first {@code width} fields of the array as one record.
+     */
+    void write(long[] record) throws IOException {
+      for (int i = 0; i < width; i++) {
+        out.writeLong(record[i]);
+      }
+      count++;
+    }
+
+    /**
+     * Closes the writer and returns the file it wrote.
+     */
+    SpillFile finish() throws IOException {
+      out.close();
+      return new SpillFile(path, width, count);
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+  }
+
+  static final class Reader implements Closeable {
+
+    private final int width;
+    private final DataInputStream in;
+    private long remaining;
+
+    private Reader(SpillFile file, int bufferSize) throws IOException {
+      this.width = file.width;
+      this.remaining = file.count;
+      this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.path),
+          bufferSize));
+    }
+
+    /**
+     * Reads the next record into the first {@code width} fields of the array.
+     *
+     * @return {@code false} if all records have been read
+     */
+    boolean next(long[] record) throws IOException {
+      if (remaining == 0) {
+        return false;
+      }
+      for (int i = 0; i < width; i++) {
+        record[i] = in.readLong();
+      }
+      remaining--;
+      return true;
+    }
+
+    @Override
+    public void close() throws IOException {
+      in.close();
+    }
+  }
+}
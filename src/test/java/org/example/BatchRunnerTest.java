@@ -0,0 +1,182 @@
+package org.example;
+
+import static org.example.Constants.VALID_HEADERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.example.exception.FileReaderException;
+import org.example.repository.EmployeeRepository;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BatchRunnerTest {
+
+  private final ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+  private final PrintStream originalOut = System.out;
+
+  private BatchRunner batchRunner;
+
+  @BeforeEach
+  void setUp() {
+    System.setOut(new PrintStream(outContent));
+    batchRunner = new BatchRunner(new EmployeeRepository(), new SalaryAnalyzer(),
+        new ReportingLineAnalyzer(), null, 2, 2);
+  }
+
+  @AfterEach
+  public void restoreStreams() {
+    System.setOut(originalOut);
+  }
+
+  @Test
+  void testReportsMatchSingleFileRuns(@TempDir Path directory) throws Exception {
+    // given
+    for (int file = 0; file < 8; file++) {
+      Files.write(directory.resolve("subsidiary-" + file + ".csv"), Arrays.asList(
+          VALID_HEADERS,
+          "1,Jane,Smith,70000,",
+          "2,John,Doe," + (55000 + file * 10000) + ",1",
+          "3,Martin,Chekov,40000,2",
+          "4,Bob,Ronstad,30000,3",
+          "5,Alice,Hasacat,20000,4",
+          "6,Brett,Hardleaf,20000,5"
+      ));
+    }
+
+    // when
+    List<BatchRunner.FileResult> results = batchRunner.run(directory.toString());
+
+    // then
+    assertEquals(8, results.size());
+    for (BatchRunner.FileResult result : results) {
+      assertTrue(result.isSuccessful());
+      assertEquals(6, result.getEmployeeCount());
+      String report = Files.readString(result.getReportFile(), Charset.defaultCharset());
+      assertEquals(singleRunOutput(result.getFile()), report);
+    }
+    assertEquals(directory.resolve("subsidiary-0.report.txt"), results.get(0).getReportFile());
+  }
+
+  @Test
+  void testBadFileDoesNotAbortOthers(@TempDir Path directory) throws Exception {
+    // given
+    Files.write(directory.resolve("a.csv"), Arrays.asList(VALID_HEADERS, "1,Jane,Smith,70000,"));
+    Files.write(directory.resolve("b.csv"), Arrays.asList("not,a,valid,header"));
+    Files.write(directory.resolve("c.csv"), Arrays.asList(VALID_HEADERS, "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1"));
+    Path output = directory.resolve("reports");
+    BatchRunner runner = new BatchRunner(new EmployeeRepository(), new SalaryAnalyzer(),
+        new ReportingLineAnalyzer(), output, 2, 1);
+
+    // when
+    FileReaderException exception = assertThrows(FileReaderException.class,
+        () -> runner.run(directory.toString()));
+    List<BatchRunner.FileResult> results = runner.analyzeAll(
+        BatchRunner.findInputFiles(directory.toString()));
+
+    // then
+    assertEquals("1 of 3 files failed", exception.getMessage());
+    assertTrue(outContent.toString().contains(directory.resolve("b.csv") + "|FAILED|"));
+    assertTrue(results.get(0).isSuccessful());
+    assertFalse(results.get(1).isSuccessful());
+    assertNull(results.get(1).getReportFile());
+    assertTrue(results.get(2).isSuccessful());
+    assertEquals(2, results.get(2).getEmployeeCount());
+    assertTrue(Files.exists(output.resolve("a.report.txt")));
+    assertTrue(Files.exists(output.resolve("c.report.txt")));
+  }
+
+  @Test
+  void testFindInputFilesWithGlob(@TempDir Path directory) throws Exception {
+    // given
+    Files.createDirectories(directory.resolve("eu"));
+    Files.createDirectories(directory.resolve("us"));
+    for (String name : List.of("eu/de.csv", "eu/fr.csv", "us/ny.csv", "us/notes.txt", "top.csv",
+        "eu/de.report.txt")) {
+      Files.write(directory.resolve(name), List.of(VALID_HEADERS));
+    }
+
+    // when
+    List<Path> perDirectory = BatchRunner.findInputFiles(directory + "/*/*.csv");
+    List<Path> recursive = BatchRunner.findInputFiles(directory + "/**.csv");
+    List<Path> everything = BatchRunner.findInputFiles(directory + "/**");
+    List<Path> plainDirectory = BatchRunner.findInputFiles(directory.toString());
+    List<Path> plainFile = BatchRunner.findInputFiles(directory.resolve("top.csv").toString());
+    List<Path> plainOtherFile = BatchRunner.findInputFiles(
+        directory.resolve("us/notes.txt").toString());
+
+    // then
+    assertEquals(List.of(directory.resolve("eu/de.csv"), directory.resolve("eu/fr.csv"),
+        directory.resolve("us/ny.csv")), perDirectory);
+    assertEquals(List.of(directory.resolve("eu/de.csv"), directory.resolve("eu/fr.csv"),
+        directory.resolve("top.csv"), directory.resolve("us/ny.csv")), recursive);
+    assertEquals(recursive, everything);
+    assertEquals(List.of(directory.resolve("top.csv")), plainDirectory);
+    assertEquals(List.of(directory.resolve("top.csv")), plainFile);
+    assertEquals(List.of(), plainOtherFile);
+  }
+
+  @Test
+  void testSameNamesInDifferentDirectoriesGetSeparateReports(@TempDir Path directory)
+      throws Exception {
+    // given
+    for (String subsidiary : List.of("eu", "us")) {
+      Files.createDirectories(directory.resolve(subsidiary));
+      Files.write(directory.resolve(subsidiary + "/employees.csv"), Arrays.asList(VALID_HEADERS,
+          "1,Jane,Smith,70000,", "2,John,Doe,55000,1"));
+    }
+    Files.write(directory.resolve("eu/employees.report.txt"), List.of("from an earlier run"));
+    Path output = directory.resolve("reports");
+    BatchRunner runner = new BatchRunner(new EmployeeRepository(), new SalaryAnalyzer(),
+        new ReportingLineAnalyzer(), output, 2, 1);
+
+    // when
+    List<BatchRunner.FileResult> results = runner.run(directory + "/**");
+
+    // then
+    assertEquals(2, results.size());
+    assertEquals(output.resolve("eu/employees.report.txt"), results.get(0).getReportFile());
+    assertEquals(output.resolve("us/employees.report.txt"), results.get(1).getReportFile());
+    assertEquals(singleRunOutput(results.get(0).getFile()),
+        Files.readString(results.get(0).getReportFile(), Charset.defaultCharset()));
+    assertEquals(singleRunOutput(results.get(1).getFile()),
+        Files.readString(results.get(1).getReportFile(), Charset.defaultCharset()));
+  }
+
+  @Test
+  void testNoMatchingFiles(@TempDir Path directory) {
+    // when
+    FileReaderException exception = assertThrows(FileReaderException.class,
+        () -> batchRunner.run(directory.toString()));
+
+    // then
+    assertEquals("No .csv files found for " + directory, exception.getMessage());
+  }
+
+  private String singleRunOutput(Path file) {
+    ByteArrayOutputStream single = new ByteArrayOutputStream();
+    PrintStream batchOut = System.out;
+    System.setOut(new PrintStream(single));
+    try {
+      new EmployeeAnalyzerRunner(new EmployeeRepository(), new SalaryAnalyzer(),
+          new ReportingLineAnalyzer()).run(file.toString());
+    } finally {
+      System.setOut(batchOut);
+    }
+    return single.toString(Charset.defaultCharset());
+  }
+}
@@ -0,0 +1,274 @@
+package org.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import org.example.exception.FileReaderException;
+import org.example.metrics.RunMetrics;
+import org.example.repository.EmployeeRepository;
+import org.example.repository.LoadMode;
+import org.example.repository.RowErrors;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CommandLineOptionsTest {
+
+  @Test
+  void testDefaults() {
+    // when
+    CommandLineOptions options = CommandLineOptions.parse(new String[]{"employees.csv"});
+
+    // then
+    assertEquals("employees.csv", options.getFilePath());
+    assertEquals(1000, options.getMaximumEmployeeCount());
+    assertEquals(LoadMode.STREAMING, options.getLoadMode());
+    assertFalse(options.isSnapshotEnabled());
+    assertEquals(0, options.getTopLimit());
+    assertNull(options.getQueryFile());
+  }
+
+  @Test
+  void testQueriesFlag() {
+    // when
+    CommandLineOptions options = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--queries=routing.txt"});
+
+    // then
+    assertEquals("routing.txt", options.getQueryFile());
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--queries"}));
+  }
+
+  @Test
+  void testBatchFlags() {
+    // when
+    CommandLineOptions options = CommandLineOptions.parse(new String[]{"--batch=exports/*.csv",
+        "--batch-output=reports"});
+
+    // then
+    assertEquals("exports/*.csv", options.getBatchPattern());
+    assertNull(options.getFilePath());
+    assertNotNull(options.createBatchRunner(options.createRepository(), new SalaryAnalyzer(),
+        new ReportingLineAnalyzer()));
+    FileReaderException exception = assertThrows(FileReaderException.class,
+        () -> CommandLineOptions.parse(new String[]{"--batch=exports", "employees.csv"}));
+    assertEquals("Error: Pass either one .csv file or --batch, not both.",
+        exception.getMessage());
+  }
+
+  @Test
+  void testServeFlag() {
+    // when
+    CommandLineOptions defaults = CommandLineOptions.parse(new String[]{"employees.csv"});
+    CommandLineOptions defaultPort = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--serve"});
+    CommandLineOptions customPort = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--serve=9090"});
+
+    // then
+    assertEquals(-1, defaults.getServerPort());
+    assertEquals(8080, defaultPort.getServerPort());
+    assertEquals(9090, customPort.getServerPort());
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--serve=70000"}));
+  }
+
+  @Test
+  void testServerListensOnLoopbackUnlessHostIsGiven() {
+    // when
+    CommandLineOptions loopback = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--serve=9090"});
+    CommandLineOptions anyAddress = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--serve=9090", "--host=0.0.0.0"});
+
+    // then
+    assertTrue(loopback.getServerAddress().getAddress().isLoopbackAddress());
+    assertEquals(9090, loopback.getServerAddress().getPort());
+    assertTrue(anyAddress.getServerAddress().getAddress().isAnyLocalAddress());
+    assertEquals(9090, anyAddress.getServerAddress().getPort());
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--host=127.0.0.1"}));
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--serve", "--host"}));
+  }
+
+  @Test
+  void testWatchFlag() {
+    // when
+    CommandLineOptions defaults = CommandLineOptions.parse(new String[]{"employees.csv"});
+    CommandLineOptions watching = CommandLineOptions.parse(new String[]{"--watch",
+        "employees.csv"});
+
+    // then
+    assertFalse(defaults.isWatchEnabled());
+    assertTrue(watching.isWatchEnabled());
+  }
+
+  @Test
+  void testStatsFlag() {
+    // when
+    CommandLineOptions defaults = CommandLineOptions.parse(new String[]{"employees.csv"});
+    CommandLineOptions printed = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--stats"});
+    CommandLineOptions written = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--stats=stats.json"});
+
+    // then
+    assertSame(RunMetrics.DISABLED, defaults.createRunMetrics());
+    assertTrue(printed.createRunMetrics().isCollecting());
+    assertNull(printed.getStatsFile());
+    assertEquals(Paths.get("stats.json"), written.getStatsFile());
+  }
+
+  @Test
+  void testLenientFlag() {
+    // when
+    CommandLineOptions defaults = CommandLineOptions.parse(new String[]{"employees.csv"});
+    CommandLineOptions unlimited = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--lenient"});
+    CommandLineOptions limited = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--lenient=50"});
+
+    // then
+    assertFalse(defaults.isLenient());
+    assertTrue(unlimited.isLenient());
+    assertEquals(RowErrors.UNLIMITED, unlimited.getErrorLimit());
+    assertEquals(50, limited.getErrorLimit());
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--lenient=0"}));
+  }
+
+  @Test
+  void testMemoryBudgetFlag() {
+    // when
+    CommandLineOptions defaults = CommandLineOptions.parse(new String[]{"employees.csv"});
+    CommandLineOptions budget = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--memory-budget=256"});
+
+    // then
+    assertEquals(0, defaults.getMemoryBudget());
+    assertEquals(256L * 1024 * 1024, budget.getMemoryBudget());
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--memory-budget"}));
+  }
+
+  @Test
+  void testTopFlag() {
+    // when
+    CommandLineOptions options = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--top=50"});
+
+    // then
+    assertEquals(50, options.getTopLimit());
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--top=0"}));
+  }
+
+  @Test
+  void testFlags() {
+    // when
+    CommandLineOptions options = CommandLineOptions.parse(new String[]{
+        "--max-employees=unlimited", "employees.csv", "--load-mode=parallel", "--snapshot"});
+    EmployeeRepository repository = options.createRepository();
+
+    // then
+    assertEquals(EmployeeRepository.UNLIMITED, repository.getMaximumEmployeeCount());
+    assertEquals(LoadMode.PARALLEL, repository.getLoadMode());
+    assertTrue(repository.getSnapshotStore().isPresent());
+  }
+
+  @Test
+  void testCacheFlags(@TempDir Path directory) {
+    // when
+    CommandLineOptions defaults = CommandLineOptions.parse(new String[]{"employees.csv"});
+    CommandLineOptions cached = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--cache=" + directory, "--cache-size=8"});
+    CommandLineOptions bypassed = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--cache", "--no-cache", "--clear-cache"});
+
+    // then
+    assertNull(defaults.createReportCache());
+    assertFalse(defaults.isCacheUsed());
+    assertTrue(cached.isCacheUsed());
+    assertEquals(directory, cached.createReportCache().getDirectory());
+    assertEquals(8L * 1024 * 1024, cached.createReportCache().getMaximumSize());
+    assertFalse(bypassed.isCacheUsed());
+    assertTrue(bypassed.isCacheCleared());
+    assertNotNull(bypassed.createReportCache());
+  }
+
+  @Test
+  void testFlagsDoNotCountAsFiles() {
+    // when
+    FileReaderException exception = assertThrows(FileReaderException.class,
+        () -> CommandLineOptions.parse(new String[]{"--snapshot"}));
+
+    // then
+    assertEquals("Error: You must pass exactly one .csv file.", exception.getMessage());
+  }
+
+  @Test
+  void testRejectsFlagsThatWouldBeIgnored() {
+    // when
+    IllegalArgumentException modes = assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--top=5", "--lenient"}));
+
+    // then
+    assertEquals("Options --top and --lenient cannot be combined", modes.getMessage());
+    assertRejected("employees.csv", "--lenient", "--memory-budget=64");
+    assertRejected("employees.csv", "--top=5", "--memory-budget=64");
+    assertRejected("employees.csv", "--serve", "--watch");
+    assertRejected("employees.csv", "--cache", "--top=5");
+    assertRejected("employees.csv", "--cache", "--lenient");
+    assertRejected("employees.csv", "--cache", "--memory-budget=64");
+    assertRejected("employees.csv", "--cache", "--serve");
+    assertRejected("--batch=exports", "--cache");
+    assertRejected("--batch=exports", "--stats");
+    assertRejected("employees.csv", "--stats", "--serve");
+    assertRejected("employees.csv", "--stats", "--watch");
+    assertRejected("employees.csv", "--snapshot", "--lenient");
+    assertRejected("employees.csv", "--snapshot", "--memory-budget=64");
+    assertRejected("employees.csv", "--load-mode=mapped", "--memory-budget=64");
+    assertRejected("employees.csv", "--batch-output=reports");
+  }
+
+  @Test
+  void testAcceptsFlagsThatTakeEffectTogether() {
+    // when
+    CommandLineOptions top = CommandLineOptions.parse(new String[]{"employees.csv", "--top=5",
+        "--stats", "--snapshot", "--clear-cache"});
+    CommandLineOptions lenient = CommandLineOptions.parse(new String[]{"employees.csv",
+        "--lenient", "--stats", "--load-mode=parallel"});
+    CommandLineOptions cached = CommandLineOptions.parse(new String[]{"employees.csv", "--cache",
+        "--stats"});
+
+    // then
+    assertEquals(5, top.getTopLimit());
+    assertTrue(lenient.isLenient());
+    assertTrue(cached.isCacheUsed());
+  }
+
+  private static void assertRejected(String... args) {
+    assertThrows(IllegalArgumentException.class, () -> CommandLineOptions.parse(args),
+        () -> String.join(" ", args));
+  }
+
+  @Test
+  void testInvalidFlags() {
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--unknown"}));
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--max-employees=0"}));
+    assertThrows(IllegalArgumentException.class,
+        () -> CommandLineOptions.parse(new String[]{"employees.csv", "--load-mode=fast"}));
+  }
+}
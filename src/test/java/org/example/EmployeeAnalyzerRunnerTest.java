@@ -11,14 +11,21 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import org.example.exception.EmployeeValidationException;
+import org.example.metrics.PhaseStats;
+import org.example.metrics.RunMetrics;
+import org.example.model.OrgSnapshot;
 import org.example.repository.EmployeeRepository;
+import org.example.repository.ReportCache;
+import org.example.repository.RowErrors;
 import org.example.service.ReportingLineAnalyzer;
 import org.example.service.SalaryAnalyzer;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class EmployeeAnalyzerRunnerTest {
 
@@ -85,6 +92,81 @@ class EmployeeAnalyzerRunnerTest {
     assertEquals("===== ANALYZE DONE! =====", lines.get(7));
   }
 
+  @Test
+  void testCachedRunPrintsSameOutputWithoutParsing(@TempDir Path directory) throws Exception {
+    // given
+    Path csvFile = directory.resolve("employees.csv");
+    Files.write(csvFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        "4,Bob,Ronstad,30000,3",
+        "5,Alice,Hasacat,20000,4",
+        "6,Brett,Hardleaf,20000,5"
+    ));
+    AtomicInteger parseCount = new AtomicInteger();
+    EmployeeRepository countingRepository = new EmployeeRepository() {
+      @Override
+      public OrgSnapshot createOrgSnapshot(String filePath) {
+        parseCount.incrementAndGet();
+        return super.createOrgSnapshot(filePath);
+      }
+    };
+    ReportCache cache = new ReportCache(directory.resolve("cache"), 1024 * 1024);
+    EmployeeAnalyzerRunner cachingRunner = new EmployeeAnalyzerRunner(countingRepository,
+        salaryAnalyzer, lineAnalyzer, cache);
+
+    // when
+    cachingRunner.run(csvFile.toString());
+    String firstOutput = outContent.toString();
+    outContent.reset();
+    cachingRunner.run(csvFile.toString());
+    String secondOutput = outContent.toString();
+
+    Files.write(csvFile, Arrays.asList(VALID_HEADERS, "1,Jane,Smith,70000,"));
+    outContent.reset();
+    cachingRunner.run(csvFile.toString());
+
+    // then
+    assertEquals(firstOutput, secondOutput);
+    assertTrue(firstOutput.contains("Found 6 employees"));
+    assertTrue(outContent.toString().contains("Found 1 employees"));
+    assertEquals(2, parseCount.get());
+  }
+
+  @Test
+  void testRunWithMetricsRecordsPhasesAndPrintsSameOutput(@TempDir Path directory)
+      throws Exception {
+    // given
+    Path csvFile = directory.resolve("employees.csv");
+    Files.write(csvFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        "4,Bob,Ronstad,30000,3",
+        "5,Alice,Hasacat,20000,4",
+        "6,Brett,Hardleaf,20000,5"
+    ));
+    RunMetrics metrics = RunMetrics.collecting();
+    EmployeeAnalyzerRunner measuredRunner = new EmployeeAnalyzerRunner(repository,
+        salaryAnalyzer, lineAnalyzer, null, metrics);
+
+    // when
+    employeeAnalyzerRunner.run(csvFile.toString());
+    String plainOutput = outContent.toString();
+    outContent.reset();
+    measuredRunner.run(csvFile.toString());
+
+    // then
+    assertEquals(plainOutput, outContent.toString());
+    assertEquals(Arrays.asList(RunMetrics.PARSE, RunMetrics.LINK, RunMetrics.ANALYSIS),
+        metrics.getPhases().stream().map(PhaseStats::getName).collect(Collectors.toList()));
+    assertEquals(Files.size(csvFile), metrics.getPhases().get(0).getBytesRead());
+    assertTrue(metrics.getPhases().stream().allMatch(phase -> phase.getRows() == 6));
+  }
+
   @Test
   void testRunnerException() throws Exception {
     // given
@@ -137,6 +219,127 @@ class EmployeeAnalyzerRunnerTest {
     assertEquals("ReportingLineAnalyzer must not be null", ex.getMessage());
   }
 
+  @Test
+  void testRunTopPrintsRankings() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,300000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        "4,Bob,Ronstad,30000,3",
+        "5,Alice,Hasacat,20000,4",
+        "6,Brett,Hardleaf,20000,5"
+    ));
+
+    // when
+    employeeAnalyzerRunner.runTop(tempFile.toString(), 1);
+
+    // then
+    List<String> lines = extractLogLines(outContent.toString());
+    assertEquals(List.of(
+        "===== RUNNING BIG COMPANY ANALYZE =====",
+        String.format("----- Reading employees from CSV file: %s -----", tempFile),
+        "Found 6 employees",
+        "----- Top 1 overpaid managers -----",
+        "1|Jane Smith earns more than they should by 217500.00",
+        "----- Top 1 underpaid managers -----",
+        "5|Alice Hasacat earns less than they should by 4000.00",
+        "----- Top 1 longest reporting lines -----",
+        "6|Brett Hardleaf has a reporting line that is too long by 1 levels",
+        "===== ANALYZE DONE! ====="), lines);
+  }
+
+  @Test
+  void testRunLenientListsSkippedRowsAndReportsTheRest() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,forty,2",
+        "4,Bob,Ronstad,30000,2",
+        "5,Alice,Hasacat,20000,3"
+    ));
+
+    // when
+    employeeAnalyzerRunner.runLenient(tempFile.toString(), RowErrors.UNLIMITED);
+
+    // then
+    List<String> lines = extractLogLines(outContent.toString());
+    assertEquals(List.of(
+        "===== RUNNING BIG COMPANY ANALYZE =====",
+        String.format("----- Reading employees from CSV file: %s -----", tempFile),
+        "Found 3 employees",
+        "----- Skipped invalid rows: 2 errors -----",
+        "Line 4, column 4: Salary is not a number",
+        "Line 6, column 5: No valid employee with this manager ID",
+        "----- Generating Salary report with salary violations -----",
+        "2|John Doe earns more than they should by 10000.00",
+        "----- Generating excessive reporting lines -----",
+        "===== ANALYZE DONE! ====="), lines);
+  }
+
+  @Test
+  void testRunExternalPrintsTheSameOutputAsRun() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        "4,Bob,Ronstad,30000,3",
+        "5,Alice,Hasacat,20000,4",
+        "6,Brett,Hardleaf,20000,5",
+        "7,Zoë,Ærø,21000,5",
+        "8,Ann,Eriksen,10000,7"
+    ));
+    employeeAnalyzerRunner.run(tempFile.toString());
+    String expected = outContent.toString();
+    outContent.reset();
+
+    // when
+    employeeAnalyzerRunner.runExternal(tempFile.toString(), 1024 * 1024);
+
+    // then
+    assertEquals(expected, outContent.toString());
+    assertTrue(expected.contains(
+        "8|Ann Eriksen has a reporting line that is too long by 2 levels"));
+  }
+
+  @Test
+  void testRunQueriesAnswersEachQuery(@TempDir Path directory) throws Exception {
+    // given
+    Path csvFile = directory.resolve("employees.csv");
+    Files.write(csvFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        "4,Bob,Ronstad,30000,1"
+    ));
+    Path queryFile = directory.resolve("queries.txt");
+    Files.write(queryFile, Arrays.asList("in-chain 1 3", "common-manager 3 4", "distance 3 4"));
+
+    // when
+    employeeAnalyzerRunner.runQueries(csvFile.toString(), queryFile.toString());
+
+    // then
+    List<String> lines = extractLogLines(outContent.toString());
+    assertEquals(List.of(
+        "===== RUNNING BIG COMPANY ANALYZE =====",
+        String.format("----- Reading employees from CSV file: %s -----", csvFile),
+        "Found 4 employees",
+        String.format("----- Answering reporting chain queries from: %s -----", queryFile),
+        "in-chain 1 3|true",
+        "common-manager 3 4|1",
+        "distance 3 4|3",
+        "===== ANALYZE DONE! ====="), lines);
+  }
+
   private List<String> extractLogLines(String output) {
     return Arrays.stream(output.split("\\R"))
         .map(String::trim)
@@ -0,0 +1,188 @@
+package org.example;
+
+import static org.example.Constants.VALID_HEADERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.example.exception.FileValidationException;
+import org.example.model.OrgSnapshot;
+import org.example.repository.EmployeeRepository;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WatchRunnerTest {
+
+  @TempDir
+  Path directory;
+
+  private Path csvFile;
+  private EmployeeRepository repository;
+  private WatchRunner watchRunner;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    csvFile = directory.resolve("employees.csv");
+    Files.writeString(csvFile, String.join("\n",
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        ""), StandardCharsets.UTF_8);
+    repository = new EmployeeRepository(EmployeeRepository.UNLIMITED);
+    watchRunner = new WatchRunner(repository, csvFile.toString());
+    watchRunner.load();
+  }
+
+  @Test
+  void testAppendedRowsMatchFullAnalysis() throws Exception {
+    // given
+    append("4,Bob,Ronstad,30000,3\n5,Alice,Hasacat,20000,4\n");
+
+    // when
+    String first = watchRunner.update();
+    append("7,Carl,Late,20000,6\n6,Brett,Hardleaf,20000,5\n8,Dana,Early,15000,7\n");
+    String second = watchRunner.update();
+
+    // then
+    assertEquals("----- Applied 2 appended rows -----", first);
+    assertEquals("----- Applied 3 appended rows -----", second);
+    assertMatchesFullAnalysis();
+    assertEquals(8, watchRunner.getModel().size());
+  }
+
+  @Test
+  void testRowWithUnknownManagerIsAppliedOnceTheManagerArrives() throws Exception {
+    // given
+    append("5,Alice,Hasacat,20000,4\n");
+
+    // when
+    RuntimeException unknown = assertThrows(RuntimeException.class, watchRunner::update);
+    int sizeBefore = watchRunner.getModel().size();
+    append("4,Bob,Ronstad,30000,3\n");
+    String result = watchRunner.update();
+
+    // then
+    assertTrue(unknown.getMessage().contains("No manager with ID 4"), unknown.getMessage());
+    assertEquals(3, sizeBefore);
+    assertEquals("----- Applied 2 appended rows -----", result);
+    assertEquals(5, watchRunner.getModel().size());
+    assertMatchesFullAnalysis();
+  }
+
+  @Test
+  void testRewrittenFileIsReloaded() throws Exception {
+    // given
+    Files.writeString(csvFile, String.join("\n",
+        VALID_HEADERS,
+        "10,Ann,Other,90000,",
+        "11,Ben,Other,50000,10",
+        ""), StandardCharsets.UTF_8);
+
+    // when
+    String result = watchRunner.update();
+
+    // then
+    assertEquals("----- Reloaded employees from CSV file: " + csvFile + " -----", result);
+    assertTrue(watchRunner.getModel().contains(11));
+    assertEquals(2, watchRunner.getModel().size());
+  }
+
+  @Test
+  void testDuplicateRowFallsBackToFullLoad() throws Exception {
+    // given
+    append("3,Martin,Chekov,40000,2\n");
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        watchRunner::update);
+
+    // then
+    assertTrue(exception.getMessage().contains("Duplicate"), exception.getMessage());
+    assertEquals(3, watchRunner.getModel().size());
+  }
+
+  @Test
+  void testFailedReloadLeavesModelAndTailUnchanged() throws Exception {
+    // given
+    String reportBefore = watchRunner.getModel().salaryReport();
+    append("4,Bob,Ronstad,30000,3\n3,Martin,Chekov,40000,2\n");
+
+    // when
+    assertThrows(FileValidationException.class, watchRunner::update);
+    FileValidationException again = assertThrows(FileValidationException.class,
+        watchRunner::update);
+
+    // then
+    assertTrue(again.getMessage().contains("Duplicate"), again.getMessage());
+    assertEquals(3, watchRunner.getModel().size());
+    assertFalse(watchRunner.getModel().contains(4));
+    assertEquals(reportBefore, watchRunner.getModel().salaryReport());
+  }
+
+  @Test
+  void testAppendedRowsRespectTheEmployeeLimit() throws Exception {
+    // given
+    repository = new EmployeeRepository(4);
+    watchRunner = new WatchRunner(repository, csvFile.toString());
+    watchRunner.load();
+    append("4,Bob,Ronstad,30000,3\n5,Alice,Hasacat,20000,4\n");
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        watchRunner::update);
+
+    // then
+    assertEquals("Input file contains more than 4 employee records.", exception.getMessage());
+    assertEquals(3, watchRunner.getModel().size());
+  }
+
+  @Test
+  void testReportingCycleInBatchTriggersReload() throws Exception {
+    // given
+    append("4,Bob,Ronstad,30000,5\n5,Alice,Hasacat,20000,4\n");
+
+    // when
+    assertThrows(RuntimeException.class, watchRunner::update);
+
+    // then
+    assertFalse(watchRunner.getModel().contains(4));
+    assertFalse(watchRunner.getModel().contains(5));
+    assertEquals(3, watchRunner.getModel().size());
+  }
+
+  @Test
+  void testBlankAppendedLineTriggersReload() throws Exception {
+    // given
+    append("4,Bob,Ronstad,30000,3\n\n");
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        watchRunner::update);
+
+    // then
+    assertTrue(exception.getMessage().contains("Incorrect column count on line 6"),
+        exception.getMessage());
+    assertEquals(3, watchRunner.getModel().size());
+  }
+
+  private void assertMatchesFullAnalysis() {
+    OrgSnapshot org = repository.createOrgSnapshot(csvFile.toString());
+    assertEquals(new SalaryAnalyzer().analyzeSalaries(org),
+        watchRunner.getModel().salaryReport());
+    assertEquals(new ReportingLineAnalyzer().analyzeReportingLines(org),
+        watchRunner.getModel().reportingLineReport());
+  }
+
+  private void append(String rows) throws Exception {
+    Files.writeString(csvFile, rows, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+  }
+}
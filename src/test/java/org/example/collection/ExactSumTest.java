@@ -0,0 +1,117 @@
+package org.example.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class ExactSumTest {
+
+  @Test
+  void testRunningSumMatchesFreshExactSum() {
+    // given
+    Random random = new Random(5);
+    ExactSum running = new ExactSum();
+    List<Double> values = new ArrayList<>();
+
+    for (int step = 0; step < 20_000; step++) {
+      // when
+      if (values.isEmpty() || random.nextInt(3) > 0) {
+        double value = random.nextInt(20_000_000) / 100.0 * (random.nextInt(50) == 0 ? 1e9 : 1);
+        running.add(value);
+        values.add(value);
+      } else {
+        running.subtract(values.remove(random.nextInt(values.size())));
+      }
+
+      // then
+      if (step % 500 == 0) {
+        Collections.shuffle(values, random);
+        ExactSum fresh = new ExactSum();
+        BigDecimal exact = BigDecimal.ZERO;
+        for (double value : values) {
+          fresh.add(value);
+          exact = exact.add(new BigDecimal(value));
+        }
+        assertEquals(exact.doubleValue(), fresh.sum());
+        assertEquals(fresh.sum(), running.sum());
+      }
+    }
+  }
+
+  @Test
+  void testRoundsTiesToEven() {
+    // given
+    ExactSum sum = new ExactSum();
+    double halfUlp = Math.ulp(1.0) / 2;
+
+    // when
+    sum.add(1.0);
+    sum.add(halfUlp);
+    double tie = sum.sum();
+    sum.add(halfUlp * halfUlp);
+
+    // then
+    assertEquals(1.0, tie);
+    assertEquals(Math.nextUp(1.0), sum.sum(), "just above the tie rounds up");
+  }
+
+  @Test
+  void testCancellationKeepsSmallValues() {
+    // given
+    ExactSum sum = new ExactSum();
+
+    // when
+    sum.add(1e100);
+    sum.add(0.1);
+    sum.add(-1e100);
+
+    // then
+    assertEquals(0.1, sum.sum());
+  }
+
+  @Test
+  void testInfinitiesAndNanCanBeSubtractedAgain() {
+    // given
+    ExactSum sum = new ExactSum();
+    sum.add(5);
+
+    // when
+    sum.add(Double.POSITIVE_INFINITY);
+    double positive = sum.sum();
+    sum.add(Double.NEGATIVE_INFINITY);
+    double both = sum.sum();
+    sum.subtract(Double.POSITIVE_INFINITY);
+    sum.subtract(Double.NEGATIVE_INFINITY);
+    sum.add(Double.NaN);
+    double nan = sum.sum();
+    sum.subtract(Double.NaN);
+
+    // then
+    assertEquals(Double.POSITIVE_INFINITY, positive);
+    assertEquals(Double.NaN, both);
+    assertEquals(Double.NaN, nan);
+    assertEquals(5, sum.sum());
+  }
+
+  @Test
+  void testOverflowStaysInfiniteUntilReset() {
+    // given
+    ExactSum sum = new ExactSum();
+
+    // when
+    sum.add(Double.MAX_VALUE);
+    sum.add(Double.MAX_VALUE);
+    double overflow = sum.sum();
+    sum.reset();
+    sum.add(1);
+
+    // then
+    assertEquals(Double.POSITIVE_INFINITY, overflow);
+    assertEquals(1, sum.sum());
+  }
+}
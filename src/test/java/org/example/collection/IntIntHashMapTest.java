@@ -0,0 +1,87 @@
+package org.example.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class IntIntHashMapTest {
+
+  @Test
+  void testPutGetAndRemove() {
+    // given
+    IntIntHashMap map = new IntIntHashMap(2);
+
+    // when
+    map.put(7, 70);
+    map.put(0, 1);
+    map.put(-3, 30);
+    map.put(7, 71);
+
+    // then
+    assertEquals(3, map.size());
+    assertEquals(71, map.get(7, -1));
+    assertEquals(1, map.get(0, -1));
+    assertEquals(30, map.get(-3, -1));
+    assertEquals(-1, map.get(8, -1));
+    assertTrue(map.remove(0));
+    assertFalse(map.remove(0));
+    assertFalse(map.containsKey(0));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void testMatchesHashMapUnderChurn() {
+    // given
+    SplittableRandom random = new SplittableRandom(42);
+    IntIntHashMap map = new IntIntHashMap(0);
+    Map<Integer, Integer> expected = new HashMap<>();
+
+    // when
+    for (int i = 0; i < 200_000; i++) {
+      // a small key range makes long probe runs and many removals inside them
+      int key = random.nextInt(-2000, 2000);
+      if (random.nextInt(3) == 0) {
+        assertEquals(expected.remove(key) != null, map.remove(key));
+      } else {
+        map.put(key, i);
+        expected.put(key, i);
+      }
+    }
+
+    // then
+    assertEquals(expected.size(), map.size());
+    for (int key = -2000; key < 2000; key++) {
+      assertEquals(expected.getOrDefault(key, Integer.MIN_VALUE),
+          map.get(key, Integer.MIN_VALUE));
+    }
+  }
+
+  @Test
+  void testClearKeepsTheMapUsable() {
+    // given
+    IntIntHashMap map = new IntIntHashMap(100);
+    for (int key = 0; key < 100; key++) {
+      map.put(key, key);
+    }
+
+    // when
+    map.clear();
+    map.put(5, 6);
+
+    // then
+    assertEquals(1, map.size());
+    assertEquals(6, map.get(5, -1));
+    assertFalse(map.containsKey(0));
+  }
+
+  @Test
+  void testConstructorRejectsNegativeSizes() {
+    assertThrows(IllegalArgumentException.class, () -> new IntIntHashMap(-1));
+  }
+}
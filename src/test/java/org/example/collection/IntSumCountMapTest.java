@@ -0,0 +1,72 @@
+package org.example.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+class IntSumCountMapTest {
+
+  @Test
+  void testAccumulatesSumsAndCountsPerKey() {
+    // given
+    IntSumCountMap teams = new IntSumCountMap(1);
+
+    // when
+    teams.add(1, 100);
+    teams.add(2, 40);
+    teams.add(1, 50);
+    teams.add(3, 10);
+
+    // then
+    assertEquals(3, teams.size());
+    assertEquals(150, teams.sum(1));
+    assertEquals(2, teams.count(1));
+    assertEquals(75, teams.average(1));
+    assertEquals(40, teams.average(2));
+    assertEquals(0, teams.count(4));
+    assertEquals(Double.NaN, teams.average(4));
+  }
+
+  @Test
+  void testSubtractRemovesKeysWithoutValues() {
+    // given
+    IntSumCountMap teams = new IntSumCountMap(4);
+    teams.add(1, 0.1);
+    teams.add(2, 20);
+    teams.add(3, 30);
+    teams.add(1, 0.2);
+
+    // when
+    teams.subtract(1, 0.2);
+    teams.subtract(1, 0.1);
+    teams.add(1, 5);
+
+    // then
+    assertEquals(3, teams.size());
+    assertEquals(5, teams.sum(1), "a removed key starts again from zero");
+    assertEquals(1, teams.count(1));
+    assertEquals(20, teams.sum(2));
+    assertEquals(30, teams.sum(3));
+    assertThrows(IllegalStateException.class, () -> teams.subtract(4, 1));
+  }
+
+  @Test
+  void testSumsDoNotDriftUnderChurn() {
+    // given
+    IntSumCountMap teams = new IntSumCountMap(2);
+    teams.add(7, 0.3);
+
+    // when
+    for (int i = 0; i < 1000; i++) {
+      teams.add(7, 0.1 * i);
+      teams.add(8, 0.7);
+      teams.subtract(7, 0.1 * i);
+    }
+
+    // then
+    assertEquals(0.3, teams.sum(7));
+    assertEquals(1, teams.count(7));
+    assertEquals(1000, teams.count(8));
+  }
+}
@@ -0,0 +1,97 @@
+package org.example.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunMetricsTest {
+
+  @Test
+  void testCollectingMetricsRecordPhases() {
+    // given
+    RunMetrics metrics = RunMetrics.collecting();
+
+    // when
+    RunMetrics.Phase parse = metrics.start(RunMetrics.PARSE);
+    int[][] rows = new int[1000][10];
+    parse.end(rows.length, 4096);
+    metrics.start(RunMetrics.LINK).end(1000, -1);
+
+    // then
+    List<PhaseStats> phases = metrics.getPhases();
+    assertEquals(2, phases.size());
+    assertEquals(RunMetrics.PARSE, phases.get(0).getName());
+    assertEquals(1000, phases.get(0).getRows());
+    assertEquals(4096, phases.get(0).getBytesRead());
+    assertTrue(phases.get(0).getWallNanos() >= 0);
+    assertTrue(phases.get(0).getAllocatedBytes() >= 1000 * 10 * Integer.BYTES,
+        "allocated " + phases.get(0).getAllocatedBytes());
+    assertEquals(-1, phases.get(1).getBytesRead());
+    assertTrue(phases.get(0).getGcCount() >= 0);
+    assertTrue(phases.get(0).getGcMillis() >= 0);
+    assertTrue(phases.get(0).getPeakRssKilobytes() != 0);
+  }
+
+  @Test
+  void testDisabledMetricsRecordNothing() {
+    // when
+    RunMetrics.DISABLED.start(RunMetrics.PARSE).end(10, 100);
+
+    // then
+    assertFalse(RunMetrics.DISABLED.isCollecting());
+    assertEquals(List.of(), RunMetrics.DISABLED.getPhases());
+    assertEquals("{\"phases\":[]}", RunMetrics.DISABLED.toJson());
+  }
+
+  @Test
+  void testJsonSummary() {
+    // given
+    RunMetrics metrics = RunMetrics.collecting();
+    metrics.start(RunMetrics.ANALYSIS).end(5, -1);
+
+    // when
+    String json = metrics.toJson();
+
+    // then
+    assertTrue(json.matches("\\{\"phases\":\\[\\{\"name\":\"analysis\","
+        + "\"wallMillis\":\\d+\\.\\d\\d,"
+        + "\"rows\":5,\"rowsPerSecond\":\\d+\\.\\d\\d,\"bytesRead\":-1,"
+        + "\"allocatedBytes\":-?\\d+,\"gcCount\":\\d+,\"gcMillis\":\\d+,"
+        + "\"peakRssKilobytes\":-?\\d+}]}"), json);
+  }
+
+  @Test
+  void testPhasesAreFlightRecorderEvents(@TempDir Path directory) throws Exception {
+    // given
+    Path dump = directory.resolve("phases.jfr");
+
+    // when
+    try (Recording recording = new Recording()) {
+      recording.enable(PhaseEvent.class);
+      recording.start();
+      RunMetrics.DISABLED.start(RunMetrics.PARSE).end(3, 120);
+      RunMetrics.collecting().start(RunMetrics.LINK).end(3, -1);
+      recording.stop();
+      recording.dump(dump);
+    }
+
+    // then
+    List<RecordedEvent> events = RecordingFile.readAllEvents(dump).stream()
+        .filter(event -> event.getEventType().getName().equals("org.example.Phase"))
+        .collect(Collectors.toList());
+    assertEquals(2, events.size());
+    assertEquals(RunMetrics.PARSE, events.get(0).getString("phase"));
+    assertEquals(120, events.get(0).getLong("bytesRead"));
+    assertEquals(RunMetrics.LINK, events.get(1).getString("phase"));
+    assertEquals(3, events.get(1).getLong("rows"));
+  }
+}
@@ -0,0 +1,38 @@
+package org.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class NameArenaTest {
+
+  @Test
+  void testNamesAreDecodedFromTheirRanges() {
+    // given
+    byte[] bytes = "JaneSmithZoëÆrøAl".getBytes(StandardCharsets.UTF_8);
+    int[] offsets = {0, 4, 9, 13, 18, 20, 20};
+
+    // when
+    NameArena names = NameArena.of(bytes, offsets);
+
+    // then
+    assertEquals(3, names.size());
+    assertEquals("Jane", names.firstName(0));
+    assertEquals("Smith", names.lastName(0));
+    assertEquals("Zoë", names.firstName(1));
+    assertEquals("Ærø", names.lastName(1));
+    assertEquals("Al", names.firstName(2));
+    assertEquals("", names.lastName(2));
+  }
+
+  @Test
+  void testOfRejectsInvalidOffsets() {
+    byte[] bytes = new byte[4];
+    assertThrows(IllegalArgumentException.class, () -> NameArena.of(bytes, new int[]{0, 2}));
+    assertThrows(IllegalArgumentException.class, () -> NameArena.of(bytes, new int[]{1, 2, 3}));
+    assertThrows(IllegalArgumentException.class, () -> NameArena.of(bytes, new int[]{0, 3, 2}));
+    assertThrows(IllegalArgumentException.class, () -> NameArena.of(bytes, new int[]{0, 2, 5}));
+  }
+}
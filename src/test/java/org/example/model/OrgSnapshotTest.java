@@ -0,0 +1,156 @@
+package org.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.exception.EmployeeValidationException;
+import org.junit.jupiter.api.Test;
+
+class OrgSnapshotTest {
+
+  @Test
+  void testFromEmployeesSortsByIdAndLinksChildren() {
+    // given
+    Map<Integer, Employee> employees = new HashMap<>();
+    employees.put(30, new Employee(30, "Charlie", "Brown", 70000, 10));
+    employees.put(10, new Employee(10, "Alice", "Smith", 90000, null));
+    employees.put(20, new Employee(20, "Bob", "Jones", 80000, 10));
+    employees.put(40, new Employee(40, "David", "Wilson", 60000, 99));
+
+    // when
+    OrgSnapshot org = OrgSnapshot.fromEmployees(employees);
+
+    // then
+    assertEquals(4, org.size());
+    assertEquals(10, org.id(0));
+    assertEquals(40, org.id(3));
+    assertEquals("Bob", org.firstName(org.indexOf(20)));
+    assertEquals(OrgSnapshot.NO_PARENT, org.parent(org.indexOf(10)));
+    assertEquals(OrgSnapshot.NO_PARENT, org.parent(org.indexOf(40)));
+    assertEquals(0, org.parent(org.indexOf(30)));
+    assertEquals(2, org.childCount(0));
+    assertEquals(1, org.child(org.childStart(0)));
+    assertEquals(2, org.child(org.childStart(0) + 1));
+    assertEquals(0, org.childCount(3));
+    assertEquals(-1, org.indexOf(99));
+  }
+
+  @Test
+  void testOfNameArenaDecodesNamesOnDemand() {
+    // given
+    NameArena names = NameArena.of("AliceSmithBobJones".getBytes(StandardCharsets.UTF_8),
+        new int[]{0, 5, 10, 13, 18});
+
+    // when
+    OrgSnapshot org = OrgSnapshot.of(new int[]{10, 20}, names, new double[]{90000, 80000},
+        new int[]{-1, 0});
+
+    // then
+    assertEquals("Alice", org.firstName(0));
+    assertEquals("Jones", org.lastName(1));
+    assertEquals("Bob", org.toEmployeesMap().get(20).getFirstName());
+    assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.of(new int[]{10}, names,
+        new double[1], new int[]{-1}));
+  }
+
+  @Test
+  void testOfRejectsUnsortedIds() {
+    assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.of(
+        new int[]{2, 1}, new String[2], new String[2], new double[2], new int[]{-1, 0}));
+  }
+
+  @Test
+  void testOfRejectsParentOutOfRange() {
+    assertThrows(IllegalArgumentException.class, () -> OrgSnapshot.of(
+        new int[]{1, 2}, new String[2], new String[2], new double[2], new int[]{-1, 5}));
+  }
+
+  @Test
+  void testOfRejectsCyclesAndReportsInvolvedIds() {
+    // given
+    int[] ids = {1, 2, 3, 4, 5};
+    int[] parents = {-1, 2, 3, 1, 3};
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class,
+        () -> OrgSnapshot.of(ids, new String[5], new String[5], new double[5], parents));
+
+    // then
+    assertEquals("Reporting line cycle detected among employees [2, 3, 4]. "
+        + "Employees reporting into the cycle: [5].", exception.getMessage());
+  }
+
+  @Test
+  void testSelfManagedEmployeeIsACycle() {
+    // given
+    Map<Integer, Employee> employees = new HashMap<>();
+    employees.put(1, new Employee(1, "Alice", "Smith", 90000, null));
+    employees.put(2, new Employee(2, "Bob", "Jones", 80000, 2));
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class,
+        () -> OrgSnapshot.fromEmployees(employees));
+
+    // then
+    assertEquals("Reporting line cycle detected among employees [2].", exception.getMessage());
+  }
+
+  @Test
+  void testToEmployeesMapLinksSubordinates() {
+    // given
+    OrgSnapshot org = OrgSnapshot.of(new int[]{1, 2, 3}, new String[]{"A", "B", "C"},
+        new String[]{"X", "Y", "Z"}, new double[]{3, 2, 1}, new int[]{-1, 0, 0});
+
+    // when
+    Map<Integer, Employee> employees = org.toEmployeesMap();
+
+    // then
+    assertEquals(3, employees.size());
+    assertEquals(List.of(employees.get(2), employees.get(3)),
+        employees.get(1).getSubordinates());
+    assertEquals(Integer.valueOf(1), employees.get(3).getManagerId());
+    assertNull(employees.get(1).getManagerId());
+  }
+
+  @Test
+  void testDepthsAreComputedTopDown() {
+    // given
+    OrgSnapshot org = OrgSnapshot.of(new int[]{1, 2, 3, 4, 5}, new String[5], new String[5],
+        new double[5], new int[]{3, 0, -1, 2, 0});
+
+    // then
+    assertArrayEquals(new int[]{2, 3, 0, 1, 3}, org.depths());
+    assertEquals(3, org.maxDepth());
+    assertEquals(2, org.topDown(0));
+    for (int position = 1; position < org.size(); position++) {
+      assertTrue(org.depth(org.topDown(position - 1)) <= org.depth(org.topDown(position)));
+    }
+  }
+
+  @Test
+  void testDepthsOfVeryDeepChainDoNotOverflowTheStack() {
+    // given
+    int size = 500_000;
+    int[] ids = new int[size];
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i;
+      parents[i] = i - 1;
+    }
+
+    // when
+    OrgSnapshot org = OrgSnapshot.of(ids, new String[size], new String[size], new double[size],
+        parents);
+
+    // then
+    assertEquals(size - 1, org.depth(size - 1));
+    assertEquals(size - 1, org.maxDepth());
+  }
+}
@@ -0,0 +1,113 @@
+package org.example.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import org.example.model.ReportingLineViolation;
+import org.example.model.SalaryViolation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class TextReportWriterTest {
+
+  @Test
+  void testLinesMatchStringFormat() throws Exception {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextReportWriter writer = new TextReportWriter(out, StandardCharsets.UTF_8, Locale.ROOT, "\n");
+
+    // when
+    writer.accept(new SalaryViolation(5, "Alice", "Hasacat", SalaryViolation.Kind.UNDERPAID,
+        4000));
+    writer.accept(new SalaryViolation(-7, "Zoë", "Ærø", SalaryViolation.Kind.OVERPAID, 0.125));
+    writer.accept(new ReportingLineViolation(Integer.MAX_VALUE, "Brett", "Hardleaf", 12));
+    writer.flush();
+
+    // then
+    assertEquals("5|Alice Hasacat earns less than they should by 4000.00\n"
+            + "-7|Zoë Ærø earns more than they should by 0.13\n"
+            + "2147483647|Brett Hardleaf has a reporting line that is too long by 12 levels\n",
+        out.toString(StandardCharsets.UTF_8));
+  }
+
+  @ParameterizedTest
+  @ValueSource(doubles = {0, 0.005, 0.015, 0.125, 1.005, 2.675, 1.115, 0.994999, 99.995, 1e-7,
+      4000, 12345.675, 999999999.995, 1e9, 1e15, 1e300, Double.MIN_VALUE, Double.MAX_VALUE})
+  void testAmountsMatchStringFormat(double amount) throws Exception {
+    assertEquals(String.format(Locale.ROOT, "%.2f", amount), formatAmount(amount, Locale.ROOT));
+  }
+
+  @Test
+  void testRandomAmountsMatchStringFormat() throws Exception {
+    Random random = new Random(7);
+    for (int i = 0; i < 100_000; i++) {
+      double amount = i % 2 == 0
+          ? random.nextInt(100_000_000) / 1000.0
+          : random.nextDouble() * Math.pow(10, random.nextInt(12));
+      assertEquals(String.format(Locale.ROOT, "%.2f", amount), formatAmount(amount, Locale.ROOT),
+          "amount " + amount);
+    }
+  }
+
+  @Test
+  void testHalfCentAmountsAreNotPlain() {
+    assertFalse(TextReportWriter.isPlainAmount(0.125));
+    assertFalse(TextReportWriter.isPlainAmount(1.005));
+    assertFalse(TextReportWriter.isPlainAmount(1e9));
+    assertFalse(TextReportWriter.isPlainAmount(Double.NaN));
+    assertTrue(TextReportWriter.isPlainAmount(4000));
+  }
+
+  @Test
+  void testOtherLocalesAndCharsetsFallBackToStringFormat() throws Exception {
+    assertEquals(String.format(Locale.GERMANY, "%.2f", 1234.5),
+        formatAmount(1234.5, Locale.GERMANY));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextReportWriter writer = new TextReportWriter(out, StandardCharsets.UTF_16BE, Locale.ROOT,
+        "\n");
+    writer.accept(new ReportingLineViolation(6, "Brett", "Hardleaf", 1));
+    writer.flush();
+    assertEquals("6|Brett Hardleaf has a reporting line that is too long by 1 levels\n",
+        out.toString(StandardCharsets.UTF_16BE));
+  }
+
+  @Test
+  void testOutputLargerThanBuffer() throws Exception {
+    // given
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextReportWriter writer = new TextReportWriter(out, StandardCharsets.UTF_8, Locale.ROOT, "\n");
+    StringBuilder expected = new StringBuilder();
+    String longName = "N".repeat(100_000);
+
+    // when
+    for (int id = 0; id < 5_000; id++) {
+      String name = id == 2_500 ? longName : "Name" + id;
+      writer.accept(new SalaryViolation(id, name, "Last", SalaryViolation.Kind.OVERPAID,
+          id * 1.5));
+      expected.append(String.format(Locale.ROOT,
+          "%d|%s %s earns more than they should by %.2f\n", id, name, "Last", id * 1.5));
+    }
+    writer.flush();
+
+    // then
+    assertEquals(expected.toString(), out.toString(StandardCharsets.UTF_8));
+  }
+
+  private static String formatAmount(double amount, Locale locale) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Charset charset = StandardCharsets.UTF_8;
+    TextReportWriter writer = new TextReportWriter(out, charset, locale, "");
+    writer.accept(new SalaryViolation(1, "A", "B", SalaryViolation.Kind.UNDERPAID, amount));
+    writer.flush();
+    String line = out.toString(charset);
+    return line.substring(line.lastIndexOf(' ') + 1);
+  }
+}
@@ -0,0 +1,112 @@
+package org.example.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.example.model.ReportingLineViolation;
+import org.example.model.SalaryViolation;
+import org.example.model.SalaryViolation.Kind;
+import org.junit.jupiter.api.Test;
+
+class TopViolationsTest {
+
+  @Test
+  void testKeepsWorstViolationsRanked() {
+    // given
+    Random random = new Random(11);
+    List<SalaryViolation> salaryViolations = new ArrayList<>();
+    List<ReportingLineViolation> lineViolations = new ArrayList<>();
+    for (int id = 1; id <= 10_000; id++) {
+      Kind kind = random.nextBoolean() ? Kind.OVERPAID : Kind.UNDERPAID;
+      // few distinct amounts and depths, so ties have to be broken by id
+      salaryViolations.add(new SalaryViolation(id, "First" + id, "Last" + id, kind,
+          random.nextInt(500) * 10.0));
+      lineViolations.add(new ReportingLineViolation(id, "First" + id, "Last" + id,
+          1 + random.nextInt(20)));
+    }
+    TopViolations top = new TopViolations(50);
+
+    // when
+    salaryViolations.forEach(top::accept);
+    lineViolations.forEach(top::accept);
+
+    // then
+    Comparator<SalaryViolation> byAmount = Comparator
+        .comparingDouble(SalaryViolation::amount).reversed()
+        .thenComparingInt(SalaryViolation::id);
+    assertEquals(salaryViolations.stream().filter(v -> v.kind() == Kind.OVERPAID).sorted(byAmount)
+        .limit(50).collect(Collectors.toList()), top.overpaid());
+    assertEquals(salaryViolations.stream().filter(v -> v.kind() == Kind.UNDERPAID)
+        .sorted(byAmount).limit(50).collect(Collectors.toList()), top.underpaid());
+    assertEquals(lineViolations.stream()
+        .sorted(Comparator.comparingInt(ReportingLineViolation::excessDepth).reversed()
+            .thenComparingInt(ReportingLineViolation::id))
+        .limit(50).collect(Collectors.toList()), top.longestReportingLines());
+  }
+
+  @Test
+  void testFewerViolationsThanLimit() {
+    // given
+    TopViolations top = new TopViolations(5);
+
+    // when
+    top.accept(new SalaryViolation(2, "John", "Doe", Kind.OVERPAID, 10.0));
+    top.accept(new SalaryViolation(1, "Jane", "Smith", Kind.OVERPAID, 20.0));
+
+    // then
+    assertEquals(List.of(1, 2), top.overpaid().stream().map(SalaryViolation::id)
+        .collect(Collectors.toList()));
+    assertEquals(List.of(), top.underpaid());
+    assertEquals(List.of(), top.longestReportingLines());
+  }
+
+  @Test
+  void testRankingIsRepeatable() {
+    // given
+    TopViolations top = new TopViolations(2);
+    top.accept(new ReportingLineViolation(1, "Jane", "Smith", 1));
+    top.accept(new ReportingLineViolation(2, "John", "Doe", 3));
+    top.accept(new ReportingLineViolation(3, "Bob", "Ronstad", 2));
+
+    // when
+    List<ReportingLineViolation> first = top.longestReportingLines();
+    List<ReportingLineViolation> second = top.longestReportingLines();
+
+    // then
+    assertEquals(List.of(2, 3), first.stream().map(ReportingLineViolation::id)
+        .collect(Collectors.toList()));
+    assertEquals(first, second);
+  }
+
+  @Test
+  void testMergedPartsRankLikeOneRanking() {
+    // given
+    Random random = new Random(5);
+    TopViolations whole = new TopViolations(20);
+    TopViolations merged = new TopViolations(20);
+    List<TopViolations> parts = List.of(merged.newPart(), merged.newPart(), merged.newPart());
+    for (int id = 1; id <= 3_000; id++) {
+      ReportingLineViolation violation = new ReportingLineViolation(id, "First" + id,
+          "Last" + id, 1 + random.nextInt(10));
+      whole.accept(violation);
+      parts.get(random.nextInt(parts.size())).accept(violation);
+    }
+
+    // when
+    parts.forEach(merged::merge);
+
+    // then
+    assertEquals(whole.longestReportingLines(), merged.longestReportingLines());
+    assertEquals(20, parts.get(0).longestReportingLines().size());
+  }
+
+  @Test
+  void testInvalidLimitIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new TopViolations(0));
+  }
+}
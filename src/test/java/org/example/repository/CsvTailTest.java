@@ -0,0 +1,208 @@
+package org.example.repository;
+
+import static org.example.Constants.VALID_HEADERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.exception.FileValidationException;
+import org.example.model.OrgEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvTailTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testReadsOnlyAppendedCompleteRows() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+
+    // when
+    append(file, "2,John,Doe,55000,1\n3,Martin,Che");
+    List<OrgEvent.Hire> first = tail.readAppendedRows();
+    append(file, "kov,40000,2\n");
+    List<OrgEvent.Hire> second = tail.readAppendedRows();
+    List<OrgEvent.Hire> third = tail.readAppendedRows();
+
+    // then
+    assertEquals(List.of(new OrgEvent.Hire(2, "John", "Doe", 55000, 1)), first);
+    assertEquals(List.of(new OrgEvent.Hire(3, "Martin", "Chekov", 40000, 2)), second);
+    assertEquals(List.of(), third);
+    assertEquals(Files.size(file), tail.getOffset());
+  }
+
+  @Test
+  void testPeekedRowsAreReadAgainUntilAdvanced() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+    long start = tail.getOffset();
+    append(file, "2,John,Doe,55000,1\n");
+
+    // when
+    List<OrgEvent.Hire> first = tail.peekAppendedRows();
+    List<OrgEvent.Hire> second = tail.peekAppendedRows();
+    long beforeAdvance = tail.getOffset();
+    tail.advance();
+
+    // then
+    assertEquals(List.of(new OrgEvent.Hire(2, "John", "Doe", 55000, 1)), first);
+    assertEquals(first, second);
+    assertEquals(start, beforeAdvance);
+    assertEquals(Files.size(file), tail.getOffset());
+    assertEquals(List.of(), tail.peekAppendedRows());
+    assertThrows(IllegalStateException.class, () -> {
+      tail.advance();
+      tail.advance();
+    });
+  }
+
+  @Test
+  void testSkipToEndLeavesIncompleteLastLine() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n2,John,Doe,5");
+    CsvTail tail = new CsvTail(file);
+
+    // when
+    tail.skipToEnd();
+    append(file, "5000,1\r\n");
+
+    // then
+    assertEquals(List.of(new OrgEvent.Hire(2, "John", "Doe", 55000, 1)), tail.readAppendedRows());
+  }
+
+  @Test
+  void testDetectsTruncatedAndRewrittenFiles() throws Exception {
+    // given
+    Path file = write("employees.csv",
+        VALID_HEADERS + "\n1,Jane,Smith,70000,\n2,John,Doe,55000,1\n");
+    CsvTail truncated = new CsvTail(file);
+    truncated.skipToEnd();
+    CsvTail rewritten = new CsvTail(file);
+    rewritten.skipToEnd();
+
+    // when
+    write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    assertThrows(CsvTail.RewrittenException.class, truncated::readAppendedRows);
+    write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n2,John,Dot,55000,1\n"
+        + "3,Martin,Chekov,40000,2\n");
+
+    // then
+    assertThrows(CsvTail.RewrittenException.class, rewritten::readAppendedRows);
+  }
+
+  @Test
+  void testMalformedRowsAreRejectedWithLineNumber() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+    append(file, "2,John,Doe,55000,1\n3,Martin,Chekov\n");
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        tail::readAppendedRows);
+
+    // then
+    assertEquals("Incorrect column count on line 4. Expected 5 columns, but found 3 columns.",
+        exception.getMessage());
+  }
+
+  @Test
+  void testBlankLinesAreRejectedLikeInFullLoad() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+    append(file, "2,John,Doe,55000,1\n \r\n");
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        tail::readAppendedRows);
+
+    // then
+    assertEquals("Incorrect column count on line 4. Expected 5 columns, but found 1 columns.",
+        exception.getMessage());
+  }
+
+  @Test
+  void testMalformedUtf8IsRejected() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+    long start = tail.getOffset();
+    Files.write(file, new byte[]{'2', ',', 'J', (byte) 0xC3, ',', 'D', ',', '1', ',', '1', '\n'},
+        StandardOpenOption.APPEND);
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        tail::readAppendedRows);
+
+    // then
+    assertTrue(exception.getMessage().startsWith("Line 3 is not valid UTF-8"),
+        exception.getMessage());
+    assertEquals(start, tail.getOffset());
+  }
+
+  @Test
+  void testRowsSpanningReadChunksAreParsed() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+    StringBuilder rows = new StringBuilder();
+    List<OrgEvent.Hire> expected = new ArrayList<>();
+    for (int id = 2; rows.length() < 200_000; id++) {
+      String firstName = "Ann\u00e9".repeat(id % 7 + 1);
+      rows.append(id).append(',').append(firstName).append(",Long,").append(1000 + id)
+          .append(",1\n");
+      expected.add(new OrgEvent.Hire(id, firstName, "Long", 1000 + id, 1));
+    }
+    append(file, rows + "99999,Half,Writ");
+
+    // when
+    List<OrgEvent.Hire> hires = tail.readAppendedRows();
+
+    // then
+    assertEquals(expected, hires);
+    assertEquals(Files.size(file) - "99999,Half,Writ".length(), tail.getOffset());
+  }
+
+  @Test
+  void testSecondCeoIsRejected() throws Exception {
+    // given
+    Path file = write("employees.csv", VALID_HEADERS + "\n1,Jane,Smith,70000,\n");
+    CsvTail tail = new CsvTail(file);
+    tail.skipToEnd();
+    append(file, "2,John,Doe,55000,\n");
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class,
+        tail::readAppendedRows);
+
+    // then
+    assertEquals("Multiple CEOs found. Only one CEO without a managerId is allowed.",
+        exception.getMessage());
+  }
+
+  private Path write(String name, String content) throws Exception {
+    return Files.writeString(directory.resolve(name), content, StandardCharsets.UTF_8);
+  }
+
+  private static void append(Path file, String content) throws Exception {
+    Files.writeString(file, content, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+  }
+}
@@ -6,19 +6,28 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import org.example.exception.EmployeeValidationException;
 import org.example.exception.FileReaderException;
 import org.example.exception.FileValidationException;
+import org.example.metrics.RunMetrics;
 import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 
@@ -224,4 +233,559 @@ class EmployeeRepositoryTest {
         , exception.getMessage());
   }
 
+  @Test
+  void testCreateEmployeesMapWithMoreRowsThanAllowed() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-row-limit", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "1,Jane,Smith,65000,",
+        "2,John,Doe,55000,1",
+        "3,Bob,Ronstad,45000,1"));
+    String filePath = tempFile.toString();
+    EmployeeRepository limitedRepository = new EmployeeRepository(2);
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class, () ->
+        limitedRepository.createEmployeesMap(filePath));
+
+    // then
+    assertEquals("Input file contains more than 2 employee records."
+        , exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testCreateEmployeesMapWithoutRowLimit() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-unlimited", ".csv");
+    List<String> lines = new ArrayList<>();
+    lines.add(VALID_HEADERS);
+    lines.add("1,Jane,Smith,65000,");
+    for (int id = 2; id <= 5000; id++) {
+      lines.add(id + ",John,Doe,55000," + (id / 2));
+    }
+    Files.write(tempFile, lines);
+    EmployeeRepository unlimitedRepository = new EmployeeRepository(EmployeeRepository.UNLIMITED);
+
+    // when
+    Map<Integer, Employee> result = unlimitedRepository.createEmployeesMap(tempFile.toString());
+
+    // then
+    assertEquals(5000, result.size());
+    assertEquals(2, result.get(1).getSubordinates().size());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testDefaultRepositoryRejectsMoreThanThousandEmployees() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-default-limit", ".csv");
+    List<String> lines = new ArrayList<>();
+    lines.add(VALID_HEADERS);
+    lines.add("1,Jane,Smith,65000,");
+    for (int id = 2; id <= 1001; id++) {
+      lines.add(id + ",John,Doe,55000,1");
+    }
+    Files.write(tempFile, lines);
+    String filePath = tempFile.toString();
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class, () ->
+        employeeRepository.createEmployeesMap(filePath));
+
+    // then
+    assertEquals("Input file contains more than 1000 employee records."
+        , exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @ParameterizedTest
+  @EnumSource(LoadMode.class)
+  void testLoadModesBuildTheSameEmployees(LoadMode loadMode) throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-load-modes", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "1,Jane,Smith,65000.50,",
+        "2,John,Doe,55000,1",
+        "3,Zoë,Ærø,45000,2"));
+    EmployeeRepository repository = new EmployeeRepository(10, loadMode);
+
+    // when
+    Map<Integer, Employee> result = repository.createEmployeesMap(tempFile.toString());
+
+    // then
+    assertEquals(3, result.size());
+    assertEquals(65000.50, result.get(1).getSalary());
+    assertEquals("Zoë", result.get(3).getFirstName());
+    assertEquals("Ærø", result.get(3).getLastName());
+    assertEquals(Integer.valueOf(2), result.get(3).getManagerId());
+    assertTrue(result.get(2).getSubordinates().contains(result.get(3)));
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @ParameterizedTest
+  @EnumSource(LoadMode.class)
+  void testLoadModesReportTheSameLineNumbers(LoadMode loadMode) throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-load-modes", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "1,Jane,Smith,65000,",
+        "",
+        "2,John,Doe,55000,1"));
+    Path numberFile = Files.createTempFile("test-load-modes", ".csv");
+    Files.write(numberFile, Arrays.asList(VALID_HEADERS,
+        "1,Jane,Smith,65000,",
+        "2,John,Doe,55k,1"));
+    EmployeeRepository repository = new EmployeeRepository(10, loadMode);
+
+    // when
+    FileValidationException columnException = assertThrows(FileValidationException.class, () ->
+        repository.createEmployeesMap(tempFile.toString()));
+    EmployeeValidationException numberException = assertThrows(
+        EmployeeValidationException.class, () ->
+            repository.createEmployeesMap(numberFile.toString()));
+
+    // then
+    assertEquals("Incorrect column count on line 3. Expected 5 columns, but found 1 columns."
+        , columnException.getMessage());
+    assertEquals("Error parsing number on line 3: For input string: \"55k\""
+        , numberException.getMessage());
+
+    Files.deleteIfExists(tempFile);
+    Files.deleteIfExists(numberFile);
+  }
+
+  @Test
+  void testMappedModeReportsMissingFileAndEmptyFile() throws Exception {
+    // given
+    EmployeeRepository repository = new EmployeeRepository(10, LoadMode.MAPPED);
+    Path emptyFile = Files.createTempFile("test-empty-file", ".csv");
+
+    // when
+    FileReaderException missingException = assertThrows(FileReaderException.class, () ->
+        repository.createEmployeesMap("notExist"));
+    FileReaderException emptyException = assertThrows(FileReaderException.class, () ->
+        repository.createEmployeesMap(emptyFile.toString()));
+
+    // then
+    assertEquals("Failed to read the employee file: notExist", missingException.getMessage());
+    assertEquals("The file is empty. Please provide a file with at least headers."
+        , emptyException.getMessage());
+
+    Files.deleteIfExists(emptyFile);
+  }
+
+  @Test
+  void testParallelModeMatchesStreamingModeOnLargeFile() throws Exception {
+    // given
+    Path tempFile = writeLargeFile(200_000, null);
+    EmployeeRepository streaming = new EmployeeRepository(EmployeeRepository.UNLIMITED);
+    EmployeeRepository parallel = new EmployeeRepository(EmployeeRepository.UNLIMITED,
+        LoadMode.PARALLEL, 4);
+
+    // when
+    Map<Integer, Employee> expected = streaming.createEmployeesMap(tempFile.toString());
+    Map<Integer, Employee> actual = parallel.createEmployeesMap(tempFile.toString());
+
+    // then
+    assertEquals(expected.size(), actual.size());
+    expected.forEach((id, employee) -> {
+      Employee other = actual.get(id);
+      assertEquals(employee.getFirstName(), other.getFirstName());
+      assertEquals(employee.getSalary(), other.getSalary());
+      assertEquals(employee.getManagerId(), other.getManagerId());
+      assertEquals(employee.getSubordinates().size(), other.getSubordinates().size());
+    });
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testParallelModeReportsFileWideLineNumbers() throws Exception {
+    // given
+    Path tempFile = writeLargeFile(200_000, "199000,John,Doe,oops,1");
+    EmployeeRepository parallel = new EmployeeRepository(EmployeeRepository.UNLIMITED,
+        LoadMode.PARALLEL, 4);
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class, () ->
+        parallel.createEmployeesMap(tempFile.toString()));
+
+    // then
+    assertEquals("Error parsing number on line 199001: For input string: \"oops\""
+        , exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testParallelModeDetectsCeosAcrossSegments() throws Exception {
+    // given
+    Path tempFile = writeLargeFile(200_000, "199000,John,Doe,1000,");
+    EmployeeRepository parallel = new EmployeeRepository(EmployeeRepository.UNLIMITED,
+        LoadMode.PARALLEL, 4);
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class, () ->
+        parallel.createEmployeesMap(tempFile.toString()));
+
+    // then
+    assertEquals("Multiple CEOs found. Only one CEO without a managerId is allowed."
+        , exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testParallelModeAppliesRowLimit() throws Exception {
+    // given
+    Path tempFile = writeLargeFile(200_000, null);
+    EmployeeRepository parallel = new EmployeeRepository(150_000, LoadMode.PARALLEL, 4);
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class, () ->
+        parallel.createEmployeesMap(tempFile.toString()));
+
+    // then
+    assertEquals("Input file contains more than 150000 employee records."
+        , exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @ParameterizedTest
+  @EnumSource(LoadMode.class)
+  void testCreateOrgSnapshot(LoadMode loadMode) throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-snapshot", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "300,Alice,Hasacat,50000,124",
+        "123,Joe,Doe,60000,",
+        "124,Martin,Chekov,45000,123",
+        "125,Bob,Ronstad,47000,123"));
+    EmployeeRepository repository = new EmployeeRepository(10, loadMode);
+
+    // when
+    OrgSnapshot org = repository.createOrgSnapshot(tempFile.toString());
+
+    // then
+    assertEquals(4, org.size());
+    assertEquals(123, org.id(0));
+    assertEquals(300, org.id(3));
+    assertEquals("Alice", org.firstName(3));
+    assertEquals(OrgSnapshot.NO_PARENT, org.parent(0));
+    assertEquals(1, org.parent(3));
+    assertEquals(2, org.childCount(0));
+    assertEquals(47000, org.salary(org.indexOf(125)));
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testCompactModeKeepsNamesInIdOrder() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-compact", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "300,Zoë,Ærø,50000,124",
+        "123,Joe,,60000,",
+        "124,Martin,Chekov,45000,123",
+        "2,,Ronstad,47000,123"));
+    EmployeeRepository repository = new EmployeeRepository(10, LoadMode.COMPACT);
+
+    // when
+    OrgSnapshot org = repository.createOrgSnapshot(tempFile.toString());
+
+    // then
+    assertEquals(List.of("|Ronstad", "Joe|", "Martin|Chekov", "Zoë|Ærø"), List.of(
+        org.firstName(0) + "|" + org.lastName(0), org.firstName(1) + "|" + org.lastName(1),
+        org.firstName(2) + "|" + org.lastName(2), org.firstName(3) + "|" + org.lastName(3)));
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @ParameterizedTest
+  @EnumSource(value = LoadMode.class, names = {"MAPPED", "COMPACT"})
+  void testMappedModesRejectInvalidUtf8Names(LoadMode loadMode) throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-utf8", ".csv");
+    Files.write(tempFile, (VALID_HEADERS + "\n1,Jane,Smith,65000,\n2,Jo")
+        .getBytes(StandardCharsets.UTF_8));
+    Files.write(tempFile, new byte[]{(byte) 0xC3, '(', ',', 'D', 'o', 'e', ',', '5', ',', '1'},
+        StandardOpenOption.APPEND);
+    EmployeeRepository repository = new EmployeeRepository(10, loadMode);
+
+    // when
+    FileReaderException exception = assertThrows(FileReaderException.class, () ->
+        repository.createOrgSnapshot(tempFile.toString()));
+
+    // then
+    assertEquals("Failed to read the employee file: Input length = 1", exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testCreateOrgSnapshotWithWrongManagerId() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-invalid-format", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,John,Doe,55000.00,3",
+        "2,Jane,Smith,65000.00,"));
+    String filePath = tempFile.toString();
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class, () ->
+        employeeRepository.createOrgSnapshot(filePath));
+
+    // then
+    assertEquals("No manager with ID 3 found for employee 1"
+        , exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testCreateEmployeesMapWithDuplicateIds() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-duplicates", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "1,Jane,Smith,65000,",
+        "2,John,Doe,55000,1",
+        "3,Bob,Ronstad,45000,1",
+        "2,Alice,Hasacat,50000,1"));
+    String filePath = tempFile.toString();
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class, () ->
+        employeeRepository.createEmployeesMap(filePath));
+
+    // then
+    assertEquals("Duplicate employee ID 2 found on lines 3 and 5.", exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testCreateEmployeesMapWithReportingCycle() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-cycle", ".csv");
+    Files.write(tempFile, Arrays.asList(VALID_HEADERS,
+        "1,Jane,Smith,65000,",
+        "2,John,Doe,55000,3",
+        "3,Bob,Ronstad,45000,2",
+        "4,Alice,Hasacat,50000,3"));
+    String filePath = tempFile.toString();
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class, () ->
+        employeeRepository.createEmployeesMap(filePath));
+
+    // then
+    assertEquals("Reporting line cycle detected among employees [2, 3]. "
+        + "Employees reporting into the cycle: [4].", exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testCreateEmployeesMapLinksVeryWideTeamsInLinearTime() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("test-wide-team", ".csv");
+    List<String> lines = new ArrayList<>();
+    lines.add(VALID_HEADERS);
+    lines.add("1,Jane,Smith,65000,");
+    for (int id = 2; id <= 200_000; id++) {
+      lines.add(id + ",John,Doe,55000,1");
+    }
+    Files.write(tempFile, lines);
+    EmployeeRepository repository = new EmployeeRepository(EmployeeRepository.UNLIMITED);
+
+    // when
+    Map<Integer, Employee> result = assertTimeoutPreemptively(Duration.ofSeconds(20), () ->
+        repository.createEmployeesMap(tempFile.toString()));
+
+    // then
+    assertEquals(199_999, result.get(1).getSubordinates().size());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @ParameterizedTest
+  @EnumSource(LoadMode.class)
+  void testLenientLoadSkipsInvalidRows(LoadMode loadMode) throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Bad,Salary,abc,1",
+        "x,Bad,Id,100,1x",
+        "4,Too,Few",
+        "2,Dup,Licate,100,1",
+        "5,Second,Ceo,100,",
+        "6,Lost,Manager,100,99",
+        "7,Below,Lost,100,6",
+        "8,Cycle,A,100,9",
+        "9,Cycle,B,100,8",
+        "10,Below,Cycle,100,9",
+        "12,Ok,Worker,30000,2"));
+    EmployeeRepository repository = new EmployeeRepository(1000, loadMode, 2);
+    RowErrors errors = new RowErrors();
+
+    // when
+    OrgSnapshot org = repository.createOrgSnapshot(tempFile.toString(), RunMetrics.DISABLED,
+        errors);
+    StringBuilder report = new StringBuilder();
+    errors.writeTo(report);
+
+    // then
+    assertEquals(3, org.size());
+    assertEquals(Arrays.asList(1, 2, 12), Arrays.asList(org.id(0), org.id(1), org.id(2)));
+    assertEquals(1, org.parent(2));
+    assertEquals(String.join(System.lineSeparator(),
+        "Line 4, column 4: Salary is not a number",
+        "Line 5, column 1: Employee ID is not a number",
+        "Line 5, column 5: Manager ID is not a number",
+        "Line 6: Incorrect column count",
+        "Line 7, column 1: Duplicate employee ID, the first row with this ID is kept",
+        "Line 8, column 5: Second employee without a managerId",
+        "Line 9, column 5: No valid employee with this manager ID",
+        "Line 10, column 5: Reports to an employee whose row was skipped",
+        "Line 11, column 5: Part of a reporting line cycle",
+        "Line 12, column 5: Part of a reporting line cycle",
+        "Line 13, column 5: Reports to an employee whose row was skipped",
+        ""), report.toString());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testLenientLoadCountsErrorsBeyondLimit() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,oops,1",
+        "3,John,Doe,oops,1",
+        "4,John,Doe,oops,1"));
+    RowErrors errors = new RowErrors(1);
+
+    // when
+    OrgSnapshot org = employeeRepository.createOrgSnapshot(tempFile.toString(),
+        RunMetrics.DISABLED, errors);
+    StringBuilder report = new StringBuilder();
+    errors.writeTo(report);
+
+    // then
+    assertEquals(1, org.size());
+    assertEquals(3, errors.count());
+    assertEquals(1, errors.size());
+    assertEquals("Line 3, column 4: Salary is not a number" + System.lineSeparator()
+        + "... and 2 more" + System.lineSeparator(), report.toString());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @ParameterizedTest
+  @EnumSource(LoadMode.class)
+  void testLenientLoadWithZeroLimitOnlyCountsErrors(LoadMode loadMode) throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,oops,1",
+        "3,Jim,Doe,55000,1",
+        "4,Too,Few"));
+    EmployeeRepository repository = new EmployeeRepository(1000, loadMode, 2);
+    RowErrors errors = new RowErrors(0);
+
+    // when
+    OrgSnapshot org = repository.createOrgSnapshot(tempFile.toString(), RunMetrics.DISABLED,
+        errors);
+
+    // then
+    assertEquals(2, org.size());
+    assertEquals(2, errors.count());
+    assertEquals(0, errors.size());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testLenientParallelLoadReportsFileWideLineNumbers() throws Exception {
+    // given
+    Path tempFile = writeLargeFile(200_000, "199000,John,Doe,oops,1");
+    EmployeeRepository parallel = new EmployeeRepository(EmployeeRepository.UNLIMITED,
+        LoadMode.PARALLEL, 4);
+    EmployeeRepository streaming = new EmployeeRepository(EmployeeRepository.UNLIMITED);
+    RowErrors parallelErrors = new RowErrors();
+    RowErrors streamingErrors = new RowErrors();
+
+    // when
+    OrgSnapshot actual = parallel.createOrgSnapshot(tempFile.toString(), RunMetrics.DISABLED,
+        parallelErrors);
+    OrgSnapshot expected = streaming.createOrgSnapshot(tempFile.toString(), RunMetrics.DISABLED,
+        streamingErrors);
+
+    // then
+    assertEquals(199_999, actual.size());
+    assertEquals(expected.size(), actual.size());
+    assertEquals(1, parallelErrors.count());
+    assertEquals(199_001, parallelErrors.line(0));
+    assertEquals(RowErrors.Code.INVALID_SALARY, parallelErrors.code(0));
+    assertEquals(streamingErrors.line(0), parallelErrors.line(0));
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testLenientLoadStillRequiresCeo() throws Exception {
+    // given
+    Path tempFile = Files.createTempFile("employees", ".csv");
+    Files.write(tempFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,oops,",
+        "2,John,Doe,55000,1"));
+
+    // when
+    FileValidationException exception = assertThrows(FileValidationException.class, () ->
+        employeeRepository.createOrgSnapshot(tempFile.toString(), RunMetrics.DISABLED,
+            new RowErrors()));
+
+    // then
+    assertEquals("No CEO found. There must be exactly one employee without a managerId.",
+        exception.getMessage());
+
+    Files.deleteIfExists(tempFile);
+  }
+
+  @Test
+  void testRepositoryRejectsNegativeRowLimit() {
+    assertThrows(IllegalArgumentException.class, () -> new EmployeeRepository(-5));
+  }
+
+  private Path writeLargeFile(int employeeCount, String replacementOfLastButThousand)
+      throws Exception {
+    Path tempFile = Files.createTempFile("test-large-file", ".csv");
+    List<String> lines = new ArrayList<>(employeeCount + 1);
+    lines.add(VALID_HEADERS);
+    lines.add("1,Jane,Smith,65000,");
+    for (int id = 2; id <= employeeCount; id++) {
+      lines.add(id + ",John" + id + ",Doe," + (30000 + id % 1000) + "," + (id / 2));
+    }
+    if (replacementOfLastButThousand != null) {
+      lines.set(employeeCount - 1000, replacementOfLastButThousand);
+    }
+    Files.write(tempFile, lines);
+    return tempFile;
+  }
+
 }
\ No newline at end of file
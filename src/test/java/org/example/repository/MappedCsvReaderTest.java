@@ -0,0 +1,165 @@
+package org.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class MappedCsvReaderTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+      "a,b\nc,d\n",
+      "a,b\r\nc,d\r\n",
+      "a,b\rc,d",
+      "a,b\n\nc,d",
+      "  a,b  \n\tc,d\r\n\r\n",
+      "a,b\r\n\rc,d\n\n"})
+  void testLinesMatchBufferedReader(String content) throws Exception {
+    // given
+    Path tempFile = writeTempFile(content);
+
+    // when
+    List<String> mapped = readAllMappedLines(tempFile, 10);
+
+    // then
+    assertEquals(readAllBufferedLines(content), mapped);
+  }
+
+  @Test
+  void testLinesAreSplitCorrectlyAcrossWindows() throws Exception {
+    // given
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 200; i++) {
+      content.append(i).append(",name").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+    }
+    Path tempFile = writeTempFile(content.toString());
+
+    // when
+    List<String> mapped = readAllMappedLines(tempFile, 16);
+
+    // then
+    assertEquals(readAllBufferedLines(content.toString()), mapped);
+  }
+
+  @Test
+  void testLineLongerThanWindowIsRejected() throws Exception {
+    // given
+    Path tempFile = writeTempFile("0123456789abcdef,0123456789\nx\n");
+
+    // when / then
+    try (MappedCsvReader reader = MappedCsvReader.open(tempFile, 5, 8)) {
+      assertThrows(RuntimeException.class, reader::nextLine);
+    }
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0", "7", "-15", "+42", "123456789", "2147483647", "-2147483648",
+      "007"})
+  void testParseIntMatchesJdk(String value) throws Exception {
+    assertEquals(Integer.parseInt(value), parseIntField(value));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "abc", "12a", "-", "2147483648", " 5", "1.0"})
+  void testParseIntErrorsMatchJdk(String value) throws Exception {
+    NumberFormatException expected = assertThrows(NumberFormatException.class,
+        () -> Integer.parseInt(value));
+    NumberFormatException actual = assertThrows(NumberFormatException.class,
+        () -> parseIntField(value));
+    assertEquals(expected.getMessage(), actual.getMessage());
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0", "55000", "55000.00", "0.1", "-0", "-12.5", "5.", ".5",
+      "123456789012.345", "1e5", "1.0000000000000000001", " 42", "12345.678901234567"})
+  void testParseDoubleMatchesJdk(String value) throws Exception {
+    assertEquals(Double.parseDouble(value), parseDoubleField(value));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"", "abc", ".", "1.2.3", "-"})
+  void testParseDoubleErrorsMatchJdk(String value) throws Exception {
+    NumberFormatException expected = assertThrows(NumberFormatException.class,
+        () -> Double.parseDouble(value));
+    NumberFormatException actual = assertThrows(NumberFormatException.class,
+        () -> parseDoubleField(value));
+    assertEquals(expected.getMessage(), actual.getMessage());
+  }
+
+  @Test
+  void testFieldsAreSplitAndDecoded() throws Exception {
+    // given
+    Path tempFile = writeTempFile("1,Zoë,Ærø,5,\n");
+
+    // when
+    try (MappedCsvReader reader = MappedCsvReader.open(tempFile, 5)) {
+      assertTrue(reader.nextLine());
+
+      // then
+      assertEquals(5, reader.splitFields());
+      assertEquals("Zoë", reader.fieldAsString(1));
+      assertEquals("Ærø", reader.fieldAsString(2));
+      assertTrue(reader.isFieldEmpty(4));
+      assertFalse(reader.nextLine());
+    }
+  }
+
+  private int parseIntField(String value) throws Exception {
+    try (MappedCsvReader reader = openSingleField(value)) {
+      return reader.parseInt(1);
+    }
+  }
+
+  private double parseDoubleField(String value) throws Exception {
+    try (MappedCsvReader reader = openSingleField(value)) {
+      return reader.parseDouble(1);
+    }
+  }
+
+  private MappedCsvReader openSingleField(String value) throws Exception {
+    MappedCsvReader reader = MappedCsvReader.open(writeTempFile("x," + value + ",y\n"), 3);
+    reader.nextLine();
+    reader.splitFields();
+    return reader;
+  }
+
+  private List<String> readAllMappedLines(Path file, long windowSize) throws Exception {
+    List<String> lines = new ArrayList<>();
+    try (MappedCsvReader reader = MappedCsvReader.open(file, 5, windowSize)) {
+      while (reader.nextLine()) {
+        lines.add(reader.currentLine());
+      }
+    }
+    return lines;
+  }
+
+  private List<String> readAllBufferedLines(String content) throws Exception {
+    List<String> lines = new ArrayList<>();
+    try (BufferedReader reader = new BufferedReader(new StringReader(content))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line.trim());
+      }
+    }
+    return lines;
+  }
+
+  private Path writeTempFile(String content) throws Exception {
+    Path tempFile = Files.createTempFile("mapped", ".csv");
+    tempFile.toFile().deleteOnExit();
+    Files.write(tempFile, content.getBytes(StandardCharsets.UTF_8));
+    return tempFile;
+  }
+}
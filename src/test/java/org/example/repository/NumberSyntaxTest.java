@@ -0,0 +1,52 @@
+package org.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class NumberSyntaxTest {
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0", "42", "-7", "+7", "007", "2147483647", "-2147483648",
+      "2147483648", "-2147483649", "99999999999", "", "-", "+", "1.0", " 1", "1 ", "1e3", "0x1F",
+      "١٢", "--1", "abc"})
+  void testIntMatchesIntegerParseInt(String text) {
+    // when
+    boolean valid = NumberSyntax.isInt(text);
+
+    // then
+    assertEquals(acceptedByParseInt(text), valid, text);
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"0", "65000", "65000.50", "-1.5", "+.5", "5.", ".", "", " 12 ", "1e5",
+      "1E-5", "1e", "1e+", "e5", "1.5f", "2D", "1.5ff", "NaN", "-Infinity", "NaNf", "Infinityd",
+      "nan", "0x1p3", "0X1.8P-2", "0x1.8", "0x.p1", "0xp1", "0x", "1_000", "1,5", "12abc",
+      "١", "1..2", "1.2.3", "\t3\n"})
+  void testDoubleMatchesDoubleParseDouble(String text) {
+    // when
+    boolean valid = NumberSyntax.isDouble(text);
+
+    // then
+    assertEquals(acceptedByParseDouble(text), valid, text);
+  }
+
+  private static boolean acceptedByParseInt(String text) {
+    try {
+      Integer.parseInt(text);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static boolean acceptedByParseDouble(String text) {
+    try {
+      Double.parseDouble(text);
+      return true;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+}
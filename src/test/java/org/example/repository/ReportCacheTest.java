@@ -0,0 +1,126 @@
+package org.example.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ReportCacheTest {
+
+  @TempDir
+  Path directory;
+
+  private Path cacheDirectory;
+  private Path inputFile;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    cacheDirectory = directory.resolve("cache");
+    inputFile = directory.resolve("employees.csv");
+    Files.writeString(inputFile, "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60000,\n");
+  }
+
+  @Test
+  void testStoredReportsAreReturnedForSameKey() throws Exception {
+    // given
+    ReportCache cache = new ReportCache(cacheDirectory, 1024 * 1024);
+    String key = cache.keyFor(inputFile, "config");
+
+    // when
+    cache.put(key, new ReportCache.Entry(42, "2|Zoë Ærø earns less", "3|Joe Doe too long"));
+    Optional<ReportCache.Entry> entry = cache.get(key);
+
+    // then
+    assertTrue(entry.isPresent());
+    assertEquals(42, entry.get().getEmployeeCount());
+    assertEquals("2|Zoë Ærø earns less", entry.get().getSalaryReport());
+    assertEquals("3|Joe Doe too long", entry.get().getReportingLineReport());
+  }
+
+  @Test
+  void testKeyDependsOnContentAndConfiguration() throws Exception {
+    // given
+    ReportCache cache = new ReportCache(cacheDirectory, 1024 * 1024);
+    String key = cache.keyFor(inputFile, "config");
+    cache.put(key, new ReportCache.Entry(1, "", ""));
+
+    // when
+    String otherConfiguration = cache.keyFor(inputFile, "other config");
+    Files.writeString(inputFile, "Id,firstName,lastName,salary,managerId\n1,Joe,Doe,60001,\n");
+    String otherContent = cache.keyFor(inputFile, "config");
+
+    // then
+    assertNotEquals(key, otherConfiguration);
+    assertNotEquals(key, otherContent);
+    assertFalse(cache.get(otherConfiguration).isPresent());
+    assertFalse(cache.get(otherContent).isPresent());
+  }
+
+  @Test
+  void testLeastRecentlyUsedEntriesAreEvicted() throws Exception {
+    // given
+    String report = "x".repeat(400);
+    ReportCache cache = new ReportCache(cacheDirectory, 1500);
+    cache.put("a", new ReportCache.Entry(1, report, ""));
+    cache.put("b", new ReportCache.Entry(2, report, ""));
+    cache.put("c", new ReportCache.Entry(3, report, ""));
+    age(cache, "a", 3000);
+    age(cache, "b", 2000);
+    age(cache, "c", 1000);
+
+    // when
+    cache.get("a");
+    cache.put("d", new ReportCache.Entry(4, report, ""));
+
+    // then
+    assertTrue(cache.get("a").isPresent());
+    assertFalse(cache.get("b").isPresent());
+    assertTrue(cache.get("c").isPresent());
+    assertTrue(cache.get("d").isPresent());
+  }
+
+  @Test
+  void testClearDeletesAllEntries() throws Exception {
+    // given
+    ReportCache cache = new ReportCache(cacheDirectory, 1024 * 1024);
+    cache.put("a", new ReportCache.Entry(1, "", ""));
+    cache.put("b", new ReportCache.Entry(2, "", ""));
+
+    // when
+    int deleted = cache.clear();
+
+    // then
+    assertEquals(2, deleted);
+    assertFalse(cache.get("a").isPresent());
+    assertEquals(0, new ReportCache(directory.resolve("missing"), 1).clear());
+  }
+
+  @Test
+  void testDamagedEntryIsIgnored() throws Exception {
+    // given
+    ReportCache cache = new ReportCache(cacheDirectory, 1024 * 1024);
+    cache.put("a", new ReportCache.Entry(1, "report", ""));
+
+    // when
+    Path entryFile = cache.entryFileFor("a");
+    byte[] content = Files.readAllBytes(entryFile);
+    Files.write(entryFile, Arrays.copyOf(content, content.length - 3));
+
+    // then
+    assertFalse(cache.get("a").isPresent());
+  }
+
+  private void age(ReportCache cache, String key, long seconds) throws Exception {
+    Files.setLastModifiedTime(cache.entryFileFor(key),
+        FileTime.fromMillis(System.currentTimeMillis() - seconds * 1000));
+  }
+}
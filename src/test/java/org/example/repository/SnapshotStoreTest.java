@@ -0,0 +1,125 @@
+package org.example.repository;
+
+import static org.example.Constants.VALID_HEADERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Optional;
+import org.example.model.OrgSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SnapshotStoreTest {
+
+  @TempDir
+  Path directory;
+
+  private Path csvFile;
+  private SnapshotStore store;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    csvFile = directory.resolve("employees.csv");
+    Files.write(csvFile, Arrays.asList(VALID_HEADERS,
+        "123,Joe,Doe,60000,",
+        "124,Martin,Chekov,45000.25,123",
+        "300,Zoë,Ærø,50000,124"));
+    store = new SnapshotStore();
+  }
+
+  @Test
+  void testSavedSnapshotIsLoadedWithAllColumns() throws Exception {
+    // given
+    OrgSnapshot org = new EmployeeRepository().createOrgSnapshot(csvFile.toString());
+
+    // when
+    store.save(csvFile, store.fingerprint(csvFile), org);
+    Optional<OrgSnapshot> loaded = store.load(csvFile);
+
+    // then
+    assertTrue(Files.exists(directory.resolve("employees.csv.snapshot")));
+    assertTrue(loaded.isPresent());
+    OrgSnapshot copy = loaded.get();
+    assertEquals(3, copy.size());
+    for (int i = 0; i < org.size(); i++) {
+      assertEquals(org.id(i), copy.id(i));
+      assertEquals(org.parent(i), copy.parent(i));
+      assertEquals(org.salary(i), copy.salary(i));
+      assertEquals(org.firstName(i), copy.firstName(i));
+      assertEquals(org.lastName(i), copy.lastName(i));
+      assertEquals(org.depth(i), copy.depth(i));
+    }
+  }
+
+  @Test
+  void testSnapshotIsIgnoredWhenSourceChanges() throws Exception {
+    // given
+    OrgSnapshot org = new EmployeeRepository().createOrgSnapshot(csvFile.toString());
+    store.save(csvFile, store.fingerprint(csvFile), org);
+
+    // when
+    Files.write(csvFile, Arrays.asList(VALID_HEADERS, "123,Joe,Doe,60000,"));
+
+    // then
+    assertFalse(store.load(csvFile).isPresent());
+  }
+
+  @Test
+  void testSnapshotIsIgnoredWhenContentHashDiffers() throws Exception {
+    // given
+    OrgSnapshot org = new EmployeeRepository().createOrgSnapshot(csvFile.toString());
+    store.save(csvFile, store.fingerprint(csvFile), org);
+    FileTime lastModified = Files.getLastModifiedTime(csvFile);
+
+    // when: same size and modification time, different content
+    byte[] content = Files.readAllBytes(csvFile);
+    content[content.length - 2] = '3';
+    Files.write(csvFile, content);
+    Files.setLastModifiedTime(csvFile, lastModified);
+
+    // then
+    assertFalse(store.load(csvFile).isPresent());
+    assertTrue(new SnapshotStore(null, false).load(csvFile).isPresent());
+  }
+
+  @Test
+  void testDamagedSnapshotIsIgnored() throws Exception {
+    // given
+    OrgSnapshot org = new EmployeeRepository().createOrgSnapshot(csvFile.toString());
+    store.save(csvFile, store.fingerprint(csvFile), org);
+
+    // when
+    try (FileChannel channel = FileChannel.open(store.snapshotFileFor(csvFile),
+        StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.wrap(new byte[]{42}), 100);
+    }
+
+    // then
+    assertFalse(store.load(csvFile).isPresent());
+  }
+
+  @Test
+  void testRepositoryWritesSnapshotAndUsesItOnNextLoad() throws Exception {
+    // given
+    EmployeeRepository repository = new EmployeeRepository(10, LoadMode.STREAMING, 1, store);
+
+    // when
+    OrgSnapshot parsed = repository.createOrgSnapshot(csvFile.toString());
+    boolean written = Files.exists(store.snapshotFileFor(csvFile));
+    OrgSnapshot loaded = repository.createOrgSnapshot(csvFile.toString());
+
+    // then
+    assertTrue(written);
+    assertEquals(parsed.size(), loaded.size());
+    assertEquals("Zoë", loaded.firstName(loaded.indexOf(300)));
+  }
+}
@@ -0,0 +1,144 @@
+package org.example.server;
+
+import static org.example.Constants.VALID_HEADERS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.example.repository.EmployeeRepository;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AnalyzerServerTest {
+
+  @TempDir
+  Path directory;
+
+  private Path csvFile;
+  private AnalyzerServer server;
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    csvFile = directory.resolve("employees.csv");
+    Files.write(csvFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1",
+        "3,Martin,Chekov,40000,2",
+        "4,Bob,Ronstad,30000,3",
+        "5,Alice,Hasacat,20000,4",
+        "6,Brett,\"Hard\"leaf,20000,5"
+    ));
+    server = new AnalyzerServer(new EmployeeRepository(), new SalaryAnalyzer(),
+        new ReportingLineAnalyzer(), csvFile.toString());
+    server.start(new InetSocketAddress("localhost", 0), 2);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void testViolations() throws Exception {
+    // when
+    HttpResponse<String> salaries = get("/salary-violations");
+    HttpResponse<String> lines = get("/reporting-line-violations");
+
+    // then
+    assertEquals(200, salaries.statusCode());
+    assertEquals("application/json; charset=utf-8",
+        salaries.headers().firstValue("Content-Type").orElse(""));
+    assertEquals("[{\"id\":5,\"firstName\":\"Alice\",\"lastName\":\"Hasacat\","
+        + "\"kind\":\"UNDERPAID\",\"amount\":4000.00}]", salaries.body());
+    assertEquals("[{\"id\":6,\"firstName\":\"Brett\",\"lastName\":\"\\\"Hard\\\"leaf\","
+        + "\"excessDepth\":1}]", lines.body());
+  }
+
+  @Test
+  void testEmployeeLookup() throws Exception {
+    // when
+    HttpResponse<String> found = get("/employees/2");
+    HttpResponse<String> missing = get("/employees/99");
+    HttpResponse<String> invalid = get("/employees/abc");
+
+    // then
+    assertEquals(200, found.statusCode());
+    assertEquals("{\"id\":2,\"firstName\":\"John\",\"lastName\":\"Doe\",\"salary\":55000.00,"
+        + "\"manager\":{\"id\":1,\"firstName\":\"Jane\",\"lastName\":\"Smith\"},\"depth\":1,"
+        + "\"directReports\":[{\"id\":3,\"firstName\":\"Martin\",\"lastName\":\"Chekov\"}]}",
+        found.body());
+    assertEquals(404, missing.statusCode());
+    assertEquals("{\"error\":\"No employee with ID 99 found\"}", missing.body());
+    assertEquals(400, invalid.statusCode());
+  }
+
+  @Test
+  void testReloadSwapsInNewOrganization() throws Exception {
+    // given
+    Files.write(csvFile, Arrays.asList(
+        VALID_HEADERS,
+        "1,Jane,Smith,70000,",
+        "2,John,Doe,55000,1"
+    ));
+
+    // when
+    HttpResponse<String> before = get("/status");
+    HttpResponse<String> reload = client.send(HttpRequest.newBuilder(uri("/reload"))
+        .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> lines = get("/reporting-line-violations");
+
+    // then
+    assertTrue(before.body().contains("\"employees\":6"));
+    assertEquals(200, reload.statusCode());
+    assertTrue(reload.body().contains("\"employees\":2"));
+    assertEquals("[]", lines.body());
+  }
+
+  @Test
+  void testFailedReloadKeepsOldOrganization() throws Exception {
+    // given
+    Files.write(csvFile, Arrays.asList("not,a,valid,header"));
+
+    // when
+    HttpResponse<String> reload = client.send(HttpRequest.newBuilder(uri("/reload"))
+        .POST(HttpRequest.BodyPublishers.noBody()).build(), HttpResponse.BodyHandlers.ofString());
+    HttpResponse<String> status = get("/status");
+
+    // then
+    assertEquals(500, reload.statusCode());
+    assertTrue(reload.body().startsWith("{\"error\":"));
+    assertTrue(status.body().contains("\"employees\":6"));
+  }
+
+  @Test
+  void testWrongMethodIsRejected() throws Exception {
+    // when
+    HttpResponse<String> response = get("/reload");
+
+    // then
+    assertEquals(405, response.statusCode());
+    assertEquals("POST", response.headers().firstValue("Allow").orElse(""));
+  }
+
+  private HttpResponse<String> get(String path) throws Exception {
+    return client.send(HttpRequest.newBuilder(uri(path)).GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://localhost:" + server.getAddress().getPort() + path);
+  }
+}
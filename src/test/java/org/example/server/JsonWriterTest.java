@@ -0,0 +1,31 @@
+package org.example.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+class JsonWriterTest {
+
+  @Test
+  void testAmountsAreRoundedToTwoDecimals() {
+    // when
+    String json = new JsonWriter().beginArray().amount(1234.5).amount(0.125).amount(-3)
+        .endArray().toString();
+
+    // then
+    assertEquals("[1234.50,0.13,-3.00]", json);
+  }
+
+  @Test
+  void testNonFiniteAmountsAreWrittenAsNull() {
+    // when
+    String json = new JsonWriter().beginObject()
+        .name("nan").amount(Double.NaN)
+        .name("positive").amount(Double.POSITIVE_INFINITY)
+        .name("negative").amount(Double.NEGATIVE_INFINITY)
+        .endObject().toString();
+
+    // then
+    assertEquals("{\"nan\":null,\"positive\":null,\"negative\":null}", json);
+  }
+}
@@ -0,0 +1,108 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.example.model.OrgSnapshot;
+import org.junit.jupiter.api.Test;
+
+class AncestryIndexTest {
+
+  @Test
+  void testQueriesMatchClimbingTheReportingChain() {
+    // given
+    Random random = new Random(17);
+    OrgSnapshot org = randomForest(3_000, random);
+
+    // when
+    AncestryIndex index = AncestryIndex.of(org);
+
+    // then
+    for (int query = 0; query < 20_000; query++) {
+      int first = random.nextInt(org.size());
+      int second = random.nextInt(org.size());
+      int expectedManager = climbToCommonManager(org, first, second);
+      assertEquals(expectedManager, index.lowestCommonManager(first, second));
+      assertEquals(expectedManager == first, index.isInReportingChain(first, second));
+      assertEquals(expectedManager == OrgSnapshot.NO_PARENT ? -1
+              : org.depth(first) + org.depth(second) - 2 * org.depth(expectedManager),
+          index.distance(first, second));
+    }
+  }
+
+  @Test
+  void testLongReportingChain() {
+    // given
+    int size = 10_000;
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      parents[i] = i - 1;
+    }
+    OrgSnapshot org = snapshot(parents);
+
+    // when
+    AncestryIndex index = AncestryIndex.of(org);
+
+    // then
+    assertTrue(index.isInReportingChain(0, size - 1));
+    assertFalse(index.isInReportingChain(size - 1, 0));
+    assertEquals(1234, index.lowestCommonManager(1234, 8765));
+    assertEquals(8765 - 1234, index.distance(8765, 1234));
+  }
+
+  @Test
+  void testEmployeeIsInOwnReportingChain() {
+    // given
+    AncestryIndex index = AncestryIndex.of(snapshot(new int[]{OrgSnapshot.NO_PARENT, 0, 0}));
+
+    // then
+    assertTrue(index.isInReportingChain(1, 1));
+    assertEquals(1, index.lowestCommonManager(1, 1));
+    assertEquals(0, index.distance(1, 1));
+    assertEquals(0, index.lowestCommonManager(1, 2));
+    assertEquals(2, index.distance(1, 2));
+  }
+
+  private static int climbToCommonManager(OrgSnapshot org, int first, int second) {
+    int a = first;
+    int b = second;
+    while (org.depth(a) > org.depth(b)) {
+      a = org.parent(a);
+    }
+    while (org.depth(b) > org.depth(a)) {
+      b = org.parent(b);
+    }
+    while (a != b && a != OrgSnapshot.NO_PARENT) {
+      a = org.parent(a);
+      b = org.parent(b);
+    }
+    return a;
+  }
+
+  private static OrgSnapshot randomForest(int size, Random random) {
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      // a few separate top-level employees, and chains deep enough to need several jumps
+      parents[i] = i == 0 || random.nextInt(500) == 0 ? OrgSnapshot.NO_PARENT
+          : Math.max(0, i - 1 - random.nextInt(Math.min(i, 20)));
+    }
+    return snapshot(parents);
+  }
+
+  private static OrgSnapshot snapshot(int[] parents) {
+    int size = parents.length;
+    int[] ids = new int[size];
+    String[] firstNames = new String[size];
+    String[] lastNames = new String[size];
+    double[] salaries = new double[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i + 1;
+      firstNames[i] = "First" + i;
+      lastNames[i] = "Last" + i;
+      salaries[i] = 50000;
+    }
+    return OrgSnapshot.of(ids, firstNames, lastNames, salaries, parents);
+  }
+}
@@ -0,0 +1,72 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.BufferedReader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class AncestryQueriesTest {
+
+  private AncestryQueries queries;
+
+  @BeforeEach
+  void setup() {
+    Map<Integer, Employee> employees = new HashMap<>();
+    employees.put(1, new Employee(1, "Alice", "Smith", 90000, null));
+    employees.put(2, new Employee(2, "Bob", "Jones", 80000, 1));
+    employees.put(3, new Employee(3, "Charlie", "Brown", 70000, 2));
+    employees.put(4, new Employee(4, "David", "Wilson", 60000, 2));
+    employees.put(5, new Employee(5, "Eve", "Black", 50000, 1));
+    employees.put(6, new Employee(6, "Fiona", "White", 40000, null));
+    queries = new AncestryQueries(AncestryIndex.of(OrgSnapshot.fromEmployees(employees)));
+  }
+
+  @Test
+  void testAnswers() {
+    assertEquals("true", queries.answer("in-chain 1 4"));
+    assertEquals("false", queries.answer("in-chain 4 1"));
+    assertEquals("2", queries.answer("common-manager 3 4"));
+    assertEquals("1", queries.answer("common-manager 3 5"));
+    assertEquals("none", queries.answer("common-manager 3 6"));
+    assertEquals("3", queries.answer("distance 3 5"));
+    assertEquals("none", queries.answer("distance 6 1"));
+  }
+
+  @Test
+  void testInvalidQueriesAreAnsweredWithErrors() {
+    assertEquals("error: No employee with ID 99 found", queries.answer("distance 1 99"));
+    assertEquals("error: invalid employee id", queries.answer("distance 1 x"));
+    assertEquals("error: unknown operation depth", queries.answer("depth 1 2"));
+    assertEquals("error: expected an operation and two employee ids", queries.answer("in-chain"));
+  }
+
+  @Test
+  void testBatch() throws Exception {
+    // given
+    BufferedReader in = new BufferedReader(new StringReader(String.join("\n",
+        "# approval routing",
+        "in-chain 2 3",
+        "",
+        "  distance 4 99  ",
+        "common-manager 4 5")));
+    StringWriter out = new StringWriter();
+
+    // when
+    int count = queries.run(in, out);
+
+    // then
+    assertEquals(3, count);
+    assertEquals(String.join(System.lineSeparator(),
+        "in-chain 2 3|true",
+        "distance 4 99|error: No employee with ID 99 found",
+        "common-manager 4 5|1",
+        ""), out.toString());
+  }
+}
@@ -0,0 +1,163 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+import org.example.model.OrgSnapshot;
+import org.example.report.TextReportWriter;
+import org.example.repository.EmployeeRepository;
+import org.example.tools.Distribution;
+import org.example.tools.OrgGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ExternalOrgAnalyzerTest {
+
+  private static final String HEADERS = "Id,firstName,lastName,salary,managerId";
+
+  @TempDir
+  Path directory;
+
+  private final EmployeeRepository repository = new EmployeeRepository(
+      EmployeeRepository.UNLIMITED);
+
+  @ParameterizedTest
+  @ValueSource(longs = {ExternalOrgAnalyzer.MIN_MEMORY_BUDGET, 64 * 1024 * 1024})
+  void testReportsMatchTheInMemoryAnalyzers(long memoryBudget) throws Exception {
+    // given
+    Path file = directory.resolve("employees.csv");
+    new OrgGenerator(5000, 7, Distribution.parse("uniform:2-4"),
+        Distribution.parse("uniform:30000-150000"), 0.1, 0.05, 7).generate().writeCsv(file);
+    Path spill = Files.createDirectory(directory.resolve("spill"));
+    ExternalOrgAnalyzer analyzer = new ExternalOrgAnalyzer(repository, memoryBudget, spill);
+
+    // when
+    String salaries;
+    String lines;
+    int employeeCount;
+    try (ExternalOrgAnalyzer.Report report = analyzer.analyze(file.toString())) {
+      employeeCount = report.getEmployeeCount();
+      salaries = render(report::writeSalaryViolations);
+      lines = render(report::writeReportingLineViolations);
+    }
+
+    // then
+    OrgSnapshot org = repository.createOrgSnapshot(file.toString());
+    assertEquals(org.size(), employeeCount);
+    assertEquals(render(sink -> new SalaryAnalyzer().writeSalaryViolations(org, sink)), salaries);
+    assertEquals(render(sink -> new ReportingLineAnalyzer().writeReportingLineViolations(org,
+        sink)), lines);
+    assertFalse(lines.isEmpty());
+    assertTrue(isEmpty(spill), "the report deletes its files when closed");
+  }
+
+  @Test
+  void testDeepChainMatchesTheInMemoryAnalyzers() throws Exception {
+    // given
+    List<String> rows = new ArrayList<>(List.of(HEADERS, "1,Chain,Zero,100000,"));
+    for (int id = 2; id <= 3000; id++) {
+      rows.add(id + ",Chain,Link" + id + "," + (100000 - id) + "," + (id - 1));
+    }
+    Path file = Files.write(directory.resolve("chain.csv"), rows);
+    ExternalOrgAnalyzer analyzer = new ExternalOrgAnalyzer(repository,
+        ExternalOrgAnalyzer.MIN_MEMORY_BUDGET, directory);
+
+    // when
+    String lines;
+    try (ExternalOrgAnalyzer.Report report = analyzer.analyze(file.toString())) {
+      lines = render(report::writeReportingLineViolations);
+    }
+
+    // then
+    OrgSnapshot org = repository.createOrgSnapshot(file.toString());
+    assertEquals(render(sink -> new ReportingLineAnalyzer().writeReportingLineViolations(org,
+        sink)), lines);
+  }
+
+  @Test
+  void testInvalidOrganizationsFailLikeTheRepository() throws Exception {
+    assertSameFailure("duplicate.csv", HEADERS, "1,Jane,Smith,70000,", "2,John,Doe,55000,1",
+        "2,Jim,Doe,55000,1");
+    assertSameFailure("unknown.csv", HEADERS, "1,Jane,Smith,70000,", "3,John,Doe,55000,9",
+        "2,Jim,Doe,55000,8");
+    assertSameFailure("cycle.csv", HEADERS, "1,Jane,Smith,70000,", "2,John,Doe,55000,1",
+        "3,Gina,Gray,40000,4", "4,Hank,Green,40000,3");
+    assertSameFailure("headers.csv", "Id,firstName", "1,Jane");
+  }
+
+  @Test
+  void testLargeCycleFailsLikeTheRepository() throws Exception {
+    List<String> rows = new ArrayList<>(List.of(HEADERS, "1,Jane,Smith,70000,"));
+    for (int id = 2; id < 1000; id++) {
+      rows.add(id + ",Team,Member" + id + ",50000,1");
+    }
+    // a ring of 2000 employees with a chain of 100 employees hanging below it
+    for (int id = 2000; id < 4000; id++) {
+      rows.add(id + ",Ring,Member" + id + ",40000," + (id == 3999 ? 2000 : id + 1));
+    }
+    rows.add("4000,Below,Ring,30000,2500");
+    for (int id = 4001; id < 4100; id++) {
+      rows.add(id + ",Below,Ring" + id + ",30000," + (id - 1));
+    }
+    assertSameFailure("large-cycle.csv", rows.toArray(new String[0]));
+  }
+
+  @Test
+  void testConstructorRejectsTooSmallBudgets() {
+    assertThrows(IllegalArgumentException.class,
+        () -> new ExternalOrgAnalyzer(repository, ExternalOrgAnalyzer.MIN_MEMORY_BUDGET - 1));
+  }
+
+  private void assertSameFailure(String name, String... lines) throws IOException {
+    // given
+    Path file = Files.write(directory.resolve(name), Arrays.asList(lines));
+    Path spill = Files.createDirectory(directory.resolve(name + ".spill"));
+    ExternalOrgAnalyzer analyzer = new ExternalOrgAnalyzer(repository,
+        ExternalOrgAnalyzer.MIN_MEMORY_BUDGET, spill);
+
+    // when
+    RuntimeException expected = assertThrows(RuntimeException.class,
+        () -> repository.createOrgSnapshot(file.toString()));
+    RuntimeException actual = assertThrows(RuntimeException.class,
+        () -> analyzer.analyze(file.toString()));
+
+    // then
+    assertEquals(expected.getClass(), actual.getClass());
+    assertEquals(expected.getMessage(), actual.getMessage());
+    assertTrue(isEmpty(spill), "a failed analysis deletes its files");
+  }
+
+  private static String render(ReportSection report) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TextReportWriter writer = new TextReportWriter(out, StandardCharsets.UTF_8, Locale.ROOT, "\n");
+    report.writeTo(writer);
+    writer.flush();
+    return out.toString(StandardCharsets.UTF_8);
+  }
+
+  private static boolean isEmpty(Path directory) throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.findAny().isEmpty();
+    }
+  }
+
+  @FunctionalInterface
+  private interface ReportSection {
+
+    void writeTo(TextReportWriter writer) throws IOException;
+  }
+}
@@ -0,0 +1,54 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ExternalSorterTest {
+
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 100, 5000})
+  void testSortsRecordsFieldByFieldAcrossRuns(int count, @TempDir Path directory)
+      throws Exception {
+    // given
+    SplittableRandom random = new SplittableRandom(count);
+    // about 40 records per run, so 5000 records need more than one round of merging
+    ExternalSorter sorter = new ExternalSorter(directory, 2, 1000);
+    List<long[]> expected = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      long[] record = {random.nextInt(-50, 50), random.nextLong()};
+      sorter.add(record);
+      expected.add(record.clone());
+    }
+    expected.sort(Arrays::compare);
+
+    // when
+    SpillFile sorted = sorter.finish();
+
+    // then
+    List<long[]> actual = new ArrayList<>();
+    long[] record = new long[2];
+    try (SpillFile.Reader reader = sorted.open(sorter.bufferSize())) {
+      while (reader.next(record)) {
+        actual.add(record.clone());
+      }
+    }
+    assertEquals(count, sorted.count());
+    assertArrayEquals(expected.toArray(), actual.toArray());
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(1, files.collect(Collectors.toList()).size(),
+          "merged runs are deleted");
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.example.exception.EmployeeValidationException;
+import org.example.model.OrgEvent;
+import org.example.model.OrgSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class LiveOrgModelTest {
+
+  private final SalaryAnalyzer salaryAnalyzer = new SalaryAnalyzer();
+  private final ReportingLineAnalyzer lineAnalyzer = new ReportingLineAnalyzer();
+  private LiveOrgModel model;
+
+  @BeforeEach
+  void setup() {
+    // 1 <- 2 <- 3 <- 4 <- 5, and 6 reporting to 1
+    model = LiveOrgModel.fromSnapshot(OrgSnapshot.of(
+        new int[]{1, 2, 3, 4, 5, 6},
+        new String[]{"Alice", "Bob", "Charlie", "David", "Eve", "Fiona"},
+        new String[]{"Smith", "Jones", "Brown", "Wilson", "Black", "White"},
+        new double[]{90000, 80000, 70000, 60000, 50000, 40000},
+        new int[]{-1, 0, 1, 2, 3, 0}));
+  }
+
+  @Test
+  void testHireUpdatesManagerVerdictAndDepth() {
+    // when
+    model.apply(new OrgEvent.Hire(7, "Gina", "Gray", 30000, 5));
+
+    // then
+    assertEquals(5, model.depth(7));
+    assertEquals("7|Gina Gray has a reporting line that is too long by 1 levels"
+        + System.lineSeparator(), model.reportingLineReport());
+    assertEquals(salaryAnalyzer.analyzeSalaries(model.toSnapshot()), model.salaryReport());
+  }
+
+  @Test
+  void testTransferMovesDepthsOfWholeSubtree() {
+    // given
+    model.apply(new OrgEvent.Hire(7, "Gina", "Gray", 30000, 5));
+
+    // when
+    model.apply(new OrgEvent.Transfer(4, 1));
+
+    // then
+    assertEquals(1, model.depth(4));
+    assertEquals(2, model.depth(5));
+    assertEquals(3, model.depth(7));
+    assertEquals("", model.reportingLineReport());
+  }
+
+  @Test
+  void testTerminationMovesSubordinatesUp() {
+    // when
+    model.apply(new OrgEvent.Termination(3));
+
+    // then
+    assertEquals(5, model.size());
+    assertEquals(2, model.depth(4));
+    assertEquals(salaryAnalyzer.analyzeSalaries(model.toSnapshot()), model.salaryReport());
+  }
+
+  @Test
+  void testRehiredIdStartsWithoutTheFormerTeam() {
+    // given
+    model.apply(new OrgEvent.Termination(3));
+
+    // when
+    model.apply(new OrgEvent.Hire(3, "Carla", "Brown", 100000, 6));
+    model.apply(new OrgEvent.Hire(8, "Hank", "Green", 90000, 3));
+
+    // then
+    assertEquals(7, model.size());
+    assertEquals(2, model.depth(3));
+    assertTrue(model.salaryReport().contains("3|Carla Brown earns less than they should"));
+    assertEquals(salaryAnalyzer.analyzeSalaries(model.toSnapshot()), model.salaryReport());
+  }
+
+  @Test
+  void testLargeTeamsStayConsistentAsMembersComeAndGo() {
+    // given
+    int size = 2_001;
+    int[] ids = new int[size];
+    String[] names = new String[size];
+    double[] salaries = new double[size];
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i + 1;
+      names[i] = "N" + i;
+      salaries[i] = 30000 + i * 10.01;
+      // employees 2 to 1000 report to the CEO, the rest to employee 2
+      parents[i] = i == 0 ? OrgSnapshot.NO_PARENT : i < 1_000 ? 0 : 1;
+    }
+    model = LiveOrgModel.fromSnapshot(OrgSnapshot.of(ids, names, names, salaries, parents));
+
+    // when
+    model.apply(new OrgEvent.Termination(2));
+    for (int id = 3; id <= 2_001; id += 7) {
+      model.apply(new OrgEvent.Transfer(id, 1_500));
+    }
+    for (int id = 5; id <= 2_001; id += 11) {
+      if (id != 1_500 && model.contains(id)) {
+        model.apply(new OrgEvent.Termination(id));
+      }
+    }
+
+    // then
+    OrgSnapshot snapshot = model.toSnapshot();
+    assertEquals(salaryAnalyzer.analyzeSalaries(snapshot), model.salaryReport());
+    assertEquals(1, model.depth(1_999));
+    assertEquals(2, model.depth(1_998));
+  }
+
+  @Test
+  void testInvalidEventsAreRejected() {
+    assertThrows(EmployeeValidationException.class,
+        () -> model.apply(new OrgEvent.Transfer(2, 4)));
+    assertThrows(EmployeeValidationException.class,
+        () -> model.apply(new OrgEvent.Hire(3, "X", "Y", 1, 1)));
+    assertThrows(EmployeeValidationException.class,
+        () -> model.apply(new OrgEvent.Hire(8, "X", "Y", 1, 99)));
+    assertThrows(EmployeeValidationException.class,
+        () -> model.apply(new OrgEvent.Termination(1)));
+    assertThrows(EmployeeValidationException.class,
+        () -> model.apply(new OrgEvent.SalaryChange(42, 1)));
+  }
+
+  @Test
+  void testRandomEventsMatchFullReanalysis() {
+    // given
+    Random random = new Random(7);
+    List<Integer> ids = new ArrayList<>(List.of(1, 2, 3, 4, 5, 6));
+    int nextId = 7;
+
+    for (int step = 0; step < 5_000; step++) {
+      int id = ids.get(random.nextInt(ids.size()));
+      int other = ids.get(random.nextInt(ids.size()));
+      int kind = random.nextInt(4);
+
+      // when
+      try {
+        if (kind == 0) {
+          model.apply(new OrgEvent.Hire(nextId, "F" + nextId, "L" + nextId,
+              20000 + random.nextInt(10_000_000) / 100.0, id));
+          ids.add(nextId++);
+        } else if (kind == 1 && id != 1) {
+          model.apply(new OrgEvent.Termination(id));
+          ids.remove(Integer.valueOf(id));
+        } else if (kind == 2) {
+          model.apply(new OrgEvent.SalaryChange(id, 20000 + random.nextInt(10_000_000) / 100.0));
+        } else {
+          model.apply(new OrgEvent.Transfer(id, other));
+        }
+      } catch (EmployeeValidationException e) {
+        // cycles and similar invalid moves are expected in a random stream
+      }
+
+      // then
+      if (step % 250 == 0) {
+        OrgSnapshot snapshot = model.toSnapshot();
+        assertEquals(salaryAnalyzer.analyzeSalaries(snapshot), model.salaryReport());
+        assertEquals(lineAnalyzer.analyzeReportingLines(snapshot), model.reportingLineReport());
+      }
+    }
+  }
+}
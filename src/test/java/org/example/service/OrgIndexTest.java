@@ -0,0 +1,141 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.example.exception.EmployeeValidationException;
+import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.junit.jupiter.api.Test;
+
+class OrgIndexTest {
+
+  @Test
+  void testAggregatesOfSmallOrganization() {
+    // given
+    Map<Integer, Employee> employees = new HashMap<>();
+    employees.put(1, new Employee(1, "Alice", "Smith", 90000, null));
+    employees.put(2, new Employee(2, "Bob", "Jones", 80000, 1));
+    employees.put(3, new Employee(3, "Charlie", "Brown", 70000, 2));
+    employees.put(4, new Employee(4, "David", "Wilson", 60000, 2));
+    employees.put(5, new Employee(5, "Eve", "Black", 50000, 1));
+
+    // when
+    OrgIndex index = OrgIndex.fromEmployees(employees);
+
+    // then
+    int alice = index.indexOf(1);
+    assertEquals(5, index.subtreeSize(alice));
+    assertEquals(4, index.headcountUnder(alice));
+    assertEquals(350000, index.payroll(alice));
+    assertEquals(50000, index.minSalary(alice));
+    assertEquals(90000, index.maxSalary(alice));
+    assertEquals(2, index.maxRelativeDepth(alice));
+
+    int bob = index.indexOf(2);
+    assertEquals(3, index.subtreeSize(bob));
+    assertEquals(210000, index.payroll(bob));
+    assertEquals(60000, index.minSalary(bob));
+    assertEquals(80000, index.maxSalary(bob));
+    assertEquals(1, index.maxRelativeDepth(bob));
+
+    int eve = index.indexOf(5);
+    assertEquals(0, index.headcountUnder(eve));
+    assertEquals(0, index.maxRelativeDepth(eve));
+  }
+
+  @Test
+  void testAggregatesMatchSubtreeWalk() {
+    // given
+    OrgSnapshot org = randomOrg(5_000, new Random(3));
+
+    // when
+    OrgIndex index = OrgIndex.of(org);
+
+    // then
+    for (int employee = 0; employee < org.size(); employee++) {
+      assertMatchesSubtreeWalk(index, employee);
+    }
+  }
+
+  @Test
+  void testSalaryChangesMatchRebuild() {
+    // given
+    Random random = new Random(5);
+    OrgSnapshot org = randomOrg(2_000, random);
+    OrgIndex index = OrgIndex.of(org);
+
+    // when
+    for (int change = 0; change < 500; change++) {
+      index.changeSalary(random.nextInt(org.size()), 1000 + random.nextInt(200_000));
+    }
+
+    // then
+    for (int employee = 0; employee < org.size(); employee++) {
+      assertMatchesSubtreeWalk(index, employee);
+    }
+  }
+
+  @Test
+  void testUnknownIdIsRejected() {
+    // given
+    OrgIndex index = OrgIndex.of(randomOrg(10, new Random(1)));
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class,
+        () -> index.indexOf(99));
+
+    // then
+    assertEquals("No employee with ID 99 found", exception.getMessage());
+  }
+
+  private static void assertMatchesSubtreeWalk(OrgIndex index, int top) {
+    OrgSnapshot org = index.org();
+    int size = 0;
+    double payroll = 0;
+    double min = Double.MAX_VALUE;
+    double max = -Double.MAX_VALUE;
+    int maxDepth = 0;
+    Deque<int[]> pending = new ArrayDeque<>();
+    pending.push(new int[]{top, 0});
+    while (!pending.isEmpty()) {
+      int[] entry = pending.pop();
+      int employee = entry[0];
+      size++;
+      payroll += index.salary(employee);
+      min = Math.min(min, index.salary(employee));
+      max = Math.max(max, index.salary(employee));
+      maxDepth = Math.max(maxDepth, entry[1]);
+      for (int position = org.childStart(employee); position < org.childEnd(employee);
+          position++) {
+        pending.push(new int[]{org.child(position), entry[1] + 1});
+      }
+    }
+    assertEquals(size, index.subtreeSize(top));
+    assertEquals(payroll, index.payroll(top), 1e-6 * payroll);
+    assertEquals(min, index.minSalary(top));
+    assertEquals(max, index.maxSalary(top));
+    assertEquals(maxDepth, index.maxRelativeDepth(top));
+  }
+
+  private static OrgSnapshot randomOrg(int size, Random random) {
+    int[] ids = new int[size];
+    String[] firstNames = new String[size];
+    String[] lastNames = new String[size];
+    double[] salaries = new double[size];
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i + 1;
+      firstNames[i] = "First" + i;
+      lastNames[i] = "Last" + i;
+      salaries[i] = 20000 + random.nextInt(80000) + random.nextInt(100) / 100.0;
+      parents[i] = i == 0 ? OrgSnapshot.NO_PARENT : random.nextInt(i);
+    }
+    return OrgSnapshot.of(ids, firstNames, lastNames, salaries, parents);
+  }
+}
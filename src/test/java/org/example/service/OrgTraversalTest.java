@@ -0,0 +1,218 @@
+package org.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.example.collection.ExactSum;
+import org.example.model.OrgSnapshot;
+import org.example.model.Violation;
+import org.example.report.MergeableViolationSink;
+import org.example.report.ReportBuffer;
+import org.example.report.TopViolations;
+import org.example.report.ViolationSink;
+import org.junit.jupiter.api.Test;
+
+class OrgTraversalTest {
+
+  @Test
+  void testSinglePassMatchesSeparateReports() throws Exception {
+    // given
+    OrgSnapshot org = randomOrg(50_000);
+    SalaryAnalyzer salaryAnalyzer = new SalaryAnalyzer();
+    ReportingLineAnalyzer lineAnalyzer = new ReportingLineAnalyzer();
+    ReportBuffer salaryReport = new ReportBuffer();
+    ReportBuffer lineReport = new ReportBuffer();
+
+    // when
+    new OrgTraversal()
+        .add(salaryAnalyzer, salaryReport)
+        .add(lineAnalyzer, lineReport)
+        .run(org);
+
+    // then
+    assertFalse(lineReport.toString().isEmpty());
+    assertEquals(salaryAnalyzer.analyzeSalaries(org), salaryReport.toString());
+    assertEquals(lineAnalyzer.analyzeReportingLines(org), lineReport.toString());
+  }
+
+  @Test
+  void testParallelTraversalMatchesSequentialTraversal() throws Exception {
+    // given
+    OrgSnapshot org = randomOrg(300_000);
+    ReportBuffer sequentialSalaries = new ReportBuffer();
+    ReportBuffer sequentialLines = new ReportBuffer();
+    ReportBuffer parallelSalaries = new ReportBuffer();
+    ReportBuffer parallelLines = new ReportBuffer();
+
+    // when
+    new OrgTraversal()
+        .add(new SalaryAnalyzer(), sequentialSalaries)
+        .add(new ReportingLineAnalyzer(), sequentialLines)
+        .run(org);
+    new OrgTraversal(4)
+        .add(new SalaryAnalyzer(), parallelSalaries)
+        .add(new ReportingLineAnalyzer(), parallelLines)
+        .run(org);
+
+    // then
+    assertEquals(sequentialSalaries.toString(), parallelSalaries.toString());
+    assertEquals(sequentialLines.toString(), parallelLines.toString());
+  }
+
+  @Test
+  void testParallelRankingMergesBoundedParts() throws Exception {
+    // given
+    OrgSnapshot org = randomOrg(300_000);
+    TopViolations sequential = new TopViolations(25);
+    CountingTopViolations parallel = new CountingTopViolations(25);
+
+    // when
+    new OrgTraversal()
+        .add(new SalaryAnalyzer(), sequential)
+        .add(new ReportingLineAnalyzer(), sequential)
+        .run(org);
+    new OrgTraversal(4)
+        .add(new SalaryAnalyzer(), parallel)
+        .add(new ReportingLineAnalyzer(), parallel)
+        .run(org);
+
+    // then
+    assertEquals(sequential.overpaid(), parallel.ranking.overpaid());
+    assertEquals(sequential.underpaid(), parallel.ranking.underpaid());
+    assertEquals(sequential.longestReportingLines(), parallel.ranking.longestReportingLines());
+    assertTrue(parallel.mergedParts > 0, "the ranges were ranked on their own");
+  }
+
+  @Test
+  void testEachEmployeeIsVisitedOnceWithPrecomputedAggregates() throws Exception {
+    // given
+    OrgSnapshot org = randomOrg(1_000);
+    int[] visits = new int[org.size()];
+    List<String> mismatches = new ArrayList<>();
+    EmployeeCheck check = (employee, sink) -> {
+      int index = employee.index();
+      visits[index]++;
+      int manager = employee.managerIndex();
+      if (manager != OrgSnapshot.NO_PARENT && org.depth(manager) + 1 != employee.depth()) {
+        mismatches.add("depth of " + employee.id());
+      }
+      if (employee.directReportCount() != org.childCount(index)) {
+        mismatches.add("direct reports of " + employee.id());
+      }
+      if (employee.isManager() && employee.directReportSalarySum()
+          != EmployeeNode.directReportSalarySum(org, index, new ExactSum())) {
+        mismatches.add("salary sum of " + employee.id());
+      }
+    };
+
+    // when
+    new OrgTraversal().add(check, new CollectingSink()).run(org);
+
+    // then
+    for (int visitCount : visits) {
+      assertEquals(1, visitCount);
+    }
+    assertEquals(List.of(), mismatches);
+  }
+
+  @Test
+  void testChecksThatDoNotApplyAreSkipped() throws Exception {
+    // given
+    OrgSnapshot org = OrgSnapshot.of(new int[]{1, 2}, new String[]{"Alice", "Bob"},
+        new String[]{"Smith", "Jones"}, new double[]{90000, 80000},
+        new int[]{OrgSnapshot.NO_PARENT, 0});
+    int[] visits = new int[1];
+    EmployeeCheck check = new EmployeeCheck() {
+      @Override
+      public boolean appliesTo(OrgSnapshot org) {
+        return false;
+      }
+
+      @Override
+      public void check(EmployeeNode employee, ViolationSink sink) {
+        visits[0]++;
+      }
+    };
+
+    // when
+    new OrgTraversal().add(check, new CollectingSink()).run(org);
+
+    // then
+    assertEquals(0, visits[0]);
+  }
+
+  @Test
+  void testInvalidParallelismIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> new OrgTraversal(0));
+  }
+
+  private static OrgSnapshot randomOrg(int size) {
+    Random random = new Random(7);
+    int[] ids = new int[size];
+    String[] firstNames = new String[size];
+    String[] lastNames = new String[size];
+    double[] salaries = new double[size];
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i + 1;
+      firstNames[i] = "First" + i;
+      lastNames[i] = "Last" + i;
+      salaries[i] = 20000 + random.nextInt(80000) + random.nextInt(100) / 100.0;
+      parents[i] = i == 0 ? OrgSnapshot.NO_PARENT : random.nextInt(i);
+    }
+    return OrgSnapshot.of(ids, firstNames, lastNames, salaries, parents);
+  }
+
+  /**
+   * Ranks like {@link TopViolations}, but counts the parts merged and rejects violations handed to
+   * it directly during a parallel traversal.
+   */
+  private static final class CountingTopViolations implements MergeableViolationSink {
+
+    private final TopViolations ranking;
+    private int mergedParts;
+
+    private CountingTopViolations(int limit) {
+      this.ranking = new TopViolations(limit);
+    }
+
+    @Override
+    public void accept(Violation violation) {
+      throw new AssertionError("violation " + violation.id() + " was not ranked in its range");
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public MergeableViolationSink newPart() {
+      return ranking.newPart();
+    }
+
+    @Override
+    public void merge(MergeableViolationSink part) {
+      ranking.merge(part);
+      mergedParts++;
+    }
+  }
+
+  private static final class CollectingSink implements ViolationSink {
+
+    private final List<Violation> violations = new ArrayList<>();
+
+    @Override
+    public void accept(Violation violation) {
+      violations.add(violation);
+    }
+
+    @Override
+    public void flush() {
+    }
+  }
+}
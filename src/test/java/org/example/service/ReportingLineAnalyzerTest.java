@@ -1,10 +1,16 @@
 package org.example.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import org.example.exception.EmployeeValidationException;
 import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.example.model.ReportingLineViolation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -30,8 +36,39 @@ class ReportingLineAnalyzerTest {
 
   @Test
   void testAnalyzeReportingLines() {
-    String expectedOutput = "6|Fiona White has a reporting line that is too long by 1 levels\r\n";
+    String expectedOutput = "6|Fiona White has a reporting line that is too long by 1 levels"
+        + System.lineSeparator();
     String output = analyzer.analyzeReportingLines(employees);
     assertEquals(expectedOutput, output);
   }
+
+  @Test
+  void testReportingLineViolationsAreTyped() {
+    // given
+    employees.put(7, new Employee(7, "Gus", "Grey", 30000, 6));
+    OrgSnapshot org = OrgSnapshot.fromEmployees(employees);
+
+    // when
+    List<ReportingLineViolation> violations = analyzer.reportingLineViolations(org)
+        .collect(Collectors.toList());
+
+    // then
+    assertEquals(List.of(
+        new ReportingLineViolation(6, "Fiona", "White", 1),
+        new ReportingLineViolation(7, "Gus", "Grey", 2)), violations);
+  }
+
+  @Test
+  void testAnalyzeReportingLinesRejectsCycles() {
+    // given
+    employees.put(7, new Employee(7, "Gina", "Gray", 40000, 8));
+    employees.put(8, new Employee(8, "Hank", "Green", 40000, 7));
+
+    // when
+    EmployeeValidationException exception = assertThrows(EmployeeValidationException.class,
+        () -> analyzer.analyzeReportingLines(employees));
+
+    // then
+    assertEquals("Reporting line cycle detected among employees [7, 8].", exception.getMessage());
+  }
 }
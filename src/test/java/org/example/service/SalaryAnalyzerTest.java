@@ -1,11 +1,21 @@
 package org.example.service;
 
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
 import org.example.model.Employee;
+import org.example.model.OrgSnapshot;
+import org.example.model.SalaryViolation;
+import org.example.report.TextReportWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -33,7 +43,8 @@ class SalaryAnalyzerTest {
     employees.put(1, manager);
     employees.put(2, subordinate1);
     employees.put(3, subordinate2);
-    String expectedOutput = "1|Alice Smith earns less than they should by 2000.00\r\n";
+    String expectedOutput = "1|Alice Smith earns less than they should by 2000.00"
+        + System.lineSeparator();
 
     // when
     String output = analyzer.analyzeSalaries(employees);
@@ -42,6 +53,34 @@ class SalaryAnalyzerTest {
     assertEquals(expectedOutput, output);
   }
 
+  @Test
+  void testAverageUsesExactSummation() {
+    // given
+    int[] ids = new int[11];
+    String[] names = new String[11];
+    double[] salaries = new double[11];
+    int[] parents = new int[11];
+    for (int i = 0; i < 11; i++) {
+      ids[i] = i + 1;
+      names[i] = "N" + i;
+      salaries[i] = 0.1;
+      parents[i] = 0;
+    }
+    parents[0] = OrgSnapshot.NO_PARENT;
+    // just below 1.2 times the exact average of 0.1, but above 1.2 times the plain running sum
+    // of ten times 0.1 divided by ten
+    salaries[0] = Math.nextDown(0.12);
+    OrgSnapshot org = OrgSnapshot.of(ids, names, names, salaries, parents);
+
+    // when
+    List<SalaryViolation> violations = analyzer.salaryViolations(org)
+        .collect(Collectors.toList());
+
+    // then
+    assertEquals(1, violations.size());
+    assertEquals(SalaryViolation.Kind.UNDERPAID, violations.get(0).kind());
+  }
+
   @Test
   void testOverPaidManager() {
     // given
@@ -56,7 +95,8 @@ class SalaryAnalyzerTest {
     employees.put(2, subordinate1);
     employees.put(3, subordinate2);
 
-    String expectedOutput = "1|Alice Smith earns more than they should by 2500.00\r\n";
+    String expectedOutput = "1|Alice Smith earns more than they should by 2500.00"
+        + System.lineSeparator();
 
     // when
     String output = analyzer.analyzeSalaries(employees);
@@ -64,4 +104,76 @@ class SalaryAnalyzerTest {
     // then
     assertEquals(expectedOutput, output);
   }
-}
\ No newline at end of file
+
+  @Test
+  void testSalaryViolationsAreTyped() {
+    // given
+    OrgSnapshot org = OrgSnapshot.of(new int[]{1, 2, 3, 4, 5},
+        new String[]{"Alice", "Bob", "Charlie", "Dave", "Erin"},
+        new String[]{"Smith", "Jones", "Brown", "Stone", "Hill"},
+        new double[]{40000, 60000, 40000, 30000, 20000},
+        new int[]{OrgSnapshot.NO_PARENT, 0, 0, 1, 1});
+
+    // when
+    List<SalaryViolation> violations = analyzer.salaryViolations(org)
+        .collect(Collectors.toList());
+
+    // then
+    assertEquals(List.of(
+        new SalaryViolation(1, "Alice", "Smith", SalaryViolation.Kind.UNDERPAID, 20000),
+        new SalaryViolation(2, "Bob", "Jones", SalaryViolation.Kind.OVERPAID, 22500)),
+        violations);
+  }
+
+  @Test
+  void testWrittenViolationsMatchReport() throws Exception {
+    // given
+    OrgSnapshot org = randomOrg(300_000);
+    ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+    ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+    // when
+    TextReportWriter sequentialWriter = new TextReportWriter(sequential);
+    analyzer.writeSalaryViolations(org, sequentialWriter);
+    sequentialWriter.flush();
+    TextReportWriter parallelWriter = new TextReportWriter(parallel);
+    new SalaryAnalyzer(4).writeSalaryViolations(org, parallelWriter);
+    parallelWriter.flush();
+
+    // then
+    byte[] report = analyzer.analyzeSalaries(org).getBytes(Charset.defaultCharset());
+    assertArrayEquals(report, sequential.toByteArray());
+    assertArrayEquals(report, parallel.toByteArray());
+  }
+
+  @Test
+  void testParallelReportIsIdenticalToSequentialReport() {
+    // given
+    OrgSnapshot org = randomOrg(300_000);
+
+    // when
+    String sequential = analyzer.analyzeSalaries(org);
+    String parallel = new SalaryAnalyzer(4).analyzeSalaries(org);
+
+    // then
+    assertFalse(sequential.isEmpty());
+    assertEquals(sequential, parallel);
+  }
+
+  private static OrgSnapshot randomOrg(int size) {
+    Random random = new Random(42);
+    int[] ids = new int[size];
+    String[] firstNames = new String[size];
+    String[] lastNames = new String[size];
+    double[] salaries = new double[size];
+    int[] parents = new int[size];
+    for (int i = 0; i < size; i++) {
+      ids[i] = i + 1;
+      firstNames[i] = "First" + i;
+      lastNames[i] = "Last" + i;
+      salaries[i] = 20000 + random.nextInt(80000) + random.nextInt(100) / 100.0;
+      parents[i] = i == 0 ? OrgSnapshot.NO_PARENT : random.nextInt(i);
+    }
+    return OrgSnapshot.of(ids, firstNames, lastNames, salaries, parents);
+  }
+}
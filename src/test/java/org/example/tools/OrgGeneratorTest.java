@@ -0,0 +1,101 @@
+package org.example.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.example.model.OrgSnapshot;
+import org.example.repository.EmployeeRepository;
+import org.example.service.ReportingLineAnalyzer;
+import org.example.service.SalaryAnalyzer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class OrgGeneratorTest {
+
+  @TempDir
+  Path directory;
+
+  @ParameterizedTest
+  @CsvSource({
+      "5000, 4, uniform:2-10, uniform:30000-150000, 0.05, 0.01",
+      "5000, 7, 'pareto:1,1.5', 'normal:60000,20000', 0.2, 0.05",
+      "3000, 1, fixed:3, fixed:50000, 0.5, 0",
+      "1, 4, fixed:5, fixed:50000, 0.5, 0.5"
+  })
+  void testAnalyzersReportExactlyTheExpectedViolations(int headcount, int maxDepth,
+      String fanOut, String salaries, double salaryViolationRate, double depthViolationRate)
+      throws Exception {
+    // given
+    GeneratedOrg generated = new OrgGenerator(headcount, maxDepth, Distribution.parse(fanOut),
+        Distribution.parse(salaries), salaryViolationRate, depthViolationRate, 7).generate();
+    Path csvFile = directory.resolve("employees.csv");
+    generated.writeCsv(csvFile);
+
+    // when
+    OrgSnapshot org = new EmployeeRepository(EmployeeRepository.UNLIMITED)
+        .createOrgSnapshot(csvFile.toString());
+    String report = new SalaryAnalyzer().analyzeSalaries(org)
+        + new ReportingLineAnalyzer().analyzeReportingLines(org);
+
+    // then
+    assertEquals(headcount, org.size());
+    assertEquals(generated.expectedViolations(),
+        ReportParser.parse(Arrays.asList(report.split("\\R"))));
+  }
+
+  @Test
+  void testViolationRatesArePlanted() {
+    // when
+    GeneratedOrg org = new OrgGenerator(10_000, 4, Distribution.parse("uniform:2-6"),
+        Distribution.parse("uniform:30000-150000"), 0.1, 0.02, 1).generate();
+
+    // then
+    long tooDeep = org.expectedViolations().stream().filter(v -> v.startsWith("TOO_DEEP"))
+        .count();
+    long salaries = org.expectedViolations().size() - tooDeep;
+    assertEquals(200, tooDeep);
+    assertTrue(salaries > 0);
+    for (int id = 2; id <= org.size(); id++) {
+      assertEquals(org.depth(org.managerId(id)) + 1, org.depth(id));
+    }
+  }
+
+  @Test
+  void testSameSeedGeneratesSameFile() throws Exception {
+    // given
+    OrgGenerator generator = new OrgGenerator(1000, 4, Distribution.parse("uniform:2-10"),
+        Distribution.parse("uniform:30000-150000"), 0.05, 0.01, 3);
+    Path first = directory.resolve("first.csv");
+    Path second = directory.resolve("second.csv");
+
+    // when
+    generator.generate().writeCsv(first);
+    generator.generate().writeCsv(second);
+
+    // then
+    List<String> lines = Files.readAllLines(first);
+    assertEquals("Id,firstName,lastName,salary,managerId", lines.get(0));
+    assertEquals(1001, lines.size());
+    assertEquals(lines, Files.readAllLines(second));
+  }
+
+  @Test
+  void testInvalidSettings() {
+    Distribution fanOut = Distribution.parse("fixed:2");
+    assertThrows(IllegalArgumentException.class,
+        () -> new OrgGenerator(0, 4, fanOut, fanOut, 0, 0, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new OrgGenerator(10, 33, fanOut, fanOut, 0, 0, 1));
+    assertThrows(IllegalArgumentException.class,
+        () -> new OrgGenerator(10, 4, fanOut, fanOut, 1.5, 0, 1));
+    assertThrows(IllegalArgumentException.class, () -> Distribution.parse("uniform:10-2"));
+    assertThrows(IllegalArgumentException.class, () -> Distribution.parse("poisson:3"));
+  }
+}
@@ -0,0 +1,61 @@
+package org.example.tools;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SoakHarnessTest {
+
+  @Test
+  void testReportLinesAreParsed() {
+    // when
+    Set<String> violations = ReportParser.parse(Arrays.asList(
+        "Found 6 employees",
+        "5|Alice Hasacat earns less than they should by 4000.00",
+        "2|John Doe earns more than they should by 12,50",
+        "6|Brett Hardleaf has a reporting line that is too long by 2 levels"));
+
+    // then
+    assertEquals(Set.of("UNDERPAID 5", "OVERPAID 2", "TOO_DEEP 6 2"), violations);
+  }
+
+  @Test
+  void testFailedRunReturnsErrorAfterDeletingItsFiles(@TempDir Path directory) throws Exception {
+    // when
+    // the child JVM refuses to start with a malformed heap size
+    int exitCode = SoakHarness.run(new String[]{"--headcount=100", "--heap=lots",
+        "--work-dir=" + directory});
+
+    // then
+    assertEquals(1, exitCode);
+    try (Stream<Path> files = Files.list(directory)) {
+      assertEquals(List.of(), files.collect(Collectors.toList()));
+    }
+  }
+
+  @Test
+  void testEqualViolationsHaveNoProblems() {
+    assertTrue(SoakHarness.compare(Set.of("UNDERPAID 5"), Set.of("UNDERPAID 5")).isEmpty());
+  }
+
+  @Test
+  void testMissingAndUnexpectedViolationsAreListed() {
+    // when
+    List<String> problems = SoakHarness.compare(Set.of("UNDERPAID 5", "TOO_DEEP 6 2"),
+        Set.of("UNDERPAID 5", "TOO_DEEP 6 1", "OVERPAID 1"));
+
+    // then
+    assertEquals(List.of(
+        "1 violations were not reported: TOO_DEEP 6 2",
+        "2 unexpected violations were reported: OVERPAID 1, TOO_DEEP 6 1"), problems);
+  }
+}
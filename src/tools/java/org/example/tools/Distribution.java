@@ -0,0 +1,114 @@
+package org.example.tools;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * A random distribution of positive numbers, used for team sizes and salaries of generated
+ * organizations. Distributions are written as {@code <kind>:<parameters>}:
+ * <ul>
+ *   <li>{@code fixed:<value>}</li>
+ *   <li>{@code uniform:<min>-<max>}</li>
+ *   <li>{@code normal:<mean>,<standard deviation>}</li>
+ *   <li>{@code pareto:<minimum>,<shape>} - heavy-tailed, a few very large values</li>
+ * </ul>
+ */
+public final class Distribution {
+
+  private enum Kind {
+    FIXED, UNIFORM, NORMAL, PARETO
+  }
+
+  private final Kind kind;
+  private final double first;
+  private final double second;
+  private final String description;
+
+  private Distribution(Kind kind, double first, double second, String description) {
+    this.kind = kind;
+    this.first = first;
+    this.second = second;
+    this.description = description;
+  }
+
+  /**
+   * Parses a distribution.
+   *
+   * @throws IllegalArgumentException if the text is not a valid distribution
+   */
+  public static Distribution parse(String text) {
+    int separator = text.indexOf(':');
+    if (separator < 0) {
+      throw new IllegalArgumentException("Distribution must look like <kind>:<parameters>, but was "
+          + text);
+    }
+    String kindName = text.substring(0, separator).toUpperCase(Locale.ROOT);
+    String parameters = text.substring(separator + 1);
+    try {
+      Kind kind = Kind.valueOf(kindName);
+      switch (kind) {
+        case FIXED:
+          return create(kind, Double.parseDouble(parameters), 0, text);
+        case UNIFORM:
+          String[] range = parameters.split("-", 2);
+          return create(kind, Double.parseDouble(range[0]), Double.parseDouble(range[1]), text);
+        default:
+          String[] pair = parameters.split(",", 2);
+          return create(kind, Double.parseDouble(pair[0]), Double.parseDouble(pair[1]), text);
+      }
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      throw new IllegalArgumentException("Invalid distribution: " + text);
+    }
+  }
+
+  private static Distribution create(Kind kind, double first, double second, String description) {
+    boolean valid;
+    switch (kind) {
+      case FIXED:
+        valid = first > 0;
+        break;
+      case UNIFORM:
+        valid = first > 0 && second >= first;
+        break;
+      case NORMAL:
+        valid = first > 0 && second >= 0;
+        break;
+      default:
+        valid = first > 0 && second > 0;
+        break;
+    }
+    if (!valid) {
+      throw new IllegalArgumentException("Invalid distribution: " + description);
+    }
+    return new Distribution(kind, first, second, description);
+  }
+
+  /**
+   * Draws a value. Normal distributions may draw values below zero, so callers clamp the result to
+   * the range they need.
+   */
+  public double sample(SplittableRandom random) {
+    switch (kind) {
+      case FIXED:
+        return first;
+      case UNIFORM:
+        return first == second ? first : random.nextDouble(first, second);
+      case NORMAL:
+        return first + second * gaussian(random);
+      default:
+        return first / Math.pow(1 - random.nextDouble(), 1 / second);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return description;
+  }
+
+  private static double gaussian(SplittableRandom random) {
+    // Box-Muller transform; SplittableRandom has no nextGaussian on this JDK
+    double u = 1 - random.nextDouble();
+    double v = random.nextDouble();
+    return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+  }
+}
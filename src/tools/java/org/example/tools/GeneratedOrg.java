@@ -0,0 +1,118 @@
+package org.example.tools;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An organization created by {@link OrgGenerator}. Employee {@code i} has the id {@code i + 1}, and
+ * every manager has a smaller index than their team. Violations are described by the strings
+ * {@code UNDERPAID <id>}, {@code OVERPAID <id>} and {@code TOO_DEEP <id> <excess levels>}, which
+ * {@link ReportParser} produces from the analyzer output as well.
+ */
+public final class GeneratedOrg {
+
+  static final int NO_MANAGER = -1;
+  static final byte UNDERPAID = 1;
+  static final byte OVERPAID = 2;
+
+  private static final String HEADERS = "Id,firstName,lastName,salary,managerId";
+
+  private final int[] managers;
+  private final int[] depths;
+  private final long[] salaries;
+  private final byte[] salaryViolations;
+  private final int[] rowOrder;
+
+  GeneratedOrg(int[] managers, int[] depths, long[] salaries, byte[] salaryViolations,
+      int[] rowOrder) {
+    this.managers = managers;
+    this.depths = depths;
+    this.salaries = salaries;
+    this.salaryViolations = salaryViolations;
+    this.rowOrder = rowOrder;
+  }
+
+  public int size() {
+    return managers.length;
+  }
+
+  /**
+   * Returns the id of the employee's manager, or 0 for the CEO.
+   */
+  public int managerId(int id) {
+    int manager = managers[id - 1];
+    return manager == NO_MANAGER ? 0 : manager + 1;
+  }
+
+  public int depth(int id) {
+    return depths[id - 1];
+  }
+
+  public long salary(int id) {
+    return salaries[id - 1];
+  }
+
+  /**
+   * Returns every violation the analyzers have to report for this organization.
+   */
+  public Set<String> expectedViolations() {
+    Set<String> violations = new HashSet<>();
+    for (int i = 0; i < managers.length; i++) {
+      int id = i + 1;
+      if (salaryViolations[i] == UNDERPAID) {
+        violations.add(ReportParser.underpaid(id));
+      } else if (salaryViolations[i] == OVERPAID) {
+        violations.add(ReportParser.overpaid(id));
+      }
+      if (depths[i] > OrgGenerator.ALLOWED_DEPTH) {
+        violations.add(ReportParser.tooDeep(id, depths[i] - OrgGenerator.ALLOWED_DEPTH));
+      }
+    }
+    return violations;
+  }
+
+  /**
+   * Writes the organization as an employee CSV file with the rows in random order.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  public void writeCsv(Path file) throws IOException {
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write(HEADERS);
+      writer.newLine();
+      for (int row : rowOrder) {
+        int id = row + 1;
+        writer.write(Integer.toString(id));
+        writer.write(",First");
+        writer.write(Integer.toString(id));
+        writer.write(",Last");
+        writer.write(Integer.toString(id % 997));
+        writer.write(',');
+        writer.write(Long.toString(salaries[row]));
+        writer.write(',');
+        if (managers[row] != NO_MANAGER) {
+          writer.write(Integer.toString(managers[row] + 1));
+        }
+        writer.newLine();
+      }
+    }
+  }
+
+  /**
+   * Writes the expected violations, one per line and sorted.
+   *
+   * @throws IOException if the file cannot be written
+   */
+  public void writeExpectedViolations(Path file) throws IOException {
+    List<String> violations = new ArrayList<>(expectedViolations());
+    violations.sort(null);
+    Files.write(file, violations, StandardCharsets.UTF_8);
+  }
+}
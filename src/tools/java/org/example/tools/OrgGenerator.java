@@ -0,0 +1,259 @@
+package org.example.tools;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates valid employee organizations of any size with a known set of salary and reporting line
+ * violations, for reproducing production-scale inputs locally.
+ *
+ * <p>The regular employees form a tree that is filled breadth-first: every manager gets a team size
+ * drawn from the fan-out distribution, and employees at the maximum depth get no team. When the
+ * tree is full before the headcount is reached, the remaining employees join random managers one
+ * level above the maximum depth. Depth violators are added afterwards below employees that are
+ * already at the allowed reporting depth, so they build chains of varying length.
+ *
+ * <p>Salaries are assigned bottom-up. Employees without a team draw their salary from the salary
+ * distribution, and managers are paid 25% to 45% above the average of their direct reports, which
+ * keeps them clear of the 20% to 50% band even after rounding to whole amounts. A planted share of
+ * managers is paid below or above the band instead.
+ *
+ * <p>Run {@link #main(String[])} to write a CSV file together with its expected violations.
+ */
+public final class OrgGenerator {
+
+  /**
+   * Options understood by {@link #fromOptions(ToolOptions)}.
+   */
+  static final Set<String> OPTION_NAMES = Set.of("headcount", "max-depth", "fan-out", "salary",
+      "salary-violation-rate", "depth-violation-rate", "seed");
+
+  /**
+   * The deepest reporting line the analyzers accept, see {@code ReportingLineAnalyzer}.
+   */
+  static final int ALLOWED_DEPTH = 4;
+
+  /**
+   * Salaries grow by about 35% per level, so deeper trees would overflow the salary column.
+   */
+  static final int MAXIMUM_TREE_DEPTH = 32;
+
+  private static final double MIN_SALARY = 1000;
+
+  private final int headcount;
+  private final int maxDepth;
+  private final Distribution fanOut;
+  private final Distribution salaries;
+  private final double salaryViolationRate;
+  private final double depthViolationRate;
+  private final long seed;
+
+  /**
+   * Creates a generator.
+   *
+   * @param headcount           the number of employees, including the CEO
+   * @param maxDepth            the reporting depth of the regular employees, where depths above
+   *                            {@value #ALLOWED_DEPTH} are violations in their own right
+   * @param fanOut              the distribution of team sizes
+   * @param salaries            the distribution of salaries of employees without a team
+   * @param salaryViolationRate the share of managers paid outside of the allowed band
+   * @param depthViolationRate  the share of employees placed below the allowed reporting depth
+   * @param seed                the random seed, equal seeds generate equal organizations
+   */
+  public OrgGenerator(int headcount, int maxDepth, Distribution fanOut, Distribution salaries,
+      double salaryViolationRate, double depthViolationRate, long seed) {
+    if (headcount < 1) {
+      throw new IllegalArgumentException("Headcount must be positive, but was " + headcount);
+    }
+    if (maxDepth < 1 || maxDepth > MAXIMUM_TREE_DEPTH) {
+      throw new IllegalArgumentException(
+          "Maximum depth must be between 1 and " + MAXIMUM_TREE_DEPTH + ", but was " + maxDepth);
+    }
+    requireRate("Salary violation rate", salaryViolationRate);
+    requireRate("Depth violation rate", depthViolationRate);
+    this.headcount = headcount;
+    this.maxDepth = maxDepth;
+    this.fanOut = fanOut;
+    this.salaries = salaries;
+    this.salaryViolationRate = salaryViolationRate;
+    this.depthViolationRate = depthViolationRate;
+    this.seed = seed;
+  }
+
+  /**
+   * Creates a generator from command line options, using defaults for the options not given.
+   */
+  static OrgGenerator fromOptions(ToolOptions options) {
+    return new OrgGenerator(
+        options.getInt("headcount", 10_000),
+        options.getInt("max-depth", ALLOWED_DEPTH),
+        Distribution.parse(options.getString("fan-out", "uniform:2-10")),
+        Distribution.parse(options.getString("salary", "uniform:30000-150000")),
+        options.getDouble("salary-violation-rate", 0.05),
+        options.getDouble("depth-violation-rate", 0.01),
+        options.getLong("seed", 42));
+  }
+
+  /**
+   * Generates the organization.
+   */
+  public GeneratedOrg generate() {
+    SplittableRandom random = new SplittableRandom(seed);
+    int[] managers = new int[headcount];
+    int[] depths = new int[headcount];
+    managers[0] = GeneratedOrg.NO_MANAGER;
+
+    int depthViolators = (int) Math.min(Math.round(headcount * depthViolationRate),
+        headcount - 1);
+    int regular = headcount - depthViolators;
+    placeRegularEmployees(random, managers, depths, regular);
+    placeDepthViolators(random, managers, depths, regular);
+
+    long[] salaryColumn = new long[headcount];
+    byte[] salaryViolations = new byte[headcount];
+    assignSalaries(random, managers, salaryColumn, salaryViolations);
+
+    int[] rowOrder = shuffledRowOrder(random);
+    return new GeneratedOrg(managers, depths, salaryColumn, salaryViolations, rowOrder);
+  }
+
+  /**
+   * Writes a CSV file and its expected violations. Options: {@code --output=<file>} plus
+   * {@code --headcount}, {@code --max-depth}, {@code --fan-out}, {@code --salary},
+   * {@code --salary-violation-rate}, {@code --depth-violation-rate} and {@code --seed}. The
+   * expected violations go to {@code <file>.expected}.
+   */
+  public static void main(String[] args) throws IOException {
+    Set<String> names = new HashSet<>(OPTION_NAMES);
+    names.add("output");
+    ToolOptions options = ToolOptions.parse(args, names);
+    if (!options.has("output")) {
+      throw new IllegalArgumentException("Option --output=<file> is required");
+    }
+    Path output = Paths.get(options.getString("output", null));
+
+    GeneratedOrg org = fromOptions(options).generate();
+    org.writeCsv(output);
+    Path expected = output.resolveSibling(output.getFileName() + ".expected");
+    org.writeExpectedViolations(expected);
+    System.out.printf("Wrote %d employees to %s and %d expected violations to %s%n",
+        org.size(), output, org.expectedViolations().size(), expected);
+  }
+
+  private void placeRegularEmployees(SplittableRandom random, int[] managers, int[] depths,
+      int regular) {
+    int[] openManagers = new int[regular];
+    int head = 0;
+    int tail = 0;
+    openManagers[tail++] = 0;
+
+    int employee = 1;
+    while (employee < regular && head < tail) {
+      int manager = openManagers[head++];
+      int teamSize = Math.max(1, (int) Math.round(fanOut.sample(random)));
+      for (int member = 0; member < teamSize && employee < regular; member++, employee++) {
+        managers[employee] = manager;
+        depths[employee] = depths[manager] + 1;
+        if (depths[employee] < maxDepth) {
+          openManagers[tail++] = employee;
+        }
+      }
+    }
+
+    // the tree is full: the remaining employees join managers one level above the maximum depth
+    int lastManagerCount = 0;
+    for (int i = 0; i < employee; i++) {
+      if (depths[i] == maxDepth - 1) {
+        openManagers[lastManagerCount++] = i;
+      }
+    }
+    for (; employee < regular; employee++) {
+      int manager = openManagers[random.nextInt(lastManagerCount)];
+      managers[employee] = manager;
+      depths[employee] = depths[manager] + 1;
+    }
+  }
+
+  private void placeDepthViolators(SplittableRandom random, int[] managers, int[] depths,
+      int regular) {
+    int[] deepEmployees = new int[headcount];
+    int deepCount = 0;
+    int deepest = 0;
+    for (int i = 0; i < regular; i++) {
+      if (depths[i] >= ALLOWED_DEPTH) {
+        deepEmployees[deepCount++] = i;
+      }
+      if (depths[i] > depths[deepest]) {
+        deepest = i;
+      }
+    }
+
+    for (int employee = regular; employee < headcount; employee++) {
+      // until someone reaches the allowed depth, extend the deepest reporting line towards it
+      int manager = deepCount == 0 ? deepest : deepEmployees[random.nextInt(deepCount)];
+      managers[employee] = manager;
+      depths[employee] = depths[manager] + 1;
+      deepest = employee;
+      if (depths[employee] >= ALLOWED_DEPTH) {
+        deepEmployees[deepCount++] = employee;
+      }
+    }
+  }
+
+  /**
+   * Assigns salaries from the last employee to the first. Every manager is placed before their team,
+   * so all direct reports of an employee already have a salary when the employee is reached.
+   */
+  private void assignSalaries(SplittableRandom random, int[] managers, long[] salaryColumn,
+      byte[] salaryViolations) {
+    double[] teamSalarySums = new double[headcount];
+    int[] teamSizes = new int[headcount];
+    for (int employee = headcount - 1; employee >= 0; employee--) {
+      long salary;
+      if (teamSizes[employee] == 0) {
+        salary = Math.round(Math.max(MIN_SALARY, salaries.sample(random)));
+      } else {
+        double average = teamSalarySums[employee] / teamSizes[employee];
+        double factor;
+        if (random.nextDouble() < salaryViolationRate) {
+          boolean underpaid = random.nextBoolean();
+          salaryViolations[employee] = underpaid ? GeneratedOrg.UNDERPAID : GeneratedOrg.OVERPAID;
+          factor = underpaid ? random.nextDouble(0.8, 1.15) : random.nextDouble(1.55, 1.9);
+        } else {
+          factor = random.nextDouble(1.25, 1.45);
+        }
+        salary = Math.round(average * factor);
+      }
+      salaryColumn[employee] = salary;
+      int manager = managers[employee];
+      if (manager != GeneratedOrg.NO_MANAGER) {
+        teamSalarySums[manager] += salary;
+        teamSizes[manager]++;
+      }
+    }
+  }
+
+  private int[] shuffledRowOrder(SplittableRandom random) {
+    int[] rowOrder = new int[headcount];
+    for (int i = 0; i < headcount; i++) {
+      rowOrder[i] = i;
+    }
+    for (int i = headcount - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int swap = rowOrder[i];
+      rowOrder[i] = rowOrder[j];
+      rowOrder[j] = swap;
+    }
+    return rowOrder;
+  }
+
+  private static void requireRate(String name, double rate) {
+    if (!(rate >= 0 && rate <= 1)) {
+      throw new IllegalArgumentException(name + " must be between 0 and 1, but was " + rate);
+    }
+  }
+}
@@ -0,0 +1,62 @@
+package org.example.tools;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Extracts the reported violations from the output of {@code EmployeeAnalyzerRunner}, in the form
+ * described by {@link GeneratedOrg}.
+ */
+final class ReportParser {
+
+  private static final Pattern UNDERPAID_LINE = Pattern.compile(
+      "^(\\d+)\\|.* earns less than they should by .*$");
+  private static final Pattern OVERPAID_LINE = Pattern.compile(
+      "^(\\d+)\\|.* earns more than they should by .*$");
+  private static final Pattern TOO_DEEP_LINE = Pattern.compile(
+      "^(\\d+)\\|.* has a reporting line that is too long by (\\d+) levels$");
+
+  private ReportParser() {
+  }
+
+  static String underpaid(int id) {
+    return "UNDERPAID " + id;
+  }
+
+  static String overpaid(int id) {
+    return "OVERPAID " + id;
+  }
+
+  static String tooDeep(int id, int excessLevels) {
+    return "TOO_DEEP " + id + " " + excessLevels;
+  }
+
+  /**
+   * Returns the violations reported in the given output lines. Lines that are not report lines are
+   * ignored.
+   */
+  static Set<String> parse(List<String> lines) {
+    Set<String> violations = new HashSet<>();
+    for (String line : lines) {
+      Matcher matcher = UNDERPAID_LINE.matcher(line);
+      if (matcher.matches()) {
+        violations.add(underpaid(Integer.parseInt(matcher.group(1))));
+        continue;
+      }
+      matcher = OVERPAID_LINE.matcher(line);
+      if (matcher.matches()) {
+        violations.add(overpaid(Integer.parseInt(matcher.group(1))));
+        continue;
+      }
+      matcher = TOO_DEEP_LINE.matcher(line);
+      if (matcher.matches()) {
+        violations.add(tooDeep(Integer.parseInt(matcher.group(1)),
+            Integer.parseInt(matcher.group(2))));
+      }
+    }
+    return violations;
+  }
+}
@@ -0,0 +1,144 @@
+package org.example.tools;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import org.example.BigCompanyAnalyzer;
+
+/**
+ * End-to-end soak test: generates an organization with {@link OrgGenerator}, runs
+ * {@link BigCompanyAnalyzer} on it in a child JVM with a fixed maximum heap and {@code --stats},
+ * prints the wall time, peak RSS and GC activity of every phase the child recorded, and fails
+ * unless exactly the planted violations are reported.
+ *
+ * <p>Options: the {@link OrgGenerator} options plus {@code --heap=<size>} (the child's
+ * {@code -Xmx}, default {@value #DEFAULT_HEAP}), {@code --work-dir=<directory>} and
+ * {@code --keep-files}. The exit code is 0 on success and 1 on a mismatch or a failed run.
+ */
+public final class SoakHarness {
+
+  private static final String DEFAULT_HEAP = "512m";
+  private static final int MAXIMUM_LISTED_VIOLATIONS = 10;
+
+  private SoakHarness() {
+  }
+
+  public static void main(String[] args) throws IOException, InterruptedException {
+    int exitCode = run(args);
+    if (exitCode != 0) {
+      System.exit(exitCode);
+    }
+  }
+
+  /**
+   * Generates the organization, analyzes it in a child JVM and compares the reports. The files
+   * are deleted before this method returns, unless {@code --keep-files} is given.
+   *
+   * @return the exit code: 0 on success, 1 on a mismatch or a failed run
+   */
+  static int run(String[] args) throws IOException, InterruptedException {
+    Set<String> names = new HashSet<>(OrgGenerator.OPTION_NAMES);
+    names.addAll(Set.of("heap", "work-dir", "keep-files"));
+    ToolOptions options = ToolOptions.parse(args, names);
+    String heap = options.getString("heap", DEFAULT_HEAP);
+    boolean temporaryDirectory = !options.has("work-dir");
+    Path workDirectory = temporaryDirectory ? Files.createTempDirectory("soak")
+        : Files.createDirectories(Paths.get(options.getString("work-dir", null)));
+
+    Path csvFile = workDirectory.resolve("employees.csv");
+    Path outputFile = workDirectory.resolve("output.txt");
+    Path statisticsFile = workDirectory.resolve("phases.json");
+    try {
+      System.out.printf("Generating employees into %s%n", csvFile);
+      GeneratedOrg org = OrgGenerator.fromOptions(options).generate();
+      org.writeCsv(csvFile);
+      Set<String> expected = org.expectedViolations();
+
+      System.out.printf("Analyzing %d employees with -Xmx%s%n", org.size(), heap);
+      long start = System.nanoTime();
+      int exitCode = runChild(heap, csvFile, outputFile, statisticsFile);
+      long wallMillis = (System.nanoTime() - start) / 1_000_000;
+      if (exitCode != 0) {
+        System.out.printf("FAILED: the analyzer exited with code %d%n", exitCode);
+        return 1;
+      }
+
+      System.out.printf("The analyzer finished in %d ms, its phases: %s%n", wallMillis,
+          Files.readString(statisticsFile, StandardCharsets.UTF_8).trim());
+
+      Set<String> reported = ReportParser.parse(
+          Files.readAllLines(outputFile, StandardCharsets.UTF_8));
+      List<String> problems = compare(expected, reported);
+      if (!problems.isEmpty()) {
+        problems.forEach(problem -> System.out.println("FAILED: " + problem));
+        return 1;
+      }
+      System.out.printf("OK: all %d planted violations were reported exactly%n", expected.size());
+      return 0;
+    } finally {
+      if (!options.has("keep-files")) {
+        Files.deleteIfExists(csvFile);
+        Files.deleteIfExists(outputFile);
+        Files.deleteIfExists(statisticsFile);
+        if (temporaryDirectory) {
+          Files.deleteIfExists(workDirectory);
+        }
+      }
+    }
+  }
+
+  /**
+   * Compares the expected with the reported violations.
+   *
+   * @return a description of every difference, empty if both sets are equal
+   */
+  static List<String> compare(Set<String> expected, Set<String> reported) {
+    List<String> problems = new ArrayList<>();
+    Set<String> missing = new TreeSet<>(expected);
+    missing.removeAll(reported);
+    Set<String> unexpected = new TreeSet<>(reported);
+    unexpected.removeAll(expected);
+    if (!missing.isEmpty()) {
+      problems.add(missing.size() + " violations were not reported: " + firstOf(missing));
+    }
+    if (!unexpected.isEmpty()) {
+      problems.add(unexpected.size() + " unexpected violations were reported: "
+          + firstOf(unexpected));
+    }
+    return problems;
+  }
+
+  private static int runChild(String heap, Path csvFile, Path outputFile, Path statisticsFile)
+      throws IOException, InterruptedException {
+    Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+    ProcessBuilder builder = new ProcessBuilder(java.toString(),
+        "-Xmx" + heap,
+        "-cp", System.getProperty("java.class.path"),
+        BigCompanyAnalyzer.class.getName(),
+        csvFile.toString(),
+        "--max-employees=unlimited",
+        "--stats=" + statisticsFile);
+    builder.redirectOutput(outputFile.toFile());
+    builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+    return builder.start().waitFor();
+  }
+
+  private static String firstOf(Set<String> violations) {
+    List<String> listed = new ArrayList<>();
+    for (String violation : violations) {
+      if (listed.size() == MAXIMUM_LISTED_VIOLATIONS) {
+        listed.add("...");
+        break;
+      }
+      listed.add(violation);
+    }
+    return String.join(", ", listed);
+  }
+}
@@ -0,0 +1,80 @@
+package org.example.tools;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * {@code --name=value} arguments of the command line tools in this package.
+ */
+final class ToolOptions {
+
+  private static final String OPTION_PREFIX = "--";
+
+  private final Map<String, String> values = new HashMap<>();
+
+  private ToolOptions() {
+  }
+
+  /**
+   * Parses the arguments.
+   *
+   * @param args  the program arguments
+   * @param names the option names the tool understands
+   * @throws IllegalArgumentException if an argument is not a known option
+   */
+  static ToolOptions parse(String[] args, Set<String> names) {
+    ToolOptions options = new ToolOptions();
+    for (String arg : args) {
+      if (!arg.startsWith(OPTION_PREFIX)) {
+        throw new IllegalArgumentException("Unexpected argument: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      String name = arg.substring(OPTION_PREFIX.length(), separator < 0 ? arg.length()
+          : separator);
+      if (!names.contains(name)) {
+        throw new IllegalArgumentException("Unknown option: " + arg);
+      }
+      options.values.put(name, separator < 0 ? "" : arg.substring(separator + 1));
+    }
+    return options;
+  }
+
+  boolean has(String name) {
+    return values.containsKey(name);
+  }
+
+  String getString(String name, String defaultValue) {
+    return values.getOrDefault(name, defaultValue);
+  }
+
+  int getInt(String name, int defaultValue) {
+    String value = values.get(name);
+    try {
+      return value == null ? defaultValue : Integer.parseInt(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + name + " expects a number, but was " + value);
+    }
+  }
+
+  long getLong(String name, long defaultValue) {
+    String value = values.get(name);
+    try {
+      return value == null ? defaultValue : Long.parseLong(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + name + " expects a number, but was " + value);
+    }
+  }
+
+  double getDouble(String name, double defaultValue) {
+    String value = values.get(name);
+    try {
+      return value == null ? defaultValue : Double.parseDouble(value);
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException(
+          "Option " + OPTION_PREFIX + name + " expects a number, but was " + value);
+    }
+  }
+}